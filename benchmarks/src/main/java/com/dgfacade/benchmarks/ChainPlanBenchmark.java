@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.benchmarks;
+
+import com.dgfacade.common.util.JsonUtil;
+import com.dgfacade.server.chain.ChainPlan;
+import com.dgfacade.server.handler.ChainHandler;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The chain work done per request, with the chain compiled once ({@code cachedPlan}) and
+ * re-parsed from its definition on every request ({@code perRequestParse}), as
+ * {@code ChainHandler} did before {@link ChainPlan}s. {@code compileOnly} is the parsing alone.
+ *
+ * <p>Handlers are not executed: each step's {@code when} condition is tested, its
+ * {@code payload_mapping} resolved and a fixed output merged or joined, the way
+ * {@code ChainHandler} walks a linear plan. References are resolved by
+ * {@link ChainHandler.Context}, the handler's own pipeline state. Chains are read from
+ * {@code config/chains}, or the directory in the {@code dgfacade.chains.dir} system property.</p>
+ *
+ * <pre>{@code java -jar benchmarks/target/benchmarks.jar ChainPlanBenchmark}</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChainPlanBenchmark {
+
+    @Param({"etl-pipeline", "parallel-analysis"})
+    public String chain;
+
+    private Map<String, Object> definition;
+    private ChainPlan plan;
+    private Map<String, Object> payload;
+    private final Map<String, Object> stepOutput = Map.of(
+            "result", 42.5, "hash", "9e107d9d372bb6826bd81d3542a419d6", "status", "OK");
+
+    @Setup
+    public void setup() throws Exception {
+        File file = new File(System.getProperty("dgfacade.chains.dir", "config/chains"), chain + ".json");
+        definition = JsonUtil.fromFile(file, new TypeReference<Map<String, Object>>() {});
+        plan = ChainPlan.compile(definition, chain);
+
+        payload = new HashMap<>();
+        payload.put("source_data", Map.of("order", Map.of("id", "A-1001", "lines", List.of(1, 2, 3))));
+        payload.put("source_format", "json");
+        payload.put("customer_name", "ada lovelace");
+        payload.put("unit_price", 19.99);
+        payload.put("quantity", 3);
+        payload.put("message", "the quick brown fox jumps over the lazy dog");
+    }
+
+    @Benchmark
+    public Object cachedPlan() {
+        return walk(plan);
+    }
+
+    @Benchmark
+    public Object perRequestParse() {
+        return walk(ChainPlan.compile(definition, chain));
+    }
+
+    @Benchmark
+    public Object compileOnly() {
+        return ChainPlan.compile(definition, chain);
+    }
+
+    // ─── Plan walk ─────────────────────────────────────────────────────
+
+    private Map<String, Object> walk(ChainPlan compiled) {
+        ChainHandler.Context ctx = new ChainHandler.Context(payload);
+        for (ChainPlan.Step step : compiled.getSteps()) {
+            if (step.isParallel()) {
+                // Branches resolve against a snapshot; their outputs are recorded in branch order after
+                ChainHandler.Context snapshot = ctx.snapshot();
+                List<Map<String, Object>> outputs = new ArrayList<>(step.getBranches().size());
+                for (ChainPlan.Step branch : step.getBranches()) outputs.add(run(branch, snapshot));
+                Map<String, Object> joined = new LinkedHashMap<>();
+                for (int i = 0; i < outputs.size(); i++) {
+                    String alias = step.getBranches().get(i).getAlias();
+                    step.getJoin().collect(joined, alias, outputs.get(i));
+                    ctx.putStepOutput(alias, outputs.get(i));
+                }
+                ctx.setPrev(step.getJoin().apply(ctx.getPrev(), joined));
+                continue;
+            }
+            if (step.getCondition() != null && !step.getCondition().test(ctx)) continue;
+            Map<String, Object> output = run(step, ctx);
+            ctx.putStepOutput(step.getAlias(), output);
+            ctx.setPrev(step.getMerge().apply(ctx.getPrev(), output, step.getAlias()));
+        }
+        return ctx.getPrev();
+    }
+
+    /** Resolve the step's input as the handler would receive it; return the fixed output. */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> run(ChainPlan.Step step, ChainHandler.Context ctx) {
+        Map<String, Object> input = step.getMapping() != null
+                ? (Map<String, Object>) step.getMapping().resolve(ctx)
+                : new LinkedHashMap<>(ctx.getPrev());
+        Map<String, Object> output = new LinkedHashMap<>(stepOutput);
+        output.put("input_size", input.size());
+        return output;
+    }
+}
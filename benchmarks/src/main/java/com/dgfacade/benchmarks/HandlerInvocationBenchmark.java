@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.benchmarks;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.server.handler.HandlerAdapter;
+import com.dgfacade.server.handler.StringTransformHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of calling a POJO handler's execute method: a direct call, {@code Method.invoke} (how
+ * {@code DGHandlerProxy} used to dispatch) and the {@link HandlerAdapter} lambda binding.
+ *
+ * <p>{@code noop*} calls a handler that returns its payload, so the numbers are the dispatch
+ * overhead alone; {@code stringTransform*} calls {@link StringTransformHandler} to show how much
+ * of a real handler's time that overhead is.</p>
+ *
+ * <pre>{@code java -jar benchmarks/target/benchmarks.jar HandlerInvocationBenchmark}</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandlerInvocationBenchmark {
+
+    /** The smallest possible convention handler: {@code process(Map)} returning its argument. */
+    public static class NoopHandler {
+        public Map<String, Object> process(Map<String, Object> payload) {
+            return payload;
+        }
+    }
+
+    private NoopHandler noop;
+    private Method noopMethod;
+    private HandlerAdapter noopAdapter;
+
+    private StringTransformHandler stringTransform;
+    private Method stringTransformMethod;
+    private HandlerAdapter stringTransformAdapter;
+
+    private Map<String, Object> payload;
+    private DGRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        payload = new HashMap<>();
+        payload.put("operation", "UPPER");
+        payload.put("input", "hello world");
+        request = new DGRequest("STRING_TRANSFORM", "bench", payload);
+
+        noop = new NoopHandler();
+        noopMethod = NoopHandler.class.getMethod("process", Map.class);
+        noopAdapter = HandlerAdapter.forClass(NoopHandler.class);
+
+        stringTransform = new StringTransformHandler();
+        stringTransform.init(Map.of());
+        stringTransformMethod = StringTransformHandler.class.getMethod("process", Map.class);
+        stringTransformAdapter = HandlerAdapter.forClass(StringTransformHandler.class);
+    }
+
+    // ─── Dispatch overhead ─────────────────────────────────────────────
+
+    @Benchmark
+    public Object noopDirect() {
+        return noop.process(request.getPayload());
+    }
+
+    @Benchmark
+    public Object noopReflective() throws Exception {
+        return noopMethod.invoke(noop, request.getPayload());
+    }
+
+    @Benchmark
+    public Object noopGenerated() {
+        return noopAdapter.execute(noop, request);
+    }
+
+    // ─── A real handler ────────────────────────────────────────────────
+
+    @Benchmark
+    public Object stringTransformDirect() {
+        return stringTransform.process(request.getPayload());
+    }
+
+    @Benchmark
+    public Object stringTransformReflective() throws Exception {
+        return stringTransformMethod.invoke(stringTransform, request.getPayload());
+    }
+
+    @Benchmark
+    public Object stringTransformGenerated() {
+        return stringTransformAdapter.execute(stringTransform, request);
+    }
+}
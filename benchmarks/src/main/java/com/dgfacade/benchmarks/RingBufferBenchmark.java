@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.benchmarks;
+
+import com.dgfacade.common.util.TimeBoundedRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the recent-state buffer that every request writes to
+ * ({@code ExecutionEngine.recentStates}) while the monitoring UI reads it.
+ *
+ * <p>{@code ring} is {@link TimeBoundedRingBuffer}; {@code locked} reproduces the Scala
+ * {@code CircularBuffer} it replaced — one lock around a deque, {@code Instant.now()} and
+ * eviction on every add, and a full copy under the lock on every read.</p>
+ *
+ * <ul>
+ *   <li>{@code writers} — four threads adding</li>
+ *   <li>{@code mixed} — three threads adding while one thread snapshots the buffer</li>
+ * </ul>
+ *
+ * <pre>{@code java -jar benchmarks/target/benchmarks.jar RingBufferBenchmark}</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RingBufferBenchmark {
+
+    /** The operations the engine uses, over both implementations. */
+    interface Buffer<T> {
+        void add(T item);
+        List<T> getAll();
+    }
+
+    @Param({"ring", "locked"})
+    public String impl;
+
+    @Param({"1000"})
+    public int capacity;
+
+    private Buffer<Object> buffer;
+    private final Object item = new Object();
+
+    @Setup
+    public void setup() {
+        if ("locked".equals(impl)) {
+            buffer = new LockedBuffer<>(capacity, Duration.ofHours(1));
+        } else {
+            TimeBoundedRingBuffer<Object> ring = new TimeBoundedRingBuffer<>(capacity, Duration.ofHours(1));
+            buffer = new Buffer<>() {
+                @Override public void add(Object value) { ring.add(value); }
+                @Override public List<Object> getAll() { return ring.getAll(); }
+            };
+        }
+        for (int i = 0; i < capacity; i++) buffer.add(item);
+    }
+
+    // ─── Writers only ──────────────────────────────────────────────────
+
+    @Benchmark
+    @Group("writers")
+    @GroupThreads(4)
+    public void writersAdd() {
+        buffer.add(item);
+    }
+
+    // ─── Writers with a reader ─────────────────────────────────────────
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedAdd() {
+        buffer.add(item);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<Object> mixedGetAll() {
+        return buffer.getAll();
+    }
+
+    // ─── Baseline ──────────────────────────────────────────────────────
+
+    /** The former Scala {@code CircularBuffer}, transcribed. */
+    static final class LockedBuffer<T> implements Buffer<T> {
+        private record Entry<T>(T value, Instant timestamp) {}
+
+        private final ArrayDeque<Entry<T>> deque = new ArrayDeque<>();
+        private final int maxSize;
+        private final Duration maxAge;
+
+        LockedBuffer(int maxSize, Duration maxAge) {
+            this.maxSize = maxSize;
+            this.maxAge = maxAge;
+        }
+
+        @Override
+        public synchronized void add(T item) {
+            evictOld();
+            if (deque.size() >= maxSize) deque.removeFirst();
+            deque.addLast(new Entry<>(item, Instant.now()));
+        }
+
+        @Override
+        public synchronized List<T> getAll() {
+            evictOld();
+            List<T> result = new ArrayList<>();
+            for (Entry<T> e : deque) result.add(e.value());
+            return result;
+        }
+
+        private void evictOld() {
+            Instant cutoff = Instant.now().minus(maxAge);
+            while (!deque.isEmpty() && deque.peekFirst().timestamp().isBefore(cutoff)) deque.removeFirst();
+        }
+    }
+}
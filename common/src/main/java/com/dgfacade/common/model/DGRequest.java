@@ -37,6 +37,18 @@ public class DGRequest {
     @JsonProperty("ttl_minutes")
     private int ttlMinutes = 30;
 
+    /** Scheduling priority, 0 (lowest) to 9 (highest); unset means {@link #PRIORITY_DEFAULT}. */
+    @JsonProperty("priority")
+    private Integer priority;
+
+    /** Absolute deadline; the request is dropped if it has not started executing by then. */
+    @JsonProperty("deadline")
+    private Instant deadline;
+
+    public static final int PRIORITY_DEFAULT = 5;
+    /** Default for requests arriving through batch ingesters (Kafka, FileSystem, ...). */
+    public static final int PRIORITY_BATCH = 2;
+
     // Internal fields set by the server
     private String resolvedUserId;
     private String sourceChannel;
@@ -74,6 +86,17 @@ public class DGRequest {
     public int getTtlMinutes() { return ttlMinutes; }
     public void setTtlMinutes(int ttlMinutes) { this.ttlMinutes = ttlMinutes; }
 
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    /** Priority used for scheduling, clamped to 0-9. */
+    public int getEffectivePriority() {
+        return priority == null ? PRIORITY_DEFAULT : Math.max(0, Math.min(9, priority));
+    }
+
+    public Instant getDeadline() { return deadline; }
+    public void setDeadline(Instant deadline) { this.deadline = deadline; }
+
     public String getResolvedUserId() { return resolvedUserId; }
     public void setResolvedUserId(String resolvedUserId) { this.resolvedUserId = resolvedUserId; }
 
@@ -6,8 +6,10 @@
 package com.dgfacade.common.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -44,8 +46,23 @@ public class DGResponse {
     @JsonProperty("sequence_number")
     private int sequenceNumber = 0;
 
+    /** Set only on REJECTED responses: when the client may retry. */
+    @JsonProperty("retry_after_seconds")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer retryAfterSeconds;
+
+    /** True when the response was served from the response cache without running the handler. */
+    @JsonProperty("cache_hit")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean cacheHit;
+
+    /** True when the response was shared from an identical request that was already executing. */
+    @JsonProperty("coalesced")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean coalesced;
+
     public enum Status {
-        SUCCESS, ERROR, TIMEOUT, PARTIAL, STREAMING_UPDATE, STREAMING_COMPLETE
+        SUCCESS, ERROR, TIMEOUT, PARTIAL, STREAMING_UPDATE, STREAMING_COMPLETE, REJECTED, OVERLOADED
     }
 
     public DGResponse() {
@@ -76,6 +93,40 @@ public class DGResponse {
         return r;
     }
 
+    /** Admission refused (e.g. bulkhead full); the client should retry after the given delay. */
+    public static DGResponse rejected(String requestId, String errorMessage, int retryAfterSeconds) {
+        DGResponse r = new DGResponse();
+        r.requestId = requestId;
+        r.status = Status.REJECTED;
+        r.errorMessage = errorMessage;
+        r.retryAfterSeconds = retryAfterSeconds;
+        return r;
+    }
+
+    /** Load shed by the adaptive concurrency limiter; the request type is at its in-flight limit. */
+    public static DGResponse overloaded(String requestId, String errorMessage) {
+        DGResponse r = new DGResponse();
+        r.requestId = requestId;
+        r.status = Status.OVERLOADED;
+        r.errorMessage = errorMessage;
+        return r;
+    }
+
+    /**
+     * Copy of this response addressed to another request (cache hits, coalesced duplicates).
+     * The data map is copied (shallowly) so callers decorating it cannot alter the original.
+     */
+    public DGResponse copyFor(String requestId) {
+        DGResponse r = new DGResponse();
+        r.requestId = requestId;
+        r.status = status;
+        r.data = data != null ? new LinkedHashMap<>(data) : null;
+        r.errorMessage = errorMessage;
+        r.handlerId = handlerId;
+        r.executionTimeMs = executionTimeMs;
+        return r;
+    }
+
     public static DGResponse streamingUpdate(String requestId, Map<String, Object> data, int seq) {
         DGResponse r = new DGResponse();
         r.requestId = requestId;
@@ -105,4 +156,10 @@ public class DGResponse {
     public void setStreamingUpdate(boolean streamingUpdate) { this.streamingUpdate = streamingUpdate; }
     public int getSequenceNumber() { return sequenceNumber; }
     public void setSequenceNumber(int sequenceNumber) { this.sequenceNumber = sequenceNumber; }
+    public boolean isCacheHit() { return cacheHit; }
+    public void setCacheHit(boolean cacheHit) { this.cacheHit = cacheHit; }
+    public boolean isCoalesced() { return coalesced; }
+    public void setCoalesced(boolean coalesced) { this.coalesced = coalesced; }
+    public Integer getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(Integer retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
 }
@@ -37,6 +37,66 @@ public class HandlerConfig {
     @JsonProperty("is_python")
     private boolean isPython = false;
 
+    @JsonProperty("reusable")
+    private boolean reusable = false;
+
+    @JsonProperty("pool_size")
+    private int poolSize = 0;
+
+    @JsonProperty("pool_borrow_timeout_ms")
+    private long poolBorrowTimeoutMs = 0;
+
+    /** Where execute() runs: "blocking" (bounded handler pool), "virtual" (Java 21+) or "inline" (actor dispatcher). */
+    @JsonProperty("execution_mode")
+    private String executionMode = "blocking";
+
+    /** Bulkhead: max requests of this type executing at once (0 = unlimited). */
+    @JsonProperty("max_concurrency")
+    private int maxConcurrency = 0;
+
+    /** Bulkhead: max requests waiting for a slot once max_concurrency is reached. */
+    @JsonProperty("max_queue")
+    private int maxQueue = 0;
+
+    /** What to do when the bulkhead queue is full: FAIL_FAST or RETRY_AFTER. */
+    @JsonProperty("reject_policy")
+    private String rejectPolicy = "FAIL_FAST";
+
+    @JsonProperty("retry_after_seconds")
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Expression (e.g. {@code ${payload.order_id}}) whose value serialises requests: requests
+     * resolving to the same key execute one at a time in arrival order. Null = unordered.
+     */
+    @JsonProperty("ordering_key")
+    private String orderingKey;
+
+    /** Response cache: set only for handlers whose response is a pure function of the payload. */
+    @JsonProperty("cacheable")
+    private boolean cacheable = false;
+
+    @JsonProperty("cache_ttl_seconds")
+    private long cacheTtlSeconds = 300;
+
+    @JsonProperty("cache_max_entries")
+    private int cacheMaxEntries = 10_000;
+
+    /** Single flight: identical concurrent requests (same type and payload) share one execution. */
+    @JsonProperty("coalesce")
+    private boolean coalesce = false;
+
+    /**
+     * Micro-batching: up to this many queued requests of the type are handed to one
+     * {@code BatchingDGHandler.executeBatch} call. 1 (default) disables batching.
+     */
+    @JsonProperty("max_batch_size")
+    private int maxBatchSize = 1;
+
+    /** How long the first request of a partial batch waits for company before it is flushed. */
+    @JsonProperty("max_linger_ms")
+    private long maxLingerMs = 5;
+
     public HandlerConfig() {}
 
     public String getRequestType() { return requestType; }
@@ -53,4 +113,34 @@ public class HandlerConfig {
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
     public boolean isPython() { return isPython; }
     public void setPython(boolean python) { isPython = python; }
+    public boolean isReusable() { return reusable; }
+    public void setReusable(boolean reusable) { this.reusable = reusable; }
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    public long getPoolBorrowTimeoutMs() { return poolBorrowTimeoutMs; }
+    public void setPoolBorrowTimeoutMs(long poolBorrowTimeoutMs) { this.poolBorrowTimeoutMs = poolBorrowTimeoutMs; }
+    public String getExecutionMode() { return executionMode; }
+    public void setExecutionMode(String executionMode) { this.executionMode = executionMode; }
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+    public int getMaxQueue() { return maxQueue; }
+    public void setMaxQueue(int maxQueue) { this.maxQueue = maxQueue; }
+    public String getRejectPolicy() { return rejectPolicy; }
+    public void setRejectPolicy(String rejectPolicy) { this.rejectPolicy = rejectPolicy; }
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(int retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+    public String getOrderingKey() { return orderingKey; }
+    public void setOrderingKey(String orderingKey) { this.orderingKey = orderingKey; }
+    public boolean isCacheable() { return cacheable; }
+    public void setCacheable(boolean cacheable) { this.cacheable = cacheable; }
+    public long getCacheTtlSeconds() { return cacheTtlSeconds; }
+    public void setCacheTtlSeconds(long cacheTtlSeconds) { this.cacheTtlSeconds = cacheTtlSeconds; }
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public void setCacheMaxEntries(int cacheMaxEntries) { this.cacheMaxEntries = cacheMaxEntries; }
+    public boolean isCoalesce() { return coalesce; }
+    public void setCoalesce(boolean coalesce) { this.coalesce = coalesce; }
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+    public long getMaxLingerMs() { return maxLingerMs; }
+    public void setMaxLingerMs(long maxLingerMs) { this.maxLingerMs = maxLingerMs; }
 }
@@ -5,13 +5,21 @@
  */
 package com.dgfacade.common.model;
 
+import com.dgfacade.common.util.JsonUtil;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Tracks the lifecycle state of a handler instance.
  * These records are kept in memory (up to 1000, going back 1 hour max)
  * and are viewable via the monitoring UI.
+ *
+ * <p>The request and response are captured by reference and only rendered to (pretty) JSON
+ * when the handler detail view asks for them; the rendering is then kept. Capture can be
+ * switched off per state ({@link #discardCapture()}) by the engine's capture policy.</p>
  */
 public class HandlerState {
 
@@ -36,8 +44,11 @@ public class HandlerState {
     private Map<String, Object> artifacts;
     private Map<String, Object> requestPayload;
     private Map<String, Object> responseData;
-    private String requestJson;
-    private String responseJson;
+    private volatile boolean captureEnabled = true;
+    private volatile DGRequest capturedRequest;
+    private volatile DGResponse capturedResponse;
+    private volatile String requestJson;
+    private volatile String responseJson;
 
     public HandlerState() {}
 
@@ -74,6 +85,51 @@ public class HandlerState {
         }
     }
 
+    // --- Captured request/response ---
+
+    /** Keep a reference to the request for the detail view (no-op once capture is discarded). */
+    public void captureRequest(DGRequest request) {
+        if (!captureEnabled) return;
+        this.capturedRequest = request;
+        this.requestPayload = request.getPayload();
+        this.requestJson = null;
+    }
+
+    /** Keep a reference to the latest response for the detail view (no-op once capture is discarded). */
+    public void captureResponse(DGResponse response) {
+        if (!captureEnabled) return;
+        this.capturedResponse = response;
+        this.responseData = response.getData();
+        this.responseJson = null;
+    }
+
+    /** Drop captured request/response data and ignore any further capture. */
+    public void discardCapture() {
+        this.captureEnabled = false;
+        this.capturedRequest = null;
+        this.capturedResponse = null;
+        this.requestPayload = null;
+        this.responseData = null;
+        this.requestJson = null;
+        this.responseJson = null;
+    }
+
+    @JsonIgnore
+    public boolean isCaptureEnabled() { return captureEnabled; }
+
+    private static String renderRequest(DGRequest request) {
+        Map<String, Object> fullReq = new LinkedHashMap<>();
+        fullReq.put("api_key", request.getApiKey());
+        fullReq.put("request_type", request.getRequestType());
+        fullReq.put("request_id", request.getRequestId());
+        fullReq.put("payload", request.getPayload());
+        if (request.getDeliveryDestination() != null) fullReq.put("delivery_destination", request.getDeliveryDestination());
+        if (request.getTtlMinutes() != 30) fullReq.put("ttl_minutes", request.getTtlMinutes());
+        if (request.getPriority() != null) fullReq.put("priority", request.getPriority());
+        if (request.getDeadline() != null) fullReq.put("deadline", request.getDeadline().toString());
+        return JsonUtil.toPrettyJson(fullReq);
+    }
+
     // --- Getters and Setters ---
     public String getHandlerId() { return handlerId; }
     public void setHandlerId(String handlerId) { this.handlerId = handlerId; }
@@ -126,8 +182,26 @@ public class HandlerState {
     public void setRequestPayload(Map<String, Object> requestPayload) { this.requestPayload = requestPayload; }
     public Map<String, Object> getResponseData() { return responseData; }
     public void setResponseData(Map<String, Object> responseData) { this.responseData = responseData; }
-    public String getRequestJson() { return requestJson; }
+    /** Pretty request JSON, rendered on first access; null if nothing was captured. */
+    @JsonIgnore
+    public String getRequestJson() {
+        String json = requestJson;
+        DGRequest request = capturedRequest;
+        if (json == null && request != null) {
+            try { requestJson = json = renderRequest(request); } catch (Exception ignored) {}
+        }
+        return json;
+    }
     public void setRequestJson(String requestJson) { this.requestJson = requestJson; }
-    public String getResponseJson() { return responseJson; }
+    /** Pretty response JSON, rendered on first access; null if nothing was captured. */
+    @JsonIgnore
+    public String getResponseJson() {
+        String json = responseJson;
+        DGResponse response = capturedResponse;
+        if (json == null && response != null) {
+            try { responseJson = json = JsonUtil.toPrettyJson(response); } catch (Exception ignored) {}
+        }
+        return json;
+    }
     public void setResponseJson(String responseJson) { this.responseJson = responseJson; }
 }
@@ -39,6 +39,10 @@ public class UserInfo {
     @JsonProperty("api_keys")
     private List<String> apiKeys;
 
+    /** Fair-queuing weight: share of handler threads relative to other users under contention. */
+    @JsonProperty("weight")
+    private int weight = 1;
+
     public UserInfo() {}
 
     // --- Getters and Setters ---
@@ -58,4 +62,6 @@ public class UserInfo {
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
     public List<String> getApiKeys() { return apiKeys; }
     public void setApiKeys(List<String> apiKeys) { this.apiKeys = apiKeys; }
+    public int getWeight() { return weight; }
+    public void setWeight(int weight) { this.weight = weight; }
 }
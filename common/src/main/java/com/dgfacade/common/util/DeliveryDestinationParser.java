@@ -11,6 +11,7 @@ package com.dgfacade.common.util;
  *   activemq://server/topic/topicName
  *   activemq://server/queue/queueName
  *   file:///path/to/file
+ *   channel://outputChannelId[/topic]
  *   REST
  *   WebSocket
  */
@@ -49,6 +50,16 @@ public final class DeliveryDestinationParser {
                 }
             }
         }
+        if (trimmed.startsWith("channel://")) {
+            String rest = trimmed.substring("channel://".length());
+            int slash = rest.indexOf('/');
+            if (slash > 0) {
+                return new ParsedDestination("CHANNEL", rest.substring(0, slash), rest.substring(slash + 1), null);
+            }
+            if (!rest.isEmpty()) {
+                return new ParsedDestination("CHANNEL", rest, null, null);
+            }
+        }
         if (trimmed.startsWith("file://")) {
             return new ParsedDestination("FILE", null, null, trimmed.substring("file://".length()));
         }
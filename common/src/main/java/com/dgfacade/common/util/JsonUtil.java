@@ -5,9 +5,13 @@
  */
 package com.dgfacade.common.util;
 
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
@@ -17,18 +21,31 @@ import java.util.Map;
 
 /**
  * Centralized Jackson ObjectMapper utility — thread-safe singleton.
+ *
+ * <p>Two codecs share one mapper: the <b>compact</b> codec ({@link #toJson}, the
+ * {@code DGRequest}/{@code DGResponse} readers and writers) is for everything that goes over
+ * the wire — WebSocket, the Python bridge, cluster forwarding, ingestion. The <b>pretty</b>
+ * codec ({@link #toPrettyJson}, {@link #toFile}) is for output a person reads: the handler
+ * detail view and the JSON config files.</p>
  */
 public final class JsonUtil {
 
     private static final ObjectMapper MAPPER = new ObjectMapper()
             .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .enable(SerializationFeature.INDENT_OUTPUT);
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final ObjectWriter PRETTY = MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ObjectReader REQUEST_READER = MAPPER.readerFor(DGRequest.class);
+    private static final ObjectWriter REQUEST_WRITER = MAPPER.writerFor(DGRequest.class);
+    private static final ObjectReader RESPONSE_READER = MAPPER.readerFor(DGResponse.class);
+    private static final ObjectWriter RESPONSE_WRITER = MAPPER.writerFor(DGResponse.class);
 
     private JsonUtil() {}
 
     public static ObjectMapper mapper() { return MAPPER; }
 
+    // ─── Compact (wire) codec ────────────────────────────────────────────
+
     public static String toJson(Object obj) {
         try {
             return MAPPER.writeValueAsString(obj);
@@ -37,6 +54,56 @@ public final class JsonUtil {
         }
     }
 
+    /** Shared reader for DGRequest; also binds from a streaming parser or a tree node. */
+    public static ObjectReader requestReader() { return REQUEST_READER; }
+
+    public static ObjectWriter responseWriter() { return RESPONSE_WRITER; }
+
+    public static DGRequest readRequest(String json) {
+        try {
+            return REQUEST_READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON deserialization failed", e);
+        }
+    }
+
+    public static String writeRequest(DGRequest request) {
+        try {
+            return REQUEST_WRITER.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON serialization failed", e);
+        }
+    }
+
+    public static DGResponse readResponse(String json) {
+        try {
+            return RESPONSE_READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON deserialization failed", e);
+        }
+    }
+
+    public static String writeResponse(DGResponse response) {
+        try {
+            return RESPONSE_WRITER.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON serialization failed", e);
+        }
+    }
+
+    // ─── Pretty (human) codec ────────────────────────────────────────────
+
+    /** Indented JSON for UI rendering; never use on a wire path. */
+    public static String toPrettyJson(Object obj) {
+        try {
+            return PRETTY.writeValueAsString(obj);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON serialization failed", e);
+        }
+    }
+
+    // ─── Parsing & files ─────────────────────────────────────────────────
+
     public static <T> T fromJson(String json, Class<T> clazz) {
         try {
             return MAPPER.readValue(json, clazz);
@@ -61,8 +128,9 @@ public final class JsonUtil {
         return MAPPER.readValue(file, typeRef);
     }
 
+    /** Config files are hand-edited, so they are written with the pretty codec. */
     public static void toFile(File file, Object obj) throws IOException {
-        MAPPER.writeValue(file, obj);
+        PRETTY.writeValue(file, obj);
     }
 
     @SuppressWarnings("unchecked")
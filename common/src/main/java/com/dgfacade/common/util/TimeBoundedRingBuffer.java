@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.common.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Lock-free, multi-producer ring buffer that keeps at most {@code maxSize} entries, none older
+ * than {@code maxAge}. Used to hold HandlerState records in memory for the monitoring UI
+ * (max 1000 entries, max 1 hour).
+ *
+ * <p>A writer claims the next sequence number with one atomic increment and publishes an
+ * immutable slot stamped with that sequence and its insertion time — no lock, no eviction
+ * work. Readers walk the last {@code maxSize} sequences and accept a slot only if its stamp
+ * matches the sequence they expect, so slots overwritten (or not yet published) mid-read are
+ * simply skipped; readers never block writers. Age-based eviction is lazy: readers skip
+ * expired slots and clear them so their values can be collected.</p>
+ */
+public class TimeBoundedRingBuffer<T> {
+
+    private record Slot<T>(long sequence, long insertedAtNanos, T value) {}
+
+    private final int capacity;
+    private final long maxAgeNanos;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public TimeBoundedRingBuffer(int maxSize, Duration maxAge) {
+        this.capacity = Math.max(1, maxSize);
+        this.maxAgeNanos = maxAge.toNanos();
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public TimeBoundedRingBuffer() {
+        this(1000, Duration.ofHours(1));
+    }
+
+    public void add(T item) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set(indexOf(sequence), new Slot<>(sequence, System.nanoTime(), item));
+    }
+
+    /** Live entries, oldest first. A snapshot: entries added while copying may be missing. */
+    public List<T> getAll() {
+        List<T> result = new ArrayList<>(capacity);
+        forEach(result::add);
+        return result;
+    }
+
+    /** Visit live entries, oldest first, without copying the buffer. */
+    public void forEach(Consumer<? super T> action) {
+        long end = nextSequence.get();
+        long now = System.nanoTime();
+        for (long seq = Math.max(0, end - capacity); seq < end; seq++) {
+            T value = liveValue(seq, now);
+            if (value != null) action.accept(value);
+        }
+    }
+
+    /** Newest live entry matching the predicate. */
+    public Optional<T> find(Predicate<? super T> predicate) {
+        long end = nextSequence.get();
+        long now = System.nanoTime();
+        for (long seq = end - 1; seq >= Math.max(0, end - capacity); seq--) {
+            T value = liveValue(seq, now);
+            if (value != null && predicate.test(value)) return Optional.of(value);
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        int[] count = {0};
+        forEach(v -> count[0]++);
+        return count[0];
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) slots.set(i, null);
+    }
+
+    public int getCapacity() { return capacity; }
+
+    /** The value published for {@code seq}, or null if it was overwritten, unpublished or expired. */
+    private T liveValue(long seq, long now) {
+        int index = indexOf(seq);
+        Slot<T> slot = slots.get(index);
+        if (slot == null || slot.sequence() != seq) return null;
+        if (now - slot.insertedAtNanos() > maxAgeNanos) {
+            slots.compareAndSet(index, slot, null);
+            return null;
+        }
+        return slot.value();
+    }
+
+    private int indexOf(long sequence) {
+        return (int) (sequence % capacity);
+    }
+}
@@ -8,6 +8,7 @@ package com.dgfacade.messaging.activemq;
 import com.dgfacade.messaging.core.*;
 import jakarta.jms.*;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -45,6 +46,12 @@ public class ActiveMQDataPublisher extends AbstractPublisher {
 
     @Override
     protected CompletableFuture<Void> doPublish(String topic, MessageEnvelope envelope) {
+        return doPublishBatch(topic, List.of(envelope));
+    }
+
+    /** One producer and one task for the whole batch instead of one per message. */
+    @Override
+    protected CompletableFuture<Void> doPublishBatch(String topic, List<MessageEnvelope> envelopes) {
         return CompletableFuture.runAsync(() -> {
             try {
                 Destination dest;
@@ -55,15 +62,20 @@ public class ActiveMQDataPublisher extends AbstractPublisher {
                 }
                 MessageProducer producer = session.createProducer(dest);
                 producer.setDeliveryMode(DeliveryMode.PERSISTENT);
-                TextMessage message = session.createTextMessage(envelope.getPayload());
-                message.setJMSCorrelationID(envelope.getMessageId());
-                if (envelope.getHeaders() != null) {
-                    for (Map.Entry<String, String> h : envelope.getHeaders().entrySet()) {
-                        message.setStringProperty(h.getKey(), h.getValue());
+                try {
+                    for (MessageEnvelope envelope : envelopes) {
+                        TextMessage message = session.createTextMessage(envelope.getPayload());
+                        message.setJMSCorrelationID(envelope.getMessageId());
+                        if (envelope.getHeaders() != null) {
+                            for (Map.Entry<String, String> h : envelope.getHeaders().entrySet()) {
+                                message.setStringProperty(h.getKey(), h.getValue());
+                            }
+                        }
+                        producer.send(message);
                     }
+                } finally {
+                    producer.close();
                 }
-                producer.send(message);
-                producer.close();
             } catch (JMSException e) {
                 throw new RuntimeException("ActiveMQ publish failed", e);
             }
@@ -74,9 +74,22 @@ public abstract class AbstractPublisher implements DataPublisher {
 
     @Override
     public CompletableFuture<Void> publishBatch(String topic, List<MessageEnvelope> envelopes) {
-        return CompletableFuture.allOf(
-            envelopes.stream().map(e -> publish(topic, e)).toArray(CompletableFuture[]::new)
-        );
+        if (batchMode) {
+            return CompletableFuture.allOf(
+                envelopes.stream().map(e -> publish(topic, e)).toArray(CompletableFuture[]::new)
+            );
+        }
+        if (envelopes.isEmpty()) return CompletableFuture.completedFuture(null);
+        return doPublishBatch(topic, envelopes).thenRun(() -> {
+            sentCount.addAndGet(envelopes.size());
+            long bytes = 0;
+            for (MessageEnvelope e : envelopes) bytes += e.getPayload() != null ? e.getPayload().length() : 0;
+            bytesSent.addAndGet(bytes);
+        }).exceptionally(ex -> {
+            errorCount.addAndGet(envelopes.size());
+            scheduleReconnect();
+            throw new CompletionException(ex);
+        });
     }
 
     @Override
@@ -141,6 +154,17 @@ public abstract class AbstractPublisher implements DataPublisher {
     }
 
     protected abstract CompletableFuture<Void> doPublish(String topic, MessageEnvelope envelope);
+
+    /**
+     * Publish several envelopes to one topic; completes when all are acknowledged. The default
+     * issues them back to back through {@link #doPublish}; brokers that can send a batch in one
+     * round trip override it.
+     */
+    protected CompletableFuture<Void> doPublishBatch(String topic, List<MessageEnvelope> envelopes) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[envelopes.size()];
+        for (int i = 0; i < sends.length; i++) sends[i] = doPublish(topic, envelopes.get(i));
+        return CompletableFuture.allOf(sends);
+    }
     protected abstract void doConnect();
     protected abstract void doDisconnect();
 }
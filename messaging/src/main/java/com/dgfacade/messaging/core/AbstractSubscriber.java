@@ -9,12 +9,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base subscriber with backpressure, reconnection logic, and internal queue management.
- * Subclasses implement doSubscribe(), doUnsubscribe(), doConnect(), doPoll().
+ * Subclasses implement doSubscribe(), doUnsubscribe(), doConnect(), doPoll(), and start
+ * their own poll threads in doStart().
+ *
+ * <p>Subscribers are cached and shared per channel, so {@link #start()} is idempotent:
+ * only the first call starts the dispatch and poll threads.</p>
  */
 public abstract class AbstractSubscriber implements DataSubscriber {
 
@@ -32,6 +37,7 @@ public abstract class AbstractSubscriber implements DataSubscriber {
     private final AtomicLong erroredCount = new AtomicLong();
     private ScheduledExecutorService reconnectExecutor;
     private ExecutorService dispatchExecutor;
+    private final AtomicBoolean started = new AtomicBoolean();
 
     @Override
     public void initialize(Map<String, Object> config) {
@@ -61,7 +67,8 @@ public abstract class AbstractSubscriber implements DataSubscriber {
     public Set<String> getSubscriptions() { return Set.copyOf(listeners.keySet()); }
 
     @Override
-    public void start() {
+    public final void start() {
+        if (!started.compareAndSet(false, true)) return;
         dispatchExecutor = Executors.newFixedThreadPool(2, r -> {
             Thread t = new Thread(r, "sub-dispatch");
             t.setDaemon(true);
@@ -71,9 +78,16 @@ public abstract class AbstractSubscriber implements DataSubscriber {
         for (String topic : listeners.keySet()) {
             doSubscribe(topic);
         }
+        doStart();
         log.info("Subscriber started with {} subscriptions", listeners.size());
     }
 
+    /** @return true once {@link #start()} has run */
+    public boolean isStarted() { return started.get(); }
+
+    /** Start broker-specific poll threads; called once, after the dispatch loop is running. */
+    protected void doStart() {}
+
     @Override
     public void pause() {
         paused = true;
@@ -39,8 +39,7 @@ public class FileSystemDataSubscriber extends AbstractSubscriber {
     }
 
     @Override
-    public void start() {
-        super.start();
+    protected void doStart() {
         pollScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "fs-poll");
             t.setDaemon(true);
@@ -59,8 +59,7 @@ public class KafkaDataSubscriber extends AbstractSubscriber {
     }
 
     @Override
-    public void start() {
-        super.start();
+    protected void doStart() {
         running = true;
         pollExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "kafka-poll");
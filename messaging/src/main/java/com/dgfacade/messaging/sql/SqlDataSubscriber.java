@@ -38,8 +38,7 @@ public class SqlDataSubscriber extends AbstractSubscriber {
     }
 
     @Override
-    public void start() {
-        super.start();
+    protected void doStart() {
         pollScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "sql-poll");
             t.setDaemon(true);
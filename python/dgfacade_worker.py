@@ -15,6 +15,9 @@ Commands:
   {"command": "execute", "handler_module": ...,
    "handler_class": ..., "request_json": ...,
    "config_json": ...}                         → handler result as JSON
+  {"command": "execute_batch", "handler_module": ...,
+   "handler_class": ..., "request_jsons": [...],
+   "config_json": ...}                         → {"status": ..., "results": [...]}
   {"command": "shutdown"}                      → graceful shutdown
 """
 
@@ -54,6 +57,7 @@ class DGHandlerBase:
 
         def construct(self, config: dict) -> None
         def execute(self, request: dict, app_properties: dict) -> dict
+        def execute_batch(self, requests: list, app_properties: dict) -> list
         def stop(self) -> None
         def cleanup(self) -> None
 
@@ -94,6 +98,24 @@ class DGHandlerBase:
         """
         raise NotImplementedError("Handler must implement execute()")
 
+    def execute_batch(self, requests, app_properties):
+        """
+        Execute several requests at once (micro-batching, see max_batch_size).
+
+        Override when the handler is cheaper per item in bulk (vectorised scoring,
+        one query for many keys). The default calls execute() once per request.
+
+        Returns:
+            List with one result dictionary per request, in the same order
+        """
+        results = []
+        for request in requests:
+            try:
+                results.append(self.execute(request, app_properties))
+            except Exception as e:
+                results.append({"status": "ERROR", "error_message": str(e)})
+        return results
+
     def stop(self):
         """Signal to stop processing."""
         pass
@@ -142,17 +164,50 @@ def handle_execute(data):
     try:
         handler = get_handler_instance(handler_module, handler_class)
         handler.construct(config)
-        result = handler.execute(request, APP_PROPERTIES)
+        return normalize_result(handler.execute(request, APP_PROPERTIES))
 
-        # Ensure result is a proper dict
-        if not isinstance(result, dict):
-            result = {"status": "SUCCESS", "data": {"result": str(result)}}
-        if "status" not in result:
-            result["status"] = "SUCCESS"
-        if "data" not in result and result["status"] == "SUCCESS":
-            result["data"] = {}
+    except Exception as e:
+        tb = traceback.format_exc()
+        return {
+            "status": "ERROR",
+            "error_message": f"Python handler {handler_module}.{handler_class} failed: {e}",
+            "traceback": tb
+        }
+    finally:
+        try:
+            handler.cleanup()
+        except Exception:
+            pass
+
+
+def handle_execute_batch(data):
+    """Handle an 'execute_batch' command: one handler call for several requests."""
+    handler_module = data.get("handler_module", "")
+    handler_class = data.get("handler_class", "")
+    config_json = data.get("config_json", "{}")
+
+    try:
+        requests = [json.loads(r) for r in data.get("request_jsons", [])]
+        config = json.loads(config_json)
+    except json.JSONDecodeError as e:
+        return {"status": "ERROR", "error_message": f"Invalid JSON input: {e}"}
 
-        return result
+    handler = None
+    try:
+        handler = get_handler_instance(handler_module, handler_class)
+        handler.construct(config)
+        if hasattr(handler, "execute_batch"):
+            results = handler.execute_batch(requests, APP_PROPERTIES)
+        else:
+            results = [handler.execute(request, APP_PROPERTIES) for request in requests]
+
+        if not isinstance(results, list) or len(results) != len(requests):
+            return {
+                "status": "ERROR",
+                "error_message": f"Python handler {handler_module}.{handler_class} execute_batch() "
+                                 f"must return one result per request"
+            }
+        return {"status": "SUCCESS", "results": [normalize_result(r) for r in results]}
 
     except Exception as e:
         tb = traceback.format_exc()
@@ -168,6 +223,17 @@ def handle_execute(data):
             pass
 
 
+def normalize_result(result):
+    """Ensure a handler result is a dict with 'status' (and 'data' on success)."""
+    if not isinstance(result, dict):
+        result = {"status": "SUCCESS", "data": {"result": str(result)}}
+    if "status" not in result:
+        result["status"] = "SUCCESS"
+    if "data" not in result and result["status"] == "SUCCESS":
+        result["data"] = {}
+    return result
+
+
 def handle_request(data):
     """Route a command to the appropriate handler."""
     command = data.get("command", "")
@@ -180,6 +246,8 @@ def handle_request(data):
         }
     elif command == "execute":
         return handle_execute(data)
+    elif command == "execute_batch":
+        return handle_execute_batch(data)
     elif command == "shutdown":
         return {"status": "shutdown_ack"}
     else:
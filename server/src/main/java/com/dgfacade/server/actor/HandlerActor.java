@@ -6,27 +6,38 @@
 package com.dgfacade.server.actor;
 
 import com.dgfacade.common.model.*;
-import com.dgfacade.server.channel.ChannelAccessor;
+import com.dgfacade.server.config.HandlerPool;
+import com.dgfacade.server.engine.RequestScheduler;
+import com.dgfacade.server.engine.StreamingDelivery;
+import com.dgfacade.server.handler.AsyncDGHandler;
 import com.dgfacade.server.handler.DGHandler;
-import com.dgfacade.server.handler.DGHandlerProxy;
+import com.dgfacade.server.handler.HandlerFactory;
 import com.dgfacade.server.handler.StreamingDGHandler;
 import org.apache.pekko.actor.typed.Behavior;
 import org.apache.pekko.actor.typed.javadsl.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Pekko typed actor that manages the lifecycle of a single DGHandler instance.
  * Each request gets its own actor which:
- *   1. Instantiates and constructs the handler
+ *   1. Borrows a pooled instance (reusable configs) or instantiates and constructs the handler
  *   2. Executes it with TTL enforcement via a scheduled timeout
- *   3. Stops and cleans up after completion or timeout
+ *   3. Returns the instance to its pool, or stops and cleans up after completion or timeout
+ *
+ * Construction and execution run on the handler's executor (see {@code execution_mode}),
+ * never on the actor dispatcher. The outcome is piped back to the actor as a
+ * {@link Completed} message, so the actor stays responsive to {@link Timeout} and
+ * {@link Stop} while the handler is blocked. {@link AsyncDGHandler}s release the executor
+ * thread as soon as {@code executeAsync()} returns; their stage is piped back the same way.
  *
  * This design allows millions of concurrent handlers with minimal overhead.
  */
@@ -38,12 +49,17 @@ public class HandlerActor extends AbstractBehavior<HandlerActor.Command> {
     public record Execute(HandlerMessages.ExecuteRequest req) implements Command {}
     public record Timeout() implements Command {}
     public record Stop() implements Command {}
+    /** Outcome of the off-dispatcher execution; exactly one of response/error is non-null. */
+    public record Completed(DGResponse response, Throwable error) implements Command {}
 
     private final String handlerId;
-    private static final ObjectMapper MAPPER = new ObjectMapper();
-    private DGHandler handler;
+    /** Instance currently owned by this actor; cleared by whoever releases it. */
+    private final AtomicReference<DGHandler> handler = new AtomicReference<>();
+    private volatile boolean pooled;
+    private HandlerPool pool;
     private HandlerState state;
     private CompletableFuture<DGResponse> responseFuture;
+    private CompletableFuture<DGResponse> task;
 
     private HandlerActor(ActorContext<Command> context, String handlerId) {
         super(context);
@@ -58,6 +74,7 @@ public class HandlerActor extends AbstractBehavior<HandlerActor.Command> {
     public Receive<Command> createReceive() {
         return newReceiveBuilder()
                 .onMessage(Execute.class, this::onExecute)
+                .onMessage(Completed.class, this::onCompleted)
                 .onMessage(Timeout.class, this::onTimeout)
                 .onMessage(Stop.class, this::onStop)
                 .build();
@@ -68,111 +85,165 @@ public class HandlerActor extends AbstractBehavior<HandlerActor.Command> {
         this.responseFuture = req.responseFuture();
         // Use the state object from ExecutionEngine (already in the recentStates buffer)
         this.state = req.state();
+        this.pool = req.handlerPool();
 
         // Schedule TTL timeout
         int ttl = req.handlerConfig().getTtlMinutes();
         if (req.request().getTtlMinutes() > 0) ttl = req.request().getTtlMinutes();
         getContext().scheduleOnce(Duration.ofMinutes(ttl), getContext().getSelf(), new Timeout());
 
+        Executor executor = req.executor() != null ? req.executor() : Runnable::run;
         try {
-            // Check if this is a Python handler
-            if (req.handlerConfig().isPython()) {
-                handler = new com.dgfacade.server.python.DGHandlerPython();
-                log.debug("Handler is Python-based — using DGHandlerPython bridge");
-            } else {
-                // Instantiate Java handler class
-                Class<?> clazz = Class.forName(req.handlerConfig().getHandlerClass());
-
-                // If the class implements DGHandler, use it directly.
-                // Otherwise, wrap it in a dynamic proxy (DGHandlerProxy).
-                if (DGHandler.class.isAssignableFrom(clazz)) {
-                    handler = (DGHandler) clazz.getDeclaredConstructor().newInstance();
-                    log.debug("Handler {} implements DGHandler — using directly", clazz.getSimpleName());
-                } else {
-                    handler = DGHandlerProxy.createFrom(clazz);
-                    log.info("Handler {} does NOT implement DGHandler — wrapped in DGHandlerProxy",
-                            clazz.getSimpleName());
-                }
+            task = CompletableFuture.supplyAsync(() -> run(req), executor).thenCompose(stage -> stage);
+        } catch (Exception e) {
+            // Executor saturated (bounded queue full) or shut down
+            task = CompletableFuture.failedFuture(e);
+        }
+        getContext().pipeToSelf(task, (response, error) -> new Completed(response, error));
+        return this;
+    }
+
+    /**
+     * Acquire, construct and execute the handler. Runs on the handler executor; async
+     * handlers return their pending stage instead of a completed one.
+     */
+    private CompletionStage<DGResponse> run(HandlerMessages.ExecuteRequest req) {
+        // Waited in the pool queue past its deadline: drop before any handler is acquired
+        if (RequestScheduler.isExpired(req.request())) {
+            return CompletableFuture.completedFuture(RequestScheduler.expired(req.request()));
+        }
+        try {
+            // Borrow a constructed instance for reusable configs; otherwise create a fresh one
+            DGHandler h = null;
+            if (pool != null) {
+                h = pool.borrow();
+                pooled = h != null;
+            }
+            if (h == null) {
+                h = HandlerFactory.create(req.handlerConfig());
             }
+            handler.set(h);
 
             // Construct
             state.setPhase(HandlerState.Phase.CONSTRUCTING);
             // Inject ChannelAccessor for handlers that need pub/sub access
             if (req.channelAccessor() != null) {
-                handler.setChannelAccessor(req.channelAccessor());
+                h.setChannelAccessor(req.channelAccessor());
+            }
+            if (!pooled) {
+                h.construct(req.handlerConfig().getConfig());
             }
-            handler.construct(req.handlerConfig().getConfig());
 
             // Execute
             state.markStarted();
             req.request().setExecutionStartedAt(Instant.now());
 
-            DGResponse response;
-            if (handler instanceof StreamingDGHandler streamingHandler) {
-                response = streamingHandler.executeStreaming(req.request(), update -> {
-                    // Streaming updates could be sent via WebSocket or messaging
-                    log.debug("Streaming update from {}: seq={}", handlerId, update.getSequenceNumber());
-                });
-            } else {
-                response = handler.execute(req.request());
+            if (h instanceof AsyncDGHandler asyncHandler) {
+                return asyncHandler.executeAsync(req.request());
+            }
+            if (h instanceof StreamingDGHandler streamingHandler) {
+                if (req.streaming() == null) {
+                    return CompletableFuture.completedFuture(streamingHandler.executeStreaming(req.request(),
+                            update -> log.debug("Streaming update from {}: seq={}", handlerId, update.getSequenceNumber())));
+                }
+                // Updates go through a bounded per-request buffer to the originating transport
+                StreamingDelivery.UpdateStream updates = req.streaming().open(req.request(), handlerId);
+                try {
+                    return CompletableFuture.completedFuture(streamingHandler.executeStreaming(req.request(), updates));
+                } finally {
+                    updates.complete();
+                }
             }
+            return CompletableFuture.completedFuture(h.execute(req.request()));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
 
+    private Behavior<Command> onCompleted(Completed cmd) {
+        if (responseFuture.isDone()) {
+            // Already answered (timeout/stop) — just return or discard the instance
+            releaseHandler(false);
+            return Behaviors.stopped();
+        }
+        if (cmd.error() == null) {
+            DGResponse response = cmd.response();
             // Success
             response.setHandlerId(handlerId);
             long duration = state.getStartedAt() != null ?
                     Duration.between(state.getStartedAt(), Instant.now()).toMillis() : 0;
             response.setExecutionTimeMs(duration);
-            state.markCompleted(true, null);
-            // Set response JSON immediately so handler-detail page has it
-            try { state.setResponseJson(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(response)); } catch (Exception ignored) {}
+            if (response.getStatus() == DGResponse.Status.TIMEOUT) state.markTimedOut();
+            else state.markCompleted(true, null);
+            // Capture the response immediately so handler-detail page has it
+            state.captureResponse(response);
             responseFuture.complete(response);
+            releaseHandler(true);
 
             log.info("Handler {} completed in {}ms", handlerId, duration);
-
-        } catch (Exception e) {
+        } else {
+            Throwable e = cmd.error() instanceof CompletionException && cmd.error().getCause() != null
+                    ? cmd.error().getCause() : cmd.error();
             log.error("Handler {} failed", handlerId, e);
             state.markCompleted(false, e.getMessage());
             state.setExceptionStackTrace(stackTraceToString(e));
             DGResponse errorResp = DGResponse.error(
-                    req.request().getRequestId(), "Handler execution failed: " + e.getMessage());
+                    state.getRequestId(), "Handler execution failed: " + e.getMessage());
             errorResp.setHandlerId(handlerId);
-            try { state.setResponseJson(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(errorResp)); } catch (Exception ignored) {}
+            state.captureResponse(errorResp);
             responseFuture.complete(errorResp);
-        } finally {
-            if (handler != null) {
-                try { handler.cleanup(); } catch (Exception e) { log.warn("Cleanup error", e); }
-            }
+            releaseHandler(false);
         }
-
         return Behaviors.stopped();
     }
 
     private Behavior<Command> onTimeout(Timeout cmd) {
         log.warn("Handler {} TTL expired, forcing stop", handlerId);
-        if (handler != null) {
-            try { handler.stop(); } catch (Exception e) { log.warn("Stop error on timeout", e); }
-            try { handler.cleanup(); } catch (Exception e) { log.warn("Cleanup error on timeout", e); }
-        }
+        stopRunningHandler();
         if (state != null) state.markTimedOut();
         if (responseFuture != null && !responseFuture.isDone()) {
             DGResponse timeoutResp = DGResponse.timeout(state != null ? state.getRequestId() : "unknown");
             timeoutResp.setHandlerId(handlerId);
-            if (state != null) {
-                try { state.setResponseJson(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(timeoutResp)); } catch (Exception ignored) {}
-            }
+            if (state != null) state.captureResponse(timeoutResp);
             responseFuture.complete(timeoutResp);
         }
         return Behaviors.stopped();
     }
 
     private Behavior<Command> onStop(Stop cmd) {
-        if (handler != null) {
-            try { handler.stop(); } catch (Exception e) { log.warn("Stop error", e); }
-            try { handler.cleanup(); } catch (Exception e) { log.warn("Cleanup error", e); }
-        }
+        stopRunningHandler();
         return Behaviors.stopped();
     }
 
+    /**
+     * Signal the handler to stop and discard it once its execute() call has actually
+     * returned — cleaning up underneath a still-running handler is never safe.
+     */
+    private void stopRunningHandler() {
+        DGHandler h = handler.get();
+        if (h != null) {
+            try { h.stop(); } catch (Exception e) { log.warn("Stop error", e); }
+        }
+        if (task != null) task.whenComplete((r, e) -> releaseHandler(false));
+        else releaseHandler(false);
+    }
+
+    /**
+     * Hand the instance back: healthy pooled instances return to their pool, failed
+     * ones are invalidated, and transient instances are cleaned up. Safe to call more than once.
+     */
+    private void releaseHandler(boolean healthy) {
+        DGHandler h = handler.getAndSet(null);
+        if (h == null) return;
+        if (pooled) {
+            if (healthy) pool.release(h); else pool.invalidate(h);
+        } else {
+            try { h.cleanup(); } catch (Exception e) { log.warn("Cleanup error", e); }
+        }
+    }
+
     public HandlerState getState() { return state; }
 
     private static String stackTraceToString(Throwable t) {
@@ -10,6 +10,7 @@ import com.dgfacade.common.model.DGResponse;
 import com.dgfacade.common.model.HandlerConfig;
 import com.dgfacade.common.model.HandlerState;
 import com.dgfacade.server.channel.ChannelAccessor;
+import com.dgfacade.server.config.HandlerPool;
 import java.io.Serializable;
 
 /**
@@ -20,14 +21,22 @@ public final class HandlerMessages {
 
     private HandlerMessages() {}
 
-    /** Request to execute a handler. */
+    /**
+     * Request to execute a handler. {@code handlerPool} is non-null only for
+     * reusable handler configs; the actor then borrows a constructed instance.
+     * {@code executor} runs construct/execute off the actor dispatcher.
+     * {@code streaming} carries the updates of streaming handlers to the client.
+     */
     public record ExecuteRequest(
         DGRequest request,
         HandlerConfig handlerConfig,
         String handlerId,
         java.util.concurrent.CompletableFuture<DGResponse> responseFuture,
         HandlerState state,
-        ChannelAccessor channelAccessor
+        ChannelAccessor channelAccessor,
+        HandlerPool handlerPool,
+        java.util.concurrent.Executor executor,
+        com.dgfacade.server.engine.StreamingDelivery streaming
     ) implements Serializable {}
 
     /** Signal that a handler has completed. */
@@ -72,7 +81,10 @@ public final class HandlerMessages {
     public sealed interface SupervisorCommand permits
             WrappedExecute, WrappedStop, WrappedTimeout, WrappedQuery {}
 
-    public record WrappedExecute(ExecuteRequest req) implements SupervisorCommand {}
+    /** {@code enqueuedAtNanos} is {@link System#nanoTime()} at submit, for dispatch-latency metrics. */
+    public record WrappedExecute(ExecuteRequest req, long enqueuedAtNanos) implements SupervisorCommand {
+        public WrappedExecute(ExecuteRequest req) { this(req, System.nanoTime()); }
+    }
     public record WrappedStop(StopHandler stop) implements SupervisorCommand {}
     public record WrappedTimeout(HandlerTimeout timeout) implements SupervisorCommand {}
     public record WrappedQuery(QueryHandlerState query) implements SupervisorCommand {}
@@ -5,39 +5,53 @@
  */
 package com.dgfacade.server.actor;
 
-import com.dgfacade.common.model.HandlerState;
-import com.dgfacade.common.util.CircularBuffer;
+import com.dgfacade.server.metrics.MetricsService;
 import org.apache.pekko.actor.typed.ActorRef;
 import org.apache.pekko.actor.typed.Behavior;
 import org.apache.pekko.actor.typed.javadsl.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
- * Top-level Pekko supervisor actor that manages all handler actors.
- * Spawns child HandlerActors for each incoming request.
- * Maintains a registry of active handlers and a circular buffer of
- * recent handler states (max 1000, max 1 hour) for the monitoring UI.
+ * Pekko supervisor actor that manages one shard of handler actors.
+ * Spawns child HandlerActors for each incoming request routed to this shard
+ * and maintains the shard's registry of active handlers.
+ *
+ * <p>The engine runs N shards (see {@code dgfacade.engine.supervisor-shards}) and routes
+ * each request by hash, so spawn/watch work is spread over N mailboxes instead of one.
+ * Handler state for the monitoring UI is kept by the engine, not duplicated here.</p>
  */
 public class HandlerSupervisor extends AbstractBehavior<HandlerMessages.SupervisorCommand> {
 
     private static final Logger log = LoggerFactory.getLogger(HandlerSupervisor.class);
 
-    private final Map<String, ActorRef<HandlerActor.Command>> activeHandlers = new ConcurrentHashMap<>();
-    private final CircularBuffer<HandlerState> stateHistory = new CircularBuffer<>(1000, Duration.ofHours(1));
+    private final int shardId;
+    private final String shardTag;
+    private final Supplier<MetricsService> metrics;
+    /** Shared with the engine so the active count can be read outside the actor. */
+    private final AtomicInteger activeCount;
+    // Only touched from within the actor — no concurrent map needed
+    private final Map<String, ActorRef<HandlerActor.Command>> activeHandlers = new HashMap<>();
 
-    private HandlerSupervisor(ActorContext<HandlerMessages.SupervisorCommand> context) {
+    private HandlerSupervisor(ActorContext<HandlerMessages.SupervisorCommand> context, int shardId,
+                              AtomicInteger activeCount, Supplier<MetricsService> metrics) {
         super(context);
-        log.info("HandlerSupervisor started");
+        this.shardId = shardId;
+        this.shardTag = String.valueOf(shardId);
+        this.activeCount = activeCount;
+        this.metrics = metrics;
+        log.info("HandlerSupervisor shard {} started", shardId);
     }
 
-    public static Behavior<HandlerMessages.SupervisorCommand> create() {
-        return Behaviors.setup(HandlerSupervisor::new);
+    public static Behavior<HandlerMessages.SupervisorCommand> create(int shardId, AtomicInteger activeCount,
+                                                                    Supplier<MetricsService> metrics) {
+        return Behaviors.setup(ctx -> new HandlerSupervisor(ctx, shardId, activeCount, metrics));
     }
 
     @Override
@@ -50,20 +64,19 @@ public class HandlerSupervisor extends AbstractBehavior<HandlerMessages.Supervis
     }
 
     private Behavior<HandlerMessages.SupervisorCommand> onExecute(HandlerMessages.WrappedExecute cmd) {
+        MetricsService metricsService = metrics.get();
+        if (metricsService != null) {
+            metricsService.recordSupervisorDispatch(shardTag, System.nanoTime() - cmd.enqueuedAtNanos());
+        }
         HandlerMessages.ExecuteRequest req = cmd.req();
         String handlerId = req.handlerId() != null ? req.handlerId() :
                 "hdl-" + UUID.randomUUID().toString().substring(0, 12);
 
-        // Create handler state record
-        HandlerState hs = new HandlerState(handlerId, req.request().getRequestId(), req.request().getRequestType());
-        hs.setUserId(req.request().getResolvedUserId());
-        hs.setHandlerClass(req.handlerConfig().getHandlerClass());
-        stateHistory.add(hs);
-
         // Spawn handler actor
         ActorRef<HandlerActor.Command> actorRef = getContext().spawn(
                 HandlerActor.create(handlerId), handlerId);
         activeHandlers.put(handlerId, actorRef);
+        activeCount.incrementAndGet();
 
         // Send execute command
         actorRef.tell(new HandlerActor.Execute(req));
@@ -72,7 +85,7 @@ public class HandlerSupervisor extends AbstractBehavior<HandlerMessages.Supervis
         getContext().watchWith(actorRef, new HandlerMessages.WrappedStop(
                 new HandlerMessages.StopHandler(handlerId)));
 
-        log.debug("Spawned handler actor: {}", handlerId);
+        log.debug("Shard {} spawned handler actor: {}", shardId, handlerId);
         return this;
     }
 
@@ -80,6 +93,7 @@ public class HandlerSupervisor extends AbstractBehavior<HandlerMessages.Supervis
         String handlerId = cmd.stop().handlerId();
         ActorRef<HandlerActor.Command> ref = activeHandlers.remove(handlerId);
         if (ref != null) {
+            activeCount.decrementAndGet();
             ref.tell(new HandlerActor.Stop());
         }
         return this;
@@ -93,7 +107,4 @@ public class HandlerSupervisor extends AbstractBehavior<HandlerMessages.Supervis
         }
         return this;
     }
-
-    public int getActiveCount() { return activeHandlers.size(); }
-    public CircularBuffer<HandlerState> getStateHistory() { return stateHistory; }
 }
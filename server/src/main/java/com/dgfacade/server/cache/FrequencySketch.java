@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.cache;
+
+/**
+ * Approximate access-frequency counter (TinyLFU) backing {@link TinyLfuCache} admission.
+ *
+ * <p>A count-min sketch of 4-bit counters packed into {@code long}s, four counters per key.
+ * Once the number of recorded accesses reaches ten times the cache capacity, every counter is
+ * halved, so popularity decays and the sketch follows changes in the workload. Not
+ * thread-safe; the owning cache serialises access.</p>
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int maximumSize) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, maximumSize) - 1) << 1);
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(1, maximumSize), Integer.MAX_VALUE);
+    }
+
+    /** Estimated number of recent accesses to the key (0-15). */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int offset = counterOffset(hash, i);
+            frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /** Record an access to the key. */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), counterOffset(hash, i));
+        }
+        if (added && ++size >= sampleSize) reset();
+    }
+
+    private boolean incrementAt(int index, int offset) {
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /** Halve every counter (aging). */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    /** Each long holds 16 counters; counter i of a key lives in the i-th quarter of its word. */
+    private static int counterOffset(int hash, int i) {
+        return ((i << 2) + ((hash >>> (i << 3)) & 3)) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.cache;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.model.HandlerConfig;
+import com.dgfacade.server.metrics.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Response cache for handler configs marked {@code "cacheable": true} — handlers whose
+ * response is a pure function of the request payload.
+ *
+ * <p>Each cacheable config gets its own {@link TinyLfuCache}, bounded by
+ * {@code cache_max_entries} with entries living {@code cache_ttl_seconds}. The key is the
+ * request type plus a SHA-256 of the payload serialised canonically (map keys sorted), so
+ * logically equal payloads hit regardless of field order. Only SUCCESS responses are stored.
+ * Caches are keyed by config identity and dropped when the handler configs reload.</p>
+ */
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private static final ObjectMapper CANONICAL = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final Map<HandlerConfig, TinyLfuCache<String, DGResponse>> caches =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Set<String> gaugedTypes = Collections.synchronizedSet(new HashSet<>());
+    private volatile Supplier<MetricsService> metrics = () -> null;
+
+    public void setMetrics(Supplier<MetricsService> metrics) {
+        this.metrics = metrics;
+        synchronized (caches) {
+            caches.keySet().forEach(c -> registerGauges(c.getRequestType()));
+        }
+    }
+
+    /**
+     * Look up a cached response for the request.
+     *
+     * @return a copy of the cached response re-addressed to this request and tagged
+     *         {@code cache_hit}, or null on a miss (or if the config is not cacheable)
+     */
+    public DGResponse lookup(HandlerConfig config, DGRequest request) {
+        if (!config.isCacheable()) return null;
+        String key = keyFor(request);
+        DGResponse cached = key != null ? cacheFor(config).get(key) : null;
+        MetricsService ms = metrics.get();
+        if (ms != null) ms.recordCacheLookup(request.getRequestType(), cached != null);
+        if (cached == null) return null;
+        DGResponse hit = cached.copyFor(request.getRequestId());
+        hit.setCacheHit(true);
+        return hit;
+    }
+
+    /** Store a completed response if the config is cacheable and the response succeeded. */
+    public void store(HandlerConfig config, DGRequest request, DGResponse response) {
+        if (!config.isCacheable() || response.getStatus() != DGResponse.Status.SUCCESS) return;
+        String key = keyFor(request);
+        if (key != null) cacheFor(config).put(key, response.copyFor(response.getRequestId()));
+    }
+
+    /** Drop every cache (handler configs were reloaded). */
+    public void clear() {
+        caches.clear();
+    }
+
+    /** Entries currently cached across all configs of a request type. */
+    public int sizeOf(String requestType) {
+        synchronized (caches) {
+            int total = 0;
+            for (Map.Entry<HandlerConfig, TinyLfuCache<String, DGResponse>> e : caches.entrySet()) {
+                if (e.getKey().getRequestType().equals(requestType)) total += e.getValue().size();
+            }
+            return total;
+        }
+    }
+
+    private TinyLfuCache<String, DGResponse> cacheFor(HandlerConfig config) {
+        synchronized (caches) {
+            return caches.computeIfAbsent(config, c -> {
+                String type = c.getRequestType();
+                registerGauges(type);
+                log.info("Response cache for {}: max {} entries, TTL {}s",
+                        type, c.getCacheMaxEntries(), c.getCacheTtlSeconds());
+                return new TinyLfuCache<>(c.getCacheMaxEntries(), c.getCacheTtlSeconds(), key -> {
+                    MetricsService ms = metrics.get();
+                    if (ms != null) ms.recordCacheEviction(type);
+                });
+            });
+        }
+    }
+
+    private void registerGauges(String requestType) {
+        MetricsService ms = metrics.get();
+        if (ms != null && gaugedTypes.add(requestType)) ms.registerResponseCache(requestType, this);
+    }
+
+    /** Request type + SHA-256 of the canonical payload JSON; null if the payload cannot be serialised. */
+    public static String keyFor(DGRequest request) {
+        try {
+            byte[] canonical = CANONICAL.writeValueAsBytes(
+                    request.getPayload() != null ? request.getPayload() : Map.of());
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical);
+            return request.getRequestType() + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException | com.fasterxml.jackson.core.JsonProcessingException e) {
+            log.debug("Payload of {} not cacheable: {}", request.getRequestId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Size-bounded cache with W-TinyLFU eviction and a per-entry time-to-live.
+ *
+ * <p>New entries land in a small LRU <b>window</b> (1% of capacity). When the window
+ * overflows, its oldest entry becomes a candidate for the <b>main</b> region, a segmented
+ * LRU split into <b>probation</b> and <b>protected</b> (80%) segments. The candidate is only
+ * admitted if the {@link FrequencySketch} says it has been requested more often than the
+ * probation victim it would displace — so a burst of one-off keys cannot flush the entries
+ * that are actually hit. Entries read while in probation are promoted to protected.</p>
+ *
+ * <p>All operations take the cache's monitor; the engine keeps one cache per handler config,
+ * so contention is limited to a single request type.</p>
+ */
+public class TinyLfuCache<K, V> {
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long expiresAtNanos;
+        Segment segment = Segment.WINDOW;
+
+        Node(K key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final int maximumSize;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final long ttlNanos;
+    private final FrequencySketch sketch;
+    private final Consumer<K> evictionListener;
+    private final Map<K, Node<K, V>> index = new HashMap<>();
+    // Insertion-ordered: first entry is the LRU end; "touch" re-inserts at the MRU end
+    private final LinkedHashMap<K, Node<K, V>> window = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<K, V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<K, V>> protectedSegment = new LinkedHashMap<>();
+    private long evictionCount;
+
+    /**
+     * @param maximumSize      maximum number of entries
+     * @param ttlSeconds       time-to-live of each entry from when it was stored (0 = no expiry)
+     * @param evictionListener notified (under the cache lock) of each size-based eviction; may be null
+     */
+    public TinyLfuCache(int maximumSize, long ttlSeconds, Consumer<K> evictionListener) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.maxWindow = Math.max(1, this.maximumSize / 100);
+        this.maxProtected = (int) ((this.maximumSize - maxWindow) * 0.8);
+        this.ttlNanos = ttlSeconds > 0 ? ttlSeconds * 1_000_000_000L : 0;
+        this.sketch = new FrequencySketch(this.maximumSize);
+        this.evictionListener = evictionListener;
+    }
+
+    /** @return the live value for the key, or null if absent or expired */
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = index.get(key);
+        if (node == null) return null;
+        if (isExpired(node)) {
+            remove(node);
+            return null;
+        }
+        onHit(node);
+        return node.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        Node<K, V> node = index.get(key);
+        if (node != null) {
+            node.value = value;
+            node.expiresAtNanos = expiresAt;
+            onHit(node);
+            return;
+        }
+        sketch.increment(key);
+        node = new Node<>(key, value, expiresAt);
+        index.put(key, node);
+        window.put(key, node);
+        if (window.size() > maxWindow) evictFromWindow();
+    }
+
+    public synchronized void invalidateAll() {
+        index.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized int size() { return index.size(); }
+    public synchronized long getEvictionCount() { return evictionCount; }
+    public int getMaximumSize() { return maximumSize; }
+
+    // ─── Policy ──────────────────────────────────────────────────────────
+
+    private void onHit(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW -> touch(window, node);
+            case PROTECTED -> touch(protectedSegment, node);
+            case PROBATION -> {
+                probation.remove(node.key);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(node.key, node);
+                if (protectedSegment.size() > maxProtected) {
+                    // Demote the protected LRU back to probation
+                    Node<K, V> demoted = pollFirst(protectedSegment);
+                    demoted.segment = Segment.PROBATION;
+                    probation.put(demoted.key, demoted);
+                }
+            }
+        }
+    }
+
+    /** Move the window's LRU entry to probation, then shrink main back under its budget. */
+    private void evictFromWindow() {
+        Node<K, V> candidate = pollFirst(window);
+        candidate.segment = Segment.PROBATION;
+        probation.put(candidate.key, candidate);
+        while (index.size() > maximumSize) {
+            Node<K, V> victim = firstOf(probation);
+            if (victim == candidate) {
+                // Probation holds only the candidate: contest the protected LRU instead
+                victim = firstOf(protectedSegment);
+            }
+            if (victim == null) {
+                evict(candidate);
+                continue;
+            }
+            // TinyLFU admission: the less frequently requested of the two goes
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        remove(node);
+        evictionCount++;
+        if (evictionListener != null) evictionListener.accept(node.key);
+    }
+
+    private void remove(Node<K, V> node) {
+        index.remove(node.key);
+        switch (node.segment) {
+            case WINDOW -> window.remove(node.key);
+            case PROBATION -> probation.remove(node.key);
+            case PROTECTED -> protectedSegment.remove(node.key);
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return node.expiresAtNanos != 0 && node.expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    private static <K, V> void touch(LinkedHashMap<K, Node<K, V>> segment, Node<K, V> node) {
+        segment.remove(node.key);
+        segment.put(node.key, node);
+    }
+
+    private static <K, V> Node<K, V> firstOf(LinkedHashMap<K, Node<K, V>> segment) {
+        Iterator<Node<K, V>> it = segment.values().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private static <K, V> Node<K, V> pollFirst(LinkedHashMap<K, Node<K, V>> segment) {
+        Iterator<Node<K, V>> it = segment.values().iterator();
+        Node<K, V> first = it.next();
+        it.remove();
+        return first;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.chain;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled {@code when} expression.
+ *
+ * <p>Grammar: <code>${ref} &lt;op&gt; value</code> with {@code ==, !=, >, <, >=, <=,
+ * contains, exists}, or a bare <code>${ref}</code> tested for truthiness. Numbers compare
+ * numerically when the reference resolves to a {@link Number}; otherwise values compare as
+ * strings, with surrounding single or double quotes stripped from the literal. An expression
+ * that matches neither form is always true.</p>
+ *
+ * <p>The expression is parsed once; {@link #test} only resolves the reference.</p>
+ */
+public final class ChainCondition {
+
+    private static final Logger log = LoggerFactory.getLogger(ChainCondition.class);
+    private static final Pattern COMPARE_PATTERN = Pattern.compile(
+            "\\$\\{([^}]+)}\\s*(==|!=|>=|<=|>|<|contains|exists)\\s*(.*)");
+    private static final Pattern SIMPLE_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    private enum Kind { ALWAYS, TRUTHY, EXISTS, IS_NULL, NOT_NULL, CONTAINS, EQ, NE, GT, LT, GE, LE }
+
+    private final String expression;
+    private final Kind kind;
+    private final ChainExpression.Ref ref;
+    /** The literal with quotes stripped. */
+    private final String literal;
+    /** The literal as a number, or null when it is not numeric. */
+    private final Double number;
+
+    private ChainCondition(String expression, Kind kind, ChainExpression.Ref ref, String literal, Double number) {
+        this.expression = expression;
+        this.kind = kind;
+        this.ref = ref;
+        this.literal = literal;
+        this.number = number;
+    }
+
+    /** Compile a {@code when} expression; null or blank compiles to an always-true condition. */
+    public static ChainCondition compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return new ChainCondition(expression, Kind.ALWAYS, null, null, null);
+        }
+        String trimmed = expression.trim();
+        Matcher m = COMPARE_PATTERN.matcher(trimmed);
+        if (m.matches()) {
+            ChainExpression.Ref ref = ChainExpression.ref(m.group(1).trim());
+            String op = m.group(2);
+            String value = m.group(3).trim();
+            Kind kind = switch (op) {
+                case "exists" -> Kind.EXISTS;
+                case "contains" -> Kind.CONTAINS;
+                case "==" -> "null".equals(value) ? Kind.IS_NULL : Kind.EQ;
+                case "!=" -> "null".equals(value) ? Kind.NOT_NULL : Kind.NE;
+                case ">" -> Kind.GT;
+                case "<" -> Kind.LT;
+                case ">=" -> Kind.GE;
+                default -> Kind.LE;
+            };
+            return new ChainCondition(expression, kind, ref, stripQuotes(value), parseNumber(value));
+        }
+        Matcher simple = SIMPLE_PATTERN.matcher(trimmed);
+        if (simple.matches()) {
+            return new ChainCondition(expression, Kind.TRUTHY, ChainExpression.ref(simple.group(1)), null, null);
+        }
+        return new ChainCondition(expression, Kind.ALWAYS, null, null, null);
+    }
+
+    public String getExpression() { return expression; }
+
+    /** Evaluate against a scope; an evaluation error counts as false. */
+    public boolean test(ChainExpression.Scope scope) {
+        if (kind == Kind.ALWAYS) return true;
+        try {
+            Object resolved = scope.lookup(ref);
+            switch (kind) {
+                case EXISTS, NOT_NULL: return resolved != null;
+                case IS_NULL: return resolved == null;
+                case TRUTHY: return resolved != null && !"false".equalsIgnoreCase(resolved.toString())
+                        && !"0".equals(resolved.toString());
+                default: break;
+            }
+            if (resolved == null) return false;
+            if (kind == Kind.CONTAINS) return resolved.toString().contains(literal);
+
+            if (resolved instanceof Number n && number != null) {
+                double left = n.doubleValue();
+                double right = number;
+                return switch (kind) {
+                    case GT -> left > right;
+                    case LT -> left < right;
+                    case GE -> left >= right;
+                    case LE -> left <= right;
+                    case EQ -> left == right;
+                    case NE -> left != right;
+                    default -> false;
+                };
+            }
+            return switch (kind) {
+                case EQ -> resolved.toString().equals(literal);
+                case NE -> !resolved.toString().equals(literal);
+                default -> false;
+            };
+        } catch (Exception e) {
+            log.warn("Condition eval error for '{}': {}", expression, e.getMessage());
+            return false;
+        }
+    }
+
+    private static Double parseNumber(String s) {
+        try {
+            return Double.parseDouble(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stripQuotes(String s) {
+        if (s.length() >= 2 && ((s.startsWith("'") && s.endsWith("'"))
+                || (s.startsWith("\"") && s.endsWith("\"")))) {
+            return s.substring(1, s.length() - 1);
+        }
+        return s;
+    }
+
+    @Override
+    public String toString() { return expression; }
+}
@@ -7,6 +7,7 @@ package com.dgfacade.server.chain;
 
 import com.dgfacade.common.model.ChainConfig;
 import com.dgfacade.common.util.JsonUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,13 +21,17 @@ import java.util.concurrent.ConcurrentHashMap;
  * Reads from: config/chains/*.json
  *
  * Each JSON file contains a single chain definition with chain_id, steps, and config.
+ * Every definition is compiled into a {@link ChainPlan} as it is loaded; a definition that
+ * does not compile is logged and left out. A reload swaps in the new set at once, so
+ * executions never see a half-loaded registry.
  */
 public class ChainConfigRegistry {
 
     private static final Logger log = LoggerFactory.getLogger(ChainConfigRegistry.class);
 
     private final String configDir;
-    private final Map<String, ChainConfig> chains = new ConcurrentHashMap<>();
+    private volatile Map<String, ChainConfig> chains = new ConcurrentHashMap<>();
+    private volatile Map<String, ChainPlan> plans = new ConcurrentHashMap<>();
 
     public ChainConfigRegistry(String configDir) {
         this.configDir = configDir;
@@ -40,6 +45,13 @@ public class ChainConfigRegistry {
         return Optional.empty();
     }
 
+    /** Find the compiled plan of an enabled chain. */
+    public Optional<ChainPlan> findPlan(String chainId) {
+        ChainConfig config = chains.get(chainId);
+        if (config == null || !config.isEnabled()) return Optional.empty();
+        return Optional.ofNullable(plans.get(chainId));
+    }
+
     /** Get all registered chain IDs. */
     public Set<String> getAllChainIds() {
         return Collections.unmodifiableSet(chains.keySet());
@@ -62,20 +74,25 @@ public class ChainConfigRegistry {
         File[] files = dir.listFiles((d, name) -> name.endsWith(".json"));
         if (files == null) return;
 
-        chains.clear();
+        Map<String, ChainConfig> loaded = new ConcurrentHashMap<>();
+        Map<String, ChainPlan> compiled = new ConcurrentHashMap<>();
         for (File file : files) {
             try {
-                ChainConfig config = JsonUtil.fromFile(file, ChainConfig.class);
+                Map<String, Object> definition = JsonUtil.fromFile(file, new TypeReference<Map<String, Object>>() {});
+                ChainConfig config = JsonUtil.mapper().convertValue(definition, ChainConfig.class);
                 if (config.getChainId() == null || config.getChainId().isBlank()) {
                     config.setChainId(file.getName().replace(".json", "").toUpperCase());
                 }
-                chains.put(config.getChainId(), config);
+                compiled.put(config.getChainId(), ChainPlan.compile(definition, config.getChainId()));
+                loaded.put(config.getChainId(), config);
                 log.info("Loaded chain: {} ({} steps) from {}", config.getChainId(),
                         config.getSteps() != null ? config.getSteps().size() : 0, file.getName());
-            } catch (IOException e) {
+            } catch (IOException | IllegalArgumentException e) {
                 log.error("Failed to load chain config: {}", file.getName(), e);
             }
         }
+        chains = loaded;
+        plans = compiled;
         log.info("Total chains loaded: {}", chains.size());
     }
 }
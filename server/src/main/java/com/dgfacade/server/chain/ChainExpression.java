@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.chain;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of the <code>${...}</code> expressions used in chain definitions.
+ *
+ * <p>Templates are parsed once — references split into their dot-separated segments,
+ * literal text cut out between them — so evaluating one is a walk over the compiled
+ * parts with no regex work. What a reference <em>means</em> is left to the caller's
+ * {@link Scope}: {@code ChainHandler} and {@link ChainExpressionResolver} resolve the same
+ * syntax against different variables.</p>
+ */
+public final class ChainExpression {
+
+    private static final Pattern VAR_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    private ChainExpression() {}
+
+    /** Supplies the value of a reference at evaluation time; null when it cannot be resolved. */
+    @FunctionalInterface
+    public interface Scope {
+        Object lookup(Ref ref);
+    }
+
+    /** A compiled {@code payload_mapping} value: a string template, map, list or constant. */
+    @FunctionalInterface
+    public interface Node {
+        Object resolve(Scope scope);
+    }
+
+    /**
+     * Compile a mapping value. Maps and lists are compiled recursively and resolve to fresh
+     * mutable copies, so handlers may modify what they receive.
+     *
+     * @param keepUnresolved whether an unresolved reference stays as its literal
+     *                       <code>${ref}</code> text (otherwise null / empty)
+     */
+    public static Node compile(Object value, boolean keepUnresolved) {
+        if (value instanceof String s) return template(s, keepUnresolved);
+        if (value instanceof Map<?, ?> map) {
+            String[] keys = new String[map.size()];
+            Node[] values = new Node[map.size()];
+            int i = 0;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                keys[i] = e.getKey().toString();
+                values[i++] = compile(e.getValue(), keepUnresolved);
+            }
+            return scope -> {
+                Map<String, Object> resolved = new LinkedHashMap<>();
+                for (int k = 0; k < keys.length; k++) resolved.put(keys[k], values[k].resolve(scope));
+                return resolved;
+            };
+        }
+        if (value instanceof List<?> list) {
+            Node[] items = new Node[list.size()];
+            for (int i = 0; i < items.length; i++) items[i] = compile(list.get(i), keepUnresolved);
+            return scope -> {
+                List<Object> resolved = new ArrayList<>(items.length);
+                for (Node item : items) resolved.add(item.resolve(scope));
+                return resolved;
+            };
+        }
+        return scope -> value;
+    }
+
+    /** Compile a string that may contain <code>${...}</code> references. */
+    public static Template template(String text, boolean keepUnresolved) {
+        return new Template(text, keepUnresolved);
+    }
+
+    /** Every reference in a raw mapping value or expression string, in order of appearance. */
+    public static List<Ref> references(Object value) {
+        List<Ref> refs = new ArrayList<>();
+        collect(value, refs);
+        return refs;
+    }
+
+    private static void collect(Object value, List<Ref> refs) {
+        if (value instanceof String s) {
+            Matcher m = VAR_PATTERN.matcher(s);
+            while (m.find()) refs.add(new Ref(m.group(1).trim()));
+        } else if (value instanceof Map<?, ?> map) {
+            for (Object v : map.values()) collect(v, refs);
+        } else if (value instanceof List<?> list) {
+            for (Object v : list) collect(v, refs);
+        }
+    }
+
+    /** Parse a single reference body such as {@code steps.enrich.score}. */
+    public static Ref ref(String expression) {
+        return new Ref(expression);
+    }
+
+    // ─── References ────────────────────────────────────────────────────
+
+    /** A <code>${...}</code> reference, split into its dot-separated segments once. */
+    public static final class Ref {
+        private final String expression;
+        private final String[] segments;
+
+        private Ref(String expression) {
+            this.expression = expression;
+            this.segments = expression.split("\\.");
+        }
+
+        /** The reference body, e.g. {@code payload.order.id}. */
+        public String expression() { return expression; }
+        /** The first segment: {@code payload}, {@code prev}, {@code steps}, ... */
+        public String root() { return segments[0]; }
+        public int size() { return segments.length; }
+        public String segment(int index) { return segments[index]; }
+
+        /** Walk nested maps from {@code start} along the segments from index {@code from} on. */
+        public Object drill(Object start, int from) {
+            Object current = start;
+            for (int i = from; i < segments.length; i++) {
+                if (current instanceof Map<?, ?> m) current = m.get(segments[i]);
+                else return null;
+            }
+            return current;
+        }
+
+        @Override
+        public String toString() { return "${" + expression + "}"; }
+    }
+
+    // ─── Templates ─────────────────────────────────────────────────────
+
+    /**
+     * A compiled string. If the whole (trimmed) string is one reference, {@link #resolve}
+     * returns the referenced object itself rather than its string form.
+     */
+    public static final class Template implements Node {
+        private final String text;
+        private final boolean keepUnresolved;
+        /** Literal strings and {@link Ref}s in order; null when the text has no references. */
+        private final Object[] parts;
+        /** Set when the whole text is a single reference. */
+        private final Ref whole;
+
+        private Template(String text, boolean keepUnresolved) {
+            this.text = text;
+            this.keepUnresolved = keepUnresolved;
+            if (text == null || !text.contains("${")) {
+                this.parts = null;
+                this.whole = null;
+                return;
+            }
+            List<Object> parsed = new ArrayList<>();
+            Matcher m = VAR_PATTERN.matcher(text);
+            int last = 0;
+            while (m.find()) {
+                if (m.start() > last) parsed.add(text.substring(last, m.start()));
+                parsed.add(new Ref(m.group(1)));
+                last = m.end();
+            }
+            if (last < text.length()) parsed.add(text.substring(last));
+            this.parts = parsed.toArray();
+            Matcher full = VAR_PATTERN.matcher(text.trim());
+            this.whole = full.matches() ? new Ref(full.group(1)) : null;
+        }
+
+        public boolean hasReferences() { return parts != null; }
+
+        @Override
+        public Object resolve(Scope scope) {
+            if (whole != null) {
+                Object value = scope.lookup(whole);
+                return value != null || !keepUnresolved ? value : text;
+            }
+            return render(scope);
+        }
+
+        /** Interpolate every reference as a string. */
+        public String render(Scope scope) {
+            if (parts == null) return text;
+            StringBuilder sb = new StringBuilder(text.length() + 16);
+            for (Object part : parts) {
+                if (part instanceof Ref ref) {
+                    Object value = scope.lookup(ref);
+                    if (value != null) sb.append(value);
+                    else if (keepUnresolved) sb.append(ref);
+                } else {
+                    sb.append((String) part);
+                }
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() { return text; }
+    }
+}
@@ -5,12 +5,11 @@
  */
 package com.dgfacade.server.chain;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.dgfacade.common.model.ChainConfig;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Resolves expressions in chain step configurations.
@@ -29,14 +28,16 @@ import java.util.regex.Pattern;
  *
  * <h3>Conditional Expressions (when)</h3>
  * <p>Simple comparisons: <code>${prev.score} > 75</code>, <code>${prev.status} == 'ACTIVE'</code>,
- * <code>${prev.count} != 0</code>, <code>${payload.priority} == 'HIGH'</code></p>
+ * <code>${prev.count} != 0</code>, <code>${payload.priority} == 'HIGH'</code> — see {@link ChainCondition}.</p>
+ *
+ * <p>Templates and conditions are compiled by {@link ChainExpression} and cached by their text, so a
+ * resolver created per request (e.g. for {@code ordering_key}) does no regex work.</p>
  */
-public class ChainExpressionResolver {
+public class ChainExpressionResolver implements ChainExpression.Scope {
 
-    private static final Logger log = LoggerFactory.getLogger(ChainExpressionResolver.class);
-    private static final Pattern VAR_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
-    private static final Pattern COMPARE_PATTERN = Pattern.compile(
-            "(.+?)\\s*(==|!=|>=|<=|>|<)\\s*(.+)");
+    /** Compiled expressions by text; they come from configuration, so the set stays small. */
+    private static final Map<String, ChainExpression.Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<String, ChainCondition> CONDITIONS = new ConcurrentHashMap<>();
 
     private final Map<String, Object> originalPayload;
     private final Map<String, Map<String, Object>> stepOutputs; // alias -> output
@@ -67,13 +68,18 @@ public class ChainExpressionResolver {
      * Resolve all expressions in a payload mapping.
      * Returns a new map with all ${...} references replaced with actual values.
      */
+    @SuppressWarnings("unchecked")
     public Map<String, Object> resolvePayloadMapping(Map<String, Object> mapping) {
         if (mapping == null || mapping.isEmpty()) return new LinkedHashMap<>(originalPayload);
-        Map<String, Object> resolved = new LinkedHashMap<>();
-        for (Map.Entry<String, Object> entry : mapping.entrySet()) {
-            resolved.put(entry.getKey(), resolveValue(entry.getValue()));
-        }
-        return resolved;
+        return (Map<String, Object>) ChainExpression.compile(mapping, false).resolve(this);
+    }
+
+    /**
+     * Interpolate all ${...} references in a string template (missing values become empty).
+     */
+    public String resolveTemplate(String template) {
+        if (template == null || !template.contains("${")) return template;
+        return TEMPLATES.computeIfAbsent(template, t -> ChainExpression.template(t, false)).render(this);
     }
 
     /**
@@ -82,56 +88,7 @@ public class ChainExpressionResolver {
      */
     public boolean evaluateWhen(String whenExpr) {
         if (whenExpr == null || whenExpr.isBlank()) return true;
-
-        try {
-            // Resolve all variables in the expression first
-            String resolved = resolveString(whenExpr);
-
-            // Parse comparison
-            Matcher cm = COMPARE_PATTERN.matcher(resolved.trim());
-            if (!cm.matches()) {
-                // Treat as truthy check
-                return isTruthy(resolved.trim());
-            }
-
-            String left = cm.group(1).trim();
-            String op = cm.group(2).trim();
-            String right = cm.group(3).trim();
-
-            // Strip quotes from string literals
-            left = stripQuotes(left);
-            right = stripQuotes(right);
-
-            // Try numeric comparison first
-            try {
-                double lnum = Double.parseDouble(left);
-                double rnum = Double.parseDouble(right);
-                return switch (op) {
-                    case "==" -> lnum == rnum;
-                    case "!=" -> lnum != rnum;
-                    case ">"  -> lnum > rnum;
-                    case "<"  -> lnum < rnum;
-                    case ">=" -> lnum >= rnum;
-                    case "<=" -> lnum <= rnum;
-                    default -> false;
-                };
-            } catch (NumberFormatException e) {
-                // String comparison
-                int cmp = left.compareTo(right);
-                return switch (op) {
-                    case "==" -> left.equals(right);
-                    case "!=" -> !left.equals(right);
-                    case ">"  -> cmp > 0;
-                    case "<"  -> cmp < 0;
-                    case ">=" -> cmp >= 0;
-                    case "<=" -> cmp <= 0;
-                    default -> false;
-                };
-            }
-        } catch (Exception e) {
-            log.warn("Failed to evaluate when expression '{}': {}", whenExpr, e.getMessage());
-            return false;
-        }
+        return CONDITIONS.computeIfAbsent(whenExpr, ChainCondition::compile).test(this);
     }
 
     /**
@@ -140,121 +97,27 @@ public class ChainExpressionResolver {
     public Map<String, Object> mergeOutput(Map<String, Object> accumulated,
                                             Map<String, Object> stepOutput,
                                             String alias,
-                                            com.dgfacade.common.model.ChainConfig.MergeStrategy strategy) {
-        if (stepOutput == null) stepOutput = Map.of();
-        return switch (strategy) {
-            case REPLACE -> new LinkedHashMap<>(stepOutput);
-            case MERGE_PREV -> {
-                Map<String, Object> merged = new LinkedHashMap<>(accumulated);
-                merged.putAll(stepOutput);
-                yield merged;
-            }
-            case APPEND -> {
-                Map<String, Object> appended = new LinkedHashMap<>(accumulated);
-                appended.put(alias, stepOutput);
-                yield appended;
-            }
-            case PASSTHROUGH -> new LinkedHashMap<>(accumulated);
-        };
+                                            ChainConfig.MergeStrategy strategy) {
+        return ChainPlan.merge(strategy).apply(accumulated, stepOutput != null ? stepOutput : Map.of(), alias);
     }
 
     // ── Internal Resolution ──────────────────────────────────────────────
 
-    @SuppressWarnings("unchecked")
-    private Object resolveValue(Object value) {
-        if (value == null) return null;
-        if (value instanceof String s) {
-            // If the entire value is a single expression, return the actual object (not stringified)
-            Matcher m = VAR_PATTERN.matcher(s);
-            if (m.matches()) {
-                return resolveReference(m.group(1));
-            }
-            // Otherwise, do string interpolation for embedded expressions
-            if (s.contains("${")) {
-                return resolveString(s);
-            }
-            return s;
-        }
-        if (value instanceof Map<?, ?> map) {
-            Map<String, Object> resolved = new LinkedHashMap<>();
-            for (Map.Entry<?, ?> e : map.entrySet()) {
-                resolved.put(e.getKey().toString(), resolveValue(e.getValue()));
-            }
-            return resolved;
-        }
-        if (value instanceof List<?> list) {
-            List<Object> resolved = new ArrayList<>();
-            for (Object item : list) resolved.add(resolveValue(item));
-            return resolved;
-        }
-        return value;
-    }
-
-    /** Resolve ${...} expressions embedded in a string. */
-    private String resolveString(String template) {
-        Matcher m = VAR_PATTERN.matcher(template);
-        StringBuilder sb = new StringBuilder();
-        while (m.find()) {
-            Object resolved = resolveReference(m.group(1));
-            m.appendReplacement(sb, Matcher.quoteReplacement(
-                    resolved != null ? resolved.toString() : ""));
-        }
-        m.appendTail(sb);
-        return sb.toString();
-    }
-
-    /** Resolve a single reference path like "payload.field" or "steps.alias.field". */
-    @SuppressWarnings("unchecked")
-    private Object resolveReference(String path) {
-        String[] parts = path.split("\\.", 2);
-        String root = parts[0];
-        String remainder = parts.length > 1 ? parts[1] : null;
-
-        Object source = switch (root) {
-            case "payload" -> remainder == null ? originalPayload : drill(originalPayload, remainder);
-            case "prev" -> remainder == null ? previousOutput : drill(previousOutput, remainder);
-            case "steps" -> {
-                if (remainder == null) yield stepOutputs;
-                String[] stepParts = remainder.split("\\.", 2);
-                Map<String, Object> stepData = stepOutputs.get(stepParts[0]);
-                yield stepParts.length > 1 ? drill(stepData, stepParts[1]) : stepData;
-            }
+    /** Resolve a single reference like "payload.field" or "steps.alias.field". */
+    @Override
+    public Object lookup(ChainExpression.Ref ref) {
+        boolean whole = ref.size() == 1;
+        return switch (ref.root()) {
+            case "payload" -> whole ? originalPayload : ref.drill(originalPayload, 1);
+            case "prev" -> whole ? previousOutput : ref.drill(previousOutput, 1);
+            case "steps" -> whole ? stepOutputs : ref.drill(stepOutputs.get(ref.segment(1)), 2);
             case "chain" -> {
-                if ("request_id".equals(remainder)) yield requestId;
-                if ("step".equals(remainder)) yield currentStep;
+                if (ref.size() != 2) yield null;
+                if ("request_id".equals(ref.segment(1))) yield requestId;
+                if ("step".equals(ref.segment(1))) yield currentStep;
                 yield null;
             }
-            default -> drill(originalPayload, path); // fallback: treat as payload field
+            default -> ref.drill(originalPayload, 0); // fallback: treat as payload field
         };
-        return source;
-    }
-
-    /** Drill into a nested map using dot-separated path. */
-    @SuppressWarnings("unchecked")
-    private Object drill(Map<String, Object> map, String path) {
-        if (map == null || path == null) return null;
-        String[] parts = path.split("\\.");
-        Object current = map;
-        for (String part : parts) {
-            if (current instanceof Map<?, ?> m) {
-                current = m.get(part);
-            } else {
-                return null;
-            }
-        }
-        return current;
-    }
-
-    private static String stripQuotes(String s) {
-        if (s.length() >= 2 && ((s.startsWith("'") && s.endsWith("'")) ||
-                (s.startsWith("\"") && s.endsWith("\"")))) {
-            return s.substring(1, s.length() - 1);
-        }
-        return s;
-    }
-
-    private static boolean isTruthy(String s) {
-        if (s == null || s.isBlank() || s.equals("null") || s.equals("false") || s.equals("0")) return false;
-        return true;
     }
 }
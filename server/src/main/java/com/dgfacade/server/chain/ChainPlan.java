@@ -0,0 +1,414 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.chain;
+
+import com.dgfacade.common.model.ChainConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, pre-compiled execution plan of one chain definition.
+ *
+ * <p>Built once when the chain is loaded: {@code when} expressions become
+ * {@link ChainCondition}s, {@code payload_mapping}s become {@link ChainExpression.Node}
+ * trees, built-in step handler classes are resolved, and merge / join strategies are bound
+ * to functions. {@code ChainHandler} then only walks the plan per request — no map lookups
+ * on the raw definition, no regex work, no {@code Class.forName}.</p>
+ *
+ * <h3>Linear and DAG chains</h3>
+ * <p>A chain whose steps declare {@code depends_on} compiles to a DAG: each step depends on
+ * the steps it lists plus every step its {@code payload_mapping} / {@code when} references
+ * (<code>${steps.alias...}</code>), and {@link #getSteps()} is in dependency order. Unknown or
+ * duplicate aliases, cycles and {@code parallel} groups are rejected at compile time. A linear
+ * chain is the degenerate DAG in which every step depends on the one before it; its steps keep
+ * their definition order and its pipeline state semantics ({@code prev}, merge strategies).</p>
+ *
+ * <p>A plan is shared by every execution of its chain and holds no per-request state.</p>
+ */
+public final class ChainPlan {
+
+    private static final Logger log = LoggerFactory.getLogger(ChainPlan.class);
+
+    /** Built-in step types, used when the handler registry has no config for the type. */
+    private static final Map<String, String> BUILTIN_HANDLERS = Map.ofEntries(
+            Map.entry("ECHO", "com.dgfacade.server.handler.EchoHandler"),
+            Map.entry("ARITHMETIC", "com.dgfacade.server.handler.ArithmeticHandler"),
+            Map.entry("STRING_TRANSFORM", "com.dgfacade.server.handler.StringTransformHandler"),
+            Map.entry("HASH", "com.dgfacade.server.handler.HashHandler"),
+            Map.entry("JSON_TRANSFORM", "com.dgfacade.server.handler.JsonTransformHandler"),
+            Map.entry("SYSTEM_INFO", "com.dgfacade.server.handler.SystemInfoHandler"),
+            Map.entry("HTTP_PROBE", "com.dgfacade.server.handler.HttpProbeHandler"),
+            Map.entry("DELAYED", "com.dgfacade.server.handler.DelayedHandler"),
+            Map.entry("WS_DEMO", "com.dgfacade.server.handler.WebSocketDemoHandler"));
+
+    private final String chainId;
+    private final ChainConfig.ErrorStrategy errorStrategy;
+    private final List<Step> steps;
+    private final boolean dag;
+    private final List<Step> sinks;
+    private final long timeoutMs;
+
+    private ChainPlan(String chainId, ChainConfig.ErrorStrategy errorStrategy, List<Step> steps,
+                      boolean dag, List<Step> sinks, long timeoutMs) {
+        this.chainId = chainId;
+        this.errorStrategy = errorStrategy;
+        this.steps = steps;
+        this.dag = dag;
+        this.sinks = sinks;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Compile a chain definition in its JSON map form.
+     *
+     * @param definition     the chain JSON ({@code chain_id}, {@code error_strategy}, {@code steps})
+     * @param defaultChainId used when the definition has no {@code chain_id}
+     * @throws IllegalArgumentException if {@code steps} or a step is not of the expected JSON type,
+     *                                  or a DAG chain's dependencies are invalid
+     */
+    public static ChainPlan compile(Map<String, Object> definition, String defaultChainId) {
+        String chainId = str(definition, "chain_id", defaultChainId);
+        String errorStrategy = str(definition, "error_strategy", "ABORT");
+        Object rawSteps = definition.getOrDefault("steps", List.of());
+        if (!(rawSteps instanceof List<?> list)) {
+            throw new IllegalArgumentException("Chain '" + chainId + "': 'steps' must be an array");
+        }
+        List<Map<String, Object>> stepDefs = new ArrayList<>(list.size());
+        for (Object rawStep : list) stepDefs.add(asMap(rawStep, chainId));
+        ChainConfig.ErrorStrategy strategy = errorStrategy(errorStrategy, chainId);
+        long timeoutMs = Math.max(1, intVal(definition, "ttl_minutes", 30)) * 60_000L;
+
+        if (stepDefs.stream().anyMatch(d -> d.containsKey("depends_on"))) {
+            return compileDag(chainId, strategy, stepDefs, timeoutMs);
+        }
+        List<Step> steps = new ArrayList<>(stepDefs.size());
+        String previous = null;
+        for (Map<String, Object> stepDef : stepDefs) {
+            List<String> dependsOn = previous != null ? List.of(previous) : List.of();
+            Step step = stepDef.containsKey("parallel")
+                    ? compileParallel(stepDef, dependsOn, chainId)
+                    : compileStep(stepDef, stepDef.get("step"),
+                            str(stepDef, "alias", "step_" + stepDef.get("step")), dependsOn, chainId);
+            steps.add(step);
+            previous = step.getAlias();
+        }
+        List<Step> sinks = steps.isEmpty() ? List.of() : List.of(steps.get(steps.size() - 1));
+        return new ChainPlan(chainId, strategy, List.copyOf(steps), false, sinks, timeoutMs);
+    }
+
+    private static ChainPlan compileDag(String chainId, ChainConfig.ErrorStrategy strategy,
+                                        List<Map<String, Object>> stepDefs, long timeoutMs) {
+        Map<String, Map<String, Object>> byAlias = new LinkedHashMap<>();
+        for (Map<String, Object> stepDef : stepDefs) {
+            if (stepDef.containsKey("parallel")) {
+                throw new IllegalArgumentException("Chain '" + chainId
+                        + "': 'parallel' groups are not allowed in a DAG chain; use depends_on");
+            }
+            String alias = str(stepDef, "alias", "step_" + stepDef.get("step"));
+            if (byAlias.put(alias, stepDef) != null) {
+                throw new IllegalArgumentException("Chain '" + chainId + "': duplicate step alias '" + alias + "'");
+            }
+        }
+
+        // Declared dependencies plus every step the mapping or condition reads
+        Map<String, Set<String>> deps = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> e : byAlias.entrySet()) {
+            String alias = e.getKey();
+            Set<String> stepDeps = new LinkedHashSet<>();
+            Object declared = e.getValue().get("depends_on");
+            if (declared instanceof List<?> l) l.forEach(d -> stepDeps.add(String.valueOf(d)));
+            else if (declared != null) stepDeps.add(declared.toString());
+            for (String d : stepDeps) {
+                if (!byAlias.containsKey(d)) {
+                    throw new IllegalArgumentException("Chain '" + chainId + "': step '" + alias
+                            + "' depends on unknown step '" + d + "'");
+                }
+            }
+            List<ChainExpression.Ref> refs = new ArrayList<>(ChainExpression.references(e.getValue().get("payload_mapping")));
+            refs.addAll(ChainExpression.references(e.getValue().get("when")));
+            for (ChainExpression.Ref ref : refs) {
+                String referenced = "steps".equals(ref.root()) && ref.size() > 1 ? ref.segment(1) : ref.root();
+                if (byAlias.containsKey(referenced)) stepDeps.add(referenced);
+            }
+            if (stepDeps.contains(alias)) {
+                throw new IllegalArgumentException("Chain '" + chainId + "': step '" + alias + "' depends on itself");
+            }
+            deps.put(alias, stepDeps);
+        }
+
+        // Kahn's algorithm: dependency order, ties kept in definition order
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        deps.forEach((alias, d) -> {
+            pending.put(alias, d.size());
+            for (String dep : d) dependents.computeIfAbsent(dep, k -> new ArrayList<>()).add(alias);
+        });
+        Deque<String> ready = new ArrayDeque<>();
+        deps.keySet().forEach(alias -> { if (pending.get(alias) == 0) ready.add(alias); });
+        List<Step> ordered = new ArrayList<>(deps.size());
+        Set<String> hasDependents = new HashSet<>(dependents.keySet());
+        while (!ready.isEmpty()) {
+            String alias = ready.poll();
+            ordered.add(compileStep(byAlias.get(alias), byAlias.get(alias).get("step"), alias,
+                    List.copyOf(deps.get(alias)), chainId));
+            for (String next : dependents.getOrDefault(alias, List.of())) {
+                if (pending.merge(next, -1, Integer::sum) == 0) ready.add(next);
+            }
+        }
+        if (ordered.size() != deps.size()) {
+            List<String> cyclic = deps.keySet().stream().filter(a -> pending.get(a) > 0).toList();
+            throw new IllegalArgumentException("Chain '" + chainId + "': dependency cycle among " + cyclic);
+        }
+        List<Step> sinks = ordered.stream().filter(st -> !hasDependents.contains(st.getAlias())).toList();
+        return new ChainPlan(chainId, strategy, List.copyOf(ordered), true, sinks, timeoutMs);
+    }
+
+    public String getChainId() { return chainId; }
+    public ChainConfig.ErrorStrategy getErrorStrategy() { return errorStrategy; }
+    /** The steps in execution order: definition order for linear chains, dependency order for DAGs. */
+    public List<Step> getSteps() { return steps; }
+    public int size() { return steps.size(); }
+    /** Whether the chain declares {@code depends_on} and runs steps as their inputs become ready. */
+    public boolean isDag() { return dag; }
+    /** Steps no other step depends on; their outputs form a DAG chain's result. */
+    public List<Step> getSinks() { return sinks; }
+    /** Overall bound on one execution, from the chain's {@code ttl_minutes}. */
+    public long getTimeoutMs() { return timeoutMs; }
+
+    // ─── Steps ─────────────────────────────────────────────────────────
+
+    /** One compiled step: a handler invocation, or a parallel group of branch steps. */
+    public static final class Step {
+        private final Object number;
+        private final String alias;
+        private final String handler;
+        private final Class<?> builtinClass;
+        private final Map<String, Object> handlerConfig;
+        private final Map<String, Object> fallback;
+        private final ChainExpression.Node mapping;
+        private final ChainCondition condition;
+        private final Merge merge;
+        private final List<Step> branches;
+        private final Join join;
+        private final List<String> dependsOn;
+
+        private Step(Object number, String alias, String handler, Class<?> builtinClass,
+                     Map<String, Object> handlerConfig, Map<String, Object> fallback,
+                     ChainExpression.Node mapping, ChainCondition condition, Merge merge,
+                     List<Step> branches, Join join, List<String> dependsOn) {
+            this.number = number;
+            this.alias = alias;
+            this.handler = handler;
+            this.builtinClass = builtinClass;
+            this.handlerConfig = handlerConfig;
+            this.fallback = fallback;
+            this.mapping = mapping;
+            this.condition = condition;
+            this.merge = merge;
+            this.branches = branches;
+            this.join = join;
+            this.dependsOn = dependsOn;
+        }
+
+        /** The {@code step} number as written in the definition, echoed in traces. */
+        public Object getNumber() { return number; }
+        public String getAlias() { return alias; }
+        /** The step's request type; null if the definition names none. */
+        public String getHandler() { return handler; }
+        /** The built-in handler class for {@link #getHandler()}, or null if it is not a built-in. */
+        public Class<?> getBuiltinClass() { return builtinClass; }
+        /** The inline {@code handler_config}, or null when the registered handler config applies. */
+        public Map<String, Object> getHandlerConfig() { return handlerConfig; }
+        /** Output used under the FALLBACK error strategy. */
+        public Map<String, Object> getFallback() { return fallback; }
+        /** The compiled {@code payload_mapping}; null passes the previous output on. */
+        public ChainExpression.Node getMapping() { return mapping; }
+        /** The compiled {@code when}; null when the step is unconditional. */
+        public ChainCondition getCondition() { return condition; }
+        public Merge getMerge() { return merge; }
+        public boolean isParallel() { return branches != null; }
+        public List<Step> getBranches() { return branches; }
+        public Join getJoin() { return join; }
+        /** Aliases of the steps whose outputs this step waits for. */
+        public List<String> getDependsOn() { return dependsOn; }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Step compileStep(Map<String, Object> stepDef, Object number, String alias,
+                                    List<String> dependsOn, String chainId) {
+        String handler = str(stepDef, "handler", null);
+        Object mapping = stepDef.get("payload_mapping");
+        Object handlerConfig = stepDef.get("handler_config");
+        Object fallback = stepDef.get("fallback");
+        String when = str(stepDef, "when", null);
+        return new Step(number, alias, handler, builtinClass(handler, chainId),
+                handlerConfig instanceof Map ? Collections.unmodifiableMap((Map<String, Object>) handlerConfig) : null,
+                fallback instanceof Map ? Collections.unmodifiableMap((Map<String, Object>) fallback) : Map.of("_fallback", true),
+                mapping instanceof Map ? ChainExpression.compile(mapping, true) : null,
+                when != null ? ChainCondition.compile(when) : null,
+                merge(str(stepDef, "merge_strategy", "REPLACE")),
+                null, null, dependsOn);
+    }
+
+    private static Step compileParallel(Map<String, Object> stepDef, List<String> dependsOn, String chainId) {
+        Object rawBranches = stepDef.get("parallel");
+        List<Step> branches = new ArrayList<>();
+        int number = intVal(stepDef, "step", 0);
+        if (rawBranches instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                Map<String, Object> branch = asMap(list.get(i), chainId);
+                branches.add(compileStep(branch, number, str(branch, "alias", "branch_" + i), dependsOn, chainId));
+            }
+        }
+        return new Step(number, str(stepDef, "alias", "step_" + stepDef.get("step")), null, null, null, null,
+                null, null, null, List.copyOf(branches), join(str(stepDef, "join_strategy", "KEYED")), dependsOn);
+    }
+
+    private static Class<?> builtinClass(String handler, String chainId) {
+        if (handler == null) return null;
+        String className = BUILTIN_HANDLERS.get(handler.toUpperCase(Locale.ROOT));
+        if (className == null) return null;
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.warn("Chain '{}': built-in handler class {} for {} is not available", chainId, className, handler);
+            return null;
+        }
+    }
+
+    // ─── Merge strategies ──────────────────────────────────────────────
+
+    /** Folds a step's output into the pipeline state; always returns a new map. */
+    @FunctionalInterface
+    public interface Merge {
+        Map<String, Object> apply(Map<String, Object> prev, Map<String, Object> output, String alias);
+    }
+
+    private static final Merge REPLACE = (prev, output, alias) -> new LinkedHashMap<>(output);
+    private static final Merge MERGE_PREV = (prev, output, alias) -> {
+        Map<String, Object> m = new LinkedHashMap<>(prev);
+        m.putAll(output);
+        return m;
+    };
+    private static final Merge APPEND = (prev, output, alias) -> {
+        Map<String, Object> m = new LinkedHashMap<>(prev);
+        m.put(alias, output);
+        return m;
+    };
+    private static final Merge PASSTHROUGH = (prev, output, alias) -> new LinkedHashMap<>(prev);
+
+    /** The function for a {@link ChainConfig.MergeStrategy}. */
+    public static Merge merge(ChainConfig.MergeStrategy strategy) {
+        return switch (strategy) {
+            case REPLACE -> REPLACE;
+            case MERGE_PREV -> MERGE_PREV;
+            case APPEND -> APPEND;
+            case PASSTHROUGH -> PASSTHROUGH;
+        };
+    }
+
+    private static Merge merge(String strategy) {
+        return switch (strategy.toUpperCase(Locale.ROOT)) {
+            case "MERGE_PREV" -> MERGE_PREV;
+            case "APPEND" -> APPEND;
+            case "PASSTHROUGH" -> PASSTHROUGH;
+            default -> REPLACE;
+        };
+    }
+
+    // ─── Join strategies ───────────────────────────────────────────────
+
+    /**
+     * Combines the outputs of a parallel step's branches: {@link #collect} is called once per
+     * successful branch, in branch order, then {@link #apply} folds the result into the pipeline state.
+     */
+    public interface Join {
+        void collect(Map<String, Object> joined, String alias, Map<String, Object> output);
+        Map<String, Object> apply(Map<String, Object> prev, Map<String, Object> joined);
+    }
+
+    private static final Join KEYED = new Join() {
+        @Override public void collect(Map<String, Object> joined, String alias, Map<String, Object> output) {
+            joined.put(alias, output);
+        }
+        @Override public Map<String, Object> apply(Map<String, Object> prev, Map<String, Object> joined) {
+            Map<String, Object> m = new LinkedHashMap<>(prev);
+            m.put("parallel_results", joined);
+            return m;
+        }
+    };
+    private static final Join MERGE_ALL = new Join() {
+        @Override public void collect(Map<String, Object> joined, String alias, Map<String, Object> output) {
+            joined.putAll(output);
+        }
+        @Override public Map<String, Object> apply(Map<String, Object> prev, Map<String, Object> joined) {
+            Map<String, Object> m = new LinkedHashMap<>(prev);
+            m.putAll(joined);
+            return m;
+        }
+    };
+    private static final Join FIRST_SUCCESS = new Join() {
+        @Override public void collect(Map<String, Object> joined, String alias, Map<String, Object> output) {
+            if (joined.isEmpty()) joined.putAll(output);
+        }
+        @Override public Map<String, Object> apply(Map<String, Object> prev, Map<String, Object> joined) {
+            return joined.isEmpty() ? prev : new LinkedHashMap<>(joined);
+        }
+    };
+
+    private static Join join(String strategy) {
+        return switch (strategy.toUpperCase(Locale.ROOT)) {
+            case "MERGE_ALL" -> MERGE_ALL;
+            case "FIRST_SUCCESS" -> FIRST_SUCCESS;
+            default -> KEYED;
+        };
+    }
+
+    // ─── Helpers ───────────────────────────────────────────────────────
+
+    private static ChainConfig.ErrorStrategy errorStrategy(String value, String chainId) {
+        try {
+            return ChainConfig.ErrorStrategy.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Unknown strategies have always behaved like SKIP: carry on with the state unchanged
+            log.warn("Chain '{}': unknown error_strategy '{}', using SKIP", chainId, value);
+            return ChainConfig.ErrorStrategy.SKIP;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value, String chainId) {
+        if (value instanceof Map<?, ?> map) return (Map<String, Object>) map;
+        throw new IllegalArgumentException("Chain '" + chainId + "': step definitions must be objects");
+    }
+
+    private static String str(Map<String, Object> m, String k, String d) {
+        Object v = m.get(k);
+        return v != null ? v.toString() : d;
+    }
+
+    private static int intVal(Map<String, Object> m, String k, int d) {
+        Object v = m.get(k);
+        if (v instanceof Number n) return n.intValue();
+        if (v instanceof String s) {
+            try { return Integer.parseInt(s); } catch (NumberFormatException e) { return d; }
+        }
+        return d;
+    }
+}
@@ -8,6 +8,8 @@ package com.dgfacade.server.channel;
 import com.dgfacade.messaging.config.MessagingFactory;
 import com.dgfacade.messaging.core.DataPublisher;
 import com.dgfacade.messaging.core.DataSubscriber;
+import com.dgfacade.messaging.core.MessageEnvelope;
+import com.dgfacade.messaging.core.MessageListener;
 import com.dgfacade.common.model.BrokerConfig;
 import com.dgfacade.server.service.BrokerService;
 import com.dgfacade.server.service.InputChannelService;
@@ -17,6 +19,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Provides handlers with access to Input and Output channels for real pub/sub messaging.
@@ -53,6 +57,8 @@ public class ChannelAccessor {
 
     private final ConcurrentHashMap<String, DataPublisher> publisherCache = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, DataSubscriber> subscriberCache = new ConcurrentHashMap<>();
+    /** Shared per-topic listeners, keyed by {@code inputChannelId|topic}; mutated under its own lock. */
+    private final ConcurrentHashMap<String, TopicFanout> fanouts = new ConcurrentHashMap<>();
 
     public ChannelAccessor(BrokerService brokerService,
                            InputChannelService inputChannelService,
@@ -114,6 +120,54 @@ public class ChannelAccessor {
         });
     }
 
+    /**
+     * Attach a listener to one topic of an Input Channel. Any number of listeners may share a
+     * topic: the channel's cached subscriber gets a single listener per topic that fans each
+     * message out to all of them, and is started on first use. Closing the returned handle
+     * detaches the listener; the last one to leave unsubscribes the topic.
+     *
+     * <p>Listeners run on the subscriber's dispatch thread and must not block.</p>
+     *
+     * @param inputChannelId the input channel ID
+     * @param topic          topic or queue to consume
+     * @param listener       callback for each message
+     * @return handle that detaches the listener; safe to close more than once
+     * @throws IllegalArgumentException if the channel or its broker is not found
+     */
+    public AutoCloseable subscribe(String inputChannelId, String topic, MessageListener listener) {
+        DataSubscriber subscriber = getSubscriber(inputChannelId);
+        String key = inputChannelId + "|" + topic;
+        synchronized (fanouts) {
+            TopicFanout fanout = fanouts.get(key);
+            if (fanout == null) {
+                fanout = new TopicFanout();
+                fanouts.put(key, fanout);
+                subscriber.subscribe(topic, fanout);
+            }
+            fanout.listeners.add(listener);
+        }
+        subscriber.start();
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (!closed.compareAndSet(false, true)) return;
+            synchronized (fanouts) {
+                TopicFanout fanout = fanouts.get(key);
+                if (fanout == null) return;
+                fanout.listeners.remove(listener);
+                if (fanout.listeners.isEmpty()) {
+                    fanouts.remove(key);
+                    subscriber.unsubscribe(topic);
+                }
+            }
+        };
+    }
+
+    /** Number of listeners currently attached to a topic via {@link #subscribe(String, String, MessageListener)}. */
+    public int getListenerCount(String inputChannelId, String topic) {
+        TopicFanout fanout = fanouts.get(inputChannelId + "|" + topic);
+        return fanout != null ? fanout.listeners.size() : 0;
+    }
+
     /**
      * Get the configured destinations for a channel.
      *
@@ -175,10 +229,27 @@ public class ChannelAccessor {
         });
         publisherCache.clear();
         subscriberCache.clear();
+        fanouts.clear();
     }
 
     // ─── Internal helpers ────────────────────────────────────────────────────
 
+    /** The one listener a shared subscriber holds for a topic; delivers to every attached listener. */
+    private static final class TopicFanout implements MessageListener {
+        private final List<MessageListener> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onMessage(MessageEnvelope envelope) {
+            for (MessageListener listener : listeners) {
+                try {
+                    listener.onMessage(envelope);
+                } catch (Exception e) {
+                    log.error("Listener error on topic '{}'", envelope.getTopic(), e);
+                }
+            }
+        }
+    }
+
     /** Resolved broker: typed config + raw JSON map for nested block pass-through. */
     private record ResolvedBroker(BrokerConfig config, Map<String, Object> rawMap) {}
 
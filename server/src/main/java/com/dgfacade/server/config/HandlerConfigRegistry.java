@@ -7,6 +7,8 @@ package com.dgfacade.server.config;
 
 import com.dgfacade.common.model.HandlerConfig;
 import com.dgfacade.common.util.JsonUtil;
+import com.dgfacade.server.handler.HandlerFactory;
+import com.dgfacade.server.metrics.MetricsService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,11 +18,16 @@ import java.io.IOException;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Loads and caches handler configurations from JSON files.
  * Looks for handler configs in: config/handlers/<userId>.json and config/handlers/default.json.
  * Reloads automatically when files change.
+ *
+ * <p>Configs marked {@code "reusable": true} get a {@link HandlerPool} of constructed
+ * instances, keyed by config identity. A reload replaces the config objects, so pools
+ * belonging to configs that are no longer referenced are closed and rebuilt.</p>
  */
 public class HandlerConfigRegistry {
 
@@ -30,6 +37,10 @@ public class HandlerConfigRegistry {
     // userId -> (requestType -> HandlerConfig)
     private final Map<String, Map<String, HandlerConfig>> userConfigs = new ConcurrentHashMap<>();
     private Map<String, HandlerConfig> defaultConfigs = new ConcurrentHashMap<>();
+    // HandlerConfig (by identity) -> pool of reusable instances
+    private final Map<HandlerConfig, HandlerPool> pools = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile MetricsService metricsService;
 
     public HandlerConfigRegistry(String configDir) {
         this.configDir = configDir;
@@ -63,6 +74,37 @@ public class HandlerConfigRegistry {
         return types;
     }
 
+    /**
+     * Inject the metrics service so handler pools can export their gauges.
+     * Pools already created are registered immediately.
+     */
+    public void setMetricsService(MetricsService metricsService) {
+        this.metricsService = metricsService;
+        synchronized (pools) {
+            pools.values().forEach(p -> p.setMetricsService(metricsService));
+        }
+    }
+
+    /**
+     * Get the instance pool for a config, or {@code null} if the config is not reusable.
+     */
+    public HandlerPool getPool(HandlerConfig config) {
+        if (config == null || !config.isReusable()) return null;
+        return pools.get(config);
+    }
+
+    /** Snapshot of all live handler pools (for monitoring). */
+    public List<HandlerPool> getPools() {
+        synchronized (pools) {
+            return new ArrayList<>(pools.values());
+        }
+    }
+
+    /** Register a callback invoked after every successful {@link #reload()}. */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
     public void reload() {
         log.info("Loading handler configurations from: {}", configDir);
         File dir = new File(configDir);
@@ -92,10 +134,43 @@ public class HandlerConfigRegistry {
                     userConfigs.put(name, configMap);
                     log.info("Loaded {} handler configs for user: {}", configMap.size(), name);
                 }
+                for (HandlerConfig hc : configMap.values()) {
+                    if (hc.isEnabled()) HandlerFactory.warm(hc);
+                    if (hc.isReusable()) createPool(name, hc);
+                }
             } catch (IOException e) {
                 log.error("Failed to load handler config: {}", file.getName(), e);
             }
         }
+        closeStalePools();
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    // ─── Handler Pools ──────────────────────────────────────────────────
+
+    private void createPool(String owner, HandlerConfig config) {
+        HandlerPool pool = new HandlerPool(owner, config);
+        pool.setMetricsService(metricsService);
+        pools.put(config, pool);
+    }
+
+    /** Close pools whose config object is no longer served by the registry. */
+    private void closeStalePools() {
+        Set<HandlerConfig> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(defaultConfigs.values());
+        userConfigs.values().forEach(m -> live.addAll(m.values()));
+        List<HandlerPool> stale = new ArrayList<>();
+        synchronized (pools) {
+            Iterator<Map.Entry<HandlerConfig, HandlerPool>> it = pools.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<HandlerConfig, HandlerPool> entry = it.next();
+                if (!live.contains(entry.getKey())) {
+                    stale.add(entry.getValue());
+                    it.remove();
+                }
+            }
+        }
+        stale.forEach(HandlerPool::close);
     }
 
     // ═══ CRUD for handler config files ═══
@@ -164,6 +239,7 @@ public class HandlerConfigRegistry {
                 } else {
                     userConfigs.remove(fileId);
                 }
+                closeStalePools();
                 log.info("Deleted handler config file: {}", fileId);
             }
             return deleted;
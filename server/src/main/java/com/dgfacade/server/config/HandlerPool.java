@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.config;
+
+import com.dgfacade.common.model.HandlerConfig;
+import com.dgfacade.server.handler.DGHandler;
+import com.dgfacade.server.handler.HandlerFactory;
+import com.dgfacade.server.metrics.MetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of already-constructed {@link DGHandler} instances for one handler config.
+ *
+ * <p>Created by {@link HandlerConfigRegistry} for configs marked {@code "reusable": true}.
+ * Instances are created lazily up to {@code pool_size}, constructed once with the config
+ * dictionary, and handed out one request at a time. On return the pool calls
+ * {@link DGHandler#reset()}; instances that failed or were stopped are discarded via
+ * {@link #invalidate(DGHandler)} so a broken handler never serves a second request.</p>
+ *
+ * <p>When every instance is busy, {@link #borrow()} waits up to
+ * {@code pool_borrow_timeout_ms} (default 0) and then returns {@code null}; callers
+ * fall back to a transient, non-pooled instance so the pool never rejects work.</p>
+ */
+public class HandlerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(HandlerPool.class);
+
+    private final String owner;
+    private final HandlerConfig config;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final BlockingQueue<DGHandler> idle;
+    private final AtomicInteger created = new AtomicInteger(0);
+    private final AtomicInteger inUse = new AtomicInteger(0);
+    private final AtomicLong borrowCount = new AtomicLong(0);
+    private final AtomicLong exhaustedCount = new AtomicLong(0);
+    private volatile MetricsService metricsService;
+    private volatile boolean closed = false;
+
+    HandlerPool(String owner, HandlerConfig config) {
+        this.owner = owner;
+        this.config = config;
+        this.maxSize = config.getPoolSize() > 0
+                ? config.getPoolSize() : Runtime.getRuntime().availableProcessors() * 2;
+        this.borrowTimeoutMs = Math.max(0, config.getPoolBorrowTimeoutMs());
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    void setMetricsService(MetricsService metricsService) {
+        this.metricsService = metricsService;
+        if (metricsService != null) metricsService.registerHandlerPool(this);
+    }
+
+    /**
+     * Borrow a constructed handler. Returns {@code null} if the pool is exhausted
+     * (or closed) after waiting up to the configured borrow timeout.
+     */
+    public DGHandler borrow() throws Exception {
+        if (closed) return null;
+        long start = System.nanoTime();
+        DGHandler handler = idle.poll();
+        if (handler == null) handler = tryGrow();
+        if (handler == null && borrowTimeoutMs > 0) {
+            try {
+                handler = idle.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long waitNanos = System.nanoTime() - start;
+        if (handler == null) {
+            exhaustedCount.incrementAndGet();
+            if (metricsService != null) metricsService.recordPoolBorrow(config.getRequestType(), waitNanos, false);
+            log.debug("Handler pool {} exhausted ({} instances busy)", describe(), inUse.get());
+            return null;
+        }
+        inUse.incrementAndGet();
+        borrowCount.incrementAndGet();
+        if (metricsService != null) metricsService.recordPoolBorrow(config.getRequestType(), waitNanos, true);
+        return handler;
+    }
+
+    /** Return a healthy handler to the pool after a successful execution. */
+    public void release(DGHandler handler) {
+        inUse.decrementAndGet();
+        if (closed) {
+            discard(handler);
+            return;
+        }
+        try {
+            handler.reset();
+        } catch (Exception e) {
+            log.warn("Handler pool {} reset failed — discarding instance: {}", describe(), e.getMessage());
+            discard(handler);
+            return;
+        }
+        if (!idle.offer(handler)) discard(handler);
+    }
+
+    /** Drop a handler that failed, timed out or was stopped. */
+    public void invalidate(DGHandler handler) {
+        inUse.decrementAndGet();
+        discard(handler);
+    }
+
+    /** Close the pool (config reloaded or removed). Idle instances are cleaned up immediately. */
+    void close() {
+        closed = true;
+        DGHandler handler;
+        while ((handler = idle.poll()) != null) discard(handler);
+        log.info("Handler pool {} closed", describe());
+    }
+
+    private DGHandler tryGrow() throws Exception {
+        while (true) {
+            int current = created.get();
+            if (current >= maxSize) return null;
+            if (created.compareAndSet(current, current + 1)) break;
+        }
+        try {
+            DGHandler handler = HandlerFactory.create(config);
+            handler.construct(config.getConfig());
+            log.debug("Handler pool {} grew to {} instance(s)", describe(), created.get());
+            return handler;
+        } catch (Exception e) {
+            created.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void discard(DGHandler handler) {
+        created.decrementAndGet();
+        try { handler.cleanup(); } catch (Exception e) { log.warn("Cleanup error in pool {}", describe(), e); }
+    }
+
+    private String describe() { return owner + "/" + config.getRequestType(); }
+
+    public String getOwner() { return owner; }
+    public String getRequestType() { return config.getRequestType(); }
+    public int getMaxSize() { return maxSize; }
+    public int getCreatedCount() { return created.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getInUseCount() { return inUse.get(); }
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getExhaustedCount() { return exhaustedCount.get(); }
+    public boolean isClosed() { return closed; }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.server.metrics.MetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive in-flight limit per request type, placed in front of the engine's dispatch.
+ *
+ * <p>Each request type gets its own {@link Limit}. Handler latency (dispatch → response) is
+ * sampled into short windows; at the end of a window its p99 is compared with a slowly moving
+ * baseline (gradient algorithm):</p>
+ * <ul>
+ *   <li>p99 within {@code tolerance × baseline} — the limit grows by about {@code √limit}
+ *       per window, provided the type actually used at least half of its limit</li>
+ *   <li>p99 inflated — the limit shrinks by the ratio {@code tolerance × baseline / p99}
+ *       (at most halved per window)</li>
+ *   <li>a timed-out request — immediate multiplicative decrease (AIMD backoff)</li>
+ * </ul>
+ *
+ * <p>Requests arriving while a type is at its limit are shed by the engine with
+ * {@code DGResponse.Status.OVERLOADED}. Limits move smoothly (20% per window) and stay
+ * within {@code [minLimit, maxLimit]}.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final int WINDOW_SAMPLES = 100;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_ALPHA = 0.05;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+    private volatile Supplier<MetricsService> metrics = () -> null;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.initialLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        log.info("AdaptiveConcurrencyLimiter initialized — initial: {}, min: {}, max: {}",
+                this.initialLimit, this.minLimit, this.maxLimit);
+    }
+
+    /** Supplier so limits created before MetricsService is injected still register their gauges. */
+    void setMetrics(Supplier<MetricsService> metrics) {
+        this.metrics = metrics;
+        MetricsService ms = metrics.get();
+        if (ms != null) limits.values().forEach(ms::registerConcurrencyLimit);
+    }
+
+    /** Get (or create on first request) the limit for a request type. */
+    public Limit forType(String requestType) {
+        return limits.computeIfAbsent(requestType, type -> {
+            Limit limit = new Limit(type);
+            MetricsService ms = metrics.get();
+            if (ms != null) ms.registerConcurrencyLimit(limit);
+            return limit;
+        });
+    }
+
+    public Collection<Limit> getLimits() { return limits.values(); }
+
+    /** In-flight limit and latency window for one request type. */
+    public final class Limit {
+        private final String requestType;
+        private final AtomicLong shedCount = new AtomicLong();
+        private final long[] window = new long[WINDOW_SAMPLES];
+        // All fields below are guarded by this
+        private double limit = initialLimit;
+        private int inFlight;
+        private int maxInFlightInWindow;
+        private int samples;
+        private long windowStartNanos = System.nanoTime();
+        private double baselineNanos;
+
+        private Limit(String requestType) {
+            this.requestType = requestType;
+        }
+
+        /** @return true if the request may proceed; the caller must then call {@link #release}. */
+        public synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                shedCount.incrementAndGet();
+                return false;
+            }
+            inFlight++;
+            if (inFlight > maxInFlightInWindow) maxInFlightInWindow = inFlight;
+            return true;
+        }
+
+        /**
+         * Release an acquired slot.
+         *
+         * @param latencyNanos handler latency, or a negative value if the request never ran
+         * @param dropped      true if the request timed out (treated as a congestion signal)
+         */
+        public synchronized void release(long latencyNanos, boolean dropped) {
+            inFlight--;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * DROP_BACKOFF);
+                return;
+            }
+            if (latencyNanos < 0) return;
+            window[samples++] = latencyNanos;
+            long now = System.nanoTime();
+            if (samples == WINDOW_SAMPLES || (samples >= MIN_WINDOW_SAMPLES && now - windowStartNanos >= WINDOW_NANOS)) {
+                adjust(percentile99());
+                samples = 0;
+                maxInFlightInWindow = inFlight;
+                windowStartNanos = now;
+            }
+        }
+
+        private void adjust(long p99) {
+            if (baselineNanos == 0) baselineNanos = p99;
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineNanos / Math.max(1, p99)));
+            double target = limit * gradient;
+            // Only probe upwards when the type is actually using its limit
+            if (gradient >= 1.0 && maxInFlightInWindow * 2 >= (int) limit) target += Math.sqrt(limit);
+            double previous = limit;
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+            // Long-term baseline follows latency slowly, but improvements immediately
+            baselineNanos = p99 < baselineNanos ? p99 : baselineNanos * (1 - BASELINE_ALPHA) + p99 * BASELINE_ALPHA;
+            if ((int) previous != (int) limit) {
+                log.debug("Limit for {}: {} → {} (p99={}µs, baseline={}µs)", requestType, (int) previous,
+                        (int) limit, p99 / 1000, (long) baselineNanos / 1000);
+            }
+        }
+
+        private long percentile99() {
+            long[] sorted = Arrays.copyOf(window, samples);
+            Arrays.sort(sorted);
+            return sorted[Math.min(samples - 1, (int) Math.ceil(samples * 0.99) - 1)];
+        }
+
+        public String getRequestType() { return requestType; }
+        public synchronized int getLimit() { return (int) limit; }
+        public synchronized int getInFlight() { return inFlight; }
+        public long getShedCount() { return shedCount.get(); }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a batch of requests read from a stream and writes their responses as NDJSON.
+ *
+ * <p>The body is either a JSON array of requests or NDJSON (one request per line). It is
+ * parsed incrementally with Jackson's streaming parser and each request goes through
+ * {@link ExecutionEngine#submit} as soon as a slot in the in-flight window is free, so a
+ * batch of any size runs in memory proportional to the window. Responses are written one
+ * per line in completion order; each carries its request's {@code request_id} (generated
+ * when the request has none). A request that cannot be bound yields an ERROR line and the
+ * rest of the batch continues; malformed JSON ends the batch after the requests already
+ * submitted complete.</p>
+ */
+public class BatchSubmitter {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSubmitter.class);
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ExecutionEngine engine;
+    private final int window;
+
+    /** Outcome counts of one batch. */
+    public record Result(int submitted, int invalid, boolean truncated) {}
+
+    public BatchSubmitter(ExecutionEngine engine, int window) {
+        this.engine = engine;
+        this.window = Math.max(1, window);
+    }
+
+    public Result run(InputStream in, OutputStream out, String sourceChannel) throws IOException {
+        Semaphore slots = new Semaphore(window);
+        AtomicInteger submitted = new AtomicInteger();
+        int invalid = 0;
+        boolean truncated = false;
+        Object writeLock = new Object();
+        AtomicBoolean clientGone = new AtomicBoolean();
+
+        int index = 0;
+        try (JsonParser parser = JsonUtil.mapper().getFactory().createParser(in)) {
+            JsonToken first = parser.nextToken();
+            boolean array = first == JsonToken.START_ARRAY;
+            JsonToken token = array ? parser.nextToken() : first;
+            while (token != null && token != JsonToken.END_ARRAY && !clientGone.get()) {
+                JsonNode node = JsonUtil.mapper().readTree(parser);
+                DGRequest request = bind(node, sourceChannel);
+                if (request == null) {
+                    invalid++;
+                    writeLine(out, writeLock, clientGone, DGResponse.error(
+                            node.path("request_id").asText("batch-" + index),
+                            "Invalid request at batch index " + index));
+                } else {
+                    acquire(slots);
+                    submitted.incrementAndGet();
+                    engine.submit(request).whenComplete((response, error) -> {
+                        DGResponse line = response != null ? response
+                                : DGResponse.error(request.getRequestId(), "Internal error: " + error.getMessage());
+                        writeLine(out, writeLock, clientGone, line);
+                        slots.release();
+                    });
+                }
+                index++;
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            writeLine(out, writeLock, clientGone, DGResponse.error("batch-" + index,
+                    "Malformed batch body after " + index + " request(s): " + e.getOriginalMessage()));
+            truncated = true;
+        }
+        // Wait for everything still in flight before the response is closed
+        acquire(slots, window);
+        synchronized (writeLock) {
+            if (!clientGone.get()) out.flush();
+        }
+        return new Result(submitted.get(), invalid, truncated);
+    }
+
+    private static DGRequest bind(JsonNode node, String sourceChannel) {
+        if (!node.isObject()) return null;
+        try {
+            DGRequest request = JsonUtil.requestReader().readValue(node);
+            request.setSourceChannel(sourceChannel);
+            if (request.getRequestId() == null || request.getRequestId().isBlank()) {
+                request.setRequestId(UUID.randomUUID().toString());
+            }
+            return request;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeLine(OutputStream out, Object lock, AtomicBoolean clientGone, DGResponse response) {
+        byte[] json;
+        try {
+            json = JsonUtil.responseWriter().writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialise batch response {}: {}", response.getRequestId(), e.getMessage());
+            return;
+        }
+        synchronized (lock) {
+            if (clientGone.get()) return;
+            try {
+                out.write(json);
+                out.write(NEWLINE);
+                out.flush();
+            } catch (IOException e) {
+                // Client went away: stop reading the batch; in-flight requests still finish
+                clientGone.set(true);
+                log.warn("Batch client disconnected: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void acquire(Semaphore slots) {
+        acquire(slots, 1);
+    }
+
+    private static void acquire(Semaphore slots, int permits) {
+        try {
+            slots.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch slots", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.server.metrics.MetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The engine-wide pool that runs the branches of parallel chain steps and the steps of DAG
+ * chains.
+ *
+ * <p>It is a work-stealing {@link ForkJoinPool}, so a chain running inside a branch of another
+ * chain does not tie up the pool waiting for its own branches: forks made on a pool thread go
+ * onto that thread's deque, idle threads steal them, and {@link #invokeAll} runs whatever was
+ * not stolen on the waiting thread itself. The pool's queue is bounded — once
+ * {@code queueCapacity} tasks are waiting, a submission runs on the submitting thread instead,
+ * which slows the producer down rather than growing the backlog.</p>
+ *
+ * <p>A parallel step waits for its branches under one deadline for the whole step; a branch
+ * still running when it passes is cancelled and reported as timed out.</p>
+ */
+public class ChainStepExecutor implements Executor {
+
+    private static final Logger log = LoggerFactory.getLogger(ChainStepExecutor.class);
+
+    /** Fork/join tag of a step that has been claimed, either to run or to be cancelled. */
+    private static final short CLAIMED = 1;
+
+    private final ForkJoinPool pool;
+    private final int poolSize;
+    private final int queueCapacity;
+    private final long stepTimeoutMs;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private volatile Supplier<MetricsService> metrics = () -> null;
+
+    /**
+     * @param poolSize      worker threads (0 = twice the CPU cores, at least 4)
+     * @param queueCapacity steps that may wait for a worker before submitters run them themselves
+     * @param stepTimeoutMs deadline for all branches of one parallel step
+     */
+    public ChainStepExecutor(int poolSize, int queueCapacity, long stepTimeoutMs) {
+        this.poolSize = poolSize > 0 ? poolSize : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.stepTimeoutMs = Math.max(1, stepTimeoutMs);
+        AtomicInteger seq = new AtomicInteger(0);
+        this.pool = new ForkJoinPool(this.poolSize, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("dgfacade-chain-step-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, (t, e) -> log.error("Uncaught error in chain step thread {}", t.getName(), e), false);
+        log.info("ChainStepExecutor initialized — {} threads, queue: {}, step timeout: {} ms",
+                this.poolSize, this.queueCapacity, this.stepTimeoutMs);
+    }
+
+    /** Metrics sink for the queue-wait timer; gauges are registered by the engine. */
+    public void setMetrics(Supplier<MetricsService> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submit(Executors.callable(command));
+    }
+
+    /** Run one step on the pool, or on the calling thread when the queue is full. */
+    public <T> Future<T> submit(Callable<T> task) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            callerRuns.incrementAndGet();
+            StepTask<T> inline = new StepTask<>(task, 0L);
+            inline.quietlyInvoke();
+            return inline;
+        }
+        StepTask<T> step = new StepTask<>(task, System.nanoTime());
+        if (isPoolThread()) step.fork();
+        else pool.execute(step);
+        return step;
+    }
+
+    /**
+     * Run tasks in parallel and wait for all of them under one deadline. Returns the futures
+     * in task order, all done: a task not finished within {@code timeoutMs} is cancelled.
+     */
+    public <T> List<Future<T>> invokeAll(List<? extends Callable<T>> tasks, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) futures.add(submit(task));
+
+        // A pool thread forked onto its own deque: run the branches no idle thread has stolen, newest first
+        if (isPoolThread()) {
+            for (int i = futures.size() - 1; i >= 0 && deadline - System.nanoTime() > 0; i--) {
+                if (futures.get(i) instanceof StepTask<T> step && step.tryUnfork()) step.quietlyInvoke();
+            }
+        }
+        try {
+            for (Future<T> future : futures) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                try {
+                    future.get(remaining, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    break;
+                } catch (ExecutionException | CancellationException e) {
+                    // Reported through the future
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Future<T> future : futures) {
+            if (!future.isDone() && future instanceof StepTask<T> step) step.abandon();
+        }
+        return futures;
+    }
+
+    public long getStepTimeoutMs() { return stepTimeoutMs; }
+    public int getPoolSize() { return poolSize; }
+    public int getQueueCapacity() { return queueCapacity; }
+    /** Steps currently running, on pool threads or inline. */
+    public int getActiveCount() { return active.get(); }
+    /** Steps waiting for a pool thread. */
+    public int getQueuedCount() { return queued.get(); }
+    /** Running steps per pool thread; above 1.0 when submitters are running steps themselves. */
+    public double getUtilization() { return (double) active.get() / poolSize; }
+    public long getCompletedCount() { return completed.get(); }
+    public long getCallerRunsCount() { return callerRuns.get(); }
+    public long getTimedOutCount() { return timedOut.get(); }
+    /** Tasks taken from another thread's deque. */
+    public long getStealCount() { return pool.getStealCount(); }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private boolean isPoolThread() {
+        return Thread.currentThread() instanceof ForkJoinWorkerThread w && w.getPool() == pool;
+    }
+
+    // ─── Steps ─────────────────────────────────────────────────────────
+
+    /**
+     * A step on the pool. Whichever comes first — a thread starting it or {@link #abandon} —
+     * claims it through the fork/join tag, so a step cancelled while queued is counted once.
+     */
+    private final class StepTask<T> extends ForkJoinTask<T> {
+        private final Callable<T> body;
+        /** When it was queued; 0 for a step run by its submitter. */
+        private final long queuedAt;
+        private T result;
+
+        StepTask(Callable<T> body, long queuedAt) {
+            this.body = body;
+            this.queuedAt = queuedAt;
+        }
+
+        @Override
+        public T getRawResult() { return result; }
+
+        @Override
+        protected void setRawResult(T value) { this.result = value; }
+
+        @Override
+        protected boolean exec() {
+            if (!compareAndSetForkJoinTaskTag((short) 0, CLAIMED)) return true;
+            if (queuedAt != 0) {
+                queued.decrementAndGet();
+                MetricsService ms = metrics.get();
+                if (ms != null) ms.recordChainStepQueueWait(System.nanoTime() - queuedAt);
+            }
+            active.incrementAndGet();
+            try {
+                result = body.call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+            }
+            return true;
+        }
+
+        /** The deadline passed: stop waiting for it. A step already running is left to finish. */
+        void abandon() {
+            if (compareAndSetForkJoinTaskTag((short) 0, CLAIMED) && queuedAt != 0) queued.decrementAndGet();
+            cancel(false);
+            timedOut.incrementAndGet();
+        }
+    }
+}
@@ -10,16 +10,20 @@ import com.dgfacade.common.model.*;
 import com.dgfacade.server.actor.HandlerActor;
 import com.dgfacade.server.actor.HandlerMessages;
 import com.dgfacade.server.actor.HandlerSupervisor;
+import com.dgfacade.server.cache.ResponseCache;
+import com.dgfacade.server.chain.ChainExpressionResolver;
 import com.dgfacade.server.channel.ChannelAccessor;
 import com.dgfacade.server.cluster.ClusterService;
 import com.dgfacade.server.config.HandlerConfigRegistry;
+import com.dgfacade.server.history.ExecutionHistoryStore;
 import com.dgfacade.server.metrics.MetricsService;
 import com.dgfacade.server.service.UserService;
-import com.dgfacade.common.util.CircularBuffer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.dgfacade.common.util.JsonUtil;
+import com.dgfacade.common.util.TimeBoundedRingBuffer;
 import org.apache.pekko.actor.typed.ActorRef;
 import org.apache.pekko.actor.typed.ActorSystem;
+import org.apache.pekko.actor.typed.Props;
+import org.apache.pekko.actor.typed.javadsl.Behaviors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +34,10 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Core execution engine that bridges incoming DGRequests with the Pekko actor system.
@@ -38,8 +45,18 @@ import java.util.concurrent.TimeUnit;
  * Flow:
  *   1. Validate API key and resolve user
  *   2. Lookup handler config for (user, request_type)
- *   3. Submit to HandlerSupervisor actor for execution
- *   4. Return CompletableFuture<DGResponse> to the caller
+ *   3. Serve cacheable requests from the response cache (no actor spawned), attach
+ *      coalesced duplicates to the identical request already in flight, or drop
+ *      requests already past their deadline
+ *   4. Requests sharing an {@code ordering_key} wait on a keyed lane ({@link OrderingLanes})
+ *   5. Pass the per-type bulkhead (max_concurrency / max_queue), if configured
+ *   6. Pass the adaptive in-flight limit, if configured — at dispatch, so requests waiting
+ *      in a lane or bulkhead queue do not hold in-flight slots
+ *   7. Submit to one of N HandlerSupervisor shards (picked by request-id or request-type hash);
+ *      queued work is ordered by priority and deadline ({@link RequestScheduler}). Types with
+ *      {@code max_batch_size} &gt; 1 are collected into micro-batches instead ({@link MicroBatcher})
+ *   8. Return CompletableFuture<DGResponse> to the caller; updates of streaming handlers
+ *      reach subscribed transports through {@link StreamingDelivery}
  *
  * This design supports millions of concurrent handlers with Pekko's lightweight actors.
  */
@@ -47,33 +64,159 @@ public class ExecutionEngine {
 
     private static final Logger log = LoggerFactory.getLogger(ExecutionEngine.class);
 
-    private final ActorSystem<HandlerMessages.SupervisorCommand> actorSystem;
+    public static final String SHARD_KEY_REQUEST_ID = "request_id";
+    public static final String SHARD_KEY_REQUEST_TYPE = "request_type";
+
+    private final ActorSystem<Void> actorSystem;
+    private final ActorRef<HandlerMessages.SupervisorCommand>[] supervisors;
+    private final AtomicInteger[] shardActiveCounts;
+    private final boolean shardByRequestType;
     private final HandlerConfigRegistry configRegistry;
     private final UserService userService;
-    private final CircularBuffer<HandlerState> recentStates;
+    private final TimeBoundedRingBuffer<HandlerState> recentStates;
     private volatile MetricsService metricsService;
     private volatile ChannelAccessor channelAccessor;
     private volatile ClusterService clusterService;
     private volatile HttpClient forwardingClient;
-    private static final ObjectMapper forwardMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule());
+    private volatile HandlerExecutors handlerExecutors;
+    private volatile ChainStepExecutor chainStepExecutor;
+    private volatile AdaptiveConcurrencyLimiter concurrencyLimiter; // null = disabled
+    private volatile OrderingLanes orderingLanes = new OrderingLanes(100_000, 1_000);
+    private volatile StateCapturePolicy capturePolicy = StateCapturePolicy.ALL;
+    private volatile ExecutionHistoryStore historyStore = new ExecutionHistoryStore();
+    /** Bulkheads keyed by config identity; rebuilt lazily after every registry reload. */
+    private final Map<HandlerConfig, RequestBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final ResponseCache responseCache = new ResponseCache();
+    private final MicroBatcher microBatcher = new MicroBatcher();
+    private final StreamingDelivery streamingDelivery;
+    /** Single-flight executions of {@code coalesce} handler configs, by config + payload. */
+    private final Map<FlightKey, CompletableFuture<DGResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private record FlightKey(HandlerConfig config, String payloadKey) {}
 
     public ExecutionEngine(HandlerConfigRegistry configRegistry, UserService userService) {
+        this(configRegistry, userService, 0, SHARD_KEY_REQUEST_ID);
+    }
+
+    /**
+     * @param supervisorShards number of HandlerSupervisor shards (0 = one per CPU core)
+     * @param shardKey         {@code request_id} (spread evenly) or {@code request_type}
+     *                         (all requests of a type share a shard)
+     */
+    @SuppressWarnings("unchecked")
+    public ExecutionEngine(HandlerConfigRegistry configRegistry, UserService userService,
+                           int supervisorShards, String shardKey) {
         this.configRegistry = configRegistry;
         this.userService = userService;
-        this.actorSystem = ActorSystem.create(HandlerSupervisor.create(), "dgfacade-engine");
-        this.recentStates = new CircularBuffer<>(1000, Duration.ofHours(1));
+        this.actorSystem = ActorSystem.create(Behaviors.empty(), "dgfacade-engine");
+        this.streamingDelivery = new StreamingDelivery(actorSystem);
+        int shards = supervisorShards > 0 ? supervisorShards : Runtime.getRuntime().availableProcessors();
+        this.supervisors = new ActorRef[shards];
+        this.shardActiveCounts = new AtomicInteger[shards];
+        for (int i = 0; i < shards; i++) {
+            shardActiveCounts[i] = new AtomicInteger(0);
+            supervisors[i] = actorSystem.systemActorOf(
+                    HandlerSupervisor.create(i, shardActiveCounts[i], () -> metricsService),
+                    "handler-supervisor-" + i, Props.empty());
+        }
+        this.shardByRequestType = SHARD_KEY_REQUEST_TYPE.equalsIgnoreCase(shardKey);
+        log.info("ExecutionEngine: {} HandlerSupervisor shard(s), keyed by {}",
+                shards, shardByRequestType ? SHARD_KEY_REQUEST_TYPE : SHARD_KEY_REQUEST_ID);
+        this.recentStates = new TimeBoundedRingBuffer<>(1000, Duration.ofHours(1));
+        this.handlerExecutors = wire(new HandlerExecutors(0, 10_000));
+        this.chainStepExecutor = new ChainStepExecutor(0, 1024, 60_000);
+        chainStepExecutor.setMetrics(() -> metricsService);
+        // In-flight requests keep a reference to their old bulkhead and drain it normally
+        configRegistry.addReloadListener(bulkheads::clear);
+        configRegistry.addReloadListener(responseCache::clear);
+        configRegistry.addReloadListener(microBatcher::clear);
         log.info("ExecutionEngine initialized with Pekko actor system");
     }
 
+    /** Replace the default handler executors (sized from application properties). */
+    public void setHandlerExecutors(HandlerExecutors handlerExecutors) {
+        HandlerExecutors previous = this.handlerExecutors;
+        this.handlerExecutors = wire(handlerExecutors);
+        if (previous != null && previous != handlerExecutors) previous.shutdown();
+    }
+
+    /** Give the pool's fair queue the tenant weights from users.json and the metrics sink. */
+    private HandlerExecutors wire(HandlerExecutors executors) {
+        executors.getBlockingQueue().setWeightResolver(userService::getWeight);
+        executors.getBlockingQueue().setMetrics(() -> metricsService);
+        return executors;
+    }
+
+    public HandlerExecutors getHandlerExecutors() { return handlerExecutors; }
+
+    /** Replace the default chain step executor (sized from application properties). */
+    public void setChainStepExecutor(ChainStepExecutor chainStepExecutor) {
+        ChainStepExecutor previous = this.chainStepExecutor;
+        chainStepExecutor.setMetrics(() -> metricsService);
+        this.chainStepExecutor = chainStepExecutor;
+        if (metricsService != null) metricsService.registerChainStepExecutor(chainStepExecutor);
+        if (previous != null && previous != chainStepExecutor) previous.shutdown();
+    }
+
+    public ChainStepExecutor getChainStepExecutor() { return chainStepExecutor; }
+
+    /** Enable adaptive per-type in-flight limits; {@code null} disables them. */
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        if (concurrencyLimiter != null) concurrencyLimiter.setMetrics(() -> metricsService);
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() { return concurrencyLimiter; }
+
+    /** Replace the default keyed ordering lanes (sized from application properties). */
+    public void setOrderingLanes(OrderingLanes orderingLanes) {
+        this.orderingLanes = orderingLanes;
+        if (metricsService != null) metricsService.registerOrderingLanes(orderingLanes);
+    }
+
+    public OrderingLanes getOrderingLanes() { return orderingLanes; }
+
+    /** Which handler states keep their request/response for the detail view (default: all). */
+    public void setCapturePolicy(StateCapturePolicy capturePolicy) {
+        this.capturePolicy = capturePolicy != null ? capturePolicy : StateCapturePolicy.ALL;
+    }
+
+    public StateCapturePolicy getCapturePolicy() { return capturePolicy; }
+
+    /** Replace the default (memory-only) execution history store; the previous one is closed. */
+    public void setHistoryStore(ExecutionHistoryStore historyStore) {
+        ExecutionHistoryStore previous = this.historyStore;
+        this.historyStore = historyStore;
+        if (previous != historyStore) previous.close();
+        if (metricsService != null) metricsService.registerHistoryStore(historyStore);
+    }
+
+    public ExecutionHistoryStore getHistoryStore() { return historyStore; }
+
     /** Inject MetricsService after construction (avoids circular dependency). */
     public void setMetricsService(MetricsService metricsService) {
         this.metricsService = metricsService;
+        if (metricsService != null) {
+            for (int i = 0; i < shardActiveCounts.length; i++) {
+                metricsService.registerSupervisorShard(String.valueOf(i), shardActiveCounts[i]);
+            }
+            AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+            if (limiter != null) limiter.setMetrics(() -> this.metricsService);
+            handlerExecutors.getBlockingQueue().setMetrics(() -> this.metricsService);
+            metricsService.registerOrderingLanes(orderingLanes);
+            metricsService.registerHistoryStore(historyStore);
+            responseCache.setMetrics(() -> this.metricsService);
+            microBatcher.setMetrics(() -> this.metricsService);
+            metricsService.registerMicroBatcher(microBatcher);
+            metricsService.registerStreamingDelivery(streamingDelivery);
+            metricsService.registerChainStepExecutor(chainStepExecutor);
+        }
     }
 
     /** Inject ChannelAccessor for handler pub/sub access. */
     public void setChannelAccessor(ChannelAccessor channelAccessor) {
         this.channelAccessor = channelAccessor;
+        streamingDelivery.setChannelAccessor(channelAccessor);
         log.info("ExecutionEngine: ChannelAccessor injected — handlers can now access Input/Output Channels");
     }
 
@@ -121,7 +264,6 @@ public class ExecutionEngine {
      */
     public CompletableFuture<DGResponse> submitLocal(DGRequest request) {
         long submitTimeMs = System.currentTimeMillis();
-        HandlerState state = null;
         try {
             // 1. Validate API key and resolve user
             String userId = userService.resolveUserFromApiKey(request.getApiKey());
@@ -140,43 +282,138 @@ public class ExecutionEngine {
             }
 
             HandlerConfig handlerConfig = handlerConfigOpt.get();
-            String handlerId = "hdl-" + UUID.randomUUID().toString().substring(0, 12);
 
+            // Response cache: repeats of a pure request are answered without spawning an actor
+            DGResponse cached = responseCache.lookup(handlerConfig, request);
+            if (cached != null) {
+                log.debug("Cache hit for request {} (type={})", request.getRequestId(), request.getRequestType());
+                return CompletableFuture.completedFuture(recordCacheHit(request, userId, handlerConfig, cached));
+            }
+
+            // Single flight: an identical request already executing shares its response
+            if (handlerConfig.isCoalesce()) {
+                String payloadKey = ResponseCache.keyFor(request);
+                if (payloadKey != null) {
+                    return coalesce(new FlightKey(handlerConfig, payloadKey), request,
+                            () -> execute(request, userId, handlerConfig, submitTimeMs));
+                }
+            }
+            return execute(request, userId, handlerConfig, submitTimeMs);
+
+        } catch (Exception e) {
+            log.error("Error submitting request {}", request.getRequestId(), e);
+            return CompletableFuture.completedFuture(
+                    DGResponse.error(request.getRequestId(), "Internal error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Run {@code execution} as the leader of its flight, or — if an identical request is already
+     * executing — wait for that one and answer with a copy of its response tagged
+     * {@code coalesced}. The flight ends when the leader's response is complete.
+     */
+    private CompletableFuture<DGResponse> coalesce(FlightKey key, DGRequest request,
+                                                   java.util.function.Supplier<CompletableFuture<DGResponse>> execution) {
+        CompletableFuture<DGResponse> flight = new CompletableFuture<>();
+        CompletableFuture<DGResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            log.debug("Coalesced request {} onto in-flight {} execution", request.getRequestId(), request.getRequestType());
+            if (metricsService != null) metricsService.recordRequestCoalesced(request.getRequestType());
+            return leader.thenApply(response -> {
+                DGResponse copy = response.copyFor(request.getRequestId());
+                copy.setCoalesced(true);
+                return copy;
+            });
+        }
+        CompletableFuture<DGResponse> result;
+        try {
+            result = execution.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        return result.whenComplete((response, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) flight.completeExceptionally(error);
+            else flight.complete(response);
+        });
+    }
+
+    /** Steps 3–8 of the flow for a resolved user and handler config. */
+    private CompletableFuture<DGResponse> execute(DGRequest request, String userId,
+                                                  HandlerConfig handlerConfig, long submitTimeMs) {
+        HandlerState state = null;
+        try {
             // Track state
-            state = new HandlerState(handlerId, request.getRequestId(), request.getRequestType());
-            state.setUserId(userId);
-            state.setHandlerClass(handlerConfig.getHandlerClass());
-            state.setSourceChannel(request.getSourceChannel());
-            state.setRequestPayload(request.getPayload());
-            // Build full request JSON for the detail view
-            try {
-                Map<String, Object> fullReq = new java.util.LinkedHashMap<>();
-                fullReq.put("api_key", request.getApiKey());
-                fullReq.put("request_type", request.getRequestType());
-                fullReq.put("request_id", request.getRequestId());
-                fullReq.put("payload", request.getPayload());
-                if (request.getDeliveryDestination() != null) fullReq.put("delivery_destination", request.getDeliveryDestination());
-                if (request.getTtlMinutes() != 30) fullReq.put("ttl_minutes", request.getTtlMinutes());
-                state.setRequestJson(new com.fasterxml.jackson.databind.ObjectMapper()
-                        .writerWithDefaultPrettyPrinter().writeValueAsString(fullReq));
-            } catch (Exception ignored) {}
-            recentStates.add(state);
+            state = trackState(request, userId, handlerConfig);
+            String handlerId = state.getHandlerId();
+
+            // 3. Deadline already passed: drop before anything is queued or constructed
+            if (RequestScheduler.isExpired(request)) {
+                return CompletableFuture.completedFuture(expire(request, state, "submit"));
+            }
+
+            // Build the dispatch (steps 6–7); it runs now, or later when a lane or bulkhead slot frees up
+            CompletableFuture<DGResponse> responseFuture = new CompletableFuture<>();
+            HandlerMessages.ExecuteRequest execReq = new HandlerMessages.ExecuteRequest(
+                    request, handlerConfig, handlerId, responseFuture, state, channelAccessor,
+                    configRegistry.getPool(handlerConfig),
+                    RequestScheduler.prioritized(handlerExecutors.forConfig(handlerConfig), request),
+                    streamingDelivery);
+            long enqueuedAtNanos = System.nanoTime();
+            AtomicLong dispatchedAtMs = new AtomicLong(submitTimeMs);
+            AtomicLong dispatchedAtNanos = new AtomicLong(-1);
+            final HandlerState dispatchState = state;
+            Runnable dispatch = () -> {
+                // 6. Adaptive limit: shed when the type is at its latency-derived in-flight limit
+                AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+                if (limiter != null) {
+                    AdaptiveConcurrencyLimiter.Limit limit = limiter.forType(request.getRequestType());
+                    if (!limit.tryAcquire()) {
+                        responseFuture.complete(shed(request, dispatchState, limit));
+                        return;
+                    }
+                    long acquiredAtNanos = System.nanoTime();
+                    responseFuture.whenComplete((r, e) -> {
+                        boolean dropped = e != null || (r != null && r.getStatus() == DGResponse.Status.TIMEOUT);
+                        limit.release(System.nanoTime() - acquiredAtNanos, dropped);
+                    });
+                }
+                dispatchedAtMs.set(System.currentTimeMillis());
+                dispatchedAtNanos.set(System.nanoTime());
+                if (metricsService != null) {
+                    metricsService.recordQueueWait(request.getRequestType(), System.nanoTime() - enqueuedAtNanos);
+                }
+                if (MicroBatcher.isConfigured(handlerConfig)) microBatcher.submit(execReq);
+                else selectSupervisor(request).tell(new HandlerMessages.WrappedExecute(execReq));
+            };
 
             // ── Prometheus: record request start ──
             if (metricsService != null) {
-                metricsService.recordRequestStart(request.getRequestType(), userId, request.getSourceChannel());
+                metricsService.recordRequestStart(request.getRequestType(), userId, request.getSourceChannel(), false);
                 if (request.getPayload() != null) {
                     metricsService.recordPayloadSize(request.getRequestType(), request.getPayload().toString().length());
                 }
             }
 
-            // 3. Submit to actor system
-            CompletableFuture<DGResponse> responseFuture = new CompletableFuture<>();
-            HandlerMessages.ExecuteRequest execReq = new HandlerMessages.ExecuteRequest(
-                    request, handlerConfig, handlerId, responseFuture, state, channelAccessor);
-
-            actorSystem.tell(new HandlerMessages.WrappedExecute(execReq));
-
+            // 4. Keyed ordering lane (serialises requests sharing an ordering_key), then
+            // 5. bulkhead admission and dispatch to the actor system
+            Runnable admit = () -> admitToBulkhead(request, dispatchState, handlerConfig, responseFuture, dispatch);
+            String orderingKey = resolveOrderingKey(request, handlerConfig);
+            if (orderingKey == null) {
+                admit.run();
+            } else {
+                OrderingLanes lanes = orderingLanes;
+                OrderingLanes.Entry entry = new OrderingLanes.Entry(responseFuture, admit);
+                OrderingLanes.Result laneResult = lanes.submit(orderingKey, entry);
+                if (laneResult == OrderingLanes.Result.REJECTED) {
+                    responseFuture.complete(rejectLane(request, state, orderingKey));
+                } else {
+                    responseFuture.whenComplete((r, e) -> lanes.complete(orderingKey, entry));
+                    if (laneResult == OrderingLanes.Result.STARTED) admit.run();
+                }
+            }
             log.info("Submitted request {} -> handler {} (type={}, user={})",
                     request.getRequestId(), handlerId, request.getRequestType(), userId);
 
@@ -185,19 +422,21 @@ public class ExecutionEngine {
             final HandlerState stateRef = state;
             return responseFuture.orTimeout(ttl, TimeUnit.MINUTES)
                     .thenApply(response -> {
-                        // Store response data in state for the detail view
-                        stateRef.setResponseData(response.getData());
-                        try {
-                            stateRef.setResponseJson(new com.fasterxml.jackson.databind.ObjectMapper()
-                                    .writerWithDefaultPrettyPrinter().writeValueAsString(response));
-                        } catch (Exception ignored) {}
-                        // ── Prometheus: record completion ──
-                        long durationMs = System.currentTimeMillis() - submitTimeMs;
+                        responseCache.store(handlerConfig, request, response);
+                        // Keep the response for the detail view (subject to the capture policy)
+                        stateRef.captureResponse(response);
+                        capturePolicy.onComplete(stateRef, response);
+                        // ── Prometheus: record completion (execution only; queue wait is timed separately) ──
+                        long durationMs = System.currentTimeMillis() - dispatchedAtMs.get();
                         if (metricsService != null) {
+                            // Expired in the executor queue; expiry before dispatch is recorded by expire()
+                            if (RequestScheduler.isExpired(response) && dispatchedAtNanos.get() >= 0) {
+                                metricsService.recordRequestExpired(request.getRequestType(), "queued");
+                            }
                             if (response.getStatus() == DGResponse.Status.SUCCESS) {
                                 metricsService.recordRequestSuccess(
                                         request.getRequestType(), userId, request.getSourceChannel(),
-                                        handlerConfig.getHandlerClass(), durationMs);
+                                        handlerConfig.getHandlerClass(), durationMs, false);
                             } else {
                                 metricsService.recordRequestError(
                                         request.getRequestType(), userId, request.getSourceChannel(),
@@ -211,11 +450,8 @@ public class ExecutionEngine {
                     .exceptionally(ex -> {
                         stateRef.markTimedOut();
                         DGResponse timeoutResp = DGResponse.timeout(request.getRequestId());
-                        // Capture response JSON even on timeout/error for handler detail view
-                        try {
-                            stateRef.setResponseJson(new com.fasterxml.jackson.databind.ObjectMapper()
-                                    .writerWithDefaultPrettyPrinter().writeValueAsString(timeoutResp));
-                        } catch (Exception ignored) {}
+                        // Capture the response even on timeout/error for handler detail view
+                        stateRef.captureResponse(timeoutResp);
                         // ── Prometheus: record timeout ──
                         if (metricsService != null) {
                             metricsService.recordRequestTimeout(request.getRequestType());
@@ -226,29 +462,149 @@ public class ExecutionEngine {
         } catch (Exception e) {
             log.error("Error submitting request {}", request.getRequestId(), e);
             DGResponse errorResp = DGResponse.error(request.getRequestId(), "Internal error: " + e.getMessage());
-            // Capture response JSON for handler detail view
-            if (state != null) {
-                try {
-                    state.setResponseJson(new com.fasterxml.jackson.databind.ObjectMapper()
-                            .writerWithDefaultPrettyPrinter().writeValueAsString(errorResp));
-                } catch (Exception ignored) {}
-            }
+            // Capture the response for handler detail view
+            if (state != null) state.captureResponse(errorResp);
             return CompletableFuture.completedFuture(errorResp);
         }
     }
 
+    /** Create the state of a new execution and add it to the recent states and the history. */
+    private HandlerState trackState(DGRequest request, String userId, HandlerConfig handlerConfig) {
+        String handlerId = "hdl-" + UUID.randomUUID().toString().substring(0, 12);
+        HandlerState state = new HandlerState(handlerId, request.getRequestId(), request.getRequestType());
+        state.setUserId(userId);
+        state.setHandlerClass(handlerConfig.getHandlerClass());
+        state.setSourceChannel(request.getSourceChannel());
+        // Request/response are kept by reference and rendered only if the detail view asks
+        capturePolicy.onSubmit(state);
+        state.captureRequest(request);
+        recentStates.add(state);
+        historyStore.add(state);
+        return state;
+    }
+
+    /**
+     * Account for a request answered from the response cache like any other execution: it gets
+     * a completed state in the history and is counted in the request metrics, tagged
+     * {@code cached}.
+     */
+    private DGResponse recordCacheHit(DGRequest request, String userId, HandlerConfig handlerConfig,
+                                      DGResponse response) {
+        HandlerState state = trackState(request, userId, handlerConfig);
+        state.markStarted();
+        state.markCompleted(true, null);
+        state.captureResponse(response);
+        capturePolicy.onComplete(state, response);
+        if (metricsService != null) {
+            metricsService.recordRequestStart(request.getRequestType(), userId, request.getSourceChannel(), true);
+            metricsService.recordRequestSuccess(request.getRequestType(), userId, request.getSourceChannel(),
+                    handlerConfig.getHandlerClass(), 0, true);
+        }
+        return response;
+    }
+
+    /**
+     * Pass a request through its type's bulkhead (if configured) and dispatch it once admitted.
+     * A refused request completes with the rejection response.
+     */
+    private void admitToBulkhead(DGRequest request, HandlerState state, HandlerConfig handlerConfig,
+                                 CompletableFuture<DGResponse> responseFuture, Runnable dispatch) {
+        RequestBulkhead bulkhead = RequestBulkhead.isConfigured(handlerConfig)
+                ? bulkheads.computeIfAbsent(handlerConfig, RequestBulkhead::new) : null;
+        if (bulkhead == null) {
+            dispatch.run();
+            return;
+        }
+        RequestBulkhead.Ticket ticket = new RequestBulkhead.Ticket(request, responseFuture, dispatch,
+                () -> responseFuture.complete(expire(request, state, "queued")));
+        RequestBulkhead.Admission admission = bulkhead.admit(ticket);
+        if (admission == RequestBulkhead.Admission.REJECTED) {
+            responseFuture.complete(reject(request, state, bulkhead));
+            return;
+        }
+        responseFuture.whenComplete((r, e) -> bulkhead.complete(ticket));
+        if (admission == RequestBulkhead.Admission.ADMITTED) dispatch.run();
+    }
+
+    /**
+     * Resolve the handler config's {@code ordering_key} expression for a request.
+     * Returns null when the config has none or it resolves blank — the request is unordered.
+     */
+    private static String resolveOrderingKey(DGRequest request, HandlerConfig handlerConfig) {
+        String expression = handlerConfig.getOrderingKey();
+        if (expression == null || expression.isBlank()) return null;
+        String key = new ChainExpressionResolver(request.getPayload(), request.getRequestId())
+                .resolveTemplate(expression);
+        return key == null || key.isBlank() ? null : key;
+    }
+
+    /** Build the REJECTED response for a request whose ordering lane (or the lane table) is full. */
+    private DGResponse rejectLane(DGRequest request, HandlerState state, String orderingKey) {
+        String message = "Ordering lane for key '" + orderingKey + "' is at capacity";
+        DGResponse response = DGResponse.rejected(request.getRequestId(), message, 1);
+        state.markCompleted(false, message);
+        log.warn("Rejected request {}: {}", request.getRequestId(), message);
+        return response;
+    }
+
+    /**
+     * Build the response for a request refused by a full bulkhead: REJECTED with a retry hint
+     * under the RETRY_AFTER policy, a plain ERROR under FAIL_FAST.
+     */
+    private DGResponse reject(DGRequest request, HandlerState state, RequestBulkhead bulkhead) {
+        String message = "Request type '" + request.getRequestType() + "' is at capacity ("
+                + bulkhead.getMaxConcurrency() + " running, " + bulkhead.getMaxQueue() + " queued)";
+        DGResponse response = bulkhead.isRetryAfter()
+                ? DGResponse.rejected(request.getRequestId(), message, bulkhead.getRetryAfterSeconds())
+                : DGResponse.error(request.getRequestId(), message);
+        state.markCompleted(false, message);
+        state.captureResponse(response);
+        if (metricsService != null) {
+            metricsService.recordBulkheadRejected(request.getRequestType(),
+                    bulkhead.isRetryAfter() ? RequestBulkhead.POLICY_RETRY_AFTER : RequestBulkhead.POLICY_FAIL_FAST);
+        }
+        log.warn("Rejected request {}: {}", request.getRequestId(), message);
+        return response;
+    }
+
+    /** Build the TIMEOUT response for a request whose deadline passed before it could be dispatched. */
+    private DGResponse expire(DGRequest request, HandlerState state, String stage) {
+        DGResponse response = RequestScheduler.expired(request);
+        state.markTimedOut();
+        state.captureResponse(response);
+        if (metricsService != null) {
+            metricsService.recordRequestExpired(request.getRequestType(), stage);
+        }
+        log.warn("Dropped request {}: deadline {} already passed", request.getRequestId(), request.getDeadline());
+        return response;
+    }
+
+    /** Build the OVERLOADED response for a request shed by the adaptive concurrency limiter. */
+    private DGResponse shed(DGRequest request, HandlerState state, AdaptiveConcurrencyLimiter.Limit limit) {
+        String message = "Request type '" + request.getRequestType() + "' is overloaded (in-flight limit "
+                + limit.getLimit() + ")";
+        DGResponse response = DGResponse.overloaded(request.getRequestId(), message);
+        state.markCompleted(false, message);
+        state.captureResponse(response);
+        log.warn("Shed request {}: {}", request.getRequestId(), message);
+        return response;
+    }
+
     /**
      * Forward a request to a remote cluster node for execution.
      */
     private CompletableFuture<DGResponse> forwardToNode(ClusterNode target, DGRequest request) {
         try {
-            String json = forwardMapper.writeValueAsString(Map.of(
+            Map<String, Object> forwardBody = new LinkedHashMap<>(Map.of(
                     "api_key", request.getApiKey() != null ? request.getApiKey() : "",
                     "request_type", request.getRequestType(),
                     "request_id", request.getRequestId(),
                     "payload", request.getPayload() != null ? request.getPayload() : Map.of(),
                     "ttl_minutes", request.getTtlMinutes()
             ));
+            if (request.getPriority() != null) forwardBody.put("priority", request.getPriority());
+            if (request.getDeadline() != null) forwardBody.put("deadline", request.getDeadline().toString());
+            String json = JsonUtil.toJson(forwardBody);
 
             HttpRequest httpReq = HttpRequest.newBuilder()
                     .uri(URI.create(target.getBaseUrl() + "/api/v1/request"))
@@ -266,7 +622,7 @@ public class ExecutionEngine {
                     .thenApply(resp -> {
                         try {
                             @SuppressWarnings("unchecked")
-                            Map<String, Object> body = forwardMapper.readValue(resp.body(), Map.class);
+                            Map<String, Object> body = JsonUtil.fromJson(resp.body(), Map.class);
                             DGResponse dgResp = new DGResponse();
                             dgResp.setRequestId(request.getRequestId());
                             dgResp.setStatus(DGResponse.Status.valueOf(
@@ -277,6 +633,9 @@ public class ExecutionEngine {
                                 dgResp.setData(dataMap);
                             }
                             dgResp.setErrorMessage(String.valueOf(body.getOrDefault("error_message", "")));
+                            if (body.get("retry_after_seconds") instanceof Number retryAfter) {
+                                dgResp.setRetryAfterSeconds(retryAfter.intValue());
+                            }
                             // Tag response with forwarding metadata
                             if (dgResp.getData() == null) dgResp.setData(new LinkedHashMap<>());
                             dgResp.getData().put("_forwarded_to", target.getNodeId());
@@ -287,13 +646,11 @@ public class ExecutionEngine {
                                     "Failed to parse forwarded response: " + e.getMessage());
                         }
                     })
-                    .exceptionally(ex -> {
+                    .exceptionallyCompose(ex -> {
                         log.warn("Forward to {} failed, executing locally: {}",
                                 target.getNodeId(), ex.getMessage());
-                        // Fallback to local execution
-                        try { return submitLocal(request).get(30, TimeUnit.SECONDS); }
-                        catch (Exception e) { return DGResponse.error(request.getRequestId(),
-                                "Forward failed and local fallback timed out"); }
+                        // Fallback to local execution — chained, not awaited, so no thread blocks
+                        return submitLocal(request);
                     });
 
         } catch (Exception e) {
@@ -302,10 +659,52 @@ public class ExecutionEngine {
         }
     }
 
+    private ActorRef<HandlerMessages.SupervisorCommand> selectSupervisor(DGRequest request) {
+        if (supervisors.length == 1) return supervisors[0];
+        String key = shardByRequestType ? request.getRequestType() : request.getRequestId();
+        int hash = key != null ? key.hashCode() : 0;
+        // Spread the hash bits so similar ids don't cluster on one shard
+        return supervisors[Math.floorMod(hash ^ (hash >>> 16), supervisors.length)];
+    }
+
+    public int getSupervisorShardCount() { return supervisors.length; }
+
+    /** Number of live handler actors, summed over all supervisor shards. */
+    public int getActiveHandlerCount() {
+        int total = 0;
+        for (AtomicInteger c : shardActiveCounts) total += c.get();
+        return total;
+    }
+
+    public ResponseCache getResponseCache() { return responseCache; }
+
+    public MicroBatcher getMicroBatcher() { return microBatcher; }
+
+    /** Routes streaming handler updates to WebSocket/SSE subscribers or the delivery destination. */
+    public StreamingDelivery getStreamingDelivery() { return streamingDelivery; }
+
+    /** Number of distinct coalesced executions currently in flight. */
+    public int getInFlightCoalescedCount() { return inFlight.size(); }
+
+    /** Live bulkheads (one per configured request type that has received traffic). */
+    public Collection<RequestBulkhead> getBulkheads() {
+        return bulkheads.values();
+    }
+
     public List<HandlerState> getRecentStates() {
         return recentStates.getAll();
     }
 
+    /** Number of recent states, without copying them. */
+    public int getRecentStateCount() {
+        return recentStates.size();
+    }
+
+    /** State for a handler id, live or from the execution history. */
+    public Optional<HandlerState> findState(String handlerId) {
+        return historyStore.findByHandlerId(handlerId);
+    }
+
     public Set<String> getRegisteredRequestTypes() {
         return configRegistry.getAllRequestTypes();
     }
@@ -315,6 +714,10 @@ public class ExecutionEngine {
     }
 
     public void shutdown() {
+        microBatcher.shutdown();
         actorSystem.terminate();
+        handlerExecutors.shutdown();
+        chainStepExecutor.shutdown();
+        historyStore.close();
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.HandlerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors that run {@code DGHandler.construct()/execute()} off the Pekko dispatcher.
+ *
+ * <p>Handlers block — PDC sessions wait out their TTL, HTTP probes and Python calls wait on
+ * I/O — so running them on the actor dispatcher starves the supervisor and every other actor.
+ * Each handler config selects an executor via {@code "execution_mode"}:</p>
+ * <ul>
+ *   <li><b>blocking</b> (default) — bounded thread pool dedicated to handler work</li>
+ *   <li><b>virtual</b> — one virtual thread per request (Java 21+); falls back to
+ *       <b>blocking</b> on older runtimes</li>
+ *   <li><b>inline</b> — run on the actor's dispatcher thread; only for trivial CPU-bound handlers</li>
+ * </ul>
+ *
+ * <p>The blocking pool rejects work once its queue is full rather than queueing unboundedly;
+ * the engine turns the rejection into an error response. Its queue is a {@link TenantFairQueue}:
+ * tenants share the pool by weighted round robin, and each tenant's work is ordered by
+ * {@link RequestScheduler} (priority, then deadline), not by arrival.</p>
+ */
+public class HandlerExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(HandlerExecutors.class);
+
+    public static final String MODE_BLOCKING = "blocking";
+    public static final String MODE_VIRTUAL = "virtual";
+    public static final String MODE_INLINE = "inline";
+
+    /** Runs the task on the calling thread. */
+    private static final Executor INLINE = Runnable::run;
+
+    private final ThreadPoolExecutor blockingExecutor;
+    private final TenantFairQueue blockingQueue;
+    private final ExecutorService virtualExecutor; // null when virtual threads are unavailable
+
+    public HandlerExecutors(int blockingPoolSize, int blockingQueueCapacity) {
+        int size = blockingPoolSize > 0 ? blockingPoolSize : Runtime.getRuntime().availableProcessors() * 8;
+        int capacity = Math.max(1, blockingQueueCapacity);
+        AtomicInteger seq = new AtomicInteger(0);
+        this.blockingQueue = new TenantFairQueue(capacity);
+        this.blockingExecutor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                blockingQueue, r -> {
+                    Thread t = new Thread(r, "dgfacade-handler-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.blockingExecutor.allowCoreThreadTimeOut(true);
+        this.virtualExecutor = createVirtualExecutor();
+        log.info("HandlerExecutors initialized — blocking pool: {} threads, queue: {}, virtual threads: {}",
+                size, capacity, virtualExecutor != null ? "available" : "unavailable");
+    }
+
+    /**
+     * Resolve the executor for a handler config. Unknown modes use the blocking pool.
+     */
+    public Executor forConfig(HandlerConfig config) {
+        String mode = config.getExecutionMode() != null ? config.getExecutionMode().toLowerCase() : MODE_BLOCKING;
+        return switch (mode) {
+            case MODE_INLINE -> INLINE;
+            case MODE_VIRTUAL -> virtualExecutor != null ? virtualExecutor : blockingExecutor;
+            default -> blockingExecutor;
+        };
+    }
+
+    public boolean isVirtualThreadsAvailable() { return virtualExecutor != null; }
+    public int getBlockingActiveCount() { return blockingExecutor.getActiveCount(); }
+    public int getBlockingQueueSize() { return blockingExecutor.getQueue().size(); }
+    public int getBlockingPoolSize() { return blockingExecutor.getMaximumPoolSize(); }
+    /** Fair work queue of the blocking pool; the engine wires tenant weights and metrics into it. */
+    public TenantFairQueue getBlockingQueue() { return blockingQueue; }
+
+    public void shutdown() {
+        blockingExecutor.shutdownNow();
+        if (virtualExecutor != null) virtualExecutor.shutdownNow();
+    }
+
+    /**
+     * Look up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively so the
+     * server still compiles and runs on Java 17.
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.info("Virtual threads not available on Java {} — execution_mode 'virtual' uses the blocking pool",
+                    Runtime.version().feature());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.model.HandlerConfig;
+import com.dgfacade.common.model.HandlerState;
+import com.dgfacade.server.actor.HandlerMessages;
+import com.dgfacade.server.config.HandlerPool;
+import com.dgfacade.server.handler.BatchingDGHandler;
+import com.dgfacade.server.handler.DGHandler;
+import com.dgfacade.server.handler.HandlerFactory;
+import com.dgfacade.server.metrics.MetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micro-batching stage for handler configs with {@code max_batch_size} above 1.
+ *
+ * <p>Admitted requests of such a config are collected on a per-config lane instead of each
+ * getting its own actor. A lane is flushed when it reaches {@code max_batch_size}, or
+ * {@code max_linger_ms} after its first request arrived, whichever comes first. A flush
+ * acquires one handler instance (pooled or fresh), passes the whole batch to
+ * {@link BatchingDGHandler#executeBatchAsync} on the config's executor and completes each
+ * request's future with its own response. Handlers that cannot batch get one
+ * {@code execute()} call per request on the same instance.</p>
+ *
+ * <p>The linger timer only moves requests; handler work always runs on the handler executor.
+ * TTL is enforced on each request's future by the engine — a batch that outlives it is
+ * not interrupted, its late responses are simply dropped.</p>
+ */
+public class MicroBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MicroBatcher.class);
+
+    public static final String TRIGGER_SIZE = "size";
+    public static final String TRIGGER_LINGER = "linger";
+
+    /** Lanes keyed by config identity; rebuilt lazily after every registry reload. */
+    private final Map<HandlerConfig, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ScheduledExecutorService timer;
+    private volatile Supplier<MetricsService> metrics = () -> null;
+
+    public MicroBatcher() {
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dgfacade-microbatch-linger");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return true when requests of this config are batched */
+    public static boolean isConfigured(HandlerConfig config) {
+        return config.getMaxBatchSize() > 1;
+    }
+
+    public void setMetrics(Supplier<MetricsService> metrics) {
+        this.metrics = metrics != null ? metrics : () -> null;
+    }
+
+    /** Queue an admitted request on its config's lane; it runs with the lane's next flush. */
+    public void submit(HandlerMessages.ExecuteRequest req) {
+        lanes.computeIfAbsent(req.handlerConfig(), Lane::new).add(req);
+    }
+
+    /** Forget the lanes of the previous config generation; their open batches still flush. */
+    public void clear() {
+        lanes.clear();
+    }
+
+    /** Requests currently waiting on a lane for their batch to fill or linger out. */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /** Flush every open batch and stop the linger timer. */
+    public void shutdown() {
+        lanes.values().forEach(Lane::flushNow);
+        timer.shutdownNow();
+    }
+
+    // ─── Lanes ─────────────────────────────────────────────────────────
+
+    private final class Lane {
+        private final HandlerConfig config;
+        private final int maxSize;
+        private final long lingerMs;
+        private List<HandlerMessages.ExecuteRequest> batch;   // guarded by this
+
+        Lane(HandlerConfig config) {
+            this.config = config;
+            this.maxSize = config.getMaxBatchSize();
+            this.lingerMs = Math.max(0, config.getMaxLingerMs());
+            this.batch = new ArrayList<>(maxSize);
+        }
+
+        void add(HandlerMessages.ExecuteRequest req) {
+            List<HandlerMessages.ExecuteRequest> full = null;
+            List<HandlerMessages.ExecuteRequest> opened = null;
+            pending.incrementAndGet();
+            synchronized (this) {
+                batch.add(req);
+                if (batch.size() >= maxSize) {
+                    full = batch;
+                    batch = new ArrayList<>(maxSize);
+                } else if (batch.size() == 1) {
+                    opened = batch;
+                }
+            }
+            if (full != null) {
+                flush(config, full, TRIGGER_SIZE);
+            } else if (opened != null) {
+                List<HandlerMessages.ExecuteRequest> scheduled = opened;
+                try {
+                    timer.schedule(() -> lingerExpired(scheduled), lingerMs, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    lingerExpired(scheduled);   // shutting down: don't strand the batch
+                }
+            }
+        }
+
+        /** Flush the batch the timer was started for, unless it already filled up and left. */
+        private void lingerExpired(List<HandlerMessages.ExecuteRequest> scheduled) {
+            synchronized (this) {
+                if (batch != scheduled) return;
+                batch = new ArrayList<>(maxSize);
+            }
+            flush(config, scheduled, TRIGGER_LINGER);
+        }
+
+        void flushNow() {
+            List<HandlerMessages.ExecuteRequest> open;
+            synchronized (this) {
+                if (batch.isEmpty()) return;
+                open = batch;
+                batch = new ArrayList<>(maxSize);
+            }
+            flush(config, open, TRIGGER_LINGER);
+        }
+    }
+
+    // ─── Execution ─────────────────────────────────────────────────────
+
+    private void flush(HandlerConfig config, List<HandlerMessages.ExecuteRequest> batch, String trigger) {
+        pending.addAndGet(-batch.size());
+        MetricsService m = metrics.get();
+        if (m != null) m.recordMicroBatch(config.getRequestType(), batch.size(), trigger);
+        log.debug("Flushing micro-batch of {} {} request(s) ({})", batch.size(), config.getRequestType(), trigger);
+
+        Executor executor = batch.get(0).executor() != null ? batch.get(0).executor() : Runnable::run;
+        try {
+            executor.execute(() -> run(config, batch));
+        } catch (RuntimeException e) {
+            // Executor saturated (bounded queue full) or shut down
+            for (HandlerMessages.ExecuteRequest req : batch) fail(req, "Handler execution failed: " + e.getMessage());
+        }
+    }
+
+    private void run(HandlerConfig config, List<HandlerMessages.ExecuteRequest> batch) {
+        // Drop requests that timed out while lingering or whose deadline passed in the queue
+        List<HandlerMessages.ExecuteRequest> live = new ArrayList<>(batch.size());
+        for (HandlerMessages.ExecuteRequest req : batch) {
+            if (req.responseFuture().isDone()) continue;
+            if (RequestScheduler.isExpired(req.request())) {
+                deliver(req, RequestScheduler.expired(req.request()), 0);
+                continue;
+            }
+            live.add(req);
+        }
+        if (live.isEmpty()) return;
+
+        HandlerMessages.ExecuteRequest first = live.get(0);
+        HandlerPool pool = first.handlerPool();
+        DGHandler handler = null;
+        boolean pooled = false;
+        try {
+            if (pool != null) {
+                handler = pool.borrow();
+                pooled = handler != null;
+            }
+            if (handler == null) handler = HandlerFactory.create(config);
+            for (HandlerMessages.ExecuteRequest req : live) req.state().setPhase(HandlerState.Phase.CONSTRUCTING);
+            if (first.channelAccessor() != null) handler.setChannelAccessor(first.channelAccessor());
+            if (!pooled) handler.construct(config.getConfig());
+        } catch (Exception e) {
+            log.error("Micro-batch handler for {} could not be prepared", config.getRequestType(), e);
+            for (HandlerMessages.ExecuteRequest req : live) fail(req, "Handler execution failed: " + e.getMessage());
+            release(handler, pooled, pool, false);
+            return;
+        }
+
+        Instant startedAt = Instant.now();
+        List<DGRequest> requests = new ArrayList<>(live.size());
+        for (HandlerMessages.ExecuteRequest req : live) {
+            req.state().markStarted();
+            req.request().setExecutionStartedAt(startedAt);
+            requests.add(req.request());
+        }
+
+        CompletionStage<List<DGResponse>> stage;
+        try {
+            stage = handler instanceof BatchingDGHandler batching && batching.supportsBatch()
+                    ? batching.executeBatchAsync(requests)
+                    : CompletableFuture.completedFuture(executeEach(handler, requests));
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        final DGHandler instance = handler;
+        final boolean fromPool = pooled;
+        long startNanos = System.nanoTime();
+        stage.whenComplete((responses, error) -> {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            boolean healthy = error == null && responses != null && responses.size() == live.size();
+            if (healthy) {
+                for (int i = 0; i < live.size(); i++) {
+                    DGResponse response = responses.get(i);
+                    deliver(live.get(i), response != null ? response
+                            : DGResponse.error(live.get(i).request().getRequestId(), "Batch handler returned no response"),
+                            durationMs);
+                }
+            } else {
+                String message;
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    log.error("Micro-batch of {} {} request(s) failed", live.size(), config.getRequestType(), cause);
+                    message = "Handler execution failed: " + cause.getMessage();
+                } else {
+                    message = "Batch handler returned " + (responses == null ? 0 : responses.size())
+                            + " response(s) for " + live.size() + " request(s)";
+                    log.error("Micro-batch of {}: {}", config.getRequestType(), message);
+                }
+                for (HandlerMessages.ExecuteRequest req : live) fail(req, message);
+            }
+            release(instance, fromPool, pool, healthy);
+        });
+    }
+
+    /** Fallback for handlers without a batch method: one execute() call per request, same instance. */
+    private static List<DGResponse> executeEach(DGHandler handler, List<DGRequest> requests) {
+        List<DGResponse> responses = new ArrayList<>(requests.size());
+        for (DGRequest request : requests) {
+            try {
+                responses.add(handler.execute(request));
+            } catch (Exception e) {
+                responses.add(DGResponse.error(request.getRequestId(), "Handler execution failed: " + e.getMessage()));
+            }
+        }
+        return responses;
+    }
+
+    private static void deliver(HandlerMessages.ExecuteRequest req, DGResponse response, long durationMs) {
+        if (req.responseFuture().isDone()) return;
+        HandlerState state = req.state();
+        response.setHandlerId(req.handlerId());
+        response.setExecutionTimeMs(durationMs);
+        if (response.getStatus() == DGResponse.Status.TIMEOUT) state.markTimedOut();
+        else state.markCompleted(true, null);
+        state.captureResponse(response);
+        req.responseFuture().complete(response);
+    }
+
+    private static void fail(HandlerMessages.ExecuteRequest req, String message) {
+        if (req.responseFuture().isDone()) return;
+        DGResponse response = DGResponse.error(req.request().getRequestId(), message);
+        response.setHandlerId(req.handlerId());
+        req.state().markCompleted(false, message);
+        req.state().captureResponse(response);
+        req.responseFuture().complete(response);
+    }
+
+    private static void release(DGHandler handler, boolean pooled, HandlerPool pool, boolean healthy) {
+        if (handler == null) return;
+        if (pooled) {
+            if (healthy) pool.release(handler); else pool.invalidate(handler);
+        } else {
+            try { handler.cleanup(); } catch (Exception e) { log.warn("Cleanup error", e); }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyed serial execution for handler configs with an {@code ordering_key}.
+ *
+ * <p>Requests resolving to the same key run one at a time, in arrival order: a request that
+ * finds its key busy waits on that key's lane and is released when the request ahead of it
+ * completes (success, error or timeout). Different keys never wait for each other.</p>
+ *
+ * <p>A lane exists only while its key has work in flight — it is evicted the moment it goes
+ * idle — so memory is proportional to busy keys, not to every key ever seen. Both the number
+ * of live lanes and the depth of each lane are bounded; requests beyond either bound are
+ * rejected rather than buffered.</p>
+ */
+public class OrderingLanes {
+
+    public enum Result { STARTED, QUEUED, REJECTED }
+
+    /** One request on a lane. */
+    public static final class Entry {
+        private final CompletableFuture<?> future;
+        private final Runnable start;
+
+        /** @param start admits the request onward (bulkhead, dispatch) once it reaches the lane head */
+        public Entry(CompletableFuture<?> future, Runnable start) {
+            this.future = future;
+            this.start = start;
+        }
+    }
+
+    private static final class Lane {
+        Entry running;
+        final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    }
+
+    /** Per-thread work list so lane hand-offs that complete synchronously don't recurse. */
+    private static final ThreadLocal<ArrayDeque<Runnable>> TRAMPOLINE = new ThreadLocal<>();
+
+    private final int maxLanes;
+    private final int maxLaneDepth;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public OrderingLanes(int maxLanes, int maxLaneDepth) {
+        this.maxLanes = Math.max(1, maxLanes);
+        this.maxLaneDepth = Math.max(0, maxLaneDepth);
+    }
+
+    /**
+     * Place a request on its key's lane. On {@link Result#STARTED} the caller starts it
+     * immediately; on {@link Result#QUEUED} the lane starts it from {@link #complete}.
+     */
+    public Result submit(String key, Entry entry) {
+        Result[] result = new Result[1];
+        lanes.compute(key, (k, lane) -> {
+            if (lane == null) {
+                if (lanes.size() >= maxLanes) {
+                    result[0] = Result.REJECTED;
+                    return null;
+                }
+                lane = new Lane();
+                lane.running = entry;
+                result[0] = Result.STARTED;
+                return lane;
+            }
+            if (lane.pending.size() >= maxLaneDepth) {
+                result[0] = Result.REJECTED;
+                return lane;
+            }
+            lane.pending.addLast(entry);
+            queued.incrementAndGet();
+            result[0] = Result.QUEUED;
+            return lane;
+        });
+        if (result[0] == Result.REJECTED) rejected.incrementAndGet();
+        return result[0];
+    }
+
+    /**
+     * Called once an entry's future completes. For the running entry, starts the next live
+     * entry or evicts the idle lane; for a queued entry (e.g. timed out), just removes it.
+     */
+    public void complete(String key, Entry entry) {
+        Entry[] next = new Entry[1];
+        lanes.computeIfPresent(key, (k, lane) -> {
+            if (lane.running != entry) {
+                if (lane.pending.remove(entry)) queued.decrementAndGet();
+                return lane;
+            }
+            Entry n;
+            while ((n = lane.pending.pollFirst()) != null) {
+                queued.decrementAndGet();
+                if (!n.future.isDone()) break;
+            }
+            if (n == null) return null; // idle: evict
+            lane.running = n;
+            next[0] = n;
+            return lane;
+        });
+        if (next[0] != null) runTrampolined(next[0].start);
+    }
+
+    private static void runTrampolined(Runnable task) {
+        ArrayDeque<Runnable> work = TRAMPOLINE.get();
+        if (work != null) {
+            work.addLast(task);
+            return;
+        }
+        work = new ArrayDeque<>();
+        TRAMPOLINE.set(work);
+        try {
+            for (Runnable r = task; r != null; r = work.pollFirst()) r.run();
+        } finally {
+            TRAMPOLINE.remove();
+        }
+    }
+
+    public int getActiveLaneCount() { return lanes.size(); }
+    public int getQueuedCount() { return queued.get(); }
+    public long getRejectedCount() { return rejected.get(); }
+    public int getMaxLanes() { return maxLanes; }
+    public int getMaxLaneDepth() { return maxLaneDepth; }
+}
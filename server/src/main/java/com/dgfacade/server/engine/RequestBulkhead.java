@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.HandlerConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-request-type bulkhead: caps how many requests of one handler config execute at once
+ * and how many may wait for a slot, so one slow request type cannot absorb every handler
+ * thread and actor in the node.
+ *
+ * <p>Configured in the handler JSON via {@code max_concurrency}, {@code max_queue},
+ * {@code reject_policy} and {@code retry_after_seconds}. A request is either admitted and
+ * dispatched immediately, parked in a queue (ordered by {@link RequestScheduler#ORDER}) until
+ * a running request of the same type completes, or rejected when the queue is full. Queued
+ * requests whose future completes while waiting (TTL) are dropped from the queue and never
+ * dispatched; those whose deadline passes are expired instead of dispatched.</p>
+ */
+public class RequestBulkhead {
+
+    public static final String POLICY_FAIL_FAST = "FAIL_FAST";
+    public static final String POLICY_RETRY_AFTER = "RETRY_AFTER";
+
+    public enum Admission { ADMITTED, QUEUED, REJECTED }
+
+    /** One request passing through the bulkhead. */
+    public static final class Ticket implements Comparable<Ticket> {
+        private final DGRequest request;
+        private final CompletableFuture<?> future;
+        private final Runnable dispatch;
+        private final Runnable expire;
+        private final long sequence = RequestScheduler.nextSequence();
+        private boolean admitted; // guarded by the owning bulkhead
+
+        /**
+         * @param dispatch sends the request on to the actor system
+         * @param expire   completes the request as expired (deadline passed while queued)
+         */
+        public Ticket(DGRequest request, CompletableFuture<?> future, Runnable dispatch, Runnable expire) {
+            this.request = request;
+            this.future = future;
+            this.dispatch = dispatch;
+            this.expire = expire;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int c = RequestScheduler.ORDER.compare(request, other.request);
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final String requestType;
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final boolean retryAfter;
+    private final int retryAfterSeconds;
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+    private int running;
+
+    public RequestBulkhead(HandlerConfig config) {
+        this.requestType = config.getRequestType();
+        this.maxConcurrency = config.getMaxConcurrency();
+        this.maxQueue = Math.max(0, config.getMaxQueue());
+        this.retryAfter = POLICY_RETRY_AFTER.equalsIgnoreCase(config.getRejectPolicy());
+        this.retryAfterSeconds = Math.max(1, config.getRetryAfterSeconds());
+    }
+
+    /** @return true if the config asks for a bulkhead at all */
+    public static boolean isConfigured(HandlerConfig config) {
+        return config.getMaxConcurrency() > 0;
+    }
+
+    /**
+     * Try to admit a request. On {@link Admission#ADMITTED} the caller dispatches the ticket
+     * itself; on {@link Admission#QUEUED} the bulkhead dispatches it later from
+     * {@link #complete(Ticket)}.
+     */
+    public synchronized Admission admit(Ticket ticket) {
+        if (running < maxConcurrency) {
+            running++;
+            ticket.admitted = true;
+            return Admission.ADMITTED;
+        }
+        if (queue.size() < maxQueue) {
+            queue.add(ticket);
+            return Admission.QUEUED;
+        }
+        return Admission.REJECTED;
+    }
+
+    /**
+     * Called once the ticket's response future completes. Frees its slot (handing it to the
+     * next live queued request) or, for a ticket that never left the queue, removes it.
+     */
+    public void complete(Ticket ticket) {
+        Ticket next = null;
+        List<Ticket> expired = null;
+        synchronized (this) {
+            if (!ticket.admitted) {
+                queue.remove(ticket);
+                return;
+            }
+            while ((next = queue.poll()) != null) {
+                if (next.future.isDone()) continue;
+                if (!RequestScheduler.isExpired(next.request)) break;
+                if (expired == null) expired = new ArrayList<>();
+                expired.add(next);
+            }
+            if (next != null) next.admitted = true;
+            else running--;
+        }
+        // Outside the lock: completing an expired ticket re-enters complete() for it
+        if (expired != null) expired.forEach(t -> t.expire.run());
+        if (next != null) next.dispatch.run();
+    }
+
+    public String getRequestType() { return requestType; }
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public int getMaxQueue() { return maxQueue; }
+    public boolean isRetryAfter() { return retryAfter; }
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+    public synchronized int getRunning() { return running; }
+    public synchronized int getQueued() { return queue.size(); }
+}
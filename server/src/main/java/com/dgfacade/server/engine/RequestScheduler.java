@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduling stage between admission and handler execution.
+ *
+ * <p>Wherever requests wait — a bulkhead queue or a tenant's lane in the blocking handler
+ * pool's {@link TenantFairQueue} — they are ordered by {@link #ORDER}: higher
+ * {@code priority} first, then earliest {@code deadline} first (EDF), then arrival order.
+ * Interactive REST traffic (default priority) therefore overtakes batch ingestion
+ * ({@link DGRequest#PRIORITY_BATCH}) during a backlog instead of queueing behind it.</p>
+ *
+ * <p>Requests already past their deadline are dropped with a TIMEOUT response carrying
+ * {@link #DEADLINE_EXCEEDED} — at submit, when leaving a bulkhead queue, and when a pool
+ * thread picks them up — always before any handler is borrowed or constructed.</p>
+ */
+public final class RequestScheduler {
+
+    public static final String DEADLINE_EXCEEDED = "Deadline exceeded before execution";
+
+    /** Higher priority first, then earliest deadline (none = last). */
+    public static final Comparator<DGRequest> ORDER = Comparator
+            .comparingInt(DGRequest::getEffectivePriority).reversed()
+            .thenComparing(DGRequest::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private RequestScheduler() {}
+
+    public static boolean isExpired(DGRequest request) {
+        Instant deadline = request.getDeadline();
+        return deadline != null && !deadline.isAfter(Instant.now());
+    }
+
+    /** TIMEOUT response for a request dropped because its deadline passed while queued. */
+    public static DGResponse expired(DGRequest request) {
+        DGResponse response = DGResponse.timeout(request.getRequestId());
+        response.setErrorMessage(DEADLINE_EXCEEDED);
+        return response;
+    }
+
+    public static boolean isExpired(DGResponse response) {
+        return response.getStatus() == DGResponse.Status.TIMEOUT
+                && DEADLINE_EXCEEDED.equals(response.getErrorMessage());
+    }
+
+    /** Monotonic tie-breaker preserving FIFO order among equal priority and deadline. */
+    static long nextSequence() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * Wrap an executor so the work it receives for {@code request} carries the request's
+     * ordering and tenant; the blocking pool's {@link TenantFairQueue} uses both.
+     */
+    public static Executor prioritized(Executor executor, DGRequest request) {
+        return command -> executor.execute(new Task(request, command));
+    }
+
+    /** A unit of handler work tagged with its request's scheduling attributes. */
+    public static final class Task implements Runnable, Comparable<Task> {
+        private final DGRequest request;
+        private final Runnable command;
+        private final long sequence = nextSequence();
+
+        Task(DGRequest request, Runnable command) {
+            this.request = request;
+            this.command = command;
+        }
+
+        public DGRequest getRequest() { return request; }
+
+        @Override
+        public void run() {
+            command.run();
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int c = ORDER.compare(request, other.request);
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.model.HandlerState;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which {@link HandlerState}s keep their request and response for the handler
+ * detail view. Capture holds references only (JSON is rendered lazily), but on
+ * high-throughput nodes even that pins payloads in the recent-state buffer.
+ *
+ * <ul>
+ *   <li>{@code ALL} — every request (default)</li>
+ *   <li>{@code SAMPLED} — one request in every {@code sample-rate}</li>
+ *   <li>{@code ERRORS_ONLY} — captured provisionally, dropped when the response is SUCCESS</li>
+ *   <li>{@code NONE} — nothing</li>
+ * </ul>
+ */
+public class StateCapturePolicy {
+
+    public enum Mode { ALL, SAMPLED, ERRORS_ONLY, NONE }
+
+    public static final StateCapturePolicy ALL = new StateCapturePolicy(Mode.ALL, 1);
+
+    private final Mode mode;
+    private final int sampleRate;
+    private final AtomicLong counter = new AtomicLong();
+
+    public StateCapturePolicy(Mode mode, int sampleRate) {
+        this.mode = mode;
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    /** Parse a mode name (case-insensitive); unknown names fall back to ALL. */
+    public static StateCapturePolicy of(String mode, int sampleRate) {
+        try {
+            return new StateCapturePolicy(Mode.valueOf(mode.trim().toUpperCase()), sampleRate);
+        } catch (RuntimeException e) {
+            return ALL;
+        }
+    }
+
+    /** At submit: whether this state captures its request and response at all. */
+    public void onSubmit(HandlerState state) {
+        boolean capture = switch (mode) {
+            case ALL, ERRORS_ONLY -> true;
+            case SAMPLED -> counter.getAndIncrement() % sampleRate == 0;
+            case NONE -> false;
+        };
+        if (!capture) state.discardCapture();
+    }
+
+    /** At completion: drop what ERRORS_ONLY captured provisionally for a successful request. */
+    public void onComplete(HandlerState state, DGResponse response) {
+        if (mode == Mode.ERRORS_ONLY && response.getStatus() == DGResponse.Status.SUCCESS) {
+            state.discardCapture();
+        }
+    }
+
+    public Mode getMode() { return mode; }
+    public int getSampleRate() { return sampleRate; }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.util.DeliveryDestinationParser;
+import com.dgfacade.common.util.JsonUtil;
+import com.dgfacade.messaging.core.DataPublisher;
+import com.dgfacade.messaging.core.MessageEnvelope;
+import com.dgfacade.server.channel.ChannelAccessor;
+import org.apache.pekko.Done;
+import org.apache.pekko.actor.typed.ActorSystem;
+import org.apache.pekko.actor.typed.DispatcherSelector;
+import org.apache.pekko.japi.Pair;
+import org.apache.pekko.stream.Materializer;
+import org.apache.pekko.stream.OverflowStrategy;
+import org.apache.pekko.stream.javadsl.Keep;
+import org.apache.pekko.stream.javadsl.Sink;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.stream.javadsl.SourceQueueWithComplete;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the updates of {@link com.dgfacade.server.handler.StreamingDGHandler}s to the
+ * transport the request came from.
+ *
+ * <p>Each streaming execution gets its own Pekko Streams pipeline: a bounded
+ * {@code Source.queue} with {@link OverflowStrategy#backpressure()} feeding one send at a
+ * time to the request's {@link Target}. A handler that produces faster than its client reads
+ * blocks in {@code updateSink.accept()} once the buffer is full, so a slow consumer throttles
+ * its producer instead of growing the heap. If the buffer stays full for longer than the
+ * offer timeout the update is dropped and counted; further updates are dropped until the
+ * stalled one is accepted.</p>
+ *
+ * <h3>Routing</h3>
+ * <ol>
+ *   <li>A transport that can carry updates (WebSocket session, SSE emitter) calls
+ *       {@link #subscribe} with the request id <em>before</em> submitting the request. A request
+ *       id that already has a subscriber is refused, and the transport rejects the request.</li>
+ *   <li>Otherwise the request's {@code delivery_destination} is used when it names an output
+ *       channel: {@code channel://<output-channel>[/<topic>]}, or
+ *       {@code kafka://<output-channel>/<topic>} / {@code activemq://<output-channel>/topic|queue/<name>}.
+ *       Without a topic the channel's first configured destination is used.</li>
+ *   <li>With neither, updates are counted as dropped — the final response is unaffected.</li>
+ * </ol>
+ *
+ * <p>The final response still travels on the request's future. Transports that subscribed
+ * wait for {@link Subscription#drained()} before writing it, so it is always the last message
+ * the client sees.</p>
+ */
+public class StreamingDelivery {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingDelivery.class);
+
+    /** A transport-side receiver of one request's updates; called for one update at a time. */
+    @FunctionalInterface
+    public interface Target {
+        void send(DGResponse update) throws Exception;
+    }
+
+    private final Materializer materializer;
+    /** Sends may block on sockets or broker acks, so they never run on the stream dispatcher. */
+    private final Executor sendExecutor;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile ChannelAccessor channelAccessor;
+    private volatile int bufferSize = 256;
+    private volatile long offerTimeoutMs = 5_000;
+    private volatile long drainTimeoutMs = 5_000;
+
+    public StreamingDelivery(ActorSystem<?> system) {
+        this.materializer = Materializer.createMaterializer(system);
+        this.sendExecutor = system.dispatchers().lookup(DispatcherSelector.blocking());
+    }
+
+    /**
+     * @param bufferSize     updates buffered per request before the producer is backpressured
+     * @param offerTimeoutMs how long a producer may block on a full buffer before its update is dropped
+     * @param drainTimeoutMs how long a transport waits for buffered updates before sending the final response
+     */
+    public void configure(int bufferSize, long offerTimeoutMs, long drainTimeoutMs) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.offerTimeoutMs = Math.max(0, offerTimeoutMs);
+        this.drainTimeoutMs = Math.max(0, drainTimeoutMs);
+    }
+
+    /** Resolves {@code delivery_destination} output channels; null disables that route. */
+    public void setChannelAccessor(ChannelAccessor channelAccessor) {
+        this.channelAccessor = channelAccessor;
+    }
+
+    /**
+     * Route the updates of {@code requestId} to {@code target}. Subscribe before submitting
+     * the request and close the subscription once the final response has been sent.
+     *
+     * @return the subscription, or null if another transport is already subscribed to this id
+     */
+    public Subscription subscribe(String requestId, Target target) {
+        Subscription subscription = new Subscription(requestId, target);
+        if (subscriptions.putIfAbsent(requestId, subscription) != null) return null;
+        return subscription;
+    }
+
+    /**
+     * Open the update stream of one streaming execution. Called by the handler actor on the
+     * handler executor; the returned sink must be {@link UpdateStream#complete() completed}
+     * when the handler returns.
+     */
+    public UpdateStream open(DGRequest request, String handlerId) {
+        Subscription subscription = subscriptions.get(request.getRequestId());
+        Target target = subscription != null ? subscription.target : destinationTarget(request);
+        UpdateStream stream = new UpdateStream(request.getRequestId(), handlerId, target, subscription);
+        if (subscription != null) subscription.stream = stream;
+        return stream;
+    }
+
+    public int getOpenStreamCount() { return openStreams.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+
+    // ─── Subscriptions ─────────────────────────────────────────────────
+
+    /** A transport's claim on one request's updates. */
+    public final class Subscription implements AutoCloseable {
+        private final String requestId;
+        private final Target target;
+        private volatile UpdateStream stream;
+        private volatile boolean closed;
+
+        private Subscription(String requestId, Target target) {
+            this.requestId = requestId;
+            this.target = target;
+        }
+
+        /**
+         * Completes once every update the handler produced has been sent (immediately if it
+         * produced none), or after the drain timeout. Ask only after the response future completed.
+         */
+        public CompletableFuture<Void> drained() {
+            UpdateStream s = stream;
+            if (s == null) return CompletableFuture.completedFuture(null);
+            return s.done.toCompletableFuture()
+                    .thenApply(done -> (Void) null)
+                    .exceptionally(e -> null)
+                    .completeOnTimeout(null, drainTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        /** Detach the target; updates still buffered for it are dropped. */
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(requestId, this);
+        }
+    }
+
+    // ─── Per-request streams ───────────────────────────────────────────
+
+    /** The update sink handed to a streaming handler. */
+    public final class UpdateStream implements Consumer<DGResponse> {
+        private final String requestId;
+        private final String handlerId;
+        private final Target target;
+        private final Subscription subscription;   // null for delivery_destination targets
+        private final SourceQueueWithComplete<DGResponse> queue;
+        private final CompletionStage<?> done;
+        private final AtomicInteger sequence = new AtomicInteger();
+        /** The last offer that timed out; while it is pending the buffer is considered stalled. */
+        private CompletableFuture<?> stalled;
+        private volatile boolean targetFailed;
+
+        private UpdateStream(String requestId, String handlerId, Target target, Subscription subscription) {
+            this.requestId = requestId;
+            this.handlerId = handlerId;
+            this.target = target;
+            this.subscription = subscription;
+            if (target == null) {
+                // Nowhere to deliver: no pipeline, every update is counted as dropped
+                this.queue = null;
+                this.done = CompletableFuture.completedFuture(null);
+                return;
+            }
+            Pair<SourceQueueWithComplete<DGResponse>, CompletionStage<Done>> mat =
+                    Source.<DGResponse>queue(bufferSize, OverflowStrategy.backpressure())
+                            .mapAsync(1, update -> CompletableFuture.runAsync(() -> send(update), sendExecutor))
+                            .toMat(Sink.ignore(), Keep.both())
+                            .run(materializer);
+            this.queue = mat.first();
+            this.done = mat.second();
+            openStreams.incrementAndGet();
+            done.whenComplete((d, e) -> openStreams.decrementAndGet());
+        }
+
+        /** Buffer one update, blocking the producer while the buffer is full. */
+        @Override
+        public void accept(DGResponse update) {
+            if (update == null) return;
+            if (target == null || targetFailed || (subscription != null && subscription.closed)) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (update.getRequestId() == null) update.setRequestId(requestId);
+            if (update.getSequenceNumber() == 0) update.setSequenceNumber(sequence.incrementAndGet());
+            update.setStreamingUpdate(true);
+            update.setHandlerId(handlerId);
+
+            if (stalled != null) {
+                if (!stalled.isDone()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                stalled = null;
+            }
+            CompletableFuture<?> offered = queue.offer(update).toCompletableFuture();
+            try {
+                offered.get(offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still pending: it is delivered if the client catches up; drop newer updates until then
+                stalled = offered;
+                log.debug("Update stream for {} stalled; client is not keeping up", requestId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+            } catch (Exception e) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        /** The handler returned: deliver what is buffered, then end the stream. */
+        public void complete() {
+            if (queue != null) queue.complete();
+        }
+
+        private void send(DGResponse update) {
+            if (targetFailed || (subscription != null && subscription.closed)) {
+                dropped.incrementAndGet();
+                return;
+            }
+            try {
+                target.send(update);
+                delivered.incrementAndGet();
+            } catch (Exception e) {
+                // The client went away: stop sending, keep draining so the producer is released
+                targetFailed = true;
+                dropped.incrementAndGet();
+                log.warn("Streaming update {} of {} could not be delivered: {}",
+                        update.getSequenceNumber(), requestId, e.getMessage());
+            }
+        }
+    }
+
+    // ─── delivery_destination ──────────────────────────────────────────
+
+    /** A publisher target for the request's {@code delivery_destination}, or null. */
+    private Target destinationTarget(DGRequest request) {
+        ChannelAccessor accessor = channelAccessor;
+        String destination = request.getDeliveryDestination();
+        if (accessor == null || destination == null) return null;
+        DeliveryDestinationParser.ParsedDestination parsed = DeliveryDestinationParser.parse(destination);
+        switch (parsed.type()) {
+            case "CHANNEL", "KAFKA", "ACTIVEMQ_TOPIC", "ACTIVEMQ_QUEUE" -> { }
+            default -> { return null; }
+        }
+        String channelId = parsed.server();
+        String topic = parsed.topicOrQueue();
+        try {
+            if (topic == null || topic.isBlank()) {
+                List<String> destinations = accessor.getDestinations(channelId, true);
+                if (destinations.isEmpty()) {
+                    log.warn("delivery_destination '{}' names no topic and channel has none configured", destination);
+                    return null;
+                }
+                topic = destinations.get(0);
+            }
+            DataPublisher publisher = accessor.getPublisher(channelId);
+            String resolvedTopic = topic;
+            return update -> publisher.publish(resolvedTopic,
+                    new MessageEnvelope(resolvedTopic, JsonUtil.writeResponse(update))).join();
+        } catch (RuntimeException e) {
+            log.warn("delivery_destination '{}' cannot carry streaming updates: {}", destination, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.engine;
+
+import com.dgfacade.server.metrics.MetricsService;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Work queue for the blocking handler pool that shares pool threads fairly between tenants.
+ *
+ * <p>Each tenant (the user resolved from the API key) gets its own lane; within a lane, work
+ * is ordered by {@link RequestScheduler#ORDER}. Lanes are served by weighted deficit round
+ * robin: each visit credits a lane with its {@code weight} (from {@code users.json}) and it
+ * may dequeue one task per credit before the next lane's turn. A tenant flooding the engine
+ * therefore only lengthens its own lane — other tenants keep getting their share of threads.</p>
+ *
+ * <p>The queue is bounded by total size so the pool still rejects work when saturated.</p>
+ */
+public class TenantFairQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    /** Lane for work not tagged with a request (or with an unresolved user). */
+    public static final String SYSTEM_TENANT = "_system";
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<String, Lane> lanes = new HashMap<>();     // guarded by lock
+    private final ArrayDeque<Lane> active = new ArrayDeque<>();  // lanes with queued work, in round-robin order
+    private int count;                                           // guarded by lock
+    private volatile ToIntFunction<String> weights = tenant -> 1;
+    private volatile Supplier<MetricsService> metrics = () -> null;
+
+    public TenantFairQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /** Tenant → weight lookup (values below 1 are treated as 1). */
+    public void setWeightResolver(ToIntFunction<String> weights) {
+        this.weights = weights;
+    }
+
+    public void setMetrics(Supplier<MetricsService> metrics) {
+        this.metrics = metrics;
+        MetricsService ms = metrics.get();
+        if (ms == null) return;
+        lock.lock();
+        try {
+            lanes.values().forEach(lane -> ms.registerTenantQueue(lane.tenant, lane.depth));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ─── Lanes ───────────────────────────────────────────────────────────
+
+    private static final class Node implements Comparable<Node> {
+        final Runnable task;
+        final long enqueuedAtNanos = System.nanoTime();
+        final long sequence = RequestScheduler.nextSequence();
+
+        Node(Runnable task) { this.task = task; }
+
+        @Override
+        public int compareTo(Node other) {
+            if (task instanceof RequestScheduler.Task a && other.task instanceof RequestScheduler.Task b) {
+                int c = a.compareTo(b);
+                if (c != 0) return c;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Lane {
+        final String tenant;
+        final PriorityQueue<Node> queue = new PriorityQueue<>();
+        final AtomicInteger depth = new AtomicInteger(); // mirrors queue.size() for the gauge
+        int deficit;
+        boolean active;
+
+        Lane(String tenant) { this.tenant = tenant; }
+    }
+
+    private static String tenantOf(Runnable r) {
+        if (r instanceof RequestScheduler.Task t && t.getRequest().getResolvedUserId() != null) {
+            return t.getRequest().getResolvedUserId();
+        }
+        return SYSTEM_TENANT;
+    }
+
+    private int weightOf(String tenant) {
+        try {
+            return Math.max(1, weights.applyAsInt(tenant));
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private Lane lane(String tenant) {
+        return lanes.computeIfAbsent(tenant, t -> {
+            Lane lane = new Lane(t);
+            MetricsService ms = metrics.get();
+            if (ms != null) ms.registerTenantQueue(t, lane.depth);
+            return lane;
+        });
+    }
+
+    private void enqueue(Runnable r) {
+        Lane lane = lane(tenantOf(r));
+        lane.queue.add(new Node(r));
+        lane.depth.incrementAndGet();
+        if (!lane.active) {
+            lane.active = true;
+            lane.deficit = weightOf(lane.tenant);
+            active.addLast(lane);
+        }
+        count++;
+        notEmpty.signal();
+    }
+
+    /** Deficit round robin over active lanes. Caller holds the lock and count > 0. */
+    private Runnable dequeue() {
+        while (true) {
+            Lane lane = active.peekFirst();
+            if (lane.deficit >= 1) {
+                lane.deficit--;
+                Node node = lane.queue.poll();
+                lane.depth.decrementAndGet();
+                count--;
+                if (lane.queue.isEmpty()) {
+                    active.pollFirst();
+                    lane.active = false;
+                    lane.deficit = 0;
+                }
+                MetricsService ms = metrics.get();
+                if (ms != null) ms.recordTenantDispatch(lane.tenant, System.nanoTime() - node.enqueuedAtNanos);
+                return node.task;
+            }
+            // Turn over: rotate to the back with its quantum for the next round
+            active.pollFirst();
+            lane.deficit += weightOf(lane.tenant);
+            active.addLast(lane);
+        }
+    }
+
+    // ─── BlockingQueue ───────────────────────────────────────────────────
+
+    @Override
+    public boolean offer(Runnable r) {
+        Objects.requireNonNull(r);
+        lock.lock();
+        try {
+            if (count >= capacity) return false;
+            enqueue(r);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable r, long timeout, TimeUnit unit) {
+        return offer(r);
+    }
+
+    @Override
+    public void put(Runnable r) {
+        if (!offer(r)) throw new IllegalStateException("Queue full");
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) notEmpty.await();
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            if (count == 0) return null;
+            Node head = active.peekFirst().queue.peek();
+            return head != null ? head.task : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Runnable r)) return false;
+        lock.lock();
+        try {
+            Lane lane = lanes.get(tenantOf(r));
+            if (lane == null || !lane.queue.removeIf(n -> n.task == r)) return false;
+            lane.depth.decrementAndGet();
+            count--;
+            if (lane.queue.isEmpty() && lane.active) {
+                active.remove(lane);
+                lane.active = false;
+                lane.deficit = 0;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (count > 0 && n < maxElements) {
+                c.add(dequeue());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Weakly consistent: iterates a snapshot, in no particular order. */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Lane lane : active) {
+                for (Node node : lane.queue) snapshot.add(node.task);
+            }
+        } finally {
+            lock.unlock();
+        }
+        Iterator<Runnable> it = snapshot.iterator();
+        return new Iterator<>() {
+            private Runnable last;
+
+            @Override public boolean hasNext() { return it.hasNext(); }
+            @Override public Runnable next() { return last = it.next(); }
+            @Override public void remove() {
+                if (last == null) throw new IllegalStateException();
+                TenantFairQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /** Queue depth per tenant (tenants with nothing queued are omitted). */
+    public Map<String, Integer> getDepthByTenant() {
+        Map<String, Integer> depths = new TreeMap<>();
+        lock.lock();
+        try {
+            for (Lane lane : active) depths.put(lane.tenant, lane.queue.size());
+        } finally {
+            lock.unlock();
+        }
+        return depths;
+    }
+}
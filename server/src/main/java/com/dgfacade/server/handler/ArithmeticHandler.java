@@ -83,6 +83,9 @@ public class ArithmeticHandler implements DGHandler {
     @Override
     public void stop() { stopped = true; }
 
+    @Override
+    public void reset() { stopped = false; }
+
     @Override
     public void cleanup() {}
 }
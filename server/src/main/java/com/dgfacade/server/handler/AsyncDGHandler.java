@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.handler;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Extended handler interface for non-blocking (I/O-bound) handlers.
+ * {@link #executeAsync(DGRequest)} starts the work and returns immediately; the actor
+ * completes the request when the returned stage completes, so no thread is held while
+ * a downstream call is in flight.
+ */
+public interface AsyncDGHandler extends DGHandler {
+
+    /**
+     * Start processing the request without blocking the calling thread.
+     *
+     * @param request the incoming DGRequest
+     * @return a stage that completes with the response (or exceptionally on failure)
+     */
+    CompletionStage<DGResponse> executeAsync(DGRequest request);
+
+    @Override
+    default DGResponse execute(DGRequest request) {
+        // Blocking fallback for callers that need a synchronous result (e.g. chain steps)
+        return executeAsync(request).toCompletableFuture().join();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>{@code setup(Map)} → construct</li>
  *   <li>{@code process(Map)} → execute</li>
+ *   <li>{@code processBatch(List)} → executeBatch (micro-batching, see {@code max_batch_size})</li>
  *   <li>{@code shutdown()} → stop</li>
  *   <li>{@code dispose()} → cleanup</li>
  * </ul>
@@ -147,6 +148,18 @@ public class BatchArithmeticHandler {
         };
     }
 
+    /**
+     * Micro-batch processing: proxy discovers as executeBatch → "processBatch(List)".
+     * Receives the payloads of several queued requests and returns one result per payload.
+     */
+    public List<Map<String, Object>> processBatch(List<Map<String, Object>> payloads) {
+        List<Map<String, Object>> results = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            results.add(process(payload != null ? payload : Map.of()));
+        }
+        return results;
+    }
+
     /**
      * Lifecycle: proxy discovers as stop → "shutdown()"
      */
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.handler;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Extended handler interface for request types that are much cheaper per item when processed
+ * many at a time (scoring, lookups, SQL-backed enrichment).
+ *
+ * <p>When the handler config sets {@code max_batch_size} above 1, the engine's micro-batcher
+ * accumulates queued requests of the type for up to {@code max_linger_ms} and hands them to
+ * one instance in a single {@link #executeBatch} call; each response is then delivered to its
+ * own request. Single requests (chain steps, batching disabled) still go through
+ * {@link #execute(DGRequest)}.</p>
+ */
+public interface BatchingDGHandler extends DGHandler {
+
+    /**
+     * Process several requests at once.
+     *
+     * @param requests the batch, in arrival order
+     * @return exactly one response per request, in the same order
+     */
+    List<DGResponse> executeBatch(List<DGRequest> requests);
+
+    /**
+     * Non-blocking variant used by the micro-batcher. The default runs {@link #executeBatch}
+     * on the calling thread; I/O-bound handlers override it to release the thread.
+     */
+    default CompletionStage<List<DGResponse>> executeBatchAsync(List<DGRequest> requests) {
+        return CompletableFuture.completedFuture(executeBatch(requests));
+    }
+
+    /**
+     * Whether this instance can actually batch. Wrappers such as {@link DGHandlerProxy}
+     * implement the interface for every delegate and report here whether theirs has a batch method.
+     */
+    default boolean supportsBatch() {
+        return true;
+    }
+}
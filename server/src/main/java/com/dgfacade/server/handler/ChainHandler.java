@@ -5,8 +5,16 @@
  */
 package com.dgfacade.server.handler;
 
+import com.dgfacade.common.model.ChainConfig;
 import com.dgfacade.common.model.DGRequest;
 import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.model.HandlerConfig;
+import com.dgfacade.server.chain.ChainConfigRegistry;
+import com.dgfacade.server.chain.ChainExpression;
+import com.dgfacade.server.chain.ChainPlan;
+import com.dgfacade.server.config.HandlerConfigRegistry;
+import com.dgfacade.server.config.HandlerPool;
+import com.dgfacade.server.engine.ChainStepExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,8 +22,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <b>ChainHandler</b> — Declarative pipeline composition engine for DGFacade.
@@ -26,6 +33,7 @@ import java.util.regex.Pattern;
  *   <li><b>Phase 1 — Linear Chains:</b> Sequential step execution with payload mapping and merge strategies</li>
  *   <li><b>Phase 2 — Conditional Steps:</b> "when" expressions to skip steps based on accumulated context</li>
  *   <li><b>Phase 3 — Parallel Fan-Out:</b> Concurrent step execution with join strategies</li>
+ *   <li><b>Phase 4 — DAG Chains:</b> Steps declare {@code depends_on} and start as soon as their inputs are ready</li>
  * </ul>
  *
  * <h3>Variable Resolution</h3>
@@ -37,85 +45,137 @@ import java.util.regex.Pattern;
  *   <li>${steps.alias} — named step's full output by alias</li>
  *   <li>${steps.alias.field} — specific field from named step</li>
  * </ul>
+ *
+ * <h3>Chain Selection</h3>
+ * <p>A handler config with inline {@code steps} runs that chain. Otherwise the request
+ * payload's {@code chain_id} selects a chain from the {@link ChainConfigRegistry}
+ * ({@code config/chains/*.json}). Either way the definition has been compiled into a
+ * {@link ChainPlan} beforehand; a request only walks the plan.</p>
+ *
+ * <h3>Critical Path</h3>
+ * <p>Every result reports {@code critical_path_ms}: the longest chain of dependent step
+ * durations — the latency floor no amount of parallelism can remove — and the aliases on it
+ * as {@code critical_path}. For a linear chain it is the sum of its steps (a parallel group
+ * contributing its slowest branch); for a DAG, comparing it with {@code chain_duration_ms}
+ * shows how much time went to waiting for pool threads rather than to dependencies.</p>
  */
 public class ChainHandler implements DGHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ChainHandler.class);
-    private static final Pattern VAR_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
 
-    private Map<String, Object> config;
+    /** Static reference to the handler registry — set by Spring AppConfig on startup. */
+    private static volatile HandlerConfigRegistry handlerRegistry;
+    /** Static reference to the chain registry — set by Spring AppConfig on startup. */
+    private static volatile ChainConfigRegistry chainRegistry;
+
+    public static void setHandlerConfigRegistry(HandlerConfigRegistry registry) {
+        handlerRegistry = registry;
+    }
+
+    public static void setChainConfigRegistry(ChainConfigRegistry registry) {
+        chainRegistry = registry;
+    }
+
+    /** The engine's pool for parallel branches and DAG steps — set by Spring AppConfig on startup. */
+    private static volatile ChainStepExecutor stepExecutor;
+
+    public static void setChainStepExecutor(ChainStepExecutor executor) {
+        stepExecutor = executor;
+    }
+
+    /** Compiled from inline {@code steps} in the handler config; null selects by {@code chain_id}. */
+    private ChainPlan inlinePlan;
     private volatile boolean stopped = false;
 
     @Override
     public void construct(Map<String, Object> config) {
-        this.config = config != null ? config : Map.of();
+        Map<String, Object> cfg = config != null ? config : Map.of();
+        inlinePlan = cfg.containsKey("steps") ? ChainPlan.compile(cfg, "UNNAMED_CHAIN") : null;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public DGResponse execute(DGRequest request) {
         if (stopped) return DGResponse.error(request.getRequestId(), "Chain was stopped");
         Instant chainStart = Instant.now();
 
-        String chainId = str(config, "chain_id", "UNNAMED_CHAIN");
-        String errorStrategy = str(config, "error_strategy", "ABORT");
-        List<Map<String, Object>> steps = (List<Map<String, Object>>) config.getOrDefault("steps", List.of());
+        Map<String, Object> originalPayload = request.getPayload() != null ? request.getPayload() : Map.of();
+        ChainPlan plan = inlinePlan;
+        if (plan == null) {
+            Object requested = originalPayload.get("chain_id");
+            ChainConfigRegistry registry = chainRegistry;
+            plan = requested != null && registry != null ? registry.findPlan(requested.toString()).orElse(null) : null;
+            if (plan == null) {
+                return DGResponse.error(request.getRequestId(), requested != null
+                        ? "Chain '" + requested + "' is not defined or not enabled"
+                        : "No chain selected: set 'chain_id' in the payload");
+            }
+        }
+        String chainId = plan.getChainId();
+        ChainConfig.ErrorStrategy errorStrategy = plan.getErrorStrategy();
 
-        if (steps.isEmpty()) {
+        if (plan.size() == 0) {
             return DGResponse.error(request.getRequestId(), "Chain '" + chainId + "' has no steps defined");
         }
 
-        log.info("Chain [{}] starting with {} steps, error_strategy={}", chainId, steps.size(), errorStrategy);
+        log.info("Chain [{}] starting with {} steps, error_strategy={}{}", chainId, plan.size(), errorStrategy,
+                plan.isDag() ? ", mode=DAG" : "");
+        if (plan.isDag()) return executeDag(plan, request, originalPayload, chainStart);
 
-        Map<String, Object> originalPayload = request.getPayload() != null ? request.getPayload() : Map.of();
-        Map<String, Map<String, Object>> stepOutputs = new LinkedHashMap<>();
-        Map<String, Object> prevOutput = new LinkedHashMap<>(originalPayload);
+        Context ctx = new Context(originalPayload);
         List<Map<String, Object>> chainTrace = new ArrayList<>();
+        long criticalPathMs = 0;
+        List<String> criticalPath = new ArrayList<>();
 
-        for (Map<String, Object> stepDef : steps) {
+        for (ChainPlan.Step step : plan.getSteps()) {
             if (stopped) break;
 
             // ── Phase 3: Parallel fan-out ────────────────────────────────
-            if (stepDef.containsKey("parallel")) {
-                Map<String, Object> parallelResult = executeParallelStep(
-                        stepDef, request, originalPayload, prevOutput, stepOutputs, chainTrace);
-                if (parallelResult.containsKey("_error") && "ABORT".equalsIgnoreCase(errorStrategy)) {
+            if (step.isParallel()) {
+                Map<String, Object> joined = new LinkedHashMap<>();
+                String error = executeParallelStep(step, request, ctx, joined, chainTrace);
+                if (error != null && errorStrategy == ChainConfig.ErrorStrategy.ABORT) {
                     return buildErrorResponse(request, chainId, chainTrace, chainStart,
-                            "Parallel step failed: " + parallelResult.get("_error"));
+                            "Parallel step failed: " + error);
+                }
+                ctx.prev = step.getJoin().apply(ctx.prev, joined);
+                // The group costs its slowest branch
+                Map<String, Object> slowest = null;
+                for (Map<String, Object> t : chainTrace) {
+                    if (Boolean.TRUE.equals(t.get("parallel")) && Objects.equals(t.get("step"), step.getNumber())
+                            && (slowest == null || durationOf(t) > durationOf(slowest))) slowest = t;
+                }
+                if (slowest != null) {
+                    criticalPathMs += durationOf(slowest);
+                    criticalPath.add(String.valueOf(slowest.get("alias")));
                 }
-                String joinStrategy = str(stepDef, "join_strategy", "KEYED");
-                prevOutput = applyParallelJoin(prevOutput, parallelResult, joinStrategy);
                 continue;
             }
 
             // ── Phase 2: Conditional "when" check ────────────────────────
-            String whenExpr = str(stepDef, "when", null);
-            if (whenExpr != null) {
-                boolean conditionMet = evaluateCondition(whenExpr, originalPayload, prevOutput, stepOutputs);
-                if (!conditionMet) {
-                    String alias = str(stepDef, "alias", "step_" + stepDef.get("step"));
-                    Map<String, Object> skipTrace = new LinkedHashMap<>();
-                    skipTrace.put("step", stepDef.get("step"));
-                    skipTrace.put("alias", alias);
-                    skipTrace.put("handler", stepDef.get("handler"));
-                    skipTrace.put("status", "SKIPPED");
-                    skipTrace.put("reason", "Condition not met: " + whenExpr);
-                    skipTrace.put("duration_ms", 0);
-                    chainTrace.add(skipTrace);
-                    log.info("Chain [{}] step {} '{}' SKIPPED (when: {})", chainId, stepDef.get("step"), alias, whenExpr);
-                    continue;
-                }
+            if (step.getCondition() != null && !step.getCondition().test(ctx)) {
+                Map<String, Object> skipTrace = new LinkedHashMap<>();
+                skipTrace.put("step", step.getNumber());
+                skipTrace.put("alias", step.getAlias());
+                skipTrace.put("handler", step.getHandler());
+                skipTrace.put("status", "SKIPPED");
+                skipTrace.put("reason", "Condition not met: " + step.getCondition());
+                skipTrace.put("duration_ms", 0);
+                chainTrace.add(skipTrace);
+                log.info("Chain [{}] step {} '{}' SKIPPED (when: {})", chainId, step.getNumber(), step.getAlias(),
+                        step.getCondition());
+                continue;
             }
 
             // ── Phase 1: Linear step execution ───────────────────────────
-            Map<String, Object> stepResult = executeStep(
-                    stepDef, request, originalPayload, prevOutput, stepOutputs);
+            Map<String, Object> stepResult = executeStep(step, request, ctx);
+            criticalPathMs += durationOf(stepResult.getOrDefault("_duration_ms", 0L));
+            criticalPath.add(step.getAlias());
 
-            String alias = str(stepDef, "alias", "step_" + stepDef.get("step"));
+            String alias = step.getAlias();
             Map<String, Object> trace = new LinkedHashMap<>();
-            trace.put("step", stepDef.get("step"));
+            trace.put("step", step.getNumber());
             trace.put("alias", alias);
-            trace.put("handler", stepDef.get("handler"));
+            trace.put("handler", step.getHandler());
 
             if (stepResult.containsKey("_error")) {
                 trace.put("status", "FAILED");
@@ -123,13 +183,12 @@ public class ChainHandler implements DGHandler {
                 trace.put("duration_ms", stepResult.getOrDefault("_duration_ms", 0));
                 chainTrace.add(trace);
 
-                if ("ABORT".equalsIgnoreCase(errorStrategy)) {
+                if (errorStrategy == ChainConfig.ErrorStrategy.ABORT) {
                     return buildErrorResponse(request, chainId, chainTrace, chainStart,
-                            "Step " + stepDef.get("step") + " '" + alias + "' failed: " + stepResult.get("_error"));
-                } else if ("FALLBACK".equalsIgnoreCase(errorStrategy)) {
-                    Map<String, Object> fallback = getFallbackValue(stepDef);
-                    stepOutputs.put(alias, fallback);
-                    prevOutput = applyMergeStrategy(prevOutput, fallback, str(stepDef, "merge_strategy", "REPLACE"), alias);
+                            "Step " + step.getNumber() + " '" + alias + "' failed: " + stepResult.get("_error"));
+                } else if (errorStrategy == ChainConfig.ErrorStrategy.FALLBACK) {
+                    ctx.stepOutputs.put(alias, step.getFallback());
+                    ctx.prev = step.getMerge().apply(ctx.prev, step.getFallback(), alias);
                 }
                 // SKIP strategy: continue with prevOutput unchanged
             } else {
@@ -140,22 +199,25 @@ public class ChainHandler implements DGHandler {
                 Map<String, Object> cleanResult = new LinkedHashMap<>(stepResult);
                 cleanResult.remove("_duration_ms");
 
-                stepOutputs.put(alias, cleanResult);
-                prevOutput = applyMergeStrategy(prevOutput, cleanResult, str(stepDef, "merge_strategy", "REPLACE"), alias);
+                ctx.stepOutputs.put(alias, cleanResult);
+                ctx.prev = step.getMerge().apply(ctx.prev, cleanResult, alias);
             }
-            log.info("Chain [{}] step {} '{}' completed: {}", chainId, stepDef.get("step"), alias, trace.get("status"));
+            log.info("Chain [{}] step {} '{}' completed: {}", chainId, step.getNumber(), alias, trace.get("status"));
         }
 
         long chainDurationMs = Duration.between(chainStart, Instant.now()).toMillis();
         Map<String, Object> result = new LinkedHashMap<>();
         result.put("chain_id", chainId);
-        result.put("data", prevOutput);
+        result.put("mode", "LINEAR");
+        result.put("data", ctx.prev);
         result.put("chain_trace", chainTrace);
-        result.put("total_steps", steps.size());
+        result.put("total_steps", plan.size());
         result.put("executed_steps", chainTrace.stream().filter(t -> "SUCCESS".equals(t.get("status"))).count());
         result.put("skipped_steps", chainTrace.stream().filter(t -> "SKIPPED".equals(t.get("status"))).count());
         result.put("failed_steps", chainTrace.stream().filter(t -> "FAILED".equals(t.get("status"))).count());
         result.put("chain_duration_ms", chainDurationMs);
+        result.put("critical_path_ms", criticalPathMs);
+        result.put("critical_path", criticalPath);
         result.put("stopped", stopped);
         return DGResponse.success(request.getRequestId(), result);
     }
@@ -165,33 +227,23 @@ public class ChainHandler implements DGHandler {
     // ═══════════════════════════════════════════════════════════════════
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> executeStep(Map<String, Object> stepDef, DGRequest request,
-            Map<String, Object> originalPayload, Map<String, Object> prevOutput,
-            Map<String, Map<String, Object>> stepOutputs) {
-        String handlerType = str(stepDef, "handler", null);
+    private Map<String, Object> executeStep(ChainPlan.Step step, DGRequest request, ChainExpression.Scope scope) {
+        String handlerType = step.getHandler();
         if (handlerType == null) return Map.of("_error", "Missing 'handler' in step");
 
         Instant start = Instant.now();
         try {
-            Map<String, Object> mappedPayload;
-            Object payloadMapping = stepDef.get("payload_mapping");
-            if (payloadMapping instanceof Map) {
-                mappedPayload = resolveVariables((Map<String, Object>) payloadMapping, originalPayload, prevOutput, stepOutputs);
-            } else {
-                mappedPayload = new LinkedHashMap<>(prevOutput);
-            }
+            Map<String, Object> mappedPayload = step.getMapping() != null
+                    ? (Map<String, Object>) step.getMapping().resolve(scope)
+                    : new LinkedHashMap<>(((Context) scope).prev);
 
             DGRequest stepRequest = new DGRequest(handlerType, request.getApiKey(), mappedPayload);
             stepRequest.setRequestId(request.getRequestId());
             stepRequest.setResolvedUserId(request.getResolvedUserId());
             stepRequest.setSourceChannel("chain");
 
-            DGHandler handler = createHandler(handlerType);
-            if (handler == null) return Map.of("_error", "Handler not found: " + handlerType, "_duration_ms", 0L);
-
-            handler.construct(getStepHandlerConfig(stepDef));
-            DGResponse response = handler.execute(stepRequest);
-            handler.cleanup();
+            DGResponse response = executeStepHandler(step, stepRequest);
+            if (response == null) return Map.of("_error", "Handler not found: " + handlerType, "_duration_ms", 0L);
 
             long durationMs = Duration.between(start, Instant.now()).toMillis();
             if (response.getStatus() == DGResponse.Status.SUCCESS || response.getStatus() == DGResponse.Status.PARTIAL) {
@@ -204,56 +256,7 @@ public class ChainHandler implements DGHandler {
         } catch (Exception e) {
             long durationMs = Duration.between(start, Instant.now()).toMillis();
             log.error("Chain step error: {}", e.getMessage(), e);
-            return Map.of("_error", e.getMessage(), "_duration_ms", durationMs);
-        }
-    }
-
-    // ═══════════════════════════════════════════════════════════════════
-    //  PHASE 2: Conditional Evaluation
-    // ═══════════════════════════════════════════════════════════════════
-
-    private boolean evaluateCondition(String expr, Map<String, Object> payload,
-            Map<String, Object> prev, Map<String, Map<String, Object>> stepOutputs) {
-        try {
-            Matcher m = Pattern.compile("\\$\\{([^}]+)}\\s*(==|!=|>|<|>=|<=|contains|exists)\\s*(.*)").matcher(expr.trim());
-            if (m.matches()) {
-                String ref = m.group(1).trim();
-                String op = m.group(2).trim();
-                String valueStr = m.group(3).trim();
-                Object resolved = resolveReference(ref, payload, prev, stepOutputs);
-
-                if ("exists".equals(op)) return resolved != null;
-                if (op.equals("!=") && "null".equals(valueStr)) return resolved != null;
-                if (op.equals("==") && "null".equals(valueStr)) return resolved == null;
-                if (resolved == null) return false;
-                if ("contains".equals(op)) return resolved.toString().contains(valueStr.replaceAll("^\"|\"$", ""));
-
-                if (resolved instanceof Number && isNumeric(valueStr)) {
-                    double left = ((Number) resolved).doubleValue();
-                    double right = Double.parseDouble(valueStr);
-                    return switch (op) {
-                        case ">" -> left > right; case "<" -> left < right;
-                        case ">=" -> left >= right; case "<=" -> left <= right;
-                        case "==" -> left == right; case "!=" -> left != right;
-                        default -> false;
-                    };
-                }
-                String clean = valueStr.replaceAll("^\"|\"$", "");
-                return switch (op) {
-                    case "==" -> resolved.toString().equals(clean);
-                    case "!=" -> !resolved.toString().equals(clean);
-                    default -> false;
-                };
-            }
-            Matcher simpleM = VAR_PATTERN.matcher(expr.trim());
-            if (simpleM.matches()) {
-                Object resolved = resolveReference(simpleM.group(1), payload, prev, stepOutputs);
-                return resolved != null && !"false".equalsIgnoreCase(resolved.toString()) && !"0".equals(resolved.toString());
-            }
-            return true;
-        } catch (Exception e) {
-            log.warn("Condition eval error for '{}': {}", expr, e.getMessage());
-            return false;
+            return Map.of("_error", String.valueOf(e.getMessage()), "_duration_ms", durationMs);
         }
     }
 
@@ -261,192 +264,356 @@ public class ChainHandler implements DGHandler {
     //  PHASE 3: Parallel Execution
     // ═══════════════════════════════════════════════════════════════════
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> executeParallelStep(Map<String, Object> stepDef, DGRequest request,
-            Map<String, Object> originalPayload, Map<String, Object> prevOutput,
-            Map<String, Map<String, Object>> stepOutputs, List<Map<String, Object>> chainTrace) {
-
-        List<Map<String, Object>> branches = (List<Map<String, Object>>) stepDef.get("parallel");
-        if (branches == null || branches.isEmpty()) return Map.of("_error", "Empty parallel branches");
-
-        int stepNum = intVal(stepDef, "step", 0);
-        log.info("Chain parallel step {} with {} branches", stepNum, branches.size());
-
-        ExecutorService executor = Executors.newFixedThreadPool(Math.min(branches.size(), 8));
-        Map<String, Future<Map<String, Object>>> futures = new LinkedHashMap<>();
-
+    /**
+     * Run a parallel step's branches and collect their outputs into {@code joined} with the
+     * step's join. Returns the last branch error, or null if every branch succeeded.
+     *
+     * <p>Branches run on the engine's {@link ChainStepExecutor} under one deadline for the
+     * whole step; a branch still running when it passes fails with a timeout error.</p>
+     */
+    private String executeParallelStep(ChainPlan.Step step, DGRequest request, Context ctx,
+            Map<String, Object> joined, List<Map<String, Object>> chainTrace) {
+
+        List<ChainPlan.Step> branches = step.getBranches();
+        if (branches.isEmpty()) return "Empty parallel branches";
+
+        log.info("Chain parallel step {} with {} branches", step.getNumber(), branches.size());
+
+        // Branches read a snapshot: outputs recorded while they run must not race their lookups
+        Context snapshot = ctx.snapshot();
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>(branches.size());
+        for (ChainPlan.Step branch : branches) tasks.add(() -> executeStep(branch, request, snapshot));
+        ChainStepExecutor executor = stepExecutor();
+        List<Future<Map<String, Object>>> futures = executor.invokeAll(tasks, executor.getStepTimeoutMs());
+
+        String error = null;
         for (int i = 0; i < branches.size(); i++) {
-            Map<String, Object> branch = branches.get(i);
-            String branchAlias = str(branch, "alias", "branch_" + i);
-            futures.put(branchAlias, executor.submit(() ->
-                    executeStep(branch, request, originalPayload, prevOutput, stepOutputs)));
-        }
-
-        Map<String, Object> mergedResult = new LinkedHashMap<>();
-        String joinStrategy = str(stepDef, "join_strategy", "KEYED");
-
-        for (Map.Entry<String, Future<Map<String, Object>>> entry : futures.entrySet()) {
-            String branchAlias = entry.getKey();
+            ChainPlan.Step branch = branches.get(i);
+            String branchAlias = branch.getAlias();
+            Future<Map<String, Object>> future = futures.get(i);
+            if (future.isCancelled()) {
+                error = "Parallel branch did not finish within " + executor.getStepTimeoutMs() + " ms";
+                chainTrace.add(new LinkedHashMap<>(Map.of("step", step.getNumber(), "alias", branchAlias, "parallel", true,
+                        "handler", branch.getHandler(), "status", "FAILED", "error", error)));
+                continue;
+            }
             try {
-                Map<String, Object> branchResult = entry.getValue().get(60, TimeUnit.SECONDS);
+                Map<String, Object> branchResult = future.get();
                 Map<String, Object> trace = new LinkedHashMap<>();
-                trace.put("step", stepNum); trace.put("alias", branchAlias); trace.put("parallel", true);
-                trace.put("handler", futures.keySet().stream().toList().indexOf(branchAlias) < branches.size()
-                        ? branches.get(futures.keySet().stream().toList().indexOf(branchAlias)).get("handler") : "unknown");
+                trace.put("step", step.getNumber()); trace.put("alias", branchAlias); trace.put("parallel", true);
+                trace.put("handler", branch.getHandler());
 
                 if (branchResult.containsKey("_error")) {
                     trace.put("status", "FAILED"); trace.put("error", branchResult.get("_error"));
-                    mergedResult.put("_error", branchResult.get("_error"));
+                    error = String.valueOf(branchResult.get("_error"));
                 } else {
                     trace.put("status", "SUCCESS");
                     Map<String, Object> clean = new LinkedHashMap<>(branchResult);
                     clean.remove("_duration_ms");
-                    if ("KEYED".equalsIgnoreCase(joinStrategy)) mergedResult.put(branchAlias, clean);
-                    else if ("MERGE_ALL".equalsIgnoreCase(joinStrategy)) mergedResult.putAll(clean);
-                    else if ("FIRST_SUCCESS".equalsIgnoreCase(joinStrategy) && !mergedResult.containsKey("_first_done")) {
-                        mergedResult.putAll(clean); mergedResult.put("_first_done", true);
-                    }
-                    stepOutputs.put(branchAlias, clean);
+                    step.getJoin().collect(joined, branchAlias, clean);
+                    ctx.stepOutputs.put(branchAlias, clean);
                 }
                 trace.put("duration_ms", branchResult.getOrDefault("_duration_ms", 0));
                 chainTrace.add(trace);
             } catch (Exception e) {
-                chainTrace.add(new LinkedHashMap<>(Map.of("step", stepNum, "alias", branchAlias, "parallel", true, "status", "FAILED", "error", e.getMessage())));
+                chainTrace.add(new LinkedHashMap<>(Map.of("step", step.getNumber(), "alias", branchAlias, "parallel", true,
+                        "status", "FAILED", "error", String.valueOf(e.getMessage()))));
             }
         }
-        executor.shutdownNow();
-        mergedResult.remove("_first_done");
-        return mergedResult;
+        return error;
     }
 
     // ═══════════════════════════════════════════════════════════════════
-    //  Variable Resolution & Merge Strategies
+    //  PHASE 4: DAG Execution
     // ═══════════════════════════════════════════════════════════════════
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> resolveVariables(Map<String, Object> template,
-            Map<String, Object> payload, Map<String, Object> prev,
-            Map<String, Map<String, Object>> stepOutputs) {
-        Map<String, Object> resolved = new LinkedHashMap<>();
-        for (Map.Entry<String, Object> entry : template.entrySet()) {
-            Object value = entry.getValue();
-            if (value instanceof String s) resolved.put(entry.getKey(), resolveStringValue(s, payload, prev, stepOutputs));
-            else if (value instanceof Map) resolved.put(entry.getKey(), resolveVariables((Map<String, Object>) value, payload, prev, stepOutputs));
-            else if (value instanceof List) {
-                List<Object> list = new ArrayList<>();
-                for (Object item : (List<?>) value) {
-                    if (item instanceof String s) list.add(resolveStringValue(s, payload, prev, stepOutputs));
-                    else if (item instanceof Map) list.add(resolveVariables((Map<String, Object>) item, payload, prev, stepOutputs));
-                    else list.add(item);
-                }
-                resolved.put(entry.getKey(), list);
-            } else resolved.put(entry.getKey(), value);
+    /**
+     * Run a DAG plan: every step is chained on the completion of its dependencies and runs on
+     * the shared pool the moment the last one finishes, so independent branches overlap without
+     * any step waiting on a thread of its own. Steps never block on each other — only this
+     * calling thread waits, bounded by the chain's {@code ttl_minutes}.
+     *
+     * <p>Inside a DAG step, <code>${prev}</code> is the output of its single dependency, a map
+     * of alias → output when it has several, and the request payload when it has none. The
+     * chain's {@code data} is the output of its only sink step, or a map of alias → output of
+     * all sinks.</p>
+     */
+    private DGResponse executeDag(ChainPlan plan, DGRequest request, Map<String, Object> payload, Instant chainStart) {
+        String chainId = plan.getChainId();
+        long startNanos = System.nanoTime();
+        Map<String, Map<String, Object>> outputs = new ConcurrentHashMap<>();
+        Map<String, Map<String, Object>> traces = new ConcurrentHashMap<>();
+        AtomicReference<String> abort = new AtomicReference<>();
+
+        ChainStepExecutor executor = stepExecutor();
+        Map<String, CompletableFuture<Void>> done = new HashMap<>();
+        for (ChainPlan.Step step : plan.getSteps()) {
+            CompletableFuture<?>[] inputs = step.getDependsOn().stream().map(done::get).toArray(CompletableFuture[]::new);
+            done.put(step.getAlias(), CompletableFuture.allOf(inputs).thenRunAsync(
+                    () -> runDagStep(plan, step, request, payload, outputs, traces, abort, startNanos), executor));
+        }
+        try {
+            CompletableFuture.allOf(done.values().toArray(new CompletableFuture[0]))
+                    .get(plan.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abort.compareAndSet(null, "Chain timed out after " + plan.getTimeoutMs() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort.compareAndSet(null, "Chain was interrupted");
+        } catch (ExecutionException e) {
+            abort.compareAndSet(null, "DAG step could not be scheduled: " + e.getCause().getMessage());
         }
-        return resolved;
-    }
 
-    private Object resolveStringValue(String value, Map<String, Object> payload,
-            Map<String, Object> prev, Map<String, Map<String, Object>> stepOutputs) {
-        Matcher full = Pattern.compile("^\\$\\{([^}]+)}$").matcher(value.trim());
-        if (full.matches()) {
-            Object resolved = resolveReference(full.group(1), payload, prev, stepOutputs);
-            return resolved != null ? resolved : value;
+        List<Map<String, Object>> chainTrace = new ArrayList<>(plan.size());
+        for (ChainPlan.Step step : plan.getSteps()) {
+            Map<String, Object> trace = traces.get(step.getAlias());
+            chainTrace.add(trace != null ? trace : dagTrace(step, "SKIPPED", "Not started", 0, startNanos));
         }
-        Matcher m = VAR_PATTERN.matcher(value);
-        StringBuilder sb = new StringBuilder();
-        while (m.find()) {
-            Object resolved = resolveReference(m.group(1), payload, prev, stepOutputs);
-            m.appendReplacement(sb, Matcher.quoteReplacement(resolved != null ? resolved.toString() : m.group(0)));
+        String abortReason = abort.get();
+        if (abortReason != null && plan.getErrorStrategy() == ChainConfig.ErrorStrategy.ABORT) {
+            return buildErrorResponse(request, chainId, chainTrace, chainStart, abortReason);
         }
-        m.appendTail(sb);
-        return sb.toString();
-    }
 
-    @SuppressWarnings("unchecked")
-    private Object resolveReference(String ref, Map<String, Object> payload,
-            Map<String, Object> prev, Map<String, Map<String, Object>> stepOutputs) {
-        String[] parts = ref.split("\\.", 2);
-        String root = parts[0]; String field = parts.length > 1 ? parts[1] : null;
-
-        if ("steps".equals(root) && field != null) {
-            String[] sp = field.split("\\.", 2);
-            Map<String, Object> sd = stepOutputs.get(sp[0]);
-            if (sd == null) return null;
-            return sp.length == 1 ? sd : navigatePath(sd, sp[1]);
+        // Critical path: the heaviest dependency chain by measured step duration
+        Map<String, Long> pathMs = new HashMap<>();
+        Map<String, String> via = new HashMap<>();
+        String heaviest = null;
+        for (ChainPlan.Step step : plan.getSteps()) {
+            long longestInput = 0;
+            for (String dep : step.getDependsOn()) {
+                long ms = pathMs.get(dep);
+                if (!via.containsKey(step.getAlias()) || ms > longestInput) {
+                    longestInput = ms;
+                    via.put(step.getAlias(), dep);
+                }
+            }
+            long total = longestInput + durationOf(traces.getOrDefault(step.getAlias(), Map.of()));
+            pathMs.put(step.getAlias(), total);
+            if (heaviest == null || total >= pathMs.get(heaviest)) heaviest = step.getAlias();
+        }
+        LinkedList<String> criticalPath = new LinkedList<>();
+        for (String alias = heaviest; alias != null; alias = via.get(alias)) criticalPath.addFirst(alias);
+
+        Object data;
+        if (plan.getSinks().size() == 1) {
+            data = outputs.getOrDefault(plan.getSinks().get(0).getAlias(), Map.of());
+        } else {
+            Map<String, Object> joined = new LinkedHashMap<>();
+            for (ChainPlan.Step sink : plan.getSinks()) {
+                Map<String, Object> out = outputs.get(sink.getAlias());
+                if (out != null) joined.put(sink.getAlias(), out);
+            }
+            data = joined;
         }
 
-        Map<String, Object> source = switch (root) {
-            case "payload" -> payload;
-            case "prev" -> prev;
-            default -> stepOutputs.get(root);
-        };
-        if (source == null) return null;
-        return field == null ? source : navigatePath(source, field);
+        long chainDurationMs = Duration.between(chainStart, Instant.now()).toMillis();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("chain_id", chainId);
+        result.put("mode", "DAG");
+        result.put("data", data);
+        result.put("chain_trace", chainTrace);
+        result.put("total_steps", plan.size());
+        result.put("executed_steps", chainTrace.stream().filter(t -> "SUCCESS".equals(t.get("status"))).count());
+        result.put("skipped_steps", chainTrace.stream().filter(t -> "SKIPPED".equals(t.get("status"))).count());
+        result.put("failed_steps", chainTrace.stream().filter(t -> "FAILED".equals(t.get("status"))).count());
+        result.put("chain_duration_ms", chainDurationMs);
+        result.put("critical_path_ms", heaviest != null ? pathMs.get(heaviest) : 0L);
+        result.put("critical_path", criticalPath);
+        result.put("stopped", stopped);
+        log.info("Chain [{}] DAG completed in {} ms, critical path {} ms {}", chainId, chainDurationMs,
+                result.get("critical_path_ms"), criticalPath);
+        return DGResponse.success(request.getRequestId(), result);
     }
 
-    @SuppressWarnings("unchecked")
-    private Object navigatePath(Map<String, Object> map, String path) {
-        Object current = map;
-        for (String part : path.split("\\.")) {
-            if (current instanceof Map) current = ((Map<String, Object>) current).get(part);
-            else return null;
+    /** One DAG step, run on the pool once all its dependencies have completed. */
+    private void runDagStep(ChainPlan plan, ChainPlan.Step step, DGRequest request, Map<String, Object> payload,
+                            Map<String, Map<String, Object>> outputs, Map<String, Map<String, Object>> traces,
+                            AtomicReference<String> abort, long startNanos) {
+        String alias = step.getAlias();
+        if (stopped || abort.get() != null) {
+            traces.put(alias, dagTrace(step, "SKIPPED", stopped ? "Chain was stopped" : "Chain aborted", 0, startNanos));
+            return;
+        }
+        Context ctx = Context.forDagStep(payload, outputs, step);
+        if (step.getCondition() != null && !step.getCondition().test(ctx)) {
+            traces.put(alias, dagTrace(step, "SKIPPED", "Condition not met: " + step.getCondition(), 0, startNanos));
+            return;
         }
-        return current;
+        long startedAt = System.nanoTime();
+        Map<String, Object> stepResult = executeStep(step, request, ctx);
+        long durationMs = durationOf(stepResult.getOrDefault("_duration_ms", 0L));
+        Map<String, Object> trace = dagTrace(step, null, null, durationMs, startNanos);
+        trace.put("start_offset_ms", TimeUnit.NANOSECONDS.toMillis(startedAt - startNanos));
+
+        if (stepResult.containsKey("_error")) {
+            trace.put("status", "FAILED");
+            trace.put("error", stepResult.get("_error"));
+            switch (plan.getErrorStrategy()) {
+                case ABORT -> abort.compareAndSet(null,
+                        "Step " + step.getNumber() + " '" + alias + "' failed: " + stepResult.get("_error"));
+                case FALLBACK -> outputs.put(alias, step.getFallback());
+                case SKIP -> { }   // dependents run without this step's output
+            }
+        } else {
+            trace.put("status", "SUCCESS");
+            Map<String, Object> clean = new LinkedHashMap<>(stepResult);
+            clean.remove("_duration_ms");
+            outputs.put(alias, clean);
+        }
+        traces.put(alias, trace);
+        log.info("Chain [{}] DAG step '{}' completed: {}", plan.getChainId(), alias, trace.get("status"));
     }
 
-    private Map<String, Object> applyMergeStrategy(Map<String, Object> prev,
-            Map<String, Object> stepOutput, String strategy, String alias) {
-        return switch (strategy.toUpperCase()) {
-            case "MERGE_PREV" -> { Map<String, Object> m = new LinkedHashMap<>(prev); m.putAll(stepOutput); yield m; }
-            case "APPEND" -> { Map<String, Object> m = new LinkedHashMap<>(prev); m.put(alias, stepOutput); yield m; }
-            case "PASSTHROUGH" -> new LinkedHashMap<>(prev);
-            default -> new LinkedHashMap<>(stepOutput); // REPLACE
-        };
+    private static Map<String, Object> dagTrace(ChainPlan.Step step, String status, String reason,
+                                                long durationMs, long startNanos) {
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("step", step.getNumber());
+        trace.put("alias", step.getAlias());
+        trace.put("handler", step.getHandler());
+        trace.put("depends_on", step.getDependsOn());
+        if (status != null) trace.put("status", status);
+        if (reason != null) trace.put("reason", reason);
+        trace.put("duration_ms", durationMs);
+        return trace;
     }
 
-    private Map<String, Object> applyParallelJoin(Map<String, Object> prev,
-            Map<String, Object> parallelResult, String joinStrategy) {
-        Map<String, Object> clean = new LinkedHashMap<>(parallelResult);
-        clean.remove("_error");
-        return switch (joinStrategy.toUpperCase()) {
-            case "MERGE_ALL" -> { Map<String, Object> m = new LinkedHashMap<>(prev); m.putAll(clean); yield m; }
-            case "FIRST_SUCCESS" -> clean.isEmpty() ? prev : new LinkedHashMap<>(clean);
-            default -> { Map<String, Object> m = new LinkedHashMap<>(prev); m.put("parallel_results", clean); yield m; } // KEYED
-        };
+    private static long durationOf(Object value) {
+        if (value instanceof Map<?, ?> trace) value = trace.get("duration_ms");
+        return value instanceof Number n ? n.longValue() : 0L;
     }
 
-    private DGHandler createHandler(String handlerType) {
-        Map<String, String> handlers = Map.ofEntries(
-                Map.entry("ECHO", "com.dgfacade.server.handler.EchoHandler"),
-                Map.entry("ARITHMETIC", "com.dgfacade.server.handler.ArithmeticHandler"),
-                Map.entry("STRING_TRANSFORM", "com.dgfacade.server.handler.StringTransformHandler"),
-                Map.entry("HASH", "com.dgfacade.server.handler.HashHandler"),
-                Map.entry("JSON_TRANSFORM", "com.dgfacade.server.handler.JsonTransformHandler"),
-                Map.entry("SYSTEM_INFO", "com.dgfacade.server.handler.SystemInfoHandler"),
-                Map.entry("HTTP_PROBE", "com.dgfacade.server.handler.HttpProbeHandler"),
-                Map.entry("DELAYED", "com.dgfacade.server.handler.DelayedHandler"),
-                Map.entry("WS_DEMO", "com.dgfacade.server.handler.WebSocketDemoHandler"));
-        String cn = handlers.get(handlerType.toUpperCase());
-        if (cn == null) { log.warn("Unknown handler in chain: {}", handlerType); return null; }
-        try { return (DGHandler) Class.forName(cn).getDeclaredConstructor().newInstance(); }
-        catch (Exception e) { log.error("Handler instantiation failed {}: {}", handlerType, e.getMessage()); return null; }
+    /** The injected step executor, or a default one when running outside the Spring context. */
+    private static ChainStepExecutor stepExecutor() {
+        ChainStepExecutor executor = stepExecutor;
+        return executor != null ? executor : DefaultStepExecutor.INSTANCE;
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getStepHandlerConfig(Map<String, Object> s) {
-        Object c = s.get("handler_config"); return c instanceof Map ? (Map<String, Object>) c : Map.of();
+    private static final class DefaultStepExecutor {
+        static final ChainStepExecutor INSTANCE = new ChainStepExecutor(0, 1024, 60_000);
     }
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getFallbackValue(Map<String, Object> s) {
-        Object f = s.get("fallback"); return f instanceof Map ? (Map<String, Object>) f : Map.of("_fallback", true);
+
+    // ═══════════════════════════════════════════════════════════════════
+    //  Variable Resolution
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Per-execution pipeline state; resolves the plan's references. Public so the chain
+     * benchmarks walk plans with the same resolution as the handler.
+     */
+    public static final class Context implements ChainExpression.Scope {
+        private final Map<String, Object> payload;
+        private final Map<String, Map<String, Object>> stepOutputs;
+        private Map<String, Object> prev;
+
+        public Context(Map<String, Object> payload) {
+            this(payload, new LinkedHashMap<>(), new LinkedHashMap<>(payload));
+        }
+
+        private Context(Map<String, Object> payload, Map<String, Map<String, Object>> stepOutputs,
+                        Map<String, Object> prev) {
+            this.payload = payload;
+            this.stepOutputs = stepOutputs;
+            this.prev = prev;
+        }
+
+        public Map<String, Object> getPrev() { return prev; }
+        public void setPrev(Map<String, Object> prev) { this.prev = prev; }
+
+        /** Make a step's output visible as <code>${steps.&lt;alias&gt;}</code>. */
+        public void putStepOutput(String alias, Map<String, Object> output) {
+            stepOutputs.put(alias, output);
+        }
+
+        /** A copy whose step outputs do not change when outputs are recorded on this one. */
+        public Context snapshot() {
+            return new Context(payload, new LinkedHashMap<>(stepOutputs), prev);
+        }
+
+        /** A DAG step's view: completed outputs, with {@code prev} derived from its dependencies. */
+        static Context forDagStep(Map<String, Object> payload, Map<String, Map<String, Object>> outputs,
+                                  ChainPlan.Step step) {
+            List<String> deps = step.getDependsOn();
+            Map<String, Object> prev;
+            if (deps.isEmpty()) {
+                prev = payload;
+            } else if (deps.size() == 1) {
+                prev = outputs.getOrDefault(deps.get(0), Map.of());
+            } else {
+                prev = new LinkedHashMap<>();
+                for (String dep : deps) {
+                    Map<String, Object> out = outputs.get(dep);
+                    if (out != null) prev.put(dep, out);
+                }
+            }
+            return new Context(payload, outputs, prev);
+        }
+
+        @Override
+        public Object lookup(ChainExpression.Ref ref) {
+            if ("steps".equals(ref.root()) && ref.size() > 1) {
+                Map<String, Object> sd = stepOutputs.get(ref.segment(1));
+                return sd == null ? null : ref.drill(sd, 2);
+            }
+            Map<String, Object> source = switch (ref.root()) {
+                case "payload" -> payload;
+                case "prev" -> prev;
+                default -> stepOutputs.get(ref.root());
+            };
+            return source == null ? null : ref.drill(source, 1);
+        }
+    }
+
+    /**
+     * Run one step handler. Steps without an inline {@code handler_config} reuse the
+     * registered handler's pool when it has one; otherwise a transient instance is
+     * created, constructed and cleaned up. Returns {@code null} if the type is unknown.
+     */
+    private DGResponse executeStepHandler(ChainPlan.Step step, DGRequest stepRequest) throws Exception {
+        String handlerType = step.getHandler();
+        HandlerConfigRegistry registry = handlerRegistry;
+        HandlerConfig registered = registry != null
+                ? registry.findHandler(stepRequest.getResolvedUserId(), handlerType).orElse(null) : null;
+        boolean inlineConfig = step.getHandlerConfig() != null;
+
+        HandlerPool pool = inlineConfig || registry == null ? null : registry.getPool(registered);
+        DGHandler pooledHandler = pool != null ? pool.borrow() : null;
+        if (pooledHandler != null) {
+            boolean healthy = false;
+            try {
+                DGResponse response = pooledHandler.execute(stepRequest);
+                healthy = true;
+                return response;
+            } finally {
+                if (healthy) pool.release(pooledHandler); else pool.invalidate(pooledHandler);
+            }
+        }
+
+        DGHandler handler = createHandler(step, registered);
+        if (handler == null) return null;
+        try {
+            handler.construct(inlineConfig ? step.getHandlerConfig()
+                    : registered != null ? registered.getConfig() : Map.of());
+            return handler.execute(stepRequest);
+        } finally {
+            handler.cleanup();
+        }
     }
+
+    private DGHandler createHandler(ChainPlan.Step step, HandlerConfig registered) {
+        try {
+            if (registered != null) return HandlerFactory.create(registered);
+            if (step.getBuiltinClass() == null) { log.warn("Unknown handler in chain: {}", step.getHandler()); return null; }
+            return HandlerFactory.create(step.getBuiltinClass());
+        } catch (Exception e) {
+            log.error("Handler instantiation failed {}: {}", step.getHandler(), e.getMessage());
+            return null;
+        }
+    }
+
     private DGResponse buildErrorResponse(DGRequest req, String chainId, List<Map<String, Object>> trace, Instant start, String err) {
         return DGResponse.error(req.getRequestId(), err);
     }
-    private boolean isNumeric(String s) { try { Double.parseDouble(s.trim()); return true; } catch (Exception e) { return false; } }
 
     @Override public void stop() { stopped = true; }
-    @Override public void cleanup() { config = null; }
-    private static String str(Map<String, Object> m, String k, String d) { Object v = m.get(k); return v != null ? v.toString() : d; }
-    private static int intVal(Map<String, Object> m, String k, int d) { Object v = m.get(k); if (v instanceof Number n) return n.intValue(); if (v instanceof String s) { try { return Integer.parseInt(s); } catch (Exception e) { return d; } } return d; }
+    @Override public void cleanup() { inlinePlan = null; }
 }
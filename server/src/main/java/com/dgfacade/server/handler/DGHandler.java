@@ -17,11 +17,16 @@ import java.util.Map;
  * Lifecycle:
  *   1. construct() - Initialize with configuration from handler JSON
  *   2. execute()   - Process the request and return a response
+ *                    (or executeAsync() for {@link AsyncDGHandler} implementations)
  *   3. stop()      - Called when TTL expires or execution completes. Signal to stop work.
  *   4. cleanup()   - Final cleanup of resources
  *
  * Handlers are instantiated per-request and managed by Pekko actors.
  * Millions of handlers may run concurrently.
+ *
+ * Handlers configured with {@code "reusable": true} are constructed once and kept in a
+ * bounded per-request-type pool. Between requests the pool calls {@link #reset()} instead
+ * of {@code cleanup()}, so such handlers must not keep per-request state beyond reset.
  */
 public interface DGHandler {
 
@@ -50,6 +55,15 @@ public interface DGHandler {
      */
     void cleanup();
 
+    /**
+     * Restore the handler to a state where it can serve another request.
+     * Only called for pooled handlers ({@code "reusable": true}) when an instance is returned
+     * to its pool after a successful execution. Default implementation is a no-op.
+     */
+    default void reset() {
+        // No-op — stateless handlers need nothing here.
+    }
+
     /**
      * @return a unique identifier for this handler instance
      */
@@ -10,14 +10,15 @@ import com.dgfacade.common.model.DGResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.*;
 import java.util.*;
 
 /**
  * Dynamic proxy that wraps any POJO class to conform to the {@link DGHandler} interface.
  *
- * <p>When a handler class does NOT implement {@code DGHandler}, this proxy uses Java reflection
- * to discover and invoke methods that match a convention-based contract:</p>
+ * <p>When a handler class does NOT implement {@code DGHandler}, this proxy discovers and invokes
+ * methods that match a convention-based contract. Discovery happens once per class in
+ * {@link HandlerAdapter}, which binds the methods into generated lambdas so each call costs
+ * about the same as a direct call — no per-request reflection.</p>
  *
  * <h3>Method Discovery (in priority order):</h3>
  * <ol>
@@ -38,6 +39,13 @@ import java.util.*;
  *   <li><b>cleanup()</b> or <b>close()</b> or <b>destroy()</b> → called on teardown</li>
  * </ul>
  *
+ * <p>For micro-batching ({@code max_batch_size} in the handler config), a matching
+ * <b>executeBatch(List)</b> / <b>handleBatch(List)</b> / <b>processBatch(List)</b> /
+ * <b>runBatch(List)</b> method is used when present. It receives the requests (or their payloads,
+ * following the execute method) and returns a list with one result per item; each result is
+ * converted like an execute result. Without one, {@link #supportsBatch()} is false and
+ * {@link #executeBatch} falls back to one execute call per request.</p>
+ *
  * <p>If none of the above methods are found, the proxy throws an exception at construction time
  * so the misconfiguration is detected early.</p>
  *
@@ -57,17 +65,12 @@ import java.util.*;
  * }
  * }</pre>
  */
-public class DGHandlerProxy implements DGHandler {
+public class DGHandlerProxy implements BatchingDGHandler {
 
     private static final Logger log = LoggerFactory.getLogger(DGHandlerProxy.class);
 
     private final Object delegate;
-    private final Method executeMethod;
-    private final boolean executeAcceptsDGRequest;  // true if param is DGRequest, false if Map
-    private final boolean executeReturnsDGResponse; // true if returns DGResponse, false if Map/Object
-    private final Method constructMethod;  // nullable
-    private final Method stopMethod;       // nullable
-    private final Method cleanupMethod;    // nullable
+    private final HandlerAdapter adapter;
     private volatile boolean stopped = false;
 
     /**
@@ -77,134 +80,132 @@ public class DGHandlerProxy implements DGHandler {
      * @throws IllegalArgumentException if no suitable execute method is found
      */
     public DGHandlerProxy(Object delegate) {
-        this.delegate = Objects.requireNonNull(delegate, "Delegate handler instance must not be null");
-        Class<?> clazz = delegate.getClass();
-
-        // ── Discover execute method ──
-        MethodMatch match = findExecuteMethod(clazz);
-        if (match == null) {
-            throw new IllegalArgumentException(
-                    "Handler class " + clazz.getName() + " does not implement DGHandler and has no " +
-                    "discoverable execute/handle/process/run method. Expected one of: " +
-                    "execute(DGRequest), execute(Map), handle(DGRequest), handle(Map), " +
-                    "process(DGRequest), process(Map), run(DGRequest), run(Map)");
-        }
-        this.executeMethod = match.method;
-        this.executeAcceptsDGRequest = match.acceptsDGRequest;
-        this.executeReturnsDGResponse = match.returnsDGResponse;
-        this.executeMethod.setAccessible(true);
-
-        // ── Discover lifecycle methods ──
-        this.constructMethod = findMethod(clazz, new String[]{"construct", "init", "initialize"}, Map.class);
-        this.stopMethod      = findMethod(clazz, new String[]{"stop", "cancel", "abort"});
-        this.cleanupMethod   = findMethod(clazz, new String[]{"cleanup", "close", "destroy"});
-
-        if (constructMethod != null) constructMethod.setAccessible(true);
-        if (stopMethod != null) stopMethod.setAccessible(true);
-        if (cleanupMethod != null) cleanupMethod.setAccessible(true);
+        this(Objects.requireNonNull(delegate, "Delegate handler instance must not be null"),
+                HandlerAdapter.forClass(delegate.getClass()));
+    }
 
-        log.info("DGHandlerProxy wrapping {} → execute={} (DGRequest={}, DGResponse={}), " +
-                 "construct={}, stop={}, cleanup={}",
-                clazz.getSimpleName(),
-                executeMethod.getName(), executeAcceptsDGRequest, executeReturnsDGResponse,
-                constructMethod != null ? constructMethod.getName() : "none",
-                stopMethod != null ? stopMethod.getName() : "none",
-                cleanupMethod != null ? cleanupMethod.getName() : "none");
+    private DGHandlerProxy(Object delegate, HandlerAdapter adapter) {
+        this.delegate = delegate;
+        this.adapter = adapter;
     }
 
     /**
      * Static factory: create a proxy from a class name.
      */
     public static DGHandlerProxy createFrom(String className) throws Exception {
-        Class<?> clazz = Class.forName(className);
-        Object instance = clazz.getDeclaredConstructor().newInstance();
-        return new DGHandlerProxy(instance);
+        return createFrom(Class.forName(className));
     }
 
     /**
      * Static factory: create a proxy from an already-loaded class.
      */
     public static DGHandlerProxy createFrom(Class<?> clazz) throws Exception {
-        Object instance = clazz.getDeclaredConstructor().newInstance();
-        return new DGHandlerProxy(instance);
+        HandlerAdapter adapter = HandlerAdapter.forClass(clazz);
+        return new DGHandlerProxy(adapter.newInstance(), adapter);
     }
 
     // ─── DGHandler Interface Implementation ───────────────────────────────────
 
     @Override
     public void construct(Map<String, Object> config) {
-        if (constructMethod != null) {
-            try {
-                constructMethod.invoke(delegate, config);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException("Proxied construct() failed: " + e.getTargetException().getMessage(),
-                        e.getTargetException());
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Cannot access construct method", e);
-            }
+        try {
+            adapter.construct(delegate, config);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Proxied construct() failed: " + e.getMessage(), e);
         }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public DGResponse execute(DGRequest request) {
         if (stopped) return DGResponse.error(request.getRequestId(), "Handler was stopped (proxy)");
 
         try {
-            Object result;
-            if (executeAcceptsDGRequest) {
-                result = executeMethod.invoke(delegate, request);
-            } else {
-                // Pass payload Map instead of DGRequest
-                result = executeMethod.invoke(delegate, request.getPayload());
-            }
+            return toResponse(request, adapter.execute(delegate, request), adapter.isExecuteReturnsDGResponse());
+        } catch (Exception e) {
+            return DGResponse.error(request.getRequestId(),
+                    "Proxied handler failed: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
 
-            if (result == null) {
-                return DGResponse.success(request.getRequestId(), Map.of("result", "null"));
+    @Override
+    public List<DGResponse> executeBatch(List<DGRequest> requests) {
+        if (!adapter.hasBatch()) {
+            List<DGResponse> responses = new ArrayList<>(requests.size());
+            for (DGRequest request : requests) responses.add(execute(request));
+            return responses;
+        }
+        List<DGResponse> responses = new ArrayList<>(requests.size());
+        if (stopped) {
+            for (DGRequest request : requests) {
+                responses.add(DGResponse.error(request.getRequestId(), "Handler was stopped (proxy)"));
             }
+            return responses;
+        }
+        Object result;
+        try {
+            result = adapter.executeBatch(delegate, requests);
+        } catch (Exception e) {
+            String message = "Proxied batch handler failed: " + e.getClass().getSimpleName() + ": " + e.getMessage();
+            for (DGRequest request : requests) responses.add(DGResponse.error(request.getRequestId(), message));
+            return responses;
+        }
+        if (!(result instanceof List<?> results) || results.size() != requests.size()) {
+            String message = "Proxied batch handler must return a list with one result per request";
+            for (DGRequest request : requests) responses.add(DGResponse.error(request.getRequestId(), message));
+            return responses;
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            Object item = results.get(i);
+            responses.add(toResponse(requests.get(i), item, item instanceof DGResponse));
+        }
+        return responses;
+    }
 
-            if (executeReturnsDGResponse) {
-                return (DGResponse) result;
-            } else if (result instanceof Map) {
-                return DGResponse.success(request.getRequestId(), (Map<String, Object>) result);
-            } else {
-                // Wrap primitive/String/Object return in a result map
-                return DGResponse.success(request.getRequestId(), Map.of("result", result));
-            }
+    @Override
+    public boolean supportsBatch() {
+        return adapter.hasBatch();
+    }
 
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getTargetException();
-            return DGResponse.error(request.getRequestId(),
-                    "Proxied handler failed: " + cause.getClass().getSimpleName() + ": " + cause.getMessage());
-        } catch (Exception e) {
-            return DGResponse.error(request.getRequestId(),
-                    "Proxy invocation error: " + e.getMessage());
+    /** Convert a delegate's return value into a response for the request. */
+    @SuppressWarnings("unchecked")
+    private static DGResponse toResponse(DGRequest request, Object result, boolean isResponse) {
+        if (result == null) {
+            return DGResponse.success(request.getRequestId(), Map.of("result", "null"));
+        }
+        if (isResponse) {
+            return (DGResponse) result;
+        } else if (result instanceof Map) {
+            return DGResponse.success(request.getRequestId(), (Map<String, Object>) result);
+        } else {
+            // Wrap primitive/String/Object return in a result map
+            return DGResponse.success(request.getRequestId(), Map.of("result", result));
         }
     }
 
     @Override
     public void stop() {
         stopped = true;
-        if (stopMethod != null) {
-            try {
-                stopMethod.invoke(delegate);
-            } catch (Exception e) {
-                log.warn("Proxied stop() failed: {}", e.getMessage());
-            }
+        try {
+            adapter.stop(delegate);
+        } catch (Exception e) {
+            log.warn("Proxied stop() failed: {}", e.getMessage());
         }
     }
 
     @Override
     public void cleanup() {
-        if (cleanupMethod != null) {
-            try {
-                cleanupMethod.invoke(delegate);
-            } catch (Exception e) {
-                log.warn("Proxied cleanup() failed: {}", e.getMessage());
-            }
+        try {
+            adapter.cleanup(delegate);
+        } catch (Exception e) {
+            log.warn("Proxied cleanup() failed: {}", e.getMessage());
         }
     }
 
+    @Override
+    public void reset() {
+        stopped = false;
+    }
+
     @Override
     public String getHandlerId() {
         return "proxy:" + delegate.getClass().getSimpleName() + "-" + Thread.currentThread().getId();
@@ -214,43 +215,4 @@ public class DGHandlerProxy implements DGHandler {
      * @return the underlying delegate object
      */
     public Object getDelegate() { return delegate; }
-
-    // ─── Method Discovery ─────────────────────────────────────────────────────
-
-    private record MethodMatch(Method method, boolean acceptsDGRequest, boolean returnsDGResponse) {}
-
-    private static MethodMatch findExecuteMethod(Class<?> clazz) {
-        String[] names = {"execute", "handle", "process", "run"};
-        for (String name : names) {
-            // Try DGRequest parameter first
-            try {
-                Method m = clazz.getMethod(name, DGRequest.class);
-                boolean retDGR = DGResponse.class.isAssignableFrom(m.getReturnType());
-                return new MethodMatch(m, true, retDGR);
-            } catch (NoSuchMethodException ignored) {}
-
-            // Try Map parameter
-            try {
-                Method m = clazz.getMethod(name, Map.class);
-                boolean retDGR = DGResponse.class.isAssignableFrom(m.getReturnType());
-                return new MethodMatch(m, false, retDGR);
-            } catch (NoSuchMethodException ignored) {}
-        }
-        return null;
-    }
-
-    private static Method findMethod(Class<?> clazz, String[] names, Class<?>... paramTypes) {
-        for (String name : names) {
-            try {
-                Method m = clazz.getMethod(name, paramTypes);
-                return m;
-            } catch (NoSuchMethodException ignored) {}
-            // Also try declared methods (including private)
-            try {
-                Method m = clazz.getDeclaredMethod(name, paramTypes);
-                return m;
-            } catch (NoSuchMethodException ignored) {}
-        }
-        return null;
-    }
 }
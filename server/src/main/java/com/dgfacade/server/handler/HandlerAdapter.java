@@ -0,0 +1,293 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.handler;
+
+import com.dgfacade.common.model.DGRequest;
+import com.dgfacade.common.model.DGResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-class binding of a POJO handler's convention methods, used by {@link DGHandlerProxy}.
+ *
+ * <p>Method discovery runs once per class (cached in a {@link ClassValue}, so classes from
+ * reloaded external JARs can still be unloaded). Each discovered method is bound through
+ * {@link LambdaMetafactory} into a functional interface — the JIT sees a plain interface
+ * call it can inline, instead of {@code Method.invoke} with argument boxing and
+ * {@code InvocationTargetException} wrapping. If a method cannot be spun into a lambda
+ * (e.g. a {@code void} execute), the adapter falls back to an exact-typed
+ * {@link MethodHandle}, which is still far cheaper than core reflection.</p>
+ *
+ * <p>An optional batch method ({@code executeBatch}, {@code handleBatch}, {@code processBatch} or
+ * {@code runBatch} taking a {@code List}) is bound the same way; it receives the requests or
+ * their payloads — matching the execute method's argument — and returns one result per item.</p>
+ *
+ * <p>Exceptions thrown by the target propagate unwrapped.</p>
+ */
+public final class HandlerAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(HandlerAdapter.class);
+
+    private static final String[] EXECUTE_NAMES = {"execute", "handle", "process", "run"};
+    private static final String[] CONSTRUCT_NAMES = {"construct", "init", "initialize"};
+    private static final String[] STOP_NAMES = {"stop", "cancel", "abort"};
+    private static final String[] CLEANUP_NAMES = {"cleanup", "close", "destroy"};
+    private static final String BATCH_SUFFIX = "Batch";
+
+    private static final ClassValue<HandlerAdapter> CACHE = new ClassValue<>() {
+        @Override
+        protected HandlerAdapter computeValue(Class<?> type) {
+            return new HandlerAdapter(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Supplier<Object> factory;
+    private final BiFunction<Object, Object, Object> executeFn;
+    private final boolean executeAcceptsDGRequest;
+    private final boolean executeReturnsDGResponse;
+    private final String executeName;
+    private final BiFunction<Object, Object, Object> executeBatchFn;  // nullable
+    private final BiConsumer<Object, Object> constructFn;  // nullable
+    private final Consumer<Object> stopFn;                 // nullable
+    private final Consumer<Object> cleanupFn;              // nullable
+    private final String constructName;
+    private final String stopName;
+    private final String cleanupName;
+
+    /**
+     * Get (or build on first use) the adapter for a POJO handler class.
+     *
+     * @throws IllegalArgumentException if the class has no discoverable execute method
+     */
+    public static HandlerAdapter forClass(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    private HandlerAdapter(Class<?> clazz) {
+        this.type = clazz;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access handler class " + clazz.getName(), e);
+        }
+
+        // ── Discover execute method ──
+        Method execute = null;
+        boolean acceptsRequest = false;
+        for (String name : EXECUTE_NAMES) {
+            execute = findPublicMethod(clazz, name, DGRequest.class);
+            if (execute != null) { acceptsRequest = true; break; }
+            execute = findPublicMethod(clazz, name, Map.class);
+            if (execute != null) break;
+        }
+        if (execute == null) {
+            throw new IllegalArgumentException(
+                    "Handler class " + clazz.getName() + " does not implement DGHandler and has no " +
+                    "discoverable execute/handle/process/run method. Expected one of: " +
+                    "execute(DGRequest), execute(Map), handle(DGRequest), handle(Map), " +
+                    "process(DGRequest), process(Map), run(DGRequest), run(Map)");
+        }
+        this.executeName = execute.getName();
+        this.executeAcceptsDGRequest = acceptsRequest;
+        this.executeReturnsDGResponse = DGResponse.class.isAssignableFrom(execute.getReturnType());
+        this.executeFn = bindBiFunction(lookup, execute);
+        this.factory = bindFactory(lookup, clazz);
+
+        // ── Discover optional batch method ──
+        Method executeBatch = null;
+        for (String name : EXECUTE_NAMES) {
+            executeBatch = findPublicMethod(clazz, name + BATCH_SUFFIX, List.class);
+            if (executeBatch != null) break;
+        }
+        this.executeBatchFn = executeBatch != null ? bindBiFunction(lookup, executeBatch) : null;
+
+        // ── Discover lifecycle methods ──
+        Method construct = findMethod(clazz, CONSTRUCT_NAMES, Map.class);
+        Method stop = findMethod(clazz, STOP_NAMES);
+        Method cleanup = findMethod(clazz, CLEANUP_NAMES);
+        this.constructFn = construct != null ? bindBiConsumer(lookup, construct) : null;
+        this.stopFn = stop != null ? bindConsumer(lookup, stop) : null;
+        this.cleanupFn = cleanup != null ? bindConsumer(lookup, cleanup) : null;
+        this.constructName = construct != null ? construct.getName() : "none";
+        this.stopName = stop != null ? stop.getName() : "none";
+        this.cleanupName = cleanup != null ? cleanup.getName() : "none";
+
+        log.info("HandlerAdapter bound {} → execute={} (DGRequest={}, DGResponse={}), " +
+                 "batch={}, construct={}, stop={}, cleanup={}",
+                clazz.getSimpleName(), executeName, executeAcceptsDGRequest, executeReturnsDGResponse,
+                executeBatch != null ? executeBatch.getName() : "none", constructName, stopName, cleanupName);
+    }
+
+    // ─── Invocation ──────────────────────────────────────────────────────────
+
+    /** Create a new delegate instance via the bound no-arg constructor. */
+    public Object newInstance() {
+        return factory.get();
+    }
+
+    /** Invoke the execute method with either the request or its payload, per the discovered signature. */
+    public Object execute(Object target, DGRequest request) {
+        return executeFn.apply(target, executeAcceptsDGRequest ? request : request.getPayload());
+    }
+
+    /**
+     * Invoke the batch method with the requests or their payloads, per the execute signature.
+     * Only valid when {@link #hasBatch()}.
+     */
+    public Object executeBatch(Object target, List<DGRequest> requests) {
+        if (executeAcceptsDGRequest) return executeBatchFn.apply(target, requests);
+        List<Object> payloads = new ArrayList<>(requests.size());
+        for (DGRequest request : requests) payloads.add(request.getPayload());
+        return executeBatchFn.apply(target, payloads);
+    }
+
+    public void construct(Object target, Map<String, Object> config) {
+        if (constructFn != null) constructFn.accept(target, config);
+    }
+
+    public void stop(Object target) {
+        if (stopFn != null) stopFn.accept(target);
+    }
+
+    public void cleanup(Object target) {
+        if (cleanupFn != null) cleanupFn.accept(target);
+    }
+
+    public Class<?> getType() { return type; }
+    public boolean isExecuteReturnsDGResponse() { return executeReturnsDGResponse; }
+    public boolean isExecuteAcceptsDGRequest() { return executeAcceptsDGRequest; }
+    public String getExecuteName() { return executeName; }
+    public boolean hasBatch() { return executeBatchFn != null; }
+
+    // ─── Binding ─────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> bindFactory(MethodHandles.Lookup lookup, Class<?> clazz) {
+        MethodHandle ctor;
+        try {
+            ctor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Handler class " + clazz.getName()
+                    + " has no accessible no-arg constructor", e);
+        }
+        try {
+            return (Supplier<Object>) LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                    ctor, MethodType.methodType(clazz)).getTarget().invokeExact();
+        } catch (Throwable t) {
+            log.debug("Lambda binding failed for {}.<init>, using MethodHandle: {}", clazz.getSimpleName(), t.toString());
+            MethodHandle generic = ctor.asType(MethodType.methodType(Object.class));
+            return () -> invokeUnchecked(() -> generic.invokeExact());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiFunction<Object, Object, Object> bindBiFunction(MethodHandles.Lookup lookup, Method m) {
+        MethodHandle mh = unreflect(lookup, m);
+        try {
+            return (BiFunction<Object, Object, Object>) LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(BiFunction.class),
+                    MethodType.methodType(Object.class, Object.class, Object.class),
+                    mh, mh.type().wrap()).getTarget().invokeExact();
+        } catch (Throwable t) {
+            log.debug("Lambda binding failed for {}.{}, using MethodHandle: {}",
+                    m.getDeclaringClass().getSimpleName(), m.getName(), t.toString());
+            MethodHandle generic = mh.asType(MethodType.methodType(Object.class, Object.class, Object.class));
+            return (target, arg) -> invokeUnchecked(() -> generic.invokeExact(target, arg));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> bindBiConsumer(MethodHandles.Lookup lookup, Method m) {
+        MethodHandle mh = unreflect(lookup, m);
+        try {
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    mh, mh.type().changeReturnType(void.class)).getTarget().invokeExact();
+        } catch (Throwable t) {
+            MethodHandle generic = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, arg) -> invokeUnchecked(() -> { generic.invokeExact(target, arg); return null; });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Object> bindConsumer(MethodHandles.Lookup lookup, Method m) {
+        MethodHandle mh = unreflect(lookup, m);
+        try {
+            return (Consumer<Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(Consumer.class),
+                    MethodType.methodType(void.class, Object.class),
+                    mh, mh.type().changeReturnType(void.class)).getTarget().invokeExact();
+        } catch (Throwable t) {
+            MethodHandle generic = mh.asType(MethodType.methodType(void.class, Object.class));
+            return target -> invokeUnchecked(() -> { generic.invokeExact(target); return null; });
+        }
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method m) {
+        try {
+            return lookup.unreflect(m);
+        } catch (IllegalAccessException e) {
+            // Public method on an inaccessible (e.g. package-private) declaring class
+            m.setAccessible(true);
+            try {
+                return MethodHandles.lookup().unreflect(m);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException("Cannot access " + m, ex);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingCall { Object call() throws Throwable; }
+
+    private static Object invokeUnchecked(ThrowingCall call) {
+        try {
+            return call.call();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t.getMessage(), t);
+        }
+    }
+
+    // ─── Method Discovery ────────────────────────────────────────────────────
+
+    private static Method findPublicMethod(Class<?> clazz, String name, Class<?>... paramTypes) {
+        try {
+            Method m = clazz.getMethod(name, paramTypes);
+            return Modifier.isStatic(m.getModifiers()) ? null : m;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String[] names, Class<?>... paramTypes) {
+        for (String name : names) {
+            Method m = findPublicMethod(clazz, name, paramTypes);
+            if (m != null) return m;
+            // Also try declared methods (including private)
+            try {
+                return clazz.getDeclaredMethod(name, paramTypes);
+            } catch (NoSuchMethodException ignored) {}
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.handler;
+
+import com.dgfacade.common.model.HandlerConfig;
+import com.dgfacade.server.python.DGHandlerPython;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates raw (not yet constructed) {@link DGHandler} instances from handler configuration.
+ *
+ * <p>Resolution rules:</p>
+ * <ul>
+ *   <li>{@code is_python: true} → {@link DGHandlerPython} bridge</li>
+ *   <li>Class implements {@code DGHandler} → instantiated directly</li>
+ *   <li>Any other class → wrapped in {@link DGHandlerProxy}</li>
+ * </ul>
+ *
+ * <p>Shared by {@code HandlerActor}, the handler pools and {@link ChainHandler} so all
+ * three paths resolve handler classes the same way.</p>
+ */
+public final class HandlerFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(HandlerFactory.class);
+
+    private HandlerFactory() {}
+
+    /**
+     * Instantiate the handler described by the given config. The caller is responsible
+     * for calling {@link DGHandler#construct} on the returned instance.
+     */
+    public static DGHandler create(HandlerConfig config) throws Exception {
+        if (config.isPython()) {
+            log.debug("Handler is Python-based — using DGHandlerPython bridge");
+            return new DGHandlerPython();
+        }
+        return create(config.getHandlerClass());
+    }
+
+    /**
+     * Instantiate a Java handler by class name, wrapping POJOs in {@link DGHandlerProxy}.
+     */
+    public static DGHandler create(String className) throws Exception {
+        return create(Class.forName(className));
+    }
+
+    /**
+     * Instantiate a Java handler from an already resolved class, wrapping POJOs in {@link DGHandlerProxy}.
+     */
+    public static DGHandler create(Class<?> clazz) throws Exception {
+        if (DGHandler.class.isAssignableFrom(clazz)) {
+            log.debug("Handler {} implements DGHandler — using directly", clazz.getSimpleName());
+            return (DGHandler) clazz.getDeclaredConstructor().newInstance();
+        }
+        log.debug("Handler {} does NOT implement DGHandler — wrapped in DGHandlerProxy",
+                clazz.getSimpleName());
+        return DGHandlerProxy.createFrom(clazz);
+    }
+
+    /**
+     * Resolve a config's handler class ahead of the first request. For POJO handlers this
+     * builds the {@link HandlerAdapter} so method discovery and binding happen at config
+     * load, and a misconfigured class is reported then rather than on first use.
+     */
+    public static void warm(HandlerConfig config) {
+        if (config.isPython() || config.getHandlerClass() == null) return;
+        try {
+            Class<?> clazz = Class.forName(config.getHandlerClass());
+            if (!DGHandler.class.isAssignableFrom(clazz)) HandlerAdapter.forClass(clazz);
+        } catch (Throwable t) {
+            log.warn("Handler class {} for {} could not be prepared: {}",
+                    config.getHandlerClass(), config.getRequestType(), t.toString());
+        }
+    }
+}
@@ -157,6 +157,9 @@ public class HashHandler implements DGHandler {
     @Override
     public void stop() { stopped = true; }
 
+    @Override
+    public void reset() { stopped = false; }
+
     @Override
     public void cleanup() {}
 }
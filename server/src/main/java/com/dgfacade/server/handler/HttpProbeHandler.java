@@ -15,6 +15,9 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Admin-only handler for HTTP health probes and URL testing.
@@ -32,8 +35,21 @@ import java.util.*;
  *   <li>{@code body} — optional request body for POST/PUT</li>
  *   <li>{@code follow_redirects} — follow 3xx redirects (default true)</li>
  * </ul>
+ *
+ * <p>Probes are sent with {@link HttpClient#sendAsync}; no thread is held while the
+ * target responds. Two shared clients (redirects on/off) are reused across requests, so
+ * connections and the client's selector thread are shared by all in-flight probes.</p>
  */
-public class HttpProbeHandler implements DGHandler {
+public class HttpProbeHandler implements AsyncDGHandler {
+
+    private static final HttpClient FOLLOWING_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    private static final HttpClient NON_FOLLOWING_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
 
     private volatile boolean stopped = false;
     private int maxTimeoutSeconds = 30;
@@ -47,12 +63,12 @@ public class HttpProbeHandler implements DGHandler {
 
     @Override
     @SuppressWarnings("unchecked")
-    public DGResponse execute(DGRequest request) {
-        if (stopped) return DGResponse.error(request.getRequestId(), "Handler was stopped");
+    public CompletionStage<DGResponse> executeAsync(DGRequest request) {
+        if (stopped) return CompletableFuture.completedFuture(DGResponse.error(request.getRequestId(), "Handler was stopped"));
         try {
             Map<String, Object> payload = request.getPayload();
             if (payload == null || !payload.containsKey("url")) {
-                return DGResponse.error(request.getRequestId(), "'url' field is required");
+                return CompletableFuture.completedFuture(DGResponse.error(request.getRequestId(), "'url' field is required"));
             }
 
             String url = (String) payload.get("url");
@@ -63,15 +79,8 @@ public class HttpProbeHandler implements DGHandler {
             boolean followRedirects = Boolean.parseBoolean(
                     String.valueOf(payload.getOrDefault("follow_redirects", "true")));
 
-            // Build HTTP client
-            HttpClient.Builder clientBuilder = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(timeoutSec));
-            if (followRedirects) {
-                clientBuilder.followRedirects(HttpClient.Redirect.NORMAL);
-            } else {
-                clientBuilder.followRedirects(HttpClient.Redirect.NEVER);
-            }
-            HttpClient client = clientBuilder.build();
+            // Shared HTTP client; the per-request timeout bounds connect + response
+            HttpClient client = followRedirects ? FOLLOWING_CLIENT : NON_FOLLOWING_CLIENT;
 
             // Build request
             HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
@@ -95,50 +104,65 @@ public class HttpProbeHandler implements DGHandler {
                 case "PUT" -> reqBuilder.PUT(body != null ?
                         HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
                 default -> {
-                    return DGResponse.error(request.getRequestId(),
-                            "Unsupported method: " + method + ". Use GET, HEAD, POST, PUT, DELETE.");
+                    return CompletableFuture.completedFuture(DGResponse.error(request.getRequestId(),
+                            "Unsupported method: " + method + ". Use GET, HEAD, POST, PUT, DELETE."));
                 }
             }
 
             // Execute and time the request
             Instant start = Instant.now();
-            HttpResponse<String> response = client.send(reqBuilder.build(),
-                    HttpResponse.BodyHandlers.ofString());
-            long latencyMs = Duration.between(start, Instant.now()).toMillis();
-
-            // Build result
-            Map<String, Object> result = new LinkedHashMap<>();
-            result.put("url", url);
-            result.put("method", method);
-            result.put("status_code", response.statusCode());
-            result.put("status_family", getStatusFamily(response.statusCode()));
-            result.put("latency_ms", latencyMs);
-            result.put("content_length", response.body() != null ? response.body().length() : 0);
-
-            // Response headers (top-level only)
-            Map<String, String> responseHeaders = new LinkedHashMap<>();
-            response.headers().map().forEach((k, v) -> responseHeaders.put(k, String.join(", ", v)));
-            result.put("response_headers", responseHeaders);
-
-            // Body snippet (first 500 chars)
-            if (response.body() != null && !response.body().isEmpty()) {
-                String snippet = response.body().length() > 500 ?
-                        response.body().substring(0, 500) + "... [truncated]" : response.body();
-                result.put("body_snippet", snippet);
-            }
+            return client.sendAsync(reqBuilder.build(), HttpResponse.BodyHandlers.ofString())
+                    .handle((response, error) -> {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            return probeError(request, cause);
+                        }
+                        long latencyMs = Duration.between(start, Instant.now()).toMillis();
+                        return buildResult(request, url, method, response, latencyMs);
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(probeError(request, e));
+        }
+    }
+
+    private DGResponse buildResult(DGRequest request, String url, String method,
+                                   HttpResponse<String> response, long latencyMs) {
+        // Build result
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("url", url);
+        result.put("method", method);
+        result.put("status_code", response.statusCode());
+        result.put("status_family", getStatusFamily(response.statusCode()));
+        result.put("latency_ms", latencyMs);
+        result.put("content_length", response.body() != null ? response.body().length() : 0);
+
+        // Response headers (top-level only)
+        Map<String, String> responseHeaders = new LinkedHashMap<>();
+        response.headers().map().forEach((k, v) -> responseHeaders.put(k, String.join(", ", v)));
+        result.put("response_headers", responseHeaders);
+
+        // Body snippet (first 500 chars)
+        if (response.body() != null && !response.body().isEmpty()) {
+            String snippet = response.body().length() > 500 ?
+                    response.body().substring(0, 500) + "... [truncated]" : response.body();
+            result.put("body_snippet", snippet);
+        }
 
-            result.put("reachable", response.statusCode() < 500);
-            result.put("healthy", response.statusCode() >= 200 && response.statusCode() < 300);
-            result.put("probe_timestamp", Instant.now().toString());
+        result.put("reachable", response.statusCode() < 500);
+        result.put("healthy", response.statusCode() >= 200 && response.statusCode() < 300);
+        result.put("probe_timestamp", Instant.now().toString());
 
-            return DGResponse.success(request.getRequestId(), result);
-        } catch (java.net.http.HttpTimeoutException e) {
+        return DGResponse.success(request.getRequestId(), result);
+    }
+
+    private DGResponse probeError(DGRequest request, Throwable e) {
+        if (e instanceof java.net.http.HttpTimeoutException) {
             return DGResponse.error(request.getRequestId(), "Timeout: " + e.getMessage());
-        } catch (java.net.ConnectException e) {
+        } else if (e instanceof java.net.ConnectException) {
             return DGResponse.error(request.getRequestId(), "Connection refused: " + e.getMessage());
-        } catch (Exception e) {
-            return DGResponse.error(request.getRequestId(), "Probe error: " + e.getMessage());
         }
+        return DGResponse.error(request.getRequestId(), "Probe error: " + e.getMessage());
     }
 
     private String getStatusFamily(int code) {
@@ -178,6 +178,9 @@ public class JsonTransformHandler implements DGHandler {
     @Override
     public void stop() { stopped = true; }
 
+    @Override
+    public void reset() { stopped = false; }
+
     @Override
     public void cleanup() {}
 }
@@ -11,6 +11,7 @@ import com.dgfacade.messaging.core.DataPublisher;
 import com.dgfacade.messaging.core.DataSubscriber;
 import com.dgfacade.messaging.core.MessageEnvelope;
 import com.dgfacade.server.channel.ChannelAccessor;
+import com.dgfacade.server.metrics.MetricsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,10 +23,18 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -41,6 +50,14 @@ import java.util.concurrent.atomic.AtomicLong;
  *   <li><b>Continue</b> until TTL expires or stop is called, then gracefully close</li>
  * </ol>
  *
+ * <h3>Sessions</h3>
+ * <p>The handler is an {@link AsyncDGHandler}: {@code executeAsync()} opens the session and
+ * returns. From then on the subscription callback does all the work on the subscriber's
+ * dispatch thread, a shared timer ends the session at its TTL, and {@link #stop()} ends it
+ * early; the request completes with the session summary. An idle session holds no thread, so
+ * a node can run as many sessions as it has memory for. Sessions on the same topic share the
+ * channel's subscriber (see {@link ChannelAccessor#subscribe(String, String, com.dgfacade.messaging.core.MessageListener)}).</p>
+ *
  * <h3>Handler Config</h3>
  * <pre>{@code
  * {
@@ -55,7 +72,10 @@ import java.util.concurrent.atomic.AtomicLong;
  *     "output_channel": "pdc-kafka-output",
  *     "output_topic": "orders.processed",
  *     "use_dynamic_topic": true,
- *     "kafka_group_id": "dgfacade-pdc-${request_id}"
+ *     "kafka_group_id": "dgfacade-pdc-${request_id}",
+ *     "passthrough": false,
+ *     "publish_batch_size": 100,
+ *     "publish_linger_ms": 5
  *   }
  * }
  * }</pre>
@@ -69,17 +89,69 @@ import java.util.concurrent.atomic.AtomicLong;
  *   <li>The output always publishes to {@code output_topic}.</li>
  * </ul>
  *
+ * <h3>Forwarding</h3>
+ * <p>Consumed messages are grouped into {@code publishBatch()} calls of up to
+ * {@code publish_batch_size}, sent at the latest {@code publish_linger_ms} after the first
+ * message of the batch arrived ({@code publish_batch_size} 1 publishes each message on its
+ * own). By default each message is re-wrapped with {@code pdc_*} headers; with
+ * {@code passthrough} the received envelope itself is forwarded — same payload, same
+ * headers — so forwarding allocates nothing per message beyond the batch list.</p>
+ *
+ * <p>While a session is open it reports {@code dgfacade_pdc_forwarded_total},
+ * {@code dgfacade_pdc_lag_ms} (receipt to publish acknowledgement, last batch) and
+ * {@code dgfacade_pdc_pending} tagged with its {@code session} (the request id).</p>
+ *
  * <h3>Channel Access</h3>
  * <p>The handler receives a {@link ChannelAccessor} from the execution engine
  * before {@code construct()} is called. The accessor resolves channel IDs to
  * real broker connections (Kafka, ActiveMQ, RabbitMQ, IBM MQ, FileSystem, SQL)
  * and provides {@link DataPublisher} and {@link DataSubscriber} instances.</p>
  */
-public class PDCHandler implements DGHandler {
+public class PDCHandler implements AsyncDGHandler {
 
     private static final Logger log = LoggerFactory.getLogger(PDCHandler.class);
     private static final ObjectMapper mapper = new ObjectMapper();
 
+    /**
+     * Fires TTL expiries and linger flushes; one thread for all sessions on the node. It only
+     * schedules — the work itself runs on {@link #SESSION_WORKERS}, so a publisher that blocks
+     * cannot hold up the timers of other sessions.
+     */
+    private static final ScheduledThreadPoolExecutor SESSION_TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "dgfacade-pdc-session");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Runs the publishes and session ends triggered by {@link #SESSION_TIMER}. */
+    private static final ThreadPoolExecutor SESSION_WORKERS;
+
+    static {
+        SESSION_TIMER.setRemoveOnCancelPolicy(true);
+        int size = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger seq = new AtomicInteger(0);
+        SESSION_WORKERS = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "dgfacade-pdc-worker-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        SESSION_WORKERS.allowCoreThreadTimeOut(true);
+    }
+
+    /** Shared REST clients for dynamic topic resolution, by connect timeout in seconds. */
+    private static final Map<Integer, HttpClient> HTTP_CLIENTS = new ConcurrentHashMap<>();
+
+    /** How long a closing session waits for its last batches to be acknowledged. */
+    private static final long FINAL_FLUSH_TIMEOUT_MS = 10_000;
+
+    private static volatile MetricsService metricsService;
+
+    /** Inject the metrics sink for per-session gauges (set once at startup). */
+    public static void setMetricsService(MetricsService metrics) {
+        metricsService = metrics;
+    }
+
     // -- Channel Access --
     private ChannelAccessor channelAccessor;
 
@@ -92,6 +164,9 @@ public class PDCHandler implements DGHandler {
     private String outputTopic;
     private boolean useDynamicTopic = true;
     private String kafkaGroupId;
+    private boolean passthrough = false;
+    private int publishBatchSize = 100;
+    private long publishLingerMs = 5;
 
     // -- Runtime state --
     private final AtomicBoolean running = new AtomicBoolean(false);
@@ -100,11 +175,26 @@ public class PDCHandler implements DGHandler {
     private final AtomicLong messagesPublished = new AtomicLong(0);
     private final AtomicLong messagesErrored = new AtomicLong(0);
     private final ConcurrentLinkedQueue<String> sampleMessages = new ConcurrentLinkedQueue<>();
-    private String subscribedTopic;
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+    private final CompletableFuture<DGResponse> session = new CompletableFuture<>();
+    private volatile String subscribedTopic;
+    private volatile String requestId;
+    private volatile Instant startTime;
+    private volatile AutoCloseable subscription;
+    private volatile ScheduledFuture<?> ttlTimer;
     private HttpClient httpClient;
-    private DataSubscriber subscriber;
     private DataPublisher publisher;
 
+    // -- Outbound batching --
+    private final Object outboundLock = new Object();
+    private List<MessageEnvelope> outbound;               // guarded by outboundLock
+    private ScheduledFuture<?> lingerTimer;               // guarded by outboundLock
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingOutbound = new AtomicInteger();
+    private final AtomicLong publishBatches = new AtomicLong(0);
+    private final AtomicLong lastLagMs = new AtomicLong(0);
+    private final AtomicLong maxLagMs = new AtomicLong(0);
+
     @Override
     public void setChannelAccessor(ChannelAccessor accessor) {
         this.channelAccessor = accessor;
@@ -120,6 +210,9 @@ public class PDCHandler implements DGHandler {
         this.outputTopic = str(config, "output_topic", null);
         this.useDynamicTopic = Boolean.parseBoolean(str(config, "use_dynamic_topic", "true"));
         this.kafkaGroupId = str(config, "kafka_group_id", "dgfacade-pdc-consumer");
+        this.passthrough = Boolean.parseBoolean(str(config, "passthrough", "false"));
+        this.publishBatchSize = Math.max(1, intVal(config, "publish_batch_size", 100));
+        this.publishLingerMs = Math.max(0, intVal(config, "publish_linger_ms", 5));
 
         // Validate required config
         Objects.requireNonNull(inputChannelId, "PDCHandler requires 'input_channel' in config");
@@ -139,128 +232,233 @@ public class PDCHandler implements DGHandler {
                     "PDCHandler requires ChannelAccessor. Ensure BrokerService and Channel configs are set up.");
         }
 
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(restTimeoutSeconds))
-                .build();
+        if (useDynamicTopic) {
+            // Each HttpClient owns a selector thread, so sessions share one per connect timeout
+            this.httpClient = HTTP_CLIENTS.computeIfAbsent(restTimeoutSeconds, seconds -> HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(seconds))
+                    .build());
+        }
 
-        log.info("PDCHandler constructed: inputChannel={}, outputChannel={}, outputTopic={}, dynamic={}",
-                inputChannelId, outputChannelId, outputTopic, useDynamicTopic);
+        log.info("PDCHandler constructed: inputChannel={}, outputChannel={}, outputTopic={}, dynamic={}, "
+                        + "passthrough={}, batch={}/{}ms",
+                inputChannelId, outputChannelId, outputTopic, useDynamicTopic,
+                passthrough, publishBatchSize, publishLingerMs);
     }
 
+    /**
+     * Open the session and return at once. The returned stage completes with the session
+     * summary when the TTL elapses or {@link #stop()} is called; no thread is held meanwhile.
+     */
     @Override
-    public DGResponse execute(DGRequest request) {
+    public CompletionStage<DGResponse> executeAsync(DGRequest request) {
         running.set(true);
-        Instant startTime = Instant.now();
+        startTime = Instant.now();
+        requestId = request.getRequestId();
         int ttlMinutes = request.getTtlMinutes() > 0 ? request.getTtlMinutes() : 30;
-        Instant deadline = startTime.plus(Duration.ofMinutes(ttlMinutes));
 
-        try {
-            // -- Step 1: Determine the input topic --
-            if (useDynamicTopic) {
-                subscribedTopic = resolveDynamicTopic(request);
-                if (subscribedTopic == null) {
-                    return DGResponse.error(request.getRequestId(),
-                            "Failed to resolve dynamic topic from REST endpoint");
-                }
-            } else {
-                subscribedTopic = inputTopic;
+        // -- Step 1: Determine the input topic (the REST call does not block a thread) --
+        CompletableFuture<String> topic = useDynamicTopic
+                ? resolveDynamicTopic(request)
+                : CompletableFuture.completedFuture(inputTopic);
+
+        return topic.thenCompose(resolved -> {
+            if (resolved == null) {
+                running.set(false);
+                return CompletableFuture.completedFuture(DGResponse.error(request.getRequestId(),
+                        "Failed to resolve dynamic topic from REST endpoint"));
             }
+            return openSession(request, resolved, ttlMinutes);
+        }).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("PDCHandler execution failed", cause);
+            endSession(null);
+            return DGResponse.error(request.getRequestId(), "PDCHandler error: " + cause.getMessage());
+        });
+    }
+
+    private CompletableFuture<DGResponse> openSession(DGRequest request, String topic, int ttlMinutes) {
+        subscribedTopic = topic;
+        log.info("PDCHandler: subscribing to topic '{}' via input channel '{}'", subscribedTopic, inputChannelId);
+
+        // -- Step 2: Get real DataPublisher from Output Channel --
+        publisher = channelAccessor.getPublisher(outputChannelId);
+
+        // -- Step 3: Attach to the topic; the callback drives all forwarding from here on --
+        log.info("PDCHandler: session open. Input: {}/topic={}, Output: {}/topic={}, TTL={}min",
+                inputChannelId, subscribedTopic, outputChannelId, outputTopic, ttlMinutes);
+        MetricsService metrics = metricsService;
+        if (metrics != null) metrics.registerPdcSession(requestId, this);
+        subscription = channelAccessor.subscribe(inputChannelId, subscribedTopic,
+                envelope -> forward(request, envelope));
+
+        // -- Step 4: The TTL ends the session unless stop() comes first --
+        ttlTimer = SESSION_TIMER.schedule(() -> SESSION_WORKERS.execute(() -> endSession("TTL_EXPIRED")),
+                ttlMinutes, TimeUnit.MINUTES);
+        if (stopped.get()) endSession("STOPPED");   // stop() raced with the open
+        if (ended.get()) ttlTimer.cancel(false);
+        return session;
+    }
+
+    private void forward(DGRequest request, MessageEnvelope envelope) {
+        if (!running.get() || stopped.get()) return;
 
-            log.info("PDCHandler: subscribing to topic '{}' via input channel '{}'",
-                    subscribedTopic, inputChannelId);
-
-            // -- Step 2: Get real DataSubscriber from Input Channel --
-            subscriber = channelAccessor.getSubscriber(inputChannelId);
-
-            // -- Step 3: Get real DataPublisher from Output Channel --
-            publisher = channelAccessor.getPublisher(outputChannelId);
-
-            // -- Step 4: Subscribe and forward messages --
-            log.info("PDCHandler: starting consume-publish loop. " +
-                    "Input: {}/topic={}, Output: {}/topic={}, TTL={}min",
-                    inputChannelId, subscribedTopic, outputChannelId, outputTopic, ttlMinutes);
-
-            CountDownLatch completionLatch = new CountDownLatch(1);
-
-            // Subscribe with a real MessageListener that forwards to the output
-            subscriber.subscribe(subscribedTopic, envelope -> {
-                if (!running.get() || stopped.get()) return;
-
-                messagesConsumed.incrementAndGet();
-                String payload = envelope.getPayload();
-
-                try {
-                    // Create output envelope
-                    MessageEnvelope outEnvelope = new MessageEnvelope(outputTopic, payload);
-                    outEnvelope.setHeaders(Map.of(
-                            "pdc_source_topic", subscribedTopic,
-                            "pdc_input_channel", inputChannelId,
-                            "pdc_request_id", request.getRequestId(),
-                            "pdc_forwarded_at", Instant.now().toString()
-                    ));
-
-                    // Publish to output channel
-                    publisher.publish(outputTopic, outEnvelope)
-                            .thenRun(() -> {
-                                messagesPublished.incrementAndGet();
-                                if (sampleMessages.size() < 10) {
-                                    sampleMessages.add(truncate(payload, 200));
-                                }
-                                log.debug("PDCHandler: forwarded message from {} -> {}",
-                                        subscribedTopic, outputTopic);
-                            })
-                            .exceptionally(ex -> {
-                                messagesErrored.incrementAndGet();
-                                log.error("PDCHandler: failed to publish to {}: {}",
-                                        outputTopic, ex.getMessage());
-                                return null;
-                            });
-
-                } catch (Exception e) {
-                    messagesErrored.incrementAndGet();
-                    log.error("PDCHandler: error processing message: {}", e.getMessage());
-                }
-            });
-
-            // Start the subscriber
-            subscriber.start();
-
-            // -- Step 5: Wait until TTL expires or stop() is called --
-            while (running.get() && !stopped.get() && Instant.now().isBefore(deadline)) {
-                try {
-                    if (completionLatch.await(1, TimeUnit.SECONDS)) break;
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+        messagesConsumed.incrementAndGet();
+        MessageEnvelope out;
+        if (passthrough) {
+            // Forward the received envelope as is: no new envelope, headers map or payload copy
+            out = envelope;
+        } else {
+            out = new MessageEnvelope(outputTopic, envelope.getPayload());
+            out.setTimestamp(envelope.getTimestamp());
+            out.setHeaders(Map.of(
+                    "pdc_source_topic", subscribedTopic,
+                    "pdc_input_channel", inputChannelId,
+                    "pdc_request_id", request.getRequestId(),
+                    "pdc_forwarded_at", Instant.now().toString()
+            ));
+        }
+
+        List<MessageEnvelope> full = null;
+        pendingOutbound.incrementAndGet();
+        synchronized (outboundLock) {
+            if (outbound == null) outbound = new ArrayList<>(Math.min(publishBatchSize, 1024));
+            outbound.add(out);
+            if (outbound.size() >= publishBatchSize || publishLingerMs == 0) {
+                full = takeOutbound();
+            } else if (outbound.size() == 1) {
+                lingerTimer = SESSION_TIMER.schedule(() -> SESSION_WORKERS.execute(this::flushOutbound),
+                        publishLingerMs, TimeUnit.MILLISECONDS);
             }
+        }
+        if (full != null) publish(full);
+    }
+
+    /** Publish whatever is waiting for its batch to fill (linger expiry, session end). */
+    private void flushOutbound() {
+        List<MessageEnvelope> batch;
+        synchronized (outboundLock) {
+            batch = takeOutbound();
+        }
+        if (batch != null) publish(batch);
+    }
 
-            // -- Build response --
-            Duration elapsed = Duration.between(startTime, Instant.now());
-            log.info("PDCHandler: loop ended. Consumed={}, Published={}, Errored={}, Duration={}s",
-                    messagesConsumed.get(), messagesPublished.get(),
-                    messagesErrored.get(), elapsed.toSeconds());
-
-            Map<String, Object> resultData = new LinkedHashMap<>();
-            resultData.put("subscribed_topic", subscribedTopic);
-            resultData.put("input_channel", inputChannelId);
-            resultData.put("output_channel", outputChannelId);
-            resultData.put("output_topic", outputTopic);
-            resultData.put("messages_consumed", messagesConsumed.get());
-            resultData.put("messages_published", messagesPublished.get());
-            resultData.put("messages_errored", messagesErrored.get());
-            resultData.put("duration_seconds", elapsed.toSeconds());
-            resultData.put("stopped_reason", stopped.get() ? "STOPPED" : "TTL_EXPIRED");
-            resultData.put("dynamic_topic_used", useDynamicTopic);
-            if (!sampleMessages.isEmpty()) {
-                resultData.put("sample_messages", new ArrayList<>(sampleMessages));
+    /** Detach the open batch; caller holds outboundLock. */
+    private List<MessageEnvelope> takeOutbound() {
+        List<MessageEnvelope> batch = outbound;
+        outbound = null;
+        if (lingerTimer != null) {
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+        return batch == null || batch.isEmpty() ? null : batch;
+    }
+
+    private void publish(List<MessageEnvelope> batch) {
+        int size = batch.size();
+        CompletableFuture<Void> sent;
+        try {
+            sent = publisher.publishBatch(outputTopic, batch);
+        } catch (Exception e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> tracked = sent.whenComplete((v, ex) -> {
+            pendingOutbound.addAndGet(-size);
+            if (ex != null) {
+                messagesErrored.addAndGet(size);
+                log.error("PDCHandler: failed to publish {} message(s) to {}: {}", size, outputTopic, ex.getMessage());
+                return;
+            }
+            messagesPublished.addAndGet(size);
+            publishBatches.incrementAndGet();
+            Instant received = batch.get(0).getTimestamp();
+            if (received != null) {
+                long lag = Math.max(0, System.currentTimeMillis() - received.toEpochMilli());
+                lastLagMs.set(lag);
+                maxLagMs.accumulateAndGet(lag, Math::max);
+            }
+            for (int i = 0; i < size && sampleMessages.size() < 10; i++) {
+                sampleMessages.add(truncate(batch.get(i).getPayload(), 200));
             }
+            log.debug("PDCHandler: forwarded {} message(s) from {} -> {}", size, subscribedTopic, outputTopic);
+        });
+        inFlight.add(tracked);
+        tracked.whenComplete((v, ex) -> inFlight.remove(tracked));
+    }
+
+    public String getSubscribedTopic() { return subscribedTopic; }
+    public long getMessagesPublished() { return messagesPublished.get(); }
+    public long getLastLagMs() { return lastLagMs.get(); }
+    public int getPendingOutbound() { return pendingOutbound.get(); }
+
+    /**
+     * Detach from the topic, cancel the TTL timer and complete the session with its summary.
+     * Runs once; {@code reason} is null when the session failed before it was open, and a
+     * handler whose {@code executeAsync()} never ran has nothing to end.
+     */
+    private void endSession(String reason) {
+        if (!ended.compareAndSet(false, true)) return;
+        running.set(false);
+        if (startTime == null) return;
+        if (ttlTimer != null) ttlTimer.cancel(false);
+        closeSubscription();
+        if (reason == null) {
+            unregisterMetrics();
+            return;
+        }
 
-            return DGResponse.success(request.getRequestId(), resultData);
+        // Send the open batch and let everything in flight be acknowledged before summarising
+        flushOutbound();
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .handle((v, ex) -> null)
+                .completeOnTimeout(null, FINAL_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .thenRun(() -> {
+                    unregisterMetrics();
+                    session.complete(summary(reason));
+                });
+    }
+
+    private void unregisterMetrics() {
+        MetricsService metrics = metricsService;
+        if (metrics != null && requestId != null) metrics.removePdcSession(requestId);
+    }
+
+    private DGResponse summary(String reason) {
+
+        // -- Build response --
+        Duration elapsed = startTime != null ? Duration.between(startTime, Instant.now()) : Duration.ZERO;
+        log.info("PDCHandler: session ended ({}). Consumed={}, Published={}, Errored={}, Duration={}s",
+                reason, messagesConsumed.get(), messagesPublished.get(),
+                messagesErrored.get(), elapsed.toSeconds());
+
+        Map<String, Object> resultData = new LinkedHashMap<>();
+        resultData.put("subscribed_topic", subscribedTopic);
+        resultData.put("input_channel", inputChannelId);
+        resultData.put("output_channel", outputChannelId);
+        resultData.put("output_topic", outputTopic);
+        resultData.put("messages_consumed", messagesConsumed.get());
+        resultData.put("messages_published", messagesPublished.get());
+        resultData.put("messages_errored", messagesErrored.get());
+        resultData.put("publish_batches", publishBatches.get());
+        resultData.put("max_lag_ms", maxLagMs.get());
+        resultData.put("passthrough", passthrough);
+        resultData.put("duration_seconds", elapsed.toSeconds());
+        resultData.put("stopped_reason", reason);
+        resultData.put("dynamic_topic_used", useDynamicTopic);
+        if (!sampleMessages.isEmpty()) {
+            resultData.put("sample_messages", new ArrayList<>(sampleMessages));
+        }
+        return DGResponse.success(requestId, resultData);
+    }
 
+    private void closeSubscription() {
+        AutoCloseable s = subscription;
+        subscription = null;
+        if (s == null) return;
+        try {
+            s.close();
+            log.info("PDCHandler: unsubscribed from topic '{}'", subscribedTopic);
         } catch (Exception e) {
-            log.error("PDCHandler execution failed", e);
-            return DGResponse.error(request.getRequestId(), "PDCHandler error: " + e.getMessage());
+            log.warn("PDCHandler: error unsubscribing: {}", e.getMessage());
         }
     }
 
@@ -269,20 +467,13 @@ public class PDCHandler implements DGHandler {
         log.info("PDCHandler: stop() called");
         stopped.set(true);
         running.set(false);
+        if (subscription != null) endSession("STOPPED");
     }
 
     @Override
     public void cleanup() {
         running.set(false);
-
-        if (subscriber != null && subscribedTopic != null) {
-            try {
-                subscriber.unsubscribe(subscribedTopic);
-                log.info("PDCHandler: unsubscribed from topic '{}'", subscribedTopic);
-            } catch (Exception e) {
-                log.warn("PDCHandler: error unsubscribing: {}", e.getMessage());
-            }
-        }
+        endSession("STOPPED");
 
         if (publisher != null) {
             try {
@@ -303,43 +494,51 @@ public class PDCHandler implements DGHandler {
 
     // --- Dynamic topic resolution via REST ---
 
-    private String resolveDynamicTopic(DGRequest request) {
+    private CompletableFuture<String> resolveDynamicTopic(DGRequest request) {
+        String payloadJson;
         try {
             log.info("PDCHandler: POSTing to {} to resolve dynamic topic", restEndpoint);
-            String payloadJson = mapper.writeValueAsString(
+            payloadJson = mapper.writeValueAsString(
                     request.getPayload() != null ? request.getPayload() : Map.of());
-
-            HttpRequest httpReq = HttpRequest.newBuilder()
-                    .uri(URI.create(restEndpoint))
-                    .header("Content-Type", "application/json")
-                    .timeout(Duration.ofSeconds(restTimeoutSeconds))
-                    .POST(HttpRequest.BodyPublishers.ofString(payloadJson))
-                    .build();
-
-            HttpResponse<String> httpResp = httpClient.send(httpReq, HttpResponse.BodyHandlers.ofString());
-
-            if (httpResp.statusCode() < 200 || httpResp.statusCode() >= 300) {
-                log.error("PDCHandler: REST returned HTTP {}: {}",
-                        httpResp.statusCode(), httpResp.body());
-                return null;
-            }
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> respBody = mapper.readValue(httpResp.body(), Map.class);
-            String topic = (String) respBody.get("topic");
-            if (topic == null || topic.isBlank()) {
-                log.error("PDCHandler: REST response missing 'topic'. Response: {}",
-                        httpResp.body());
-                return null;
-            }
-
-            log.info("PDCHandler: REST returned dynamic topic='{}'", topic);
-            return topic;
-
         } catch (Exception e) {
             log.error("PDCHandler: failed to resolve dynamic topic: {}", e.getMessage());
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
+
+        HttpRequest httpReq = HttpRequest.newBuilder()
+                .uri(URI.create(restEndpoint))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(restTimeoutSeconds))
+                .POST(HttpRequest.BodyPublishers.ofString(payloadJson))
+                .build();
+
+        return httpClient.sendAsync(httpReq, HttpResponse.BodyHandlers.ofString())
+                .thenApply(httpResp -> {
+                    if (httpResp.statusCode() < 200 || httpResp.statusCode() >= 300) {
+                        log.error("PDCHandler: REST returned HTTP {}: {}",
+                                httpResp.statusCode(), httpResp.body());
+                        return null;
+                    }
+                    try {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> respBody = mapper.readValue(httpResp.body(), Map.class);
+                        String topic = (String) respBody.get("topic");
+                        if (topic == null || topic.isBlank()) {
+                            log.error("PDCHandler: REST response missing 'topic'. Response: {}",
+                                    httpResp.body());
+                            return null;
+                        }
+                        log.info("PDCHandler: REST returned dynamic topic='{}'", topic);
+                        return topic;
+                    } catch (Exception e) {
+                        log.error("PDCHandler: failed to parse REST response: {}", e.getMessage());
+                        return null;
+                    }
+                })
+                .exceptionally(e -> {
+                    log.error("PDCHandler: failed to resolve dynamic topic: {}", e.getMessage());
+                    return null;
+                });
     }
 
     // --- Config helpers ---
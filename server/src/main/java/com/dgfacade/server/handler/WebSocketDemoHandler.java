@@ -18,6 +18,7 @@ import java.time.Instant;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * <b>WebSocketDemoHandler</b> — Demonstrates WebSocket-based handler execution.
@@ -26,7 +27,8 @@ import java.util.concurrent.ThreadLocalRandom;
  * in the WebSocket Playground UI. Supports multiple operation modes:</p>
  * <ul>
  *   <li><b>SYSTEM_PROBE</b> — Collects live JVM and OS metrics (memory, threads, uptime, CPU load)</li>
- *   <li><b>MARKET_TICK</b> — Simulates a batch of market data ticks with random price movements</li>
+ *   <li><b>MARKET_TICK</b> — Simulates a batch of market data ticks with random price movements;
+ *       each tick is also pushed as a streaming update (paced by {@code tick_interval_ms})</li>
  *   <li><b>PING_BURST</b> — Measures request round-trip latency with timestamps at each stage</li>
  *   <li><b>DATA_GENERATE</b> — Generates N random data records (for load/volume testing)</li>
  * </ul>
@@ -44,7 +46,7 @@ import java.util.concurrent.ThreadLocalRandom;
  * }
  * }</pre>
  */
-public class WebSocketDemoHandler implements DGHandler {
+public class WebSocketDemoHandler implements StreamingDGHandler {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketDemoHandler.class);
 
@@ -57,7 +59,7 @@ public class WebSocketDemoHandler implements DGHandler {
     }
 
     @Override
-    public DGResponse execute(DGRequest request) {
+    public DGResponse executeStreaming(DGRequest request, Consumer<DGResponse> updateSink) {
         if (stopped) return DGResponse.error(request.getRequestId(), "Handler stopped");
         Instant start = Instant.now();
 
@@ -67,7 +69,7 @@ public class WebSocketDemoHandler implements DGHandler {
 
         try {
             Map<String, Object> result = switch (operation.toUpperCase()) {
-                case "MARKET_TICK" -> executeMarketTick(payload);
+                case "MARKET_TICK" -> executeMarketTick(request, payload, updateSink);
                 case "PING_BURST" -> executePingBurst(request, start);
                 case "DATA_GENERATE" -> executeDataGenerate(payload);
                 default -> executeSystemProbe();
@@ -133,12 +135,14 @@ public class WebSocketDemoHandler implements DGHandler {
 
     // ── MARKET_TICK: Simulated market data ───────────────────────────────
 
-    private Map<String, Object> executeMarketTick(Map<String, Object> payload) {
+    private Map<String, Object> executeMarketTick(DGRequest request, Map<String, Object> payload,
+                                                  Consumer<DGResponse> updateSink) throws InterruptedException {
         @SuppressWarnings("unchecked")
         List<String> symbols = payload.containsKey("symbols")
                 ? (List<String>) payload.get("symbols")
                 : List.of("AAPL", "GOOG", "MSFT", "AMZN");
         int ticksPerSymbol = intVal(payload, "ticks_per_symbol", 3);
+        long tickIntervalMs = Math.max(0, intVal(payload, "tick_interval_ms", 0));
 
         Map<String, Object> result = new LinkedHashMap<>();
         List<Map<String, Object>> ticks = new ArrayList<>();
@@ -150,6 +154,7 @@ public class WebSocketDemoHandler implements DGHandler {
 
         int seq = 0;
         for (String sym : symbols) {
+            if (stopped) break;
             double basePrice = basePrices.getOrDefault(sym, 100.0 + rng.nextDouble(200));
             double price = basePrice;
             for (int i = 0; i < ticksPerSymbol; i++) {
@@ -166,6 +171,8 @@ public class WebSocketDemoHandler implements DGHandler {
                 tick.put("ask", Math.round((price + rng.nextDouble(0.5)) * 100.0) / 100.0);
                 tick.put("timestamp", Instant.now().plusMillis(seq * 10L).toString());
                 ticks.add(tick);
+                updateSink.accept(DGResponse.streamingUpdate(request.getRequestId(), new LinkedHashMap<>(tick), seq));
+                if (tickIntervalMs > 0) Thread.sleep(tickIntervalMs);
             }
         }
 
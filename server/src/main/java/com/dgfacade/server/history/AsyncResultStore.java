@@ -0,0 +1,339 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.history;
+
+import com.dgfacade.common.model.DGResponse;
+import com.dgfacade.common.util.JsonUtil;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Results of requests submitted asynchronously, held until the client collects them.
+ *
+ * <p>A ticket is registered when the request is submitted and completes with the request's
+ * response. Completed results stay in memory up to {@code maxInMemory}; beyond that the
+ * oldest are spilled as compact JSON to append-only, memory-mapped segment files in
+ * {@code dir} (without a {@code dir} they are dropped instead). Every result expires
+ * {@code ttl} after completion, and the segment files together never exceed
+ * {@code maxDiskBytes} — the oldest segment is dropped first. Spilled results are replayed
+ * on startup; tickets still pending at shutdown are lost.</p>
+ *
+ * <p>Reads never block: {@link #await} hands out a future the caller can wait on with its
+ * own timeout, so a long poll holds no thread.</p>
+ */
+public class AsyncResultStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncResultStore.class);
+
+    private static final ObjectReader RESPONSE_READER = JsonUtil.mapper()
+            .readerFor(DGResponse.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final class Ticket {
+        final String id;
+        final long submittedMs;
+        final CompletableFuture<DGResponse> done = new CompletableFuture<>();
+        volatile long completedMs;            // 0 while pending
+        volatile DGResponse response;         // in-memory result; null once spilled
+        volatile HistorySegment segment;      // set once spilled
+        volatile int offset;
+
+        Ticket(String id, long submittedMs) {
+            this.id = id;
+            this.submittedMs = submittedMs;
+        }
+    }
+
+    private final int maxInMemory;
+    private final long ttlMs;
+    private final Path dir;                   // null = memory only
+    private final int segmentBytes;
+    private final long maxDiskBytes;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    /** Completed tickets by completion time: in memory, then spilled. */
+    private final Queue<Ticket> inMemory = new ConcurrentLinkedQueue<>();
+    private final Queue<Ticket> spilled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inMemoryCount = new AtomicInteger();
+    private final AtomicInteger spilledCount = new AtomicInteger();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final List<HistorySegment> segments = new CopyOnWriteArrayList<>();
+    private HistorySegment active;            // guarded by this
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "dgf-async-results");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param maxInMemory  completed results kept in memory before the oldest are spilled
+     * @param ttl          results are deleted this long after completion
+     * @param dir          segment directory; null drops results beyond {@code maxInMemory}
+     * @param segmentBytes size of each memory-mapped segment file
+     * @param maxDiskBytes bound on all segment files together
+     */
+    public AsyncResultStore(int maxInMemory, Duration ttl, Path dir, int segmentBytes, long maxDiskBytes) {
+        this.maxInMemory = Math.max(1, maxInMemory);
+        this.ttlMs = ttl.toMillis();
+        this.dir = dir;
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        this.maxDiskBytes = Math.max(this.segmentBytes, maxDiskBytes);
+        if (dir != null) recover();
+        sweeper.scheduleWithFixedDelay(this::expireSafely, 10, 10, TimeUnit.SECONDS);
+    }
+
+    /** Memory-only store: 10 000 results for one hour. */
+    public AsyncResultStore() {
+        this(10_000, Duration.ofHours(1), null, 16 * 1024 * 1024, 1024L * 1024 * 1024);
+    }
+
+    // ─── Writes ──────────────────────────────────────────────────────────
+
+    /**
+     * Register a ticket and start its execution. The supplier runs only if the id is new.
+     *
+     * @return the PENDING ticket, or null if a ticket with this id already exists
+     */
+    public AsyncTicket register(String id, Supplier<CompletableFuture<DGResponse>> execution) {
+        Ticket ticket = new Ticket(id, System.currentTimeMillis());
+        if (tickets.putIfAbsent(id, ticket) != null) return null;
+        pendingCount.incrementAndGet();
+        CompletableFuture<DGResponse> future;
+        try {
+            future = execution.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, error) -> complete(ticket, response != null ? response
+                : DGResponse.error(id, "Internal error: " + (error != null ? error.getMessage() : "no response"))));
+        return describe(ticket);
+    }
+
+    private void complete(Ticket ticket, DGResponse response) {
+        ticket.response = response;
+        ticket.completedMs = System.currentTimeMillis();
+        pendingCount.decrementAndGet();
+        inMemory.add(ticket);
+        inMemoryCount.incrementAndGet();
+        ticket.done.complete(response);
+        if (inMemoryCount.get() > maxInMemory) spill();
+    }
+
+    /** Move the oldest in-memory results to disk (or drop them) until the memory bound holds. */
+    private synchronized void spill() {
+        Ticket ticket;
+        while (inMemoryCount.get() > maxInMemory && (ticket = inMemory.poll()) != null) {
+            inMemoryCount.decrementAndGet();
+            if (tickets.get(ticket.id) != ticket) continue;   // already expired
+            if (dir == null || !writeSegment(ticket)) {
+                tickets.remove(ticket.id, ticket);
+                continue;
+            }
+            spilled.add(ticket);
+            spilledCount.incrementAndGet();
+            ticket.response = null;
+        }
+    }
+
+    /** Record layout: {@code [long completedMs][response JSON]}. */
+    private boolean writeSegment(Ticket ticket) {
+        try {
+            byte[] json = JsonUtil.responseWriter().writeValueAsBytes(ticket.response);
+            byte[] body = ByteBuffer.allocate(Long.BYTES + json.length)
+                    .putLong(ticket.completedMs).put(json).array();
+            int offset = active != null ? active.append(body, ticket.completedMs) : -1;
+            if (offset < 0) {
+                rollSegment();
+                offset = active.append(body, ticket.completedMs);
+            }
+            if (offset < 0) {
+                log.warn("Async result {} ({} bytes) exceeds the segment size", ticket.id, body.length);
+                return false;
+            }
+            ticket.segment = active;
+            ticket.offset = offset;
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to spill async result {}: {}", ticket.id, e.getMessage());
+            return false;
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        Path path = dir.resolve(String.format("results-%013d.seg", System.currentTimeMillis()));
+        while (Files.exists(path)) {
+            path = dir.resolve(String.format("results-%013d.seg", System.currentTimeMillis() + 1));
+        }
+        active = HistorySegment.create(path, segmentBytes);
+        segments.add(active);
+        // Disk bound: drop the oldest segments (and the results in them) beyond maxDiskBytes
+        while ((long) segments.size() * segmentBytes > maxDiskBytes && segments.size() > 1) {
+            dropSegment(segments.get(0));
+        }
+    }
+
+    private void dropSegment(HistorySegment segment) {
+        Ticket head;
+        while ((head = spilled.peek()) != null && head.segment == segment) {
+            spilled.poll();
+            spilledCount.decrementAndGet();
+            tickets.remove(head.id, head);
+        }
+        segments.remove(segment);
+        try {
+            segment.delete();
+            log.info("Deleted async result segment {}", segment.getPath().getFileName());
+        } catch (IOException e) {
+            log.warn("Failed to delete async result segment {}: {}", segment.getPath(), e.getMessage());
+        }
+    }
+
+    private void expireSafely() {
+        try {
+            expire();
+        } catch (RuntimeException e) {
+            log.warn("Async result expiry failed: {}", e.getMessage());
+        }
+    }
+
+    /** Delete results (and whole segments) completed more than {@code ttl} ago. */
+    synchronized void expire() {
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        Ticket head;
+        while ((head = inMemory.peek()) != null && head.completedMs < cutoff) {
+            inMemory.poll();
+            inMemoryCount.decrementAndGet();
+            tickets.remove(head.id, head);
+        }
+        while ((head = spilled.peek()) != null && head.completedMs < cutoff) {
+            spilled.poll();
+            spilledCount.decrementAndGet();
+            tickets.remove(head.id, head);
+        }
+        for (HistorySegment segment : segments) {
+            if (segment != active && segment.getNewestTimeMs() < cutoff) dropSegment(segment);
+        }
+    }
+
+    /** Re-index the results spilled by a previous run. */
+    private void recover() {
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(dir)) {
+                files = list.filter(p -> p.getFileName().toString().endsWith(".seg")).sorted().toList();
+            }
+            long cutoff = System.currentTimeMillis() - ttlMs;
+            for (Path file : files) {
+                HistorySegment segment = HistorySegment.open(file);
+                segment.forEach((body, offset) -> {
+                    long completedMs = ByteBuffer.wrap(body).getLong();
+                    segment.noteTime(completedMs);
+                    if (completedMs < cutoff) return;
+                    try {
+                        DGResponse response = RESPONSE_READER.readValue(body, Long.BYTES, body.length - Long.BYTES);
+                        Ticket ticket = new Ticket(response.getRequestId(), completedMs);
+                        ticket.completedMs = completedMs;
+                        ticket.segment = segment;
+                        ticket.offset = offset;
+                        ticket.done.complete(response);
+                        tickets.put(ticket.id, ticket);
+                        spilled.add(ticket);
+                        spilledCount.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Skipping unreadable async result in {}: {}", file.getFileName(), e.getMessage());
+                    }
+                });
+                segments.add(segment);
+            }
+            expire();
+            log.info("Async results: {} result(s) recovered from {} segment(s) in {}",
+                    spilledCount.get(), files.size(), dir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open async result directory " + dir, e);
+        }
+    }
+
+    // ─── Reads ───────────────────────────────────────────────────────────
+
+    /** Ticket status, or empty if the id is unknown or its result expired. */
+    public Optional<AsyncTicket> ticket(String id) {
+        Ticket ticket = tickets.get(id);
+        return ticket != null ? Optional.of(describe(ticket)) : Optional.empty();
+    }
+
+    /**
+     * The result of a ticket: already complete if it is done, otherwise a future that completes
+     * with it. Returns null if the id is unknown or the result expired. Completing the returned
+     * future has no effect on the store.
+     */
+    public CompletableFuture<DGResponse> await(String id) {
+        Ticket ticket = tickets.get(id);
+        if (ticket == null) return null;
+        if (ticket.completedMs == 0) return ticket.done.copy();
+        DGResponse response = ticket.response;
+        if (response != null) return CompletableFuture.completedFuture(response);
+        HistorySegment segment = ticket.segment;
+        if (segment == null) return CompletableFuture.completedFuture(ticket.done.join());  // spill in progress
+        try {
+            byte[] body = segment.read(ticket.offset);
+            return CompletableFuture.completedFuture(
+                    RESPONSE_READER.readValue(body, Long.BYTES, body.length - Long.BYTES));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unreadable async result {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private static AsyncTicket describe(Ticket ticket) {
+        long completedMs = ticket.completedMs;
+        return new AsyncTicket(ticket.id,
+                completedMs == 0 ? AsyncTicket.PENDING : AsyncTicket.COMPLETED,
+                Instant.ofEpochMilli(ticket.submittedMs),
+                completedMs == 0 ? null : Instant.ofEpochMilli(completedMs));
+    }
+
+    public int getPendingCount() { return pendingCount.get(); }
+    public int getInMemoryCount() { return inMemoryCount.get(); }
+    public int getSpilledCount() { return spilledCount.get(); }
+    public boolean isPersistent() { return dir != null; }
+
+    /** Spills every completed in-memory result first, so a restart keeps them. */
+    @Override
+    public synchronized void close() {
+        sweeper.shutdownNow();
+        if (dir != null) {
+            Ticket ticket;
+            while ((ticket = inMemory.poll()) != null) {
+                inMemoryCount.decrementAndGet();
+                if (tickets.get(ticket.id) == ticket && writeSegment(ticket)) ticket.response = null;
+            }
+        }
+        for (HistorySegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.debug("Failed to close async result segment {}: {}", segment.getPath(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.history;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/** Receipt for an asynchronously submitted request; the ticket id is the request id. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AsyncTicket(@JsonProperty("ticket_id") String ticketId,
+                          @JsonProperty("status") String status,
+                          @JsonProperty("submitted_at") Instant submittedAt,
+                          @JsonProperty("completed_at") Instant completedAt) {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.history;
+
+import com.dgfacade.common.model.HandlerState;
+import com.dgfacade.common.util.JsonUtil;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Queryable history of handler executions.
+ *
+ * <p><b>Hot tier</b> — every {@link HandlerState} is added at submit and stays in memory,
+ * live and mutable, until it has finished and the tier holds more than {@code hotMaxEntries}
+ * or the state is older than {@code hotMaxAge}. <b>Cold tier</b> — a background task then
+ * spills it as compact JSON to an append-only, memory-mapped segment file in {@code dir}.
+ * Only a small index entry stays in memory. Segments are replayed on startup, and those
+ * entirely older than {@code retention} are deleted. With no {@code dir}, spilled states
+ * are simply dropped.</p>
+ *
+ * <p>Both tiers are indexed by handler id and request id (hash lookups), and by time, request
+ * type and user in sorted maps, so filtered, paginated queries walk only matching entries,
+ * newest first, and stop once the page is full.</p>
+ */
+public class ExecutionHistoryStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionHistoryStore.class);
+
+    private static final ObjectReader RECORD_READER = JsonUtil.mapper()
+            .readerFor(SpilledState.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectReader STATE_READER = JsonUtil.mapper()
+            .readerFor(HandlerState.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final Set<HandlerState.Phase> FINISHED = EnumSet.of(HandlerState.Phase.COMPLETED,
+            HandlerState.Phase.FAILED, HandlerState.Phase.TIMED_OUT, HandlerState.Phase.STOPPED);
+
+    /** Sort key: queue time, then an insertion sequence to keep keys unique. */
+    private record TimeKey(long timeMs, long seq) implements Comparable<TimeKey> {
+        @Override
+        public int compareTo(TimeKey o) {
+            int c = Long.compare(timeMs, o.timeMs);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+
+    /**
+     * A spilled record: the state plus its captured request/response JSON, which
+     * {@link HandlerState} itself does not serialize.
+     */
+    private record SpilledState(HandlerState state, String requestJson, String responseJson) {}
+
+    /** A hot-tier state with its sort key. */
+    private record Hot(TimeKey key, HandlerState state) {}
+
+    /** In-memory index entry for a spilled state. */
+    private record Ref(TimeKey key, String handlerId, String requestId, String requestType,
+                       String userId, String status, HistorySegment segment, int offset) {}
+
+    private final int hotMaxEntries;
+    private final long hotMaxAgeMs;
+    private final Path dir;                 // null = memory only
+    private final long retentionMs;
+    private final int segmentBytes;
+
+    // Hot tier
+    private final Map<String, Hot> hotById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<TimeKey, HandlerState> hotByTime = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<TimeKey, HandlerState>> hotByType = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<TimeKey, HandlerState>> hotByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger hotCount = new AtomicInteger();
+
+    // Cold tier
+    private final Map<String, Ref> coldById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<TimeKey, Ref> coldByTime = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<TimeKey, Ref>> coldByType = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<TimeKey, Ref>> coldByUser = new ConcurrentHashMap<>();
+    private final List<HistorySegment> segments = new CopyOnWriteArrayList<>();
+    private HistorySegment active;          // spill thread only
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Both tiers
+    private final Map<String, String> handlerByRequestId = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService spiller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "dgf-history-spill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param hotMaxEntries states kept live in memory before spilling the oldest
+     * @param hotMaxAge     finished states older than this are spilled regardless of count
+     * @param dir           segment directory; null keeps history in memory only
+     * @param retention     spilled history older than this is deleted
+     * @param segmentBytes  size of each memory-mapped segment file
+     */
+    public ExecutionHistoryStore(int hotMaxEntries, Duration hotMaxAge, Path dir,
+                                 Duration retention, int segmentBytes) {
+        this.hotMaxEntries = Math.max(1, hotMaxEntries);
+        this.hotMaxAgeMs = hotMaxAge.toMillis();
+        this.dir = dir;
+        this.retentionMs = retention.toMillis();
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        if (dir != null) recover();
+        spiller.scheduleWithFixedDelay(this::spillSafely, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /** Memory-only store with the default hot tier (10 000 entries, 15 minutes). */
+    public ExecutionHistoryStore() {
+        this(10_000, Duration.ofMinutes(15), null, Duration.ofDays(7), 64 * 1024 * 1024);
+    }
+
+    // ─── Writes ──────────────────────────────────────────────────────────
+
+    /** Record a new execution (at submit); the state keeps updating in place while hot. */
+    public void add(HandlerState state) {
+        TimeKey key = new TimeKey(timeOf(state), sequence.incrementAndGet());
+        hotById.put(state.getHandlerId(), new Hot(key, state));
+        hotByTime.put(key, state);
+        if (state.getRequestType() != null) {
+            hotByType.computeIfAbsent(state.getRequestType(), k -> new ConcurrentSkipListMap<>()).put(key, state);
+        }
+        if (state.getUserId() != null) {
+            hotByUser.computeIfAbsent(state.getUserId(), k -> new ConcurrentSkipListMap<>()).put(key, state);
+        }
+        hotCount.incrementAndGet();
+        if (state.getRequestId() != null) handlerByRequestId.put(state.getRequestId(), state.getHandlerId());
+    }
+
+    private void spillSafely() {
+        try {
+            spill();
+        } catch (RuntimeException e) {
+            log.warn("Execution history spill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move finished states out of the hot tier (oldest first), then apply retention to the cold
+     * tier. States still running are skipped, so the hot tier may briefly exceed its count.
+     */
+    synchronized void spill() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<TimeKey, HandlerState> oldest : hotByTime.entrySet()) {
+            HandlerState head = oldest.getValue();
+            boolean overCount = hotCount.get() > hotMaxEntries;
+            boolean overAge = oldest.getKey().timeMs() < now - hotMaxAgeMs;
+            if (!overCount && !overAge) break;
+            // A running state is still changing: it stays live until it finishes
+            if (!FINISHED.contains(head.getPhase())) continue;
+            // Index the cold copy before dropping the hot one so lookups never miss
+            if (dir == null || !writeCold(head)) {
+                if (head.getRequestId() != null) handlerByRequestId.remove(head.getRequestId(), head.getHandlerId());
+            }
+            removeHot(new Hot(oldest.getKey(), head));
+        }
+        if (dir != null) expireCold(now - retentionMs);
+    }
+
+    private void removeHot(Hot hot) {
+        HandlerState state = hot.state();
+        hotById.remove(state.getHandlerId(), hot);
+        hotByTime.remove(hot.key());
+        if (state.getRequestType() != null) removeFrom(hotByType, state.getRequestType(), hot.key());
+        if (state.getUserId() != null) removeFrom(hotByUser, state.getUserId(), hot.key());
+        hotCount.decrementAndGet();
+    }
+
+    private boolean writeCold(HandlerState state) {
+        try {
+            byte[] body = JsonUtil.mapper().writeValueAsBytes(
+                    new SpilledState(state, state.getRequestJson(), state.getResponseJson()));
+            long timeMs = timeOf(state);
+            int offset = active.append(body, timeMs);
+            if (offset < 0) {
+                rollSegment();
+                offset = active.append(body, timeMs);
+            }
+            if (offset < 0) {
+                log.warn("History record for {} ({} bytes) exceeds the segment size", state.getHandlerId(), body.length);
+                return false;
+            }
+            index(state, active, offset);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to spill history for {}: {}", state.getHandlerId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void index(HandlerState state, HistorySegment segment, int offset) {
+        Ref ref = new Ref(new TimeKey(timeOf(state), sequence.incrementAndGet()), state.getHandlerId(),
+                state.getRequestId(), state.getRequestType(), state.getUserId(), state.getStatus(), segment, offset);
+        coldById.put(ref.handlerId(), ref);
+        coldByTime.put(ref.key(), ref);
+        if (ref.requestType() != null) {
+            coldByType.computeIfAbsent(ref.requestType(), k -> new ConcurrentSkipListMap<>()).put(ref.key(), ref);
+        }
+        if (ref.userId() != null) {
+            coldByUser.computeIfAbsent(ref.userId(), k -> new ConcurrentSkipListMap<>()).put(ref.key(), ref);
+        }
+        if (ref.requestId() != null) handlerByRequestId.put(ref.requestId(), ref.handlerId());
+    }
+
+    private void expireCold(long cutoffMs) {
+        Map.Entry<TimeKey, Ref> oldest;
+        while ((oldest = coldByTime.firstEntry()) != null && oldest.getKey().timeMs() < cutoffMs) {
+            Ref ref = oldest.getValue();
+            coldByTime.remove(ref.key());
+            coldById.remove(ref.handlerId(), ref);
+            if (ref.requestType() != null) removeFrom(coldByType, ref.requestType(), ref.key());
+            if (ref.userId() != null) removeFrom(coldByUser, ref.userId(), ref.key());
+            if (ref.requestId() != null) handlerByRequestId.remove(ref.requestId(), ref.handlerId());
+        }
+        for (HistorySegment segment : segments) {
+            if (segment != active && segment.getNewestTimeMs() < cutoffMs) {
+                segments.remove(segment);
+                try {
+                    segment.delete();
+                    log.info("Deleted expired history segment {}", segment.getPath().getFileName());
+                } catch (IOException e) {
+                    log.warn("Failed to delete history segment {}: {}", segment.getPath(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static <V> void removeFrom(Map<String, ConcurrentSkipListMap<TimeKey, V>> index, String key, TimeKey timeKey) {
+        ConcurrentSkipListMap<TimeKey, V> map = index.get(key);
+        if (map != null) map.remove(timeKey);
+    }
+
+    private void rollSegment() throws IOException {
+        Path path = dir.resolve(String.format("history-%013d-%06d.seg",
+                System.currentTimeMillis(), sequence.get() % 1_000_000));
+        active = HistorySegment.create(path, segmentBytes);
+        segments.add(active);
+    }
+
+    /** Rebuild the cold-tier index from the segment files left by a previous run. */
+    private void recover() {
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(dir)) {
+                files = list.filter(p -> p.getFileName().toString().endsWith(".seg")).sorted().toList();
+            }
+            for (Path file : files) {
+                HistorySegment segment = HistorySegment.open(file);
+                segment.forEach((body, offset) -> {
+                    try {
+                        HandlerState state = decode(body);
+                        if (state == null) return;
+                        segment.noteTime(timeOf(state));
+                        index(state, segment, offset);
+                    } catch (IOException e) {
+                        log.debug("Skipping unreadable history record in {}: {}", file.getFileName(), e.getMessage());
+                    }
+                });
+                segments.add(segment);
+            }
+            int recovered = coldById.size();
+            // Keep appending to the last segment; writeCold rolls a new one once it is full
+            if (segments.isEmpty()) rollSegment();
+            else active = segments.get(segments.size() - 1);
+            expireCold(System.currentTimeMillis() - retentionMs);
+            log.info("Execution history: {} record(s) recovered from {} segment(s) in {}", recovered, files.size(), dir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open execution history directory " + dir, e);
+        }
+    }
+
+    // ─── Reads ───────────────────────────────────────────────────────────
+
+    public Optional<HandlerState> findByHandlerId(String handlerId) {
+        Hot hot = hotById.get(handlerId);
+        if (hot != null) return Optional.of(hot.state());
+        Ref ref = coldById.get(handlerId);
+        return ref != null ? Optional.ofNullable(load(ref)) : Optional.empty();
+    }
+
+    public Optional<HandlerState> findByRequestId(String requestId) {
+        String handlerId = handlerByRequestId.get(requestId);
+        return handlerId != null ? findByHandlerId(handlerId) : Optional.empty();
+    }
+
+    /** Filtered page of executions from both tiers, newest first. */
+    public HistoryPage query(HistoryQuery q) {
+        long fromMs = q.from() != null ? q.from().toEpochMilli() : Long.MIN_VALUE;
+        long toMs = q.to() != null ? q.to().toEpochMilli() : Long.MAX_VALUE;
+
+        // Narrowest index of each tier for the filters, restricted to the time range
+        Iterator<HandlerState> hot = newestFirst(narrowest(q, hotByTime, hotByType, hotByUser), fromMs, toMs);
+        Iterator<Ref> cold = newestFirst(narrowest(q, coldByTime, coldByType, coldByUser), fromMs, toMs);
+
+        // Merge the two newest-first streams
+        List<HandlerState> items = new ArrayList<>(q.limit());
+        int skipped = 0;
+        HandlerState nextHot = nextMatching(hot, s -> matches(q, s.getRequestType(), s.getUserId(), s.getStatus()));
+        Ref nextCold = nextMatching(cold, r -> matches(q, r.requestType(), r.userId(), r.status()));
+        boolean hasMore = false;
+        while (nextHot != null || nextCold != null) {
+            boolean takeHot = nextCold == null
+                    || (nextHot != null && timeOf(nextHot) >= nextCold.key().timeMs());
+            HandlerState candidate = takeHot ? nextHot : null;
+            Ref ref = takeHot ? null : nextCold;
+            if (takeHot) nextHot = nextMatching(hot, s -> matches(q, s.getRequestType(), s.getUserId(), s.getStatus()));
+            else nextCold = nextMatching(cold, r -> matches(q, r.requestType(), r.userId(), r.status()));
+            if (skipped < q.offset()) {
+                skipped++;
+                continue;
+            }
+            if (items.size() == q.limit()) {
+                hasMore = true;
+                break;
+            }
+            if (candidate == null) candidate = load(ref);
+            if (candidate != null) items.add(candidate);
+        }
+        return new HistoryPage(items, q.offset(), q.limit(), hasMore);
+    }
+
+    private static <V> ConcurrentSkipListMap<TimeKey, V> narrowest(HistoryQuery q, ConcurrentSkipListMap<TimeKey, V> byTime,
+            Map<String, ConcurrentSkipListMap<TimeKey, V>> byType, Map<String, ConcurrentSkipListMap<TimeKey, V>> byUser) {
+        if (q.requestType() != null) return byType.getOrDefault(q.requestType(), new ConcurrentSkipListMap<>());
+        if (q.userId() != null) return byUser.getOrDefault(q.userId(), new ConcurrentSkipListMap<>());
+        return byTime;
+    }
+
+    private static <V> Iterator<V> newestFirst(ConcurrentSkipListMap<TimeKey, V> index, long fromMs, long toMs) {
+        return index.subMap(new TimeKey(fromMs, Long.MIN_VALUE), true, new TimeKey(toMs, Long.MIN_VALUE), false)
+                .descendingMap().values().iterator();
+    }
+
+    private static <V> V nextMatching(Iterator<V> it, Predicate<V> filter) {
+        while (it.hasNext()) {
+            V next = it.next();
+            if (filter.test(next)) return next;
+        }
+        return null;
+    }
+
+    private static boolean matches(HistoryQuery q, String requestType, String userId, String status) {
+        return (q.requestType() == null || q.requestType().equals(requestType))
+                && (q.userId() == null || q.userId().equals(userId))
+                && (q.status() == null || q.status().equalsIgnoreCase(status));
+    }
+
+    private HandlerState load(Ref ref) {
+        try {
+            return decode(ref.segment().read(ref.offset()));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unreadable history record for {}: {}", ref.handlerId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /** Read a spilled record; segments written before request/response capture hold a bare state. */
+    private static HandlerState decode(byte[] body) throws IOException {
+        JsonNode node = JsonUtil.mapper().readTree(body);
+        if (!node.has("state")) return STATE_READER.readValue(node);
+        SpilledState record = RECORD_READER.readValue(node);
+        HandlerState state = record.state();
+        if (state != null) {
+            state.setRequestJson(record.requestJson());
+            state.setResponseJson(record.responseJson());
+        }
+        return state;
+    }
+
+    private static long timeOf(HandlerState state) {
+        return state.getQueuedAt() != null ? state.getQueuedAt().toEpochMilli() : 0L;
+    }
+
+    public int getHotCount() { return hotCount.get(); }
+    public int getSpilledCount() { return coldById.size(); }
+    public int getSegmentCount() { return segments.size(); }
+    public boolean isPersistent() { return dir != null; }
+
+    /** Spills the whole hot tier first, so a restart loses nothing. */
+    @Override
+    public synchronized void close() {
+        spiller.shutdownNow();
+        if (dir != null) {
+            for (HandlerState state : hotByTime.values()) {
+                writeCold(state);
+                Hot hot = hotById.get(state.getHandlerId());
+                if (hot != null) removeHot(hot);
+            }
+        }
+        for (HistorySegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.debug("Failed to close history segment {}: {}", segment.getPath(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.history;
+
+import com.dgfacade.common.model.HandlerState;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/** One page of {@link ExecutionHistoryStore#query} results, newest first. */
+public record HistoryPage(@JsonProperty("items") List<HandlerState> items,
+                          @JsonProperty("offset") int offset,
+                          @JsonProperty("limit") int limit,
+                          @JsonProperty("has_more") boolean hasMore) {}
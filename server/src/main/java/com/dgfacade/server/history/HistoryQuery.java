@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.history;
+
+import java.time.Instant;
+
+/**
+ * Filter and page for {@link ExecutionHistoryStore#query}. Null filters match everything;
+ * {@code from} is inclusive and {@code to} exclusive, both on the time the request was queued.
+ * Results are newest first.
+ *
+ * @param status a {@code HandlerState} status such as COMPLETED, FAILED or TIMED_OUT
+ */
+public record HistoryQuery(String requestType, String userId, String status,
+                           Instant from, Instant to, int offset, int limit) {
+
+    public static final int MAX_LIMIT = 1000;
+
+    public HistoryQuery {
+        offset = Math.max(0, offset);
+        limit = Math.min(Math.max(1, limit), MAX_LIMIT);
+    }
+
+    public static HistoryQuery latest(int limit) {
+        return new HistoryQuery(null, null, null, null, null, 0, limit);
+    }
+}
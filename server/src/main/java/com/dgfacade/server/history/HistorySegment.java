@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2025-2030, All Rights Reserved
+ * Ashutosh Sinha | Email: ajsinha@gmail.com
+ * Proprietary and confidential.
+ */
+package com.dgfacade.server.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * One append-only, memory-mapped history segment file.
+ *
+ * <p>Records are laid out back to back as {@code [int length][length bytes]}. The length is
+ * written after the body, so a record is only visible to a recovery scan once complete; the
+ * zero-filled tail of the mapping marks the end of the segment.</p>
+ */
+final class HistorySegment implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int position;                 // guarded by this
+    private volatile long newestTimeMs;
+
+    private HistorySegment(Path path, int capacity) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.capacity = (int) Math.max(capacity, channel.size());
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+    }
+
+    static HistorySegment create(Path path, int capacity) throws IOException {
+        return new HistorySegment(path, capacity);
+    }
+
+    /** Open an existing segment; appends continue after its last complete record. */
+    static HistorySegment open(Path path) throws IOException {
+        HistorySegment segment = new HistorySegment(path, (int) Files.size(path));
+        synchronized (segment) {
+            int pos = 0;
+            while (pos + Integer.BYTES <= segment.capacity) {
+                int length = segment.buffer.getInt(pos);
+                if (length <= 0 || pos + Integer.BYTES + length > segment.capacity) break;
+                pos += Integer.BYTES + length;
+            }
+            segment.position = pos;
+        }
+        return segment;
+    }
+
+    /** Replay every complete record as (body, offset). */
+    void forEach(ObjIntConsumer<byte[]> visitor) {
+        int end = getPosition();
+        for (int pos = 0; pos < end; ) {
+            byte[] body = read(pos);
+            visitor.accept(body, pos);
+            pos += Integer.BYTES + body.length;
+        }
+    }
+
+    /** @return the record's offset, or -1 if the segment has no room for it */
+    synchronized int append(byte[] body, long timeMs) {
+        if (position + Integer.BYTES + body.length > capacity) return -1;
+        int offset = position;
+        buffer.put(offset + Integer.BYTES, body);
+        buffer.putInt(offset, body.length);
+        position += Integer.BYTES + body.length;
+        if (timeMs > newestTimeMs) newestTimeMs = timeMs;
+        return offset;
+    }
+
+    /** Read the record at an offset returned by {@link #append}; absolute reads, safe alongside appends. */
+    byte[] read(int offset) {
+        int length = buffer.getInt(offset);
+        byte[] body = new byte[length];
+        buffer.get(offset + Integer.BYTES, body);
+        return body;
+    }
+
+    void noteTime(long timeMs) {
+        if (timeMs > newestTimeMs) newestTimeMs = timeMs;
+    }
+
+    long getNewestTimeMs() { return newestTimeMs; }
+    Path getPath() { return path; }
+    synchronized int getPosition() { return position; }
+    int getCapacity() { return capacity; }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+}
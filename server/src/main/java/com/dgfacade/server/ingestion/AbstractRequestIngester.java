@@ -84,7 +84,7 @@ public abstract class AbstractRequestIngester implements RequestIngester {
 
         DGRequest request;
         try {
-            request = JsonUtil.fromJson(jsonPayload, DGRequest.class);
+            request = JsonUtil.readRequest(jsonPayload);
         } catch (Exception e) {
             requestsRejected.incrementAndGet();
             log.warn("[{}] ✗ REJECTED #{} — malformed JSON from {}: {}", id, count, sourceDetail, e.getMessage());
@@ -109,6 +109,10 @@ public abstract class AbstractRequestIngester implements RequestIngester {
         }
         request.setSourceChannel(getType().name());
         request.setReceivedAt(Instant.now());
+        // Ingested traffic is bulk work: let interactive requests overtake it unless told otherwise
+        if (request.getPriority() == null) {
+            request.setPriority(DGRequest.PRIORITY_BATCH);
+        }
 
         log.info("[{}] ✓ VALIDATED #{} — requestId={}, type={}, apiKey={}",
                 id, count, request.getRequestId(), request.getRequestType(),
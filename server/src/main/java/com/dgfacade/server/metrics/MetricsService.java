@@ -7,6 +7,16 @@ package com.dgfacade.server.metrics;
 
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.Timer;
+import com.dgfacade.server.cache.ResponseCache;
+import com.dgfacade.server.config.HandlerPool;
+import com.dgfacade.server.engine.AdaptiveConcurrencyLimiter;
+import com.dgfacade.server.engine.ChainStepExecutor;
+import com.dgfacade.server.engine.MicroBatcher;
+import com.dgfacade.server.engine.OrderingLanes;
+import com.dgfacade.server.engine.StreamingDelivery;
+import com.dgfacade.server.handler.PDCHandler;
+import com.dgfacade.server.history.AsyncResultStore;
+import com.dgfacade.server.history.ExecutionHistoryStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,11 +40,15 @@ import java.util.function.Supplier;
  * <h3>Metric Catalogue</h3>
  * <table>
  *   <tr><th>Metric</th><th>Type</th><th>Tags</th></tr>
- *   <tr><td>dgfacade.requests.total</td><td>Counter</td><td>request_type, user, channel, status</td></tr>
+ *   <tr><td>dgfacade.requests.total</td><td>Counter</td><td>request_type, user, channel, status, cached</td></tr>
  *   <tr><td>dgfacade.requests.active</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.requests.limit</td><td>Gauge</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.requests.inflight</td><td>Gauge</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.requests.shed.total</td><td>FunctionCounter</td><td>request_type</td></tr>
  *   <tr><td>dgfacade.handler.execution.duration</td><td>Timer</td><td>request_type, handler_class, status</td></tr>
  *   <tr><td>dgfacade.handler.errors.total</td><td>Counter</td><td>request_type, error_type</td></tr>
  *   <tr><td>dgfacade.handler.timeouts.total</td><td>Counter</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.requests.expired.total</td><td>Counter</td><td>request_type, stage</td></tr>
  *   <tr><td>dgfacade.api.http.requests</td><td>Timer</td><td>method, uri, status</td></tr>
  *   <tr><td>dgfacade.users.active</td><td>Gauge</td><td>—</td></tr>
  *   <tr><td>dgfacade.apikeys.total</td><td>Gauge</td><td>—</td></tr>
@@ -43,6 +57,39 @@ import java.util.function.Supplier;
  *   <tr><td>dgfacade.channels.configured</td><td>Gauge</td><td>—</td></tr>
  *   <tr><td>dgfacade.handler.execution.payload_size</td><td>DistributionSummary</td><td>request_type</td></tr>
  *   <tr><td>dgfacade.uptime.seconds</td><td>TimeGauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.handler.pool.size</td><td>Gauge</td><td>owner, request_type</td></tr>
+ *   <tr><td>dgfacade.handler.pool.idle</td><td>Gauge</td><td>owner, request_type</td></tr>
+ *   <tr><td>dgfacade.handler.pool.borrow.wait</td><td>Timer</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.handler.pool.exhausted</td><td>Counter</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.supervisor.dispatch.latency</td><td>Timer</td><td>shard</td></tr>
+ *   <tr><td>dgfacade.supervisor.active</td><td>Gauge</td><td>shard</td></tr>
+ *   <tr><td>dgfacade.ordering.lanes.active</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.ordering.lanes.queued</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.ordering.rejected.total</td><td>FunctionCounter</td><td>—</td></tr>
+ *   <tr><td>dgfacade.cache.requests</td><td>Counter</td><td>request_type, result</td></tr>
+ *   <tr><td>dgfacade.cache.evictions</td><td>Counter</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.cache.size</td><td>Gauge</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.requests.coalesced.total</td><td>Counter</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.handler.batch.size</td><td>DistributionSummary</td><td>request_type, trigger</td></tr>
+ *   <tr><td>dgfacade.handler.batch.pending</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.history.entries</td><td>Gauge</td><td>tier</td></tr>
+ *   <tr><td>dgfacade.async.results</td><td>Gauge</td><td>state</td></tr>
+ *   <tr><td>dgfacade.streaming.open</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.streaming.updates.total</td><td>FunctionCounter</td><td>outcome</td></tr>
+ *   <tr><td>dgfacade.chain.steps.active</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.chain.steps.queued</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.chain.steps.utilization</td><td>Gauge</td><td>—</td></tr>
+ *   <tr><td>dgfacade.chain.steps.queue.wait</td><td>Timer</td><td>—</td></tr>
+ *   <tr><td>dgfacade.chain.steps.total</td><td>FunctionCounter</td><td>outcome</td></tr>
+ *   <tr><td>dgfacade.chain.steps.steals.total</td><td>FunctionCounter</td><td>—</td></tr>
+ *   <tr><td>dgfacade.pdc.forwarded.total</td><td>FunctionCounter</td><td>session, topic</td></tr>
+ *   <tr><td>dgfacade.pdc.lag.ms</td><td>Gauge</td><td>session, topic</td></tr>
+ *   <tr><td>dgfacade.pdc.pending</td><td>Gauge</td><td>session, topic</td></tr>
+ *   <tr><td>dgfacade.tenant.queue.depth</td><td>Gauge</td><td>user</td></tr>
+ *   <tr><td>dgfacade.tenant.queue.wait</td><td>Timer</td><td>user</td></tr>
+ *   <tr><td>dgfacade.tenant.dispatched.total</td><td>Counter</td><td>user</td></tr>
+ *   <tr><td>dgfacade.handler.queue.wait</td><td>Timer</td><td>request_type</td></tr>
+ *   <tr><td>dgfacade.handler.rejected.total</td><td>Counter</td><td>request_type, policy</td></tr>
  * </table>
  */
 public class MetricsService {
@@ -66,8 +113,23 @@ public class MetricsService {
     private final Map<String, Counter> requestCounters = new ConcurrentHashMap<>();
     private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
     private final Map<String, Counter> timeoutCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> expiredCounters = new ConcurrentHashMap<>();
     private final Map<String, Timer> executionTimers = new ConcurrentHashMap<>();
     private final Map<String, DistributionSummary> payloadSummaries = new ConcurrentHashMap<>();
+    private final Map<String, Timer> poolWaitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> poolExhaustedCounters = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> poolGauges = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> pdcSessionMeters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> dispatchTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> queueWaitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cacheCounters = new ConcurrentHashMap<>();
+    private final List<Meter> historyGauges = new ArrayList<>();
+    private final List<Meter> orderingGauges = new ArrayList<>();
+    private final List<Meter> chainStepMeters = new ArrayList<>();
+    private volatile Timer chainStepWaitTimer;
+    private final Map<String, Timer> tenantWaitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> tenantDispatchCounters = new ConcurrentHashMap<>();
 
     public MetricsService(MeterRegistry registry) {
         this.registry = registry;
@@ -109,41 +171,22 @@ public class MetricsService {
     // ─── Request Lifecycle ─────────────────────────────────────────────────
 
     /**
-     * Record the start of a request execution.
+     * Record the start of a request execution; {@code cached} when the response cache answers it.
      */
-    public void recordRequestStart(String requestType, String userId, String sourceChannel) {
+    public void recordRequestStart(String requestType, String userId, String sourceChannel, boolean cached) {
         activeRequests.incrementAndGet();
-
-        String key = requestType + "|" + userId + "|" + sourceChannel + "|submitted";
-        requestCounters.computeIfAbsent(key, k ->
-                Counter.builder("dgfacade.requests.total")
-                        .description("Total requests processed")
-                        .tag("request_type", requestType)
-                        .tag("user", userId != null ? userId : "unknown")
-                        .tag("channel", sourceChannel != null ? sourceChannel : "unknown")
-                        .tag("status", "submitted")
-                        .register(registry)
-        ).increment();
+        requestCounter(requestType, userId, sourceChannel, "submitted", cached).increment();
     }
 
     /**
-     * Record the successful completion of a request.
+     * Record the successful completion of a request. A cached response ran no handler, so it
+     * is counted but not timed.
      */
     public void recordRequestSuccess(String requestType, String userId, String sourceChannel,
-                                     String handlerClass, long durationMs) {
+                                     String handlerClass, long durationMs, boolean cached) {
         activeRequests.decrementAndGet();
-
-        // Status counter
-        String key = requestType + "|" + userId + "|" + sourceChannel + "|success";
-        requestCounters.computeIfAbsent(key, k ->
-                Counter.builder("dgfacade.requests.total")
-                        .description("Total requests processed")
-                        .tag("request_type", requestType)
-                        .tag("user", userId != null ? userId : "unknown")
-                        .tag("channel", sourceChannel != null ? sourceChannel : "unknown")
-                        .tag("status", "success")
-                        .register(registry)
-        ).increment();
+        requestCounter(requestType, userId, sourceChannel, "success", cached).increment();
+        if (cached) return;
 
         // Execution timer
         String timerKey = requestType + "|" + handlerClass + "|success";
@@ -167,16 +210,7 @@ public class MetricsService {
         activeRequests.decrementAndGet();
 
         // Status counter
-        String key = requestType + "|" + userId + "|" + sourceChannel + "|error";
-        requestCounters.computeIfAbsent(key, k ->
-                Counter.builder("dgfacade.requests.total")
-                        .description("Total requests processed")
-                        .tag("request_type", requestType)
-                        .tag("user", userId != null ? userId : "unknown")
-                        .tag("channel", sourceChannel != null ? sourceChannel : "unknown")
-                        .tag("status", "error")
-                        .register(registry)
-        ).increment();
+        requestCounter(requestType, userId, sourceChannel, "error", false).increment();
 
         // Error counter
         String errKey = requestType + "|" + errorType;
@@ -204,6 +238,20 @@ public class MetricsService {
         }
     }
 
+    private Counter requestCounter(String requestType, String userId, String sourceChannel,
+                                   String status, boolean cached) {
+        String key = requestType + "|" + userId + "|" + sourceChannel + "|" + status + "|" + cached;
+        return requestCounters.computeIfAbsent(key, k ->
+                Counter.builder("dgfacade.requests.total")
+                        .description("Total requests processed")
+                        .tag("request_type", requestType)
+                        .tag("user", userId != null ? userId : "unknown")
+                        .tag("channel", sourceChannel != null ? sourceChannel : "unknown")
+                        .tag("status", status)
+                        .tag("cached", String.valueOf(cached))
+                        .register(registry));
+    }
+
     /**
      * Record a timed-out request.
      */
@@ -218,6 +266,20 @@ public class MetricsService {
         ).increment();
     }
 
+    /**
+     * Record a request dropped because its deadline passed before execution.
+     * {@code stage} is {@code submit} (already late on arrival) or {@code queued}.
+     */
+    public void recordRequestExpired(String requestType, String stage) {
+        expiredCounters.computeIfAbsent(requestType + "|" + stage, k ->
+                Counter.builder("dgfacade.requests.expired.total")
+                        .description("Requests dropped because their deadline passed before execution")
+                        .tag("request_type", requestType)
+                        .tag("stage", stage)
+                        .register(registry)
+        ).increment();
+    }
+
     /**
      * Record the size of a request payload.
      */
@@ -231,6 +293,357 @@ public class MetricsService {
         ).record(sizeEstimate);
     }
 
+    // ─── Handler Pools ─────────────────────────────────────────────────
+
+    /**
+     * Register size/idle gauges for a handler pool. A pool rebuilt on config reload
+     * replaces the gauges of its predecessor.
+     */
+    public void registerHandlerPool(HandlerPool pool) {
+        String key = pool.getOwner() + "|" + pool.getRequestType();
+        List<Meter> previous = poolGauges.remove(key);
+        if (previous != null) previous.forEach(registry::remove);
+        List<Meter> meters = new ArrayList<>();
+        meters.add(Gauge.builder("dgfacade.handler.pool.size", pool, HandlerPool::getCreatedCount)
+                .description("Handler instances currently created in the pool")
+                .tag("owner", pool.getOwner())
+                .tag("request_type", pool.getRequestType())
+                .register(registry));
+        meters.add(Gauge.builder("dgfacade.handler.pool.idle", pool, HandlerPool::getIdleCount)
+                .description("Handler instances idle in the pool")
+                .tag("owner", pool.getOwner())
+                .tag("request_type", pool.getRequestType())
+                .register(registry));
+        poolGauges.put(key, meters);
+    }
+
+    /**
+     * Record a pool borrow attempt: the time spent waiting and whether an instance was obtained.
+     */
+    public void recordPoolBorrow(String requestType, long waitNanos, boolean obtained) {
+        poolWaitTimers.computeIfAbsent(requestType, k ->
+                Timer.builder("dgfacade.handler.pool.borrow.wait")
+                        .description("Time spent waiting to borrow a pooled handler instance")
+                        .tag("request_type", requestType)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry)
+        ).record(waitNanos, TimeUnit.NANOSECONDS);
+        if (!obtained) {
+            poolExhaustedCounters.computeIfAbsent(requestType, k ->
+                    Counter.builder("dgfacade.handler.pool.exhausted")
+                            .description("Borrows that found the pool exhausted and fell back to a transient instance")
+                            .tag("request_type", requestType)
+                            .register(registry)
+            ).increment();
+        }
+    }
+
+    // ─── Adaptive Concurrency Limits ───────────────────────────────────
+
+    /** Register the limit, in-flight and shed meters for one request type's adaptive limit. */
+    public void registerConcurrencyLimit(AdaptiveConcurrencyLimiter.Limit limit) {
+        Gauge.builder("dgfacade.requests.limit", limit, AdaptiveConcurrencyLimiter.Limit::getLimit)
+                .description("Current adaptive in-flight limit for the request type")
+                .tag("request_type", limit.getRequestType())
+                .register(registry);
+        Gauge.builder("dgfacade.requests.inflight", limit, AdaptiveConcurrencyLimiter.Limit::getInFlight)
+                .description("Requests of the type currently counted against its adaptive limit")
+                .tag("request_type", limit.getRequestType())
+                .register(registry);
+        FunctionCounter.builder("dgfacade.requests.shed.total", limit, AdaptiveConcurrencyLimiter.Limit::getShedCount)
+                .description("Requests shed with OVERLOADED because the type was at its adaptive limit")
+                .tag("request_type", limit.getRequestType())
+                .register(registry);
+    }
+
+    // ─── Bulkheads ─────────────────────────────────────────────────────
+
+    /**
+     * Record the time a request waited for a bulkhead slot before dispatch. Kept apart from
+     * {@code dgfacade.handler.execution.duration}, which starts at dispatch.
+     */
+    public void recordQueueWait(String requestType, long waitNanos) {
+        queueWaitTimers.computeIfAbsent(requestType, k ->
+                Timer.builder("dgfacade.handler.queue.wait")
+                        .description("Time a request waited for a bulkhead slot before dispatch")
+                        .tag("request_type", requestType)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry)
+        ).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Record a request refused because its bulkhead and queue were full. */
+    public void recordBulkheadRejected(String requestType, String policy) {
+        rejectedCounters.computeIfAbsent(requestType + "|" + policy, k ->
+                Counter.builder("dgfacade.handler.rejected.total")
+                        .description("Requests rejected by a full per-type bulkhead")
+                        .tag("request_type", requestType)
+                        .tag("policy", policy)
+                        .register(registry)
+        ).increment();
+    }
+
+    // ─── Response Cache & Single Flight ───────────────────────────────
+
+    /** Register the entry-count gauge for a request type's response cache(s). */
+    public void registerResponseCache(String requestType, ResponseCache cache) {
+        Gauge.builder("dgfacade.cache.size", cache, c -> c.sizeOf(requestType))
+                .description("Responses currently cached for the request type")
+                .tag("request_type", requestType)
+                .register(registry);
+    }
+
+    /** Record a response-cache lookup as a hit or a miss. */
+    public void recordCacheLookup(String requestType, boolean hit) {
+        String result = hit ? "hit" : "miss";
+        cacheCounters.computeIfAbsent(requestType + "|" + result, k ->
+                Counter.builder("dgfacade.cache.requests")
+                        .description("Response cache lookups by result")
+                        .tag("request_type", requestType)
+                        .tag("result", result)
+                        .register(registry)
+        ).increment();
+    }
+
+    /** Record a size-based eviction from a response cache. */
+    public void recordCacheEviction(String requestType) {
+        cacheCounters.computeIfAbsent(requestType + "|eviction", k ->
+                Counter.builder("dgfacade.cache.evictions")
+                        .description("Responses evicted from the cache by the W-TinyLFU policy")
+                        .tag("request_type", requestType)
+                        .register(registry)
+        ).increment();
+    }
+
+    /** Record a request answered by an identical in-flight execution instead of its own handler. */
+    public void recordRequestCoalesced(String requestType) {
+        cacheCounters.computeIfAbsent(requestType + "|coalesced", k ->
+                Counter.builder("dgfacade.requests.coalesced.total")
+                        .description("Requests that shared an identical in-flight execution (single flight)")
+                        .tag("request_type", requestType)
+                        .register(registry)
+        ).increment();
+    }
+
+    // ─── Micro-Batching ────────────────────────────────────────────────
+
+    /** Register the gauge of requests waiting on a micro-batch lane. */
+    public void registerMicroBatcher(MicroBatcher batcher) {
+        Gauge.builder("dgfacade.handler.batch.pending", batcher, MicroBatcher::getPendingCount)
+                .description("Requests waiting for their micro-batch to fill or linger out")
+                .register(registry);
+    }
+
+    /** Record one micro-batch flush and its size; trigger is {@code size} or {@code linger}. */
+    public void recordMicroBatch(String requestType, int size, String trigger) {
+        payloadSummaries.computeIfAbsent("batch|" + requestType + "|" + trigger, k ->
+                DistributionSummary.builder("dgfacade.handler.batch.size")
+                        .description("Requests per micro-batch handed to a batching handler")
+                        .tag("request_type", requestType)
+                        .tag("trigger", trigger)
+                        .publishPercentiles(0.5, 0.9, 0.99)
+                        .register(registry)
+        ).record(size);
+    }
+
+    // ─── Keyed Ordering Lanes ──────────────────────────────────────────
+
+    /** Register the gauges of the engine's keyed ordering lanes, replacing any previous set. */
+    public synchronized void registerOrderingLanes(OrderingLanes lanes) {
+        orderingGauges.forEach(registry::remove);
+        orderingGauges.clear();
+        orderingGauges.add(Gauge.builder("dgfacade.ordering.lanes.active", lanes, OrderingLanes::getActiveLaneCount)
+                .description("Ordering keys with a request in flight")
+                .register(registry));
+        orderingGauges.add(Gauge.builder("dgfacade.ordering.lanes.queued", lanes, OrderingLanes::getQueuedCount)
+                .description("Requests waiting behind an earlier request with the same ordering key")
+                .register(registry));
+        orderingGauges.add(FunctionCounter.builder("dgfacade.ordering.rejected.total", lanes, OrderingLanes::getRejectedCount)
+                .description("Requests rejected because their ordering lane or the lane table was full")
+                .register(registry));
+    }
+
+    // ─── Execution History ─────────────────────────────────────────────
+
+    /** (Re-)register the entry gauges of the engine's execution history store. */
+    public synchronized void registerHistoryStore(ExecutionHistoryStore store) {
+        historyGauges.forEach(registry::remove);
+        historyGauges.clear();
+        historyGauges.add(Gauge.builder("dgfacade.history.entries", store, ExecutionHistoryStore::getHotCount)
+                .description("Executions held in the execution history")
+                .tag("tier", "hot")
+                .register(registry));
+        historyGauges.add(Gauge.builder("dgfacade.history.entries", store, ExecutionHistoryStore::getSpilledCount)
+                .description("Executions held in the execution history")
+                .tag("tier", "spilled")
+                .register(registry));
+    }
+
+    /** Register the ticket gauges of the async result store (pending, completed in memory, spilled). */
+    public void registerAsyncResultStore(AsyncResultStore store) {
+        Gauge.builder("dgfacade.async.results", store, AsyncResultStore::getPendingCount)
+                .description("Asynchronously submitted requests by result state")
+                .tag("state", "pending")
+                .register(registry);
+        Gauge.builder("dgfacade.async.results", store, AsyncResultStore::getInMemoryCount)
+                .description("Asynchronously submitted requests by result state")
+                .tag("state", "memory")
+                .register(registry);
+        Gauge.builder("dgfacade.async.results", store, AsyncResultStore::getSpilledCount)
+                .description("Asynchronously submitted requests by result state")
+                .tag("state", "spilled")
+                .register(registry);
+    }
+
+    // ─── Streaming Delivery ────────────────────────────────────────────
+
+    /** Register the open-stream gauge and update counters of the engine's streaming delivery. */
+    public void registerStreamingDelivery(StreamingDelivery delivery) {
+        Gauge.builder("dgfacade.streaming.open", delivery, StreamingDelivery::getOpenStreamCount)
+                .description("Streaming executions with updates still buffered or being sent")
+                .register(registry);
+        FunctionCounter.builder("dgfacade.streaming.updates.total", delivery, StreamingDelivery::getDeliveredCount)
+                .description("Streaming handler updates by delivery outcome")
+                .tag("outcome", "delivered")
+                .register(registry);
+        FunctionCounter.builder("dgfacade.streaming.updates.total", delivery, StreamingDelivery::getDroppedCount)
+                .description("Streaming handler updates by delivery outcome")
+                .tag("outcome", "dropped")
+                .register(registry);
+    }
+
+    // ─── Chain Steps ───────────────────────────────────────────────────
+
+    /** Register the meters of the engine's chain step executor, replacing any previous set. */
+    public synchronized void registerChainStepExecutor(ChainStepExecutor executor) {
+        chainStepMeters.forEach(registry::remove);
+        chainStepMeters.clear();
+        chainStepMeters.add(Gauge.builder("dgfacade.chain.steps.active", executor, ChainStepExecutor::getActiveCount)
+                .description("Parallel and DAG chain steps currently running")
+                .register(registry));
+        chainStepMeters.add(Gauge.builder("dgfacade.chain.steps.queued", executor, ChainStepExecutor::getQueuedCount)
+                .description("Chain steps waiting for a thread of the chain step pool")
+                .register(registry));
+        chainStepMeters.add(Gauge.builder("dgfacade.chain.steps.utilization", executor, ChainStepExecutor::getUtilization)
+                .description("Running chain steps per chain step pool thread")
+                .register(registry));
+        chainStepMeters.add(FunctionCounter.builder("dgfacade.chain.steps.total", executor, ChainStepExecutor::getCompletedCount)
+                .description("Chain steps by scheduling outcome")
+                .tag("outcome", "completed")
+                .register(registry));
+        chainStepMeters.add(FunctionCounter.builder("dgfacade.chain.steps.total", executor, ChainStepExecutor::getCallerRunsCount)
+                .description("Chain steps by scheduling outcome")
+                .tag("outcome", "caller_runs")
+                .register(registry));
+        chainStepMeters.add(FunctionCounter.builder("dgfacade.chain.steps.total", executor, ChainStepExecutor::getTimedOutCount)
+                .description("Chain steps by scheduling outcome")
+                .tag("outcome", "timed_out")
+                .register(registry));
+        chainStepMeters.add(FunctionCounter.builder("dgfacade.chain.steps.steals.total", executor, ChainStepExecutor::getStealCount)
+                .description("Chain steps taken from another pool thread's queue")
+                .register(registry));
+    }
+
+    /** Record the time a chain step waited for a pool thread. */
+    public void recordChainStepQueueWait(long waitNanos) {
+        Timer timer = chainStepWaitTimer;
+        if (timer == null) {
+            timer = Timer.builder("dgfacade.chain.steps.queue.wait")
+                    .description("Time a parallel or DAG chain step waited for a pool thread")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            chainStepWaitTimer = timer;
+        }
+        timer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ─── PDC Sessions ──────────────────────────────────────────────────
+
+    /**
+     * Register the meters of one open PDC session, tagged with its request id; removed again
+     * by {@link #removePdcSession} so closed sessions leave no series behind.
+     */
+    public void registerPdcSession(String session, PDCHandler handler) {
+        removePdcSession(session);
+        String topic = String.valueOf(handler.getSubscribedTopic());
+        List<Meter> meters = new ArrayList<>();
+        meters.add(FunctionCounter.builder("dgfacade.pdc.forwarded.total", handler, PDCHandler::getMessagesPublished)
+                .description("Messages a PDC session has forwarded to its output topic")
+                .tag("session", session)
+                .tag("topic", topic)
+                .register(registry));
+        meters.add(Gauge.builder("dgfacade.pdc.lag.ms", handler, PDCHandler::getLastLagMs)
+                .description("Receipt-to-publish-acknowledgement lag of the session's last batch")
+                .tag("session", session)
+                .tag("topic", topic)
+                .register(registry));
+        meters.add(Gauge.builder("dgfacade.pdc.pending", handler, PDCHandler::getPendingOutbound)
+                .description("Messages received by the session and not yet acknowledged by the output broker")
+                .tag("session", session)
+                .tag("topic", topic)
+                .register(registry));
+        pdcSessionMeters.put(session, meters);
+    }
+
+    public void removePdcSession(String session) {
+        List<Meter> meters = pdcSessionMeters.remove(session);
+        if (meters != null) meters.forEach(registry::remove);
+    }
+
+    // ─── Tenant Fair Queuing ───────────────────────────────────────────
+
+    /** Register the queue-depth gauge of one tenant's lane in the handler pool's fair queue. */
+    public void registerTenantQueue(String user, AtomicInteger depth) {
+        Gauge.builder("dgfacade.tenant.queue.depth", depth, AtomicInteger::get)
+                .description("Handler tasks queued for this user in the blocking pool")
+                .tag("user", user)
+                .register(registry);
+    }
+
+    /**
+     * Record a task leaving a tenant's lane: its wait in the queue and, via the counter,
+     * the tenant's dispatch throughput.
+     */
+    public void recordTenantDispatch(String user, long waitNanos) {
+        tenantWaitTimers.computeIfAbsent(user, k ->
+                Timer.builder("dgfacade.tenant.queue.wait")
+                        .description("Time a handler task waited in its user's fair-queue lane")
+                        .tag("user", user)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry)
+        ).record(waitNanos, TimeUnit.NANOSECONDS);
+        tenantDispatchCounters.computeIfAbsent(user, k ->
+                Counter.builder("dgfacade.tenant.dispatched.total")
+                        .description("Handler tasks dispatched from this user's fair-queue lane")
+                        .tag("user", user)
+                        .register(registry)
+        ).increment();
+    }
+
+    // ─── Supervisor Shards ─────────────────────────────────────────────
+
+    /** Register the live-handler gauge for one supervisor shard. */
+    public void registerSupervisorShard(String shard, AtomicInteger activeCount) {
+        Gauge.builder("dgfacade.supervisor.active", activeCount, AtomicInteger::get)
+                .description("Handler actors currently alive under this supervisor shard")
+                .tag("shard", shard)
+                .register(registry);
+    }
+
+    /**
+     * Record the time a request spent between submit and its supervisor shard picking it up
+     * (mailbox wait + spawn overhead indicator).
+     */
+    public void recordSupervisorDispatch(String shard, long nanos) {
+        dispatchTimers.computeIfAbsent(shard, k ->
+                Timer.builder("dgfacade.supervisor.dispatch.latency")
+                        .description("Time from submit until the supervisor shard dispatches the request")
+                        .tag("shard", shard)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry)
+        ).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
     // ─── API HTTP Metrics ───────────────────────────────────────────────
 
     /**
@@ -8,12 +8,17 @@ package com.dgfacade.server.python;
 import com.dgfacade.common.model.DGRequest;
 import com.dgfacade.common.model.DGResponse;
 import com.dgfacade.common.util.JsonUtil;
-import com.dgfacade.server.handler.DGHandler;
+import com.dgfacade.server.handler.AsyncDGHandler;
+import com.dgfacade.server.handler.BatchingDGHandler;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Bridge handler that delegates execution to a Python worker process.
@@ -21,11 +26,14 @@ import java.util.Map;
  * <h3>How It Works</h3>
  * <ol>
  *   <li>{@code construct()} — receives handler config including the Python module and class</li>
- *   <li>{@code execute()} — serializes the {@link DGRequest} to JSON, sends it to a Python
- *       worker via the {@link PythonWorkerManager}, and deserializes the JSON response
- *       back into a {@link DGResponse}</li>
+ *   <li>{@code executeAsync()} — serializes the {@link DGRequest} to JSON, sends it to a Python
+ *       worker via the {@link PythonWorkerManager} over non-blocking sockets, and deserializes
+ *       the JSON response back into a {@link DGResponse}. No thread waits while Python runs.</li>
  *   <li>The Python handler receives the request as a dict and returns a dict following
  *       the same contract as Java handlers</li>
+ *   <li>{@code executeBatchAsync()} — with {@code max_batch_size} set, a micro-batch travels to
+ *       one worker as a single {@code execute_batch} call; the handler's {@code execute_batch}
+ *       (by default a loop over {@code execute}) returns one result dict per request</li>
  * </ol>
  *
  * <h3>Handler Config Fields</h3>
@@ -40,7 +48,7 @@ import java.util.Map;
  * }
  * </pre>
  */
-public class DGHandlerPython implements DGHandler {
+public class DGHandlerPython implements AsyncDGHandler, BatchingDGHandler {
 
     private static final Logger log = LoggerFactory.getLogger(DGHandlerPython.class);
 
@@ -75,48 +83,156 @@ public class DGHandlerPython implements DGHandler {
     }
 
     @Override
-    public DGResponse execute(DGRequest request) {
+    public CompletionStage<DGResponse> executeAsync(DGRequest request) {
         if (stopped) {
-            return DGResponse.error(request.getRequestId(), "Handler was stopped");
+            return CompletableFuture.completedFuture(
+                    DGResponse.error(request.getRequestId(), "Handler was stopped"));
         }
 
         if (workerManager == null || !workerManager.isRunning()) {
-            return DGResponse.error(request.getRequestId(),
-                    "Python worker pool is not running — enable it in config/python/py4j.json");
+            return CompletableFuture.completedFuture(DGResponse.error(request.getRequestId(),
+                    "Python worker pool is not running — enable it in config/python/py4j.json"));
         }
 
         if (pythonModule.isEmpty() || pythonClass.isEmpty()) {
-            return DGResponse.error(request.getRequestId(),
-                    "Python handler not configured: python_module and python_class are required in handler config");
+            return CompletableFuture.completedFuture(DGResponse.error(request.getRequestId(),
+                    "Python handler not configured: python_module and python_class are required in handler config"));
         }
 
         long startTime = System.currentTimeMillis();
+        String module = pythonModule;
+        String clazz = pythonClass;
 
+        CompletableFuture<String> call;
         try {
             // Serialize DGRequest to JSON
-            String requestJson = JsonUtil.toJson(request);
+            String requestJson = JsonUtil.writeRequest(request);
             String configJson = JsonUtil.toJson(config);
 
             log.debug("Dispatching to Python handler: {}.{} (request={})",
-                    pythonModule, pythonClass, request.getRequestId());
+                    module, clazz, request.getRequestId());
 
             // Execute via worker pool
-            String responseJson = workerManager.executeHandler(
-                    pythonModule, pythonClass, requestJson, configJson);
+            call = workerManager.executeHandlerAsync(module, clazz, requestJson, configJson);
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        return call.handle((responseJson, error) -> {
+            long execTime = System.currentTimeMillis() - startTime;
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                log.error("Python handler {}.{} failed: {}", module, clazz, cause.getMessage(), cause);
+                DGResponse resp = DGResponse.error(request.getRequestId(),
+                        "Python handler execution failed: " + cause.getMessage());
+                resp.setHandlerId(module + "." + clazz);
+                resp.setExecutionTimeMs(execTime);
+                return resp;
+            }
+            return toResponse(request, responseJson, module + "." + clazz, execTime);
+        });
+    }
+
+    @Override
+    public List<DGResponse> executeBatch(List<DGRequest> requests) {
+        return executeBatchAsync(requests).toCompletableFuture().join();
+    }
+
+    @Override
+    public CompletionStage<List<DGResponse>> executeBatchAsync(List<DGRequest> requests) {
+        String unavailable = stopped ? "Handler was stopped"
+                : workerManager == null || !workerManager.isRunning()
+                        ? "Python worker pool is not running — enable it in config/python/py4j.json"
+                : pythonModule.isEmpty() || pythonClass.isEmpty()
+                        ? "Python handler not configured: python_module and python_class are required in handler config"
+                : null;
+        if (unavailable != null) {
+            return CompletableFuture.completedFuture(errors(requests, unavailable, null, 0));
+        }
+
+        long startTime = System.currentTimeMillis();
+        String module = pythonModule;
+        String clazz = pythonClass;
+
+        CompletableFuture<String> call;
+        try {
+            List<String> requestJsons = new ArrayList<>(requests.size());
+            for (DGRequest request : requests) requestJsons.add(JsonUtil.writeRequest(request));
+            String configJson = JsonUtil.toJson(config);
+
+            log.debug("Dispatching batch of {} to Python handler: {}.{}", requests.size(), module, clazz);
+            call = workerManager.executeBatchAsync(module, clazz, requestJsons, configJson);
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
 
+        return call.handle((responseJson, error) -> {
+            long execTime = System.currentTimeMillis() - startTime;
+            String handlerId = module + "." + clazz;
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                log.error("Python batch handler {} failed: {}", handlerId, cause.getMessage(), cause);
+                return errors(requests, "Python handler execution failed: " + cause.getMessage(), handlerId, execTime);
+            }
+            try {
+                Map<String, Object> reply = JsonUtil.fromJson(responseJson, new TypeReference<Map<String, Object>>() {});
+                if (!(reply.get("results") instanceof List<?> results) || results.size() != requests.size()) {
+                    String errorMsg = (String) reply.getOrDefault("error_message",
+                            "Python batch handler must return one result per request");
+                    return errors(requests, errorMsg, handlerId, execTime);
+                }
+                List<DGResponse> responses = new ArrayList<>(requests.size());
+                for (int i = 0; i < requests.size(); i++) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> result = results.get(i) instanceof Map<?, ?> m
+                            ? (Map<String, Object>) m : Map.of("status", "ERROR", "error_message", "Invalid batch result");
+                    responses.add(toResponse(requests.get(i), result, handlerId, execTime));
+                }
+                return responses;
+            } catch (Exception e) {
+                return errors(requests, "Python handler execution failed: " + e.getMessage(), handlerId, execTime);
+            }
+        });
+    }
+
+    private static List<DGResponse> errors(List<DGRequest> requests, String message, String handlerId, long execTime) {
+        List<DGResponse> responses = new ArrayList<>(requests.size());
+        for (DGRequest request : requests) {
+            DGResponse resp = DGResponse.error(request.getRequestId(), message);
+            resp.setHandlerId(handlerId);
+            resp.setExecutionTimeMs(execTime);
+            responses.add(resp);
+        }
+        return responses;
+    }
+
+    /** Parse the worker's JSON reply into a DGResponse. */
+    private static DGResponse toResponse(DGRequest request, String responseJson, String handlerId, long execTime) {
+        try {
             // Parse the Python response
             Map<String, Object> responseMap = JsonUtil.fromJson(responseJson,
                     new TypeReference<Map<String, Object>>() {});
+            return toResponse(request, responseMap, handlerId, execTime);
+        } catch (Exception e) {
+            DGResponse resp = DGResponse.error(request.getRequestId(),
+                    "Python handler execution failed: " + e.getMessage());
+            resp.setHandlerId(handlerId);
+            resp.setExecutionTimeMs(execTime);
+            return resp;
+        }
+    }
 
-            long execTime = System.currentTimeMillis() - startTime;
-
+    /** Convert one handler result dict ({@code status}, {@code data} / {@code error_message}). */
+    private static DGResponse toResponse(DGRequest request, Map<String, Object> responseMap,
+                                         String handlerId, long execTime) {
+        try {
             // Check for error from Python
             String pyStatus = (String) responseMap.getOrDefault("status", "SUCCESS");
             if ("ERROR".equalsIgnoreCase(pyStatus)) {
                 String errorMsg = (String) responseMap.getOrDefault("error_message",
                         "Python handler returned an error");
                 DGResponse resp = DGResponse.error(request.getRequestId(), errorMsg);
-                resp.setHandlerId(pythonModule + "." + pythonClass);
+                resp.setHandlerId(handlerId);
                 resp.setExecutionTimeMs(execTime);
                 return resp;
             }
@@ -125,16 +241,13 @@ public class DGHandlerPython implements DGHandler {
             @SuppressWarnings("unchecked")
             Map<String, Object> data = (Map<String, Object>) responseMap.getOrDefault("data", Map.of());
             DGResponse resp = DGResponse.success(request.getRequestId(), data);
-            resp.setHandlerId(pythonModule + "." + pythonClass);
+            resp.setHandlerId(handlerId);
             resp.setExecutionTimeMs(execTime);
             return resp;
-
         } catch (Exception e) {
-            long execTime = System.currentTimeMillis() - startTime;
-            log.error("Python handler {}.{} failed: {}", pythonModule, pythonClass, e.getMessage(), e);
             DGResponse resp = DGResponse.error(request.getRequestId(),
                     "Python handler execution failed: " + e.getMessage());
-            resp.setHandlerId(pythonModule + "." + pythonClass);
+            resp.setHandlerId(handlerId);
             resp.setExecutionTimeMs(execTime);
             return resp;
         }
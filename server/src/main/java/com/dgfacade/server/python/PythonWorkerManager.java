@@ -58,6 +58,8 @@ public class PythonWorkerManager {
     private final AtomicInteger roundRobin = new AtomicInteger(0);
     private final AtomicLong totalRequestsRouted = new AtomicLong(0);
     private final AtomicLong totalErrors = new AtomicLong(0);
+    /** Calls waiting for a free worker; drained whenever a worker returns to READY. */
+    private final ConcurrentLinkedDeque<PendingCall> pendingCalls = new ConcurrentLinkedDeque<>();
     private ScheduledExecutorService healthChecker;
     private volatile boolean running = false;
     private Instant startedAt;
@@ -93,6 +95,7 @@ public class PythonWorkerManager {
         for (int i = 0; i < config.getWorkerCount(); i++) {
             int port = config.getGatewayPortRangeStart() + i;
             PythonWorkerProcess worker = new PythonWorkerProcess(i, port, config);
+            worker.setReleaseListener(this::drainPendingCalls);
             workers.add(worker);
             if (worker.start(propertiesJson)) {
                 started++;
@@ -115,42 +118,127 @@ public class PythonWorkerManager {
 
     /**
      * Execute a Python handler request using a round-robin selected worker.
+     * Blocking convenience wrapper around {@link #executeHandlerAsync}.
      */
     public String executeHandler(String handlerModule, String handlerClass,
                                   String requestJson, String configJson) throws IOException {
-        if (!running || workers.isEmpty()) {
-            throw new IOException("Python worker pool is not running");
+        try {
+            return executeHandlerAsync(handlerModule, handlerClass, requestJson, configJson).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for Python worker", e);
         }
+    }
 
-        int maxAttempts = workers.size();
-        Exception lastException = null;
+    /**
+     * Execute a Python handler request without blocking the caller. The request is sent on
+     * the first idle worker over non-blocking sockets; if every worker is busy it waits in
+     * a FIFO queue (up to the worker request timeout) instead of failing. A failed worker
+     * call is retried on the next worker, up to one attempt per worker.
+     */
+    public CompletableFuture<String> executeHandlerAsync(String handlerModule, String handlerClass,
+                                                         String requestJson, String configJson) {
+        if (!running || workers.isEmpty()) {
+            return CompletableFuture.failedFuture(new IOException("Python worker pool is not running"));
+        }
+        Map<String, Object> execRequest = new LinkedHashMap<>();
+        execRequest.put("command", "execute");
+        execRequest.put("handler_module", handlerModule);
+        execRequest.put("handler_class", handlerClass);
+        execRequest.put("request_json", requestJson);
+        execRequest.put("config_json", configJson);
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+        future.orTimeout(config.getRequestTimeoutSeconds(), TimeUnit.SECONDS);
+        dispatch(new PendingCall(JsonUtil.toJson(execRequest), future, workers.size(), null));
+        return future;
+    }
 
-        for (int attempt = 0; attempt < maxAttempts; attempt++) {
-            PythonWorkerProcess worker = selectWorker();
-            if (worker == null) continue;
+    /**
+     * Execute several requests for one Python handler in a single worker round trip
+     * ({@code execute_batch} command). The reply carries a {@code results} list with one
+     * handler result per request, in order. Queuing and retries are as for
+     * {@link #executeHandlerAsync}.
+     */
+    public CompletableFuture<String> executeBatchAsync(String handlerModule, String handlerClass,
+                                                       List<String> requestJsons, String configJson) {
+        if (!running || workers.isEmpty()) {
+            return CompletableFuture.failedFuture(new IOException("Python worker pool is not running"));
+        }
+        Map<String, Object> execRequest = new LinkedHashMap<>();
+        execRequest.put("command", "execute_batch");
+        execRequest.put("handler_module", handlerModule);
+        execRequest.put("handler_class", handlerClass);
+        execRequest.put("request_jsons", requestJsons);
+        execRequest.put("config_json", configJson);
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+        future.orTimeout(config.getRequestTimeoutSeconds(), TimeUnit.SECONDS);
+        dispatch(new PendingCall(JsonUtil.toJson(execRequest), future, workers.size(), null));
+        return future;
+    }
 
-            try {
-                Map<String, Object> execRequest = new LinkedHashMap<>();
-                execRequest.put("command", "execute");
-                execRequest.put("handler_module", handlerModule);
-                execRequest.put("handler_class", handlerClass);
-                execRequest.put("request_json", requestJson);
-                execRequest.put("config_json", configJson);
-
-                totalRequestsRouted.incrementAndGet();
-                return worker.executeRequest(JsonUtil.toJson(execRequest));
-            } catch (IOException e) {
-                lastException = e;
-                totalErrors.incrementAndGet();
-                log.warn("Python worker {} execution failed, trying next: {}",
-                        worker.getWorkerId(), e.getMessage());
+    private record PendingCall(String requestJson, CompletableFuture<String> future,
+                               int attemptsLeft, Throwable lastError) {}
+
+    private void dispatch(PendingCall call) {
+        if (call.future().isDone()) return;  // timed out while queued
+        PythonWorkerProcess worker = acquireWorker();
+        if (worker == null) {
+            if (workers.stream().noneMatch(w -> w.getState() == PythonWorkerProcess.State.READY
+                    || w.getState() == PythonWorkerProcess.State.BUSY)) {
+                call.future().completeExceptionally(new IOException(
+                        "All Python workers failed or unavailable. Last error: no healthy workers"));
+                return;
             }
+            pendingCalls.offerLast(call);
+            drainPendingCalls();
+            return;
         }
+        send(worker, call);
+    }
 
-        throw new IOException("All Python workers failed or unavailable. Last error: "
-                + (lastException != null ? lastException.getMessage() : "no healthy workers"));
+    private void send(PythonWorkerProcess worker, PendingCall call) {
+        totalRequestsRouted.incrementAndGet();
+        worker.executeRequestAsync(call.requestJson()).whenComplete((response, error) -> {
+            if (error == null) {
+                call.future().complete(response);
+                return;
+            }
+            totalErrors.incrementAndGet();
+            log.warn("Python worker {} execution failed, trying next: {}",
+                    worker.getWorkerId(), error.getMessage());
+            if (call.attemptsLeft() > 1) {
+                dispatch(new PendingCall(call.requestJson(), call.future(), call.attemptsLeft() - 1, error));
+            } else {
+                call.future().completeExceptionally(new IOException(
+                        "All Python workers failed or unavailable. Last error: " + error.getMessage(), error));
+            }
+        });
+    }
+
+    /** Hand queued calls to idle workers. Invoked whenever a worker is released. */
+    private void drainPendingCalls() {
+        PendingCall call;
+        while ((call = pendingCalls.pollFirst()) != null) {
+            if (call.future().isDone()) continue;
+            PythonWorkerProcess worker = acquireWorker();
+            if (worker == null) {
+                pendingCalls.offerFirst(call);
+                // A worker released after acquireWorker() but before offerFirst() drains again itself
+                if (workers.stream().noneMatch(w -> w.getState() == PythonWorkerProcess.State.READY)) return;
+                continue;
+            }
+            send(worker, call);
+        }
     }
 
+    public int getPendingCallCount() { return pendingCalls.size(); }
+
     /**
      * Stop all workers and the health checker.
      */
@@ -185,6 +273,7 @@ public class PythonWorkerManager {
                 worker.stop();
                 int port = config.getGatewayPortRangeStart() + workerId;
                 PythonWorkerProcess newWorker = new PythonWorkerProcess(workerId, port, config);
+                newWorker.setReleaseListener(this::drainPendingCalls);
                 workers.set(idx, newWorker);
                 newWorker.start(buildPropertiesJson());
                 log.info("Admin: Python worker {} restarted", workerId);
@@ -206,6 +295,7 @@ public class PythonWorkerManager {
             worker.stop();
             int port = config.getGatewayPortRangeStart() + wid;
             PythonWorkerProcess newWorker = new PythonWorkerProcess(wid, port, config);
+            newWorker.setReleaseListener(this::drainPendingCalls);
             workers.set(i, newWorker);
             newWorker.start(propsJson);
         }
@@ -233,6 +323,7 @@ public class PythonWorkerManager {
         status.put("managerStartedAt", startedAt != null ? startedAt.toString() : null);
         status.put("totalRequestsRouted", totalRequestsRouted.get());
         status.put("totalErrors", totalErrors.get());
+        status.put("pendingCalls", pendingCalls.size());
         status.put("workerCount", workers.size());
         status.put("healthyWorkerCount", getHealthyWorkerCount());
         status.put("pythonBinary", config.getPythonBinary());
@@ -307,14 +398,15 @@ public class PythonWorkerManager {
 
     // --- Private ---
 
-    private PythonWorkerProcess selectWorker() {
+    /** Round-robin over workers, atomically claiming the first READY one. */
+    private PythonWorkerProcess acquireWorker() {
         int size = workers.size();
         if (size == 0) return null;
 
         for (int attempt = 0; attempt < size; attempt++) {
             int idx = Math.abs(roundRobin.getAndIncrement() % size);
             PythonWorkerProcess worker = workers.get(idx);
-            if (worker.getState() == PythonWorkerProcess.State.READY) {
+            if (worker.tryAcquire()) {
                 return worker;
             }
         }
@@ -348,6 +440,8 @@ public class PythonWorkerManager {
                     log.error("Health check error for Python worker {}: {}", worker.getWorkerId(), e.getMessage());
                 }
             }
+            // Backstop: hand queued calls to workers that came back (restart or ping)
+            drainPendingCalls();
         }, config.getWorkerHealthCheckIntervalSeconds(),
            config.getWorkerHealthCheckIntervalSeconds(), TimeUnit.SECONDS);
     }
@@ -9,10 +9,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -46,6 +51,7 @@ public class PythonWorkerProcess {
     private final AtomicLong requestsHandled = new AtomicLong(0);
     private final AtomicLong requestsFailed = new AtomicLong(0);
     private final AtomicInteger restartCount = new AtomicInteger(0);
+    private volatile Runnable releaseListener;
     private Thread stdoutThread;
     private Thread stderrThread;
 
@@ -123,11 +129,10 @@ public class PythonWorkerProcess {
      * Send a JSON request to the Python worker and get a JSON response.
      */
     public String executeRequest(String requestJson) throws IOException {
-        if (state != State.READY) {
+        if (!tryAcquire()) {
             throw new IOException("Worker " + workerId + " is not ready (state=" + state + ")");
         }
 
-        state = State.BUSY;
         try (Socket socket = new Socket("127.0.0.1", port)) {
             socket.setSoTimeout(config.getRequestTimeoutSeconds() * 1000);
 
@@ -155,13 +160,119 @@ public class PythonWorkerProcess {
             requestsFailed.incrementAndGet();
             throw new IOException("Worker " + workerId + " execution failed: " + e.getMessage(), e);
         } finally {
-            // Only return to READY if process is still alive
-            if (isAlive()) {
-                state = State.READY;
-            } else {
-                state = State.DEAD;
-            }
+            releaseAfterRequest();
+        }
+    }
+
+    /**
+     * Atomically claim this worker for one request (READY → BUSY).
+     *
+     * @return {@code false} if the worker is busy, starting or dead
+     */
+    public synchronized boolean tryAcquire() {
+        if (state != State.READY) return false;
+        state = State.BUSY;
+        return true;
+    }
+
+    /**
+     * Send a JSON request without holding a thread while the worker runs the handler.
+     * Uses an {@link AsynchronousSocketChannel}; the caller must have claimed the worker
+     * with {@link #tryAcquire()}, and the worker is released when the future completes.
+     */
+    public CompletableFuture<String> executeRequestAsync(String requestJson) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AsynchronousSocketChannel channel;
+        try {
+            channel = AsynchronousSocketChannel.open();
+        } catch (IOException e) {
+            releaseAfterRequest();
+            requestsFailed.incrementAndGet();
+            return CompletableFuture.failedFuture(e);
         }
+        long timeoutMs = config.getRequestTimeoutSeconds() * 1000L;
+        byte[] requestBytes = requestJson.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(4 + requestBytes.length).putInt(requestBytes.length).put(requestBytes);
+        out.flip();
+        ByteBuffer header = ByteBuffer.allocate(4);
+
+        connect(channel, new InetSocketAddress("127.0.0.1", port))
+                .thenCompose(v -> writeFully(channel, out))
+                .thenCompose(v -> readFully(channel, header, timeoutMs))
+                .thenCompose(v -> {
+                    int responseLength = header.flip().getInt();
+                    if (responseLength <= 0 || responseLength > 50 * 1024 * 1024) {
+                        return CompletableFuture.failedFuture(new IOException(
+                                "Invalid response length from worker " + workerId + ": " + responseLength));
+                    }
+                    ByteBuffer body = ByteBuffer.allocate(responseLength);
+                    return readFully(channel, body, timeoutMs)
+                            .thenApply(x -> new String(body.array(), StandardCharsets.UTF_8));
+                })
+                .whenComplete((response, error) -> {
+                    try { channel.close(); } catch (IOException ignored) {}
+                    releaseAfterRequest();
+                    if (error == null) {
+                        requestsHandled.incrementAndGet();
+                        result.complete(response);
+                    } else {
+                        requestsFailed.incrementAndGet();
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        result.completeExceptionally(new IOException(
+                                "Worker " + workerId + " execution failed: " + cause.getMessage(), cause));
+                    }
+                });
+        return result;
+    }
+
+    /** Only return to READY if process is still alive; then notify the release listener. */
+    private void releaseAfterRequest() {
+        synchronized (this) {
+            if (state != State.BUSY) return;
+            state = isAlive() ? State.READY : State.DEAD;
+            if (state != State.READY) return;
+        }
+        Runnable listener = releaseListener;
+        if (listener != null) listener.run();
+    }
+
+    /** Callback run each time this worker finishes a request and is READY again. */
+    public void setReleaseListener(Runnable listener) {
+        this.releaseListener = listener;
+    }
+
+    private static CompletableFuture<Void> connect(AsynchronousSocketChannel ch, InetSocketAddress addr) {
+        CompletableFuture<Void> f = new CompletableFuture<>();
+        ch.connect(addr, null, new CompletionHandler<Void, Void>() {
+            @Override public void completed(Void v, Void att) { f.complete(null); }
+            @Override public void failed(Throwable t, Void att) { f.completeExceptionally(t); }
+        });
+        return f;
+    }
+
+    private static CompletableFuture<Void> writeFully(AsynchronousSocketChannel ch, ByteBuffer buf) {
+        CompletableFuture<Void> f = new CompletableFuture<>();
+        ch.write(buf, null, new CompletionHandler<Integer, Void>() {
+            @Override public void completed(Integer n, Void att) {
+                if (buf.hasRemaining()) ch.write(buf, null, this);
+                else f.complete(null);
+            }
+            @Override public void failed(Throwable t, Void att) { f.completeExceptionally(t); }
+        });
+        return f;
+    }
+
+    private static CompletableFuture<Void> readFully(AsynchronousSocketChannel ch, ByteBuffer buf, long timeoutMs) {
+        CompletableFuture<Void> f = new CompletableFuture<>();
+        ch.read(buf, timeoutMs, TimeUnit.MILLISECONDS, null, new CompletionHandler<Integer, Void>() {
+            @Override public void completed(Integer n, Void att) {
+                if (n < 0) f.completeExceptionally(new EOFException("Worker closed the connection"));
+                else if (buf.hasRemaining()) ch.read(buf, timeoutMs, TimeUnit.MILLISECONDS, null, this);
+                else f.complete(null);
+            }
+            @Override public void failed(Throwable t, Void att) { f.completeExceptionally(t); }
+        });
+        return f;
     }
 
     /**
@@ -91,6 +91,12 @@ public class UserService {
         return Optional.ofNullable(usersById.get(userId));
     }
 
+    /** Fair-queuing weight of a user (1 for unknown users). */
+    public int getWeight(String userId) {
+        UserInfo user = userId != null ? usersById.get(userId) : null;
+        return user != null ? Math.max(1, user.getWeight()) : 1;
+    }
+
     public Optional<UserInfo> getUserByUsername(String username) {
         return Optional.ofNullable(usersByUsername.get(username));
     }
@@ -9,12 +9,22 @@ import com.dgfacade.server.python.DGHandlerPython;
 import com.dgfacade.server.python.PythonConfig;
 import com.dgfacade.server.python.PythonWorkerManager;
 import com.dgfacade.common.util.ConfigPropertyResolver;
+import com.dgfacade.server.chain.ChainConfigRegistry;
 import com.dgfacade.server.channel.ChannelAccessor;
 import com.dgfacade.server.cluster.ClusterService;
 import com.dgfacade.server.config.ConfigAutoReloadService;
 import com.dgfacade.server.config.ExternalJarLoader;
 import com.dgfacade.server.config.HandlerConfigRegistry;
+import com.dgfacade.server.engine.AdaptiveConcurrencyLimiter;
+import com.dgfacade.server.engine.ChainStepExecutor;
 import com.dgfacade.server.engine.ExecutionEngine;
+import com.dgfacade.server.engine.HandlerExecutors;
+import com.dgfacade.server.engine.OrderingLanes;
+import com.dgfacade.server.engine.StateCapturePolicy;
+import com.dgfacade.server.handler.ChainHandler;
+import com.dgfacade.server.handler.PDCHandler;
+import com.dgfacade.server.history.AsyncResultStore;
+import com.dgfacade.server.history.ExecutionHistoryStore;
 import com.dgfacade.server.ingestion.IngestionService;
 import com.dgfacade.server.metrics.MetricsService;
 import com.dgfacade.server.service.BrokerService;
@@ -29,6 +39,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
@@ -38,6 +50,9 @@ public class AppConfig {
     @Value("${dgfacade.config.handlers-dir:config/handlers}")
     private String handlersDir;
 
+    @Value("${dgfacade.config.chains-dir:config/chains}")
+    private String chainsDir;
+
     @Value("${dgfacade.config.users-file:config/users.json}")
     private String usersFile;
 
@@ -81,6 +96,90 @@ public class AppConfig {
     @Value("${dgfacade.config.auto-reload-seconds:300}")
     private int autoReloadSeconds;
 
+    @Value("${dgfacade.engine.supervisor-shards:0}")
+    private int supervisorShards;
+
+    @Value("${dgfacade.engine.shard-key:request_id}")
+    private String supervisorShardKey;
+
+    @Value("${dgfacade.handler.blocking-pool-size:0}")
+    private int handlerBlockingPoolSize;
+
+    @Value("${dgfacade.handler.blocking-queue-capacity:10000}")
+    private int handlerBlockingQueueCapacity;
+
+    @Value("${dgfacade.engine.chain-steps.pool-size:0}")
+    private int chainStepPoolSize;
+
+    @Value("${dgfacade.engine.chain-steps.queue-capacity:1024}")
+    private int chainStepQueueCapacity;
+
+    @Value("${dgfacade.engine.chain-steps.step-timeout-ms:60000}")
+    private long chainStepTimeoutMs;
+
+    @Value("${dgfacade.engine.ordering.max-lanes:100000}")
+    private int orderingMaxLanes;
+
+    @Value("${dgfacade.engine.ordering.max-lane-depth:1000}")
+    private int orderingMaxLaneDepth;
+
+    @Value("${dgfacade.engine.state-capture.mode:ALL}")
+    private String stateCaptureMode;
+
+    @Value("${dgfacade.engine.state-capture.sample-rate:100}")
+    private int stateCaptureSampleRate;
+
+    @Value("${dgfacade.history.dir:data/history}")
+    private String historyDir;
+
+    @Value("${dgfacade.history.hot-max-entries:10000}")
+    private int historyHotMaxEntries;
+
+    @Value("${dgfacade.history.hot-max-age-minutes:15}")
+    private int historyHotMaxAgeMinutes;
+
+    @Value("${dgfacade.history.retention-hours:168}")
+    private int historyRetentionHours;
+
+    @Value("${dgfacade.history.segment-size-mb:64}")
+    private int historySegmentSizeMb;
+
+    @Value("${dgfacade.api.async.result-dir:data/results}")
+    private String asyncResultDir;
+
+    @Value("${dgfacade.api.async.max-in-memory:10000}")
+    private int asyncMaxInMemory;
+
+    @Value("${dgfacade.api.async.ttl-minutes:60}")
+    private int asyncTtlMinutes;
+
+    @Value("${dgfacade.api.async.segment-size-mb:16}")
+    private int asyncSegmentSizeMb;
+
+    @Value("${dgfacade.api.async.max-disk-mb:1024}")
+    private int asyncMaxDiskMb;
+
+    @Value("${dgfacade.engine.streaming.buffer-size:256}")
+    private int streamingBufferSize;
+
+    @Value("${dgfacade.engine.streaming.offer-timeout-ms:5000}")
+    private long streamingOfferTimeoutMs;
+
+    @Value("${dgfacade.engine.streaming.drain-timeout-ms:5000}")
+    private long streamingDrainTimeoutMs;
+
+    @Value("${dgfacade.engine.adaptive-limit.enabled:false}")
+    private boolean adaptiveLimitEnabled;
+
+    @Value("${dgfacade.engine.adaptive-limit.initial:20}")
+    private int adaptiveLimitInitial;
+
+    @Value("${dgfacade.engine.adaptive-limit.min:1}")
+    private int adaptiveLimitMin;
+
+    @Value("${dgfacade.engine.adaptive-limit.max:1000}")
+    private int adaptiveLimitMax;
+
     @Bean
     public ConfigPropertyResolver configPropertyResolver() {
         ConfigPropertyResolver resolver = new ConfigPropertyResolver();
@@ -105,6 +204,11 @@ public class AppConfig {
         return new HandlerConfigRegistry(handlersDir);
     }
 
+    @Bean
+    public ChainConfigRegistry chainConfigRegistry() {
+        return new ChainConfigRegistry(chainsDir);
+    }
+
     @Bean
     public MetricsService metricsService(MeterRegistry meterRegistry) {
         return new MetricsService(meterRegistry);
@@ -152,17 +256,52 @@ public class AppConfig {
 
     @Bean
     public ExecutionEngine executionEngine(HandlerConfigRegistry registry,
+                                           ChainConfigRegistry chainRegistry,
                                            UserService userService,
                                            MetricsService metricsService,
                                            ChannelAccessor channelAccessor,
                                            ClusterService clusterService) {
-        ExecutionEngine engine = new ExecutionEngine(registry, userService);
+        registry.setMetricsService(metricsService);
+        // Chain steps resolve handlers (and their pools) through the registry
+        ChainHandler.setHandlerConfigRegistry(registry);
+        // CHAIN requests select a compiled plan by the payload's chain_id
+        ChainHandler.setChainConfigRegistry(chainRegistry);
+        // PDC sessions publish per-session forwarding metrics
+        PDCHandler.setMetricsService(metricsService);
+        ExecutionEngine engine = new ExecutionEngine(registry, userService, supervisorShards, supervisorShardKey);
         engine.setMetricsService(metricsService);
         engine.setChannelAccessor(channelAccessor);
         engine.setClusterService(clusterService);
+        engine.setHandlerExecutors(new HandlerExecutors(handlerBlockingPoolSize, handlerBlockingQueueCapacity));
+        engine.setChainStepExecutor(new ChainStepExecutor(chainStepPoolSize, chainStepQueueCapacity, chainStepTimeoutMs));
+        // Parallel branches and DAG steps of every chain share the engine's step pool
+        ChainHandler.setChainStepExecutor(engine.getChainStepExecutor());
+        engine.setOrderingLanes(new OrderingLanes(orderingMaxLanes, orderingMaxLaneDepth));
+        engine.setCapturePolicy(StateCapturePolicy.of(stateCaptureMode, stateCaptureSampleRate));
+        engine.getStreamingDelivery().configure(streamingBufferSize, streamingOfferTimeoutMs, streamingDrainTimeoutMs);
+        engine.setHistoryStore(new ExecutionHistoryStore(historyHotMaxEntries,
+                Duration.ofMinutes(historyHotMaxAgeMinutes),
+                historyDir == null || historyDir.isBlank() ? null : Path.of(historyDir),
+                Duration.ofHours(historyRetentionHours),
+                historySegmentSizeMb * 1024 * 1024));
+        if (adaptiveLimitEnabled) {
+            engine.setConcurrencyLimiter(new AdaptiveConcurrencyLimiter(
+                    adaptiveLimitInitial, adaptiveLimitMin, adaptiveLimitMax));
+        }
         return engine;
     }
 
+    @Bean
+    public AsyncResultStore asyncResultStore(MetricsService metricsService) {
+        AsyncResultStore store = new AsyncResultStore(asyncMaxInMemory,
+                Duration.ofMinutes(asyncTtlMinutes),
+                asyncResultDir == null || asyncResultDir.isBlank() ? null : Path.of(asyncResultDir),
+                asyncSegmentSizeMb * 1024 * 1024,
+                asyncMaxDiskMb * 1024L * 1024);
+        metricsService.registerAsyncResultStore(store);
+        return store;
+    }
+
     @Bean
     public IngestionService ingestionService(ExecutionEngine executionEngine,
                                              BrokerService brokerService,
@@ -181,9 +320,11 @@ public class AppConfig {
 
     @Bean
     public ConfigAutoReloadService configAutoReloadService(
-            HandlerConfigRegistry handlerConfigRegistry) {
+            HandlerConfigRegistry handlerConfigRegistry,
+            ChainConfigRegistry chainConfigRegistry) {
         ConfigAutoReloadService svc = new ConfigAutoReloadService(autoReloadSeconds);
         svc.register("handlers", handlersDir, handlerConfigRegistry::reload);
+        svc.register("chains", chainsDir, chainConfigRegistry::reload);
         // Brokers, channels, and ingesters read from disk on demand — no caching.
         // Register their directories anyway so the fingerprint log shows change detection.
         svc.register("brokers", brokersConfigDir, () ->
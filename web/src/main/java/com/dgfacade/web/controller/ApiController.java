@@ -8,13 +8,37 @@ package com.dgfacade.web.controller;
 import com.dgfacade.common.model.DGRequest;
 import com.dgfacade.common.model.DGResponse;
 import com.dgfacade.common.model.HandlerState;
+import com.dgfacade.common.util.JsonUtil;
+import com.dgfacade.server.engine.BatchSubmitter;
 import com.dgfacade.server.engine.ExecutionEngine;
+import com.dgfacade.server.engine.StreamingDelivery;
+import com.dgfacade.server.history.AsyncResultStore;
+import com.dgfacade.server.history.AsyncTicket;
+import com.dgfacade.server.history.HistoryPage;
+import com.dgfacade.server.history.HistoryQuery;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * REST API controller for DGFacade.
@@ -24,20 +48,168 @@ import java.util.concurrent.CompletableFuture;
 @RequestMapping("/api/v1")
 public class ApiController {
 
+    private static final Logger log = LoggerFactory.getLogger(ApiController.class);
+
     private final ExecutionEngine engine;
+    private final BatchSubmitter batchSubmitter;
+    private final AsyncResultStore resultStore;
+    private final int asyncMaxWaitSeconds;
 
-    public ApiController(ExecutionEngine engine) {
+    public ApiController(ExecutionEngine engine,
+                         AsyncResultStore resultStore,
+                         @Value("${dgfacade.api.batch.max-in-flight:64}") int batchMaxInFlight,
+                         @Value("${dgfacade.api.async.max-wait-seconds:25}") int asyncMaxWaitSeconds) {
         this.engine = engine;
+        this.resultStore = resultStore;
+        this.batchSubmitter = new BatchSubmitter(engine, batchMaxInFlight);
+        this.asyncMaxWaitSeconds = Math.max(0, asyncMaxWaitSeconds);
     }
 
     /**
      * POST /api/v1/request - Submit a DGRequest for execution.
      * The request JSON must include: api_key, request_type, payload.
+     * Requests rejected by a RETRY_AFTER bulkhead are answered with 429 and a Retry-After header;
+     * requests shed by the adaptive concurrency limiter (OVERLOADED) with 503.
+     * With {@code async=true} the request is answered at once with 202 and a ticket (its
+     * request_id) whose result is fetched from {@code GET /api/v1/result/{id}}.
      */
     @PostMapping("/request")
-    public CompletableFuture<ResponseEntity<DGResponse>> submitRequest(@RequestBody DGRequest request) {
+    public CompletableFuture<ResponseEntity<?>> submitRequest(
+            @RequestBody DGRequest request,
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
         request.setSourceChannel("REST");
-        return engine.submit(request).thenApply(ResponseEntity::ok);
+        if (async) return CompletableFuture.completedFuture(submitAsync(request));
+        return engine.submit(request).thenApply(ApiController::toEntity);
+    }
+
+    /**
+     * POST /api/v1/request/stream - Submit a request and receive it as Server-Sent Events: one
+     * {@code update} event per streaming-handler update (id = sequence_number), then a single
+     * {@code response} event with the final response, after which the stream ends. Handlers
+     * that do not stream produce only the {@code response} event. A request_id that is
+     * already streaming is answered with an error {@code response} event and not submitted.
+     */
+    @PostMapping(value = "/request/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter submitStreaming(@RequestBody DGRequest request) {
+        request.setSourceChannel("SSE");
+        if (request.getRequestId() == null || request.getRequestId().isBlank()) {
+            request.setRequestId(UUID.randomUUID().toString());
+        }
+        String id = request.getRequestId();
+        // The handler TTL bounds the request, so the emitter itself never times out
+        SseEmitter emitter = new SseEmitter(0L);
+        StreamingDelivery.Subscription subscription = engine.getStreamingDelivery().subscribe(id,
+                update -> emitter.send(SseEmitter.event()
+                        .name("update")
+                        .id(String.valueOf(update.getSequenceNumber()))
+                        .data(JsonUtil.writeResponse(update), MediaType.APPLICATION_JSON)));
+        if (subscription == null) {
+            DGResponse conflict = DGResponse.error(id, "A request with request_id '" + id + "' is already streaming");
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("response")
+                        .data(JsonUtil.writeResponse(conflict), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        engine.submit(request)
+                .thenCompose(response -> subscription.drained().thenApply(v -> response))
+                .whenComplete((response, error) -> {
+                    subscription.close();
+                    DGResponse last = response != null ? response
+                            : DGResponse.error(id, "Internal error: " + error.getMessage());
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .name("response")
+                                .data(JsonUtil.writeResponse(last), MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("SSE client for {} went away before the response: {}", id, e.getMessage());
+                        emitter.completeWithError(e);
+                    }
+                });
+        return emitter;
+    }
+
+    private ResponseEntity<?> submitAsync(DGRequest request) {
+        if (request.getRequestId() == null || request.getRequestId().isBlank()) {
+            request.setRequestId(UUID.randomUUID().toString());
+        }
+        String id = request.getRequestId();
+        AsyncTicket ticket = resultStore.register(id, () -> engine.submit(request));
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(DGResponse.error(id, "A ticket for request_id '" + id + "' already exists"));
+        }
+        return ResponseEntity.accepted().location(resultUri(id)).body(ticket);
+    }
+
+    /**
+     * GET /api/v1/result/{id} - Result of an async request. Answers with the response (status
+     * codes as for a synchronous request) once it is complete, 202 with the PENDING ticket while
+     * it is not, and 404 for unknown or expired tickets. {@code wait} long-polls for up to that
+     * many seconds (capped by {@code dgfacade.api.async.max-wait-seconds}) without holding a thread.
+     */
+    @GetMapping("/result/{id}")
+    public CompletableFuture<ResponseEntity<?>> getResult(
+            @PathVariable("id") String id,
+            @RequestParam(value = "wait", defaultValue = "0") int waitSeconds) {
+        CompletableFuture<DGResponse> result = resultStore.await(id);
+        if (result == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(DGResponse.error(id, "Unknown or expired ticket '" + id + "'")));
+        }
+        CompletableFuture<ResponseEntity<?>> entity = result.thenApply(ApiController::toEntity);
+        if (result.isDone()) return entity;
+        int wait = Math.min(Math.max(0, waitSeconds), asyncMaxWaitSeconds);
+        if (wait == 0) return CompletableFuture.completedFuture(pending(id));
+        return entity.completeOnTimeout(pending(id), wait, TimeUnit.SECONDS);
+    }
+
+    private ResponseEntity<?> pending(String id) {
+        return ResponseEntity.accepted().location(resultUri(id))
+                .body(resultStore.ticket(id).orElse(null));
+    }
+
+    private static URI resultUri(String id) {
+        return URI.create("/api/v1/result/" + UriUtils.encodePathSegment(id, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * POST /api/v1/requests/batch - Submit many requests in one call.
+     * The body is a JSON array of requests or NDJSON (one request per line); it is parsed as it
+     * arrives and at most {@code dgfacade.api.batch.max-in-flight} requests execute at once.
+     * Responses stream back as NDJSON, one per line in completion order, each with its request_id.
+     */
+    @PostMapping("/requests/batch")
+    public void submitBatch(HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType("application/x-ndjson");
+        httpResponse.setCharacterEncoding("UTF-8");
+        BatchSubmitter.Result result = batchSubmitter.run(
+                httpRequest.getInputStream(), httpResponse.getOutputStream(), "REST");
+        log.info("Batch completed: {} submitted, {} invalid{}", result.submitted(), result.invalid(),
+                result.truncated() ? ", truncated by malformed JSON" : "");
+    }
+
+    private static ResponseEntity<DGResponse> toEntity(DGResponse response) {
+        if (response.getStatus() == DGResponse.Status.REJECTED) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+            if (response.getRetryAfterSeconds() != null) {
+                builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getRetryAfterSeconds()));
+            }
+            return builder.body(response);
+        }
+        if (response.getStatus() == DGResponse.Status.OVERLOADED) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return ResponseEntity.ok(response);
     }
 
     /** GET /api/v1/handlers - List all registered handler types. */
@@ -48,10 +220,40 @@ public class ApiController {
                 "count", engine.getRegisteredRequestTypes().size()));
     }
 
-    /** GET /api/v1/status - Get recent handler execution states. */
+    /** GET /api/v1/status - Most recent handler execution states, newest first (default 100, max 1000). */
     @GetMapping("/status")
-    public ResponseEntity<List<HandlerState>> getStatus() {
-        return ResponseEntity.ok(engine.getRecentStates());
+    public ResponseEntity<List<HandlerState>> getStatus(
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(engine.getHistoryStore().query(HistoryQuery.latest(limit)).items());
+    }
+
+    /**
+     * GET /api/v1/history - Paginated, filterable execution history (live and spilled), newest first.
+     * {@code from}/{@code to} are ISO-8601 instants on the time the request was queued.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<HistoryPage> getHistory(
+            @RequestParam(value = "request_type", required = false) String requestType,
+            @RequestParam(value = "user", required = false) String user,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(engine.getHistoryStore().query(
+                new HistoryQuery(requestType, user, status, from, to, offset, limit)));
+    }
+
+    /** GET /api/v1/history/{handlerId} - One execution by handler id. */
+    @GetMapping("/history/{handlerId}")
+    public ResponseEntity<HandlerState> getExecution(@PathVariable("handlerId") String handlerId) {
+        return ResponseEntity.of(engine.getHistoryStore().findByHandlerId(handlerId));
+    }
+
+    /** GET /api/v1/history/request/{requestId} - One execution by request id. */
+    @GetMapping("/history/request/{requestId}")
+    public ResponseEntity<HandlerState> getExecutionByRequest(@PathVariable("requestId") String requestId) {
+        return ResponseEntity.of(engine.getHistoryStore().findByRequestId(requestId));
     }
 
     /** POST /api/v1/reload - Reload handler configurations. */
@@ -67,6 +269,6 @@ public class ApiController {
         return ResponseEntity.ok(Map.of(
                 "status", "UP",
                 "handlers", engine.getRegisteredRequestTypes().size(),
-                "recent_executions", engine.getRecentStates().size()));
+                "recent_executions", engine.getRecentStateCount()));
     }
 }
@@ -49,7 +49,7 @@ public class ClusterController {
         clusterService.receiveHeartbeat(peerNode);
         // Update self metrics before responding
         clusterService.updateSelfMetrics(
-                executionEngine.getRecentStates().size(),
+                executionEngine.getRecentStateCount(),
                 clusterService.getTotalRequestsReceived());
         return ResponseEntity.ok(clusterService.getSelf());
     }
@@ -91,7 +91,7 @@ public class ClusterController {
     public String clusterMonitoring(Model model) {
         // Update self metrics
         clusterService.updateSelfMetrics(
-                executionEngine.getRecentStates().size(),
+                executionEngine.getRecentStateCount(),
                 clusterService.getTotalRequestsReceived());
 
         model.addAttribute("activePage", "cluster");
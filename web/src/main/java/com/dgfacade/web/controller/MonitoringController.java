@@ -49,10 +49,7 @@ public class MonitoringController {
 
         HandlerState state = null;
         try {
-            state = engine.getRecentStates().stream()
-                    .filter(s -> s != null && handlerId.equals(s.getHandlerId()))
-                    .findFirst()
-                    .orElse(null);
+            state = engine.findState(handlerId).orElse(null);
         } catch (Exception e) {
             log.warn("Error searching handler states for {}: {}", handlerId, e.getMessage());
         }
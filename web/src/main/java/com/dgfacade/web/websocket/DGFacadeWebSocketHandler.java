@@ -9,6 +9,7 @@ import com.dgfacade.common.model.DGRequest;
 import com.dgfacade.common.model.DGResponse;
 import com.dgfacade.common.util.JsonUtil;
 import com.dgfacade.server.engine.ExecutionEngine;
+import com.dgfacade.server.engine.StreamingDelivery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -17,12 +18,14 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket handler for DGFacade.
  * Accepts DGRequest JSON over WebSocket, submits to the execution engine,
- * and sends DGResponse back. Supports streaming handlers sending multiple updates.
+ * and sends DGResponse back. Updates of streaming handlers are sent as they arrive
+ * (through the engine's bounded {@link StreamingDelivery} buffer), followed by the final response.
  */
 @Component
 public class DGFacadeWebSocketHandler extends TextWebSocketHandler {
@@ -44,21 +47,37 @@ public class DGFacadeWebSocketHandler extends TextWebSocketHandler {
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
         try {
-            DGRequest request = JsonUtil.fromJson(message.getPayload(), DGRequest.class);
+            DGRequest request = JsonUtil.readRequest(message.getPayload());
             request.setSourceChannel("WebSocket");
+            if (request.getRequestId() == null || request.getRequestId().isBlank()) {
+                request.setRequestId(UUID.randomUUID().toString());
+            }
 
-            engine.submit(request).thenAccept(response -> {
-                try {
-                    session.sendMessage(new TextMessage(JsonUtil.toJson(response)));
-                } catch (IOException e) {
-                    log.error("Failed to send WebSocket response", e);
-                }
-            });
+            // Streaming updates go to this session; the final response follows the last of them
+            StreamingDelivery.Subscription subscription = engine.getStreamingDelivery()
+                    .subscribe(request.getRequestId(), update -> send(session, update));
+            if (subscription == null) {
+                send(session, DGResponse.error(request.getRequestId(),
+                        "A request with request_id '" + request.getRequestId() + "' is already streaming"));
+                return;
+            }
+            engine.submit(request)
+                    .thenCompose(response -> subscription.drained().thenApply(v -> response))
+                    .whenComplete((response, error) -> {
+                        subscription.close();
+                        DGResponse last = response != null ? response
+                                : DGResponse.error(request.getRequestId(), "Internal error: " + error.getMessage());
+                        try {
+                            send(session, last);
+                        } catch (IOException | IllegalStateException e) {
+                            log.error("Failed to send WebSocket response", e);
+                        }
+                    });
         } catch (Exception e) {
             log.error("WebSocket message handling error", e);
             try {
                 DGResponse error = DGResponse.error("unknown", "Invalid request: " + e.getMessage());
-                session.sendMessage(new TextMessage(JsonUtil.toJson(error)));
+                session.sendMessage(new TextMessage(JsonUtil.writeResponse(error)));
             } catch (IOException ex) {
                 log.error("Failed to send error response", ex);
             }
@@ -75,10 +94,18 @@ public class DGFacadeWebSocketHandler extends TextWebSocketHandler {
         WebSocketSession session = sessions.get(sessionId);
         if (session != null && session.isOpen()) {
             try {
-                session.sendMessage(new TextMessage(JsonUtil.toJson(response)));
+                send(session, response);
             } catch (IOException e) {
                 log.error("Failed to send to session {}", sessionId, e);
             }
         }
     }
+
+    /** Sessions are not safe for concurrent sends; responses of several requests may interleave. */
+    private static void send(WebSocketSession session, DGResponse response) throws IOException {
+        String json = JsonUtil.writeResponse(response);
+        synchronized (session) {
+            session.sendMessage(new TextMessage(json));
+        }
+    }
 }